@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,7 +12,13 @@
  ******************************************************************************/
 package org.eclipse.kura.message.store.provider;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 
 import org.eclipse.kura.KuraStoreException;
@@ -48,6 +54,38 @@ public interface MessageStore {
     public int store(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException;
 
+    /**
+     * Inserts multiple messages in the store. The implementation must set the
+     * value of the <code>createdOn</code> parameter of each message to the current
+     * time.
+     * <br>
+     * Only the <code>topic</code>, <code>payload</code>, <code>QoS</code>,
+     * <code>retain</code> and <code>priority</code> parameters of the provided
+     * messages are taken into account, the other parameters, including the
+     * identifier, are ignored.
+     * <br>
+     * Implementations should insert all messages in a single transaction, the
+     * default implementation calls
+     * {@link MessageStore#store(String, byte[], int, boolean, int)} for each
+     * message.
+     * 
+     * @param messages the messages to be inserted.
+     * @return the identifiers of the stored messages, in the same order as the
+     *         provided list.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default List<Integer> store(List<StoredMessage> messages) throws KuraStoreException {
+        final List<Integer> result = new ArrayList<>(messages.size());
+
+        for (final StoredMessage message : messages) {
+            result.add(store(message.getTopic(), message.getPayload(), message.getQos(), message.isRetain(),
+                    message.getPriority()));
+        }
+
+        return result;
+    }
+
     /**
      * Sets the value of the <code>publishedOn</code> parameter to the current time.
      * <br>
@@ -102,6 +140,92 @@ public interface MessageStore {
      */
     public Optional<StoredMessage> getNextMessage() throws KuraStoreException;
 
+    /**
+     * Gets up to <code>maxCount</code> messages that should be published, in the
+     * order in which they should be published.
+     * 
+     * The returned list must contain the messages that would be returned by
+     * subsequent calls to {@link MessageStore#getNextMessage()} if each returned
+     * message was marked as published before the next call, in the same order.
+     * <br>
+     * The default implementation returns at most the message provided by
+     * {@link MessageStore#getNextMessage()}, implementations should override this
+     * method to fetch more than one message with a single query.
+     *
+     * @param maxCount the maximum number of messages to return.
+     * @return the next messages that should be published, the list is empty if no
+     *         message needs to be published.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default List<StoredMessage> getNextMessages(int maxCount) throws KuraStoreException {
+        if (maxCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        final Optional<StoredMessage> next = getNextMessage();
+
+        if (next.isPresent()) {
+            return Collections.singletonList(next.get());
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Sets the value of the <code>publishedOn</code> parameter to the current time
+     * for all the given messages.
+     * <br>
+     * This method must be used for messages with QoS = 0. Implementations should
+     * update all messages in a single transaction.
+     *
+     * @param msgIds the message identifiers.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default void markAsPublished(Collection<Integer> msgIds) throws KuraStoreException {
+        for (final Integer msgId : msgIds) {
+            markAsPublished(msgId);
+        }
+    }
+
+    /**
+     * Sets the value of the <code>publishedOn</code> parameter to the current time
+     * for all the messages whose identifier is a key of the provided map, and
+     * associates the corresponding {@link DataTransportToken} with each message.
+     * <br>
+     * This method must be used for messages with QoS >= 1. Implementations should
+     * update all messages in a single transaction.
+     *
+     * @param dataTransportTokens a map associating the message identifiers with
+     *                            their {@link DataTransportToken}.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default void markAsPublished(Map<Integer, DataTransportToken> dataTransportTokens)
+            throws KuraStoreException {
+        for (final Entry<Integer, DataTransportToken> e : dataTransportTokens.entrySet()) {
+            markAsPublished(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Sets the value of the <code>confirmedOn</code> parameter to the current time
+     * for all the given messages.
+     * <br>
+     * This method must be used for messages with QoS >= 1. Implementations should
+     * update all messages in a single transaction.
+     *
+     * @param msgIds the message identifiers.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default void markAsConfirmed(Collection<Integer> msgIds) throws KuraStoreException {
+        for (final Integer msgId : msgIds) {
+            markAsConfirmed(msgId);
+        }
+    }
+
     /**
      * Retrieves the message with the given identifier from the store.
      * 
@@ -122,6 +246,51 @@ public interface MessageStore {
      */
     public int getMessageCount() throws KuraStoreException;
 
+    /**
+     * Returns the number of messages currently in the store, as tracked by a
+     * counter that the implementation maintains incrementally when messages are
+     * stored or deleted, without querying the underlying storage.
+     * <br>
+     * The counter should be initialized when the store is opened and the value
+     * must be consistent with {@link MessageStore#getMessageCount()} as long as
+     * the storage is only modified through this {@link MessageStore} instance.
+     * <br>
+     * The default implementation returns the result of
+     * {@link MessageStore#getMessageCount()}.
+     * 
+     * @return the message count.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default int getCachedMessageCount() throws KuraStoreException {
+        return getMessageCount();
+    }
+
+    /**
+     * Returns the number of messages whose <code>publishedOn</code> parameter is
+     * not set, grouped by message priority.
+     * <br>
+     * The default implementation counts the messages returned by
+     * {@link MessageStore#getUnpublishedMessages()}, implementations should
+     * override this method if the count can be computed without loading the
+     * messages.
+     *
+     * @return a map associating each priority with the number of unpublished
+     *         messages with that priority, priorities without unpublished
+     *         messages can be omitted.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default Map<Integer, Integer> getUnpublishedMessageCountByPriority() throws KuraStoreException {
+        final Map<Integer, Integer> result = new HashMap<>();
+
+        for (final StoredMessage message : getUnpublishedMessages()) {
+            result.merge(message.getPriority(), 1, Integer::sum);
+        }
+
+        return result;
+    }
+
     /**
      * Returns the list of messages whose <code>publishedOn</code> parameter is not
      * set.
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.wire;
+
+import static java.util.Objects.requireNonNull;
+
+import org.eclipse.kura.annotation.Immutable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * The Class {@link WireDispatchStatistics} reports how the {@link WireEnvelope}s received by a Wire Component are
+ * being dispatched by its {@link WireSupport}.
+ *
+ * @see WireHelperService#getDispatchStatistics(String)
+ *
+ * @noextend This class is not intended to be extended by clients.
+ * @since 3.0
+ */
+@Immutable
+@ProviderType
+public final class WireDispatchStatistics {
+
+    private final String dispatchMode;
+    private final int pendingEnvelopeCount;
+    private final long droppedEnvelopeCount;
+
+    /**
+     * Instantiates a new {@link WireDispatchStatistics}.
+     *
+     * @param dispatchMode
+     *            the value of the receiver.dispatch.mode property in use
+     * @param pendingEnvelopeCount
+     *            the number of envelopes waiting to be delivered to the Wire Component
+     * @param droppedEnvelopeCount
+     *            the number of envelopes discarded because the receiver queue was full
+     * @throws NullPointerException
+     *             if the dispatch mode is null
+     */
+    public WireDispatchStatistics(final String dispatchMode, final int pendingEnvelopeCount,
+            final long droppedEnvelopeCount) {
+        requireNonNull(dispatchMode, "Dispatch mode cannot be null");
+
+        this.dispatchMode = dispatchMode;
+        this.pendingEnvelopeCount = pendingEnvelopeCount;
+        this.droppedEnvelopeCount = droppedEnvelopeCount;
+    }
+
+    /**
+     * Gets the dispatch mode, either {@code pool} or {@code ordered}.
+     *
+     * @return the dispatch mode
+     */
+    public String getDispatchMode() {
+        return this.dispatchMode;
+    }
+
+    /**
+     * Gets the number of envelopes waiting to be delivered to the Wire Component. Always zero if the dispatch mode
+     * is {@code pool}.
+     *
+     * @return the number of pending envelopes
+     */
+    public int getPendingEnvelopeCount() {
+        return this.pendingEnvelopeCount;
+    }
+
+    /**
+     * Gets the number of envelopes discarded because the receiver queue was full. Always zero if the dispatch mode
+     * is {@code pool}.
+     *
+     * @return the number of dropped envelopes
+     */
+    public long getDroppedEnvelopeCount() {
+        return this.droppedEnvelopeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "WireDispatchStatistics [dispatchMode=" + this.dispatchMode + ", pendingEnvelopeCount="
+                + this.pendingEnvelopeCount + ", droppedEnvelopeCount=" + this.droppedEnvelopeCount + "]";
+    }
+}
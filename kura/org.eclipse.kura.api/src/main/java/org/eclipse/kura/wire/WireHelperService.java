@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
  ******************************************************************************/
 package org.eclipse.kura.wire;
 
+import java.util.Optional;
+
 import org.osgi.annotation.versioning.ProviderType;
 import org.osgi.framework.ServiceReference;
 
@@ -92,6 +94,12 @@ public interface WireHelperService {
 
     /**
      * Returns a Wire Support instance of the provided wire component
+     * <br>
+     * <br>
+     * The delivery of the received envelopes is configured by the {@code receiver.dispatch.mode},
+     * {@code receiver.queue.capacity} and {@code receiver.queue.overflow.policy} properties of the Wire Component
+     * service, if present. These properties are applied to any Wire Component and are applied again when the service
+     * properties are modified, the Wire Component does not need to create a new Wire Support.
      *
      * @param wireComponent
      *            the wire component
@@ -104,4 +112,18 @@ public interface WireHelperService {
      */
     public WireSupport newWireSupport(WireComponent wireComponent, ServiceReference<WireComponent> wireComponentRef);
 
+    /**
+     * Returns the statistics about the dispatch of the envelopes received by the Wire Component with the provided
+     * Kura Service PID (kura.service.pid).
+     *
+     * @param wireComponentPid
+     *            the Kura Service PID of the Wire Component
+     * @return the dispatch statistics or an empty {@link Optional} if no {@link WireSupport} created by this service
+     *         is associated with the provided Wire Component
+     * @throws NullPointerException
+     *             if the argument is null
+     * @since 3.0
+     */
+    public Optional<WireDispatchStatistics> getDispatchStatistics(String wireComponentPid);
+
 }
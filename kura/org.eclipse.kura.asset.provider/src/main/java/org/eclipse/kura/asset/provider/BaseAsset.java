@@ -23,6 +23,8 @@ import static org.eclipse.kura.channel.ChannelType.READ_WRITE;
 import static org.eclipse.kura.channel.ChannelType.WRITE;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,6 +60,7 @@ import org.eclipse.kura.core.configuration.metatype.Tocd;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
 import org.eclipse.kura.internal.asset.provider.BaseAssetConfiguration;
+import org.eclipse.kura.internal.asset.provider.ChannelReadCoalescer;
 import org.eclipse.kura.internal.asset.provider.DriverTrackerCustomizer;
 import org.eclipse.kura.internal.asset.provider.helper.ChannelRecordHelper;
 import org.eclipse.kura.type.DataType;
@@ -83,6 +86,12 @@ import org.slf4j.LoggerFactory;
  * the driver instance PID (kura.service.pid) to be consumed by this asset</li>
  * <li>A value associated with <b><i>asset.desc</i></b> key denotes the asset
  * description</li>
+ * <li>A value associated with <b><i>read.cache.ttl</i></b> key denotes the
+ * time in milliseconds for which the values read from the driver are reused
+ * by subsequent reads, 0 disables the cache</li>
+ * <li>A value associated with <b><i>read.coalescing</i></b> key denotes
+ * whether concurrent reads of the same channels should be merged into a
+ * single driver read</li>
  * <li>[name#property]</li> where name is a string denoting the channel's unique
  * name and the {@code [property]} denotes the protocol specific properties.
  * The name of a channel must be unique in the channels configurations of an
@@ -152,6 +161,8 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
     private final AtomicReference<DriverState> driverState = new AtomicReference<>();
 
+    private ChannelReadCoalescer readCoalescer = new ChannelReadCoalescer(0, false);
+
     /**
      * OSGi service component callback while activation.
      *
@@ -185,6 +196,8 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         }
         logger.info("loading asset configuration...done in {} ms", System.currentTimeMillis() - start);
 
+        this.readCoalescer = new ChannelReadCoalescer(this.config.getReadCacheTtl(), this.config.isReadCoalescing());
+
         reopenDriverTracker(this.config.getAssetConfiguration().getDriverPid());
     }
 
@@ -240,6 +253,7 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
         final DriverState newState = new DriverState(driver);
         final DriverState oldState = this.driverState.getAndSet(newState);
+        this.readCoalescer.invalidate();
 
         this.executor.runConfig(() -> {
             if (oldState != null) {
@@ -339,25 +353,44 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         }
 
         final BaseAssetConfiguration conf = this.config;
-
-        final List<ChannelRecord> channelRecords = this.executor.runIO(() -> {
-            final List<ChannelRecord> records;
-            final PreparedRead preparedRead = state.getPreparedRead();
-            if (preparedRead != null) {
-                records = preparedRead.execute();
-            } else {
-                records = conf.getAllReadRecords();
-                if (!records.isEmpty()) {
-                    state.getDriver().read(records);
-                }
-            }
-            return records;
-        }, this.config.getRequestTimeOut(), TimeUnit.SECONDS);
+        final ChannelReadCoalescer coalescer = this.readCoalescer;
+
+        final List<ChannelRecord> channelRecords = coalescer.readAll(getReadChannelNames(conf, coalescer),
+                () -> this.executor.runIO(() -> {
+                    final List<ChannelRecord> records;
+                    final PreparedRead preparedRead = state.getPreparedRead();
+                    if (preparedRead != null) {
+                        records = preparedRead.execute();
+                    } else {
+                        records = conf.getAllReadRecords();
+                        if (!records.isEmpty()) {
+                            state.getDriver().read(records);
+                        }
+                    }
+                    return records;
+                }, conf.getRequestTimeOut(), TimeUnit.SECONDS));
 
         logger.debug("Reading asset channels...Done");
         return getFinalRecords(channelRecords, this.config.getAssetConfiguration().getAssetChannels());
     }
 
+    private static Collection<String> getReadChannelNames(final BaseAssetConfiguration conf,
+            final ChannelReadCoalescer coalescer) {
+        if (!coalescer.isEnabled()) {
+            return Collections.emptyList();
+        }
+
+        final List<String> channelNames = new ArrayList<>();
+
+        for (final Channel channel : conf.getAssetConfiguration().getAssetChannels().values()) {
+            if (channel.isEnabled() && (channel.getType() == READ || channel.getType() == READ_WRITE)) {
+                channelNames.add(channel.getName());
+            }
+        }
+
+        return channelNames;
+    }
+
     private void validateChannel(final Channel channel, final EnumSet<ChannelType> allowedTypes,
             final String typeNotAllowedMessage) {
         if (channel == null) {
@@ -406,10 +439,12 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         }
 
         if (!validRecords.isEmpty()) {
-            this.executor.runIO(() -> {
-                state.getDriver().read(validRecords);
+            final int requestTimeOut = this.config.getRequestTimeOut();
+
+            this.readCoalescer.read(validRecords, records -> this.executor.runIO(() -> {
+                state.getDriver().read(records);
                 return null;
-            }, this.config.getRequestTimeOut(), TimeUnit.SECONDS);
+            }, requestTimeOut, TimeUnit.SECONDS));
         }
 
         logger.debug("Reading asset channels...Done");
@@ -655,10 +690,14 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         }
 
         if (!validRecords.isEmpty()) {
-            this.executor.runIO(() -> {
-                state.getDriver().write(validRecords);
-                return null;
-            }, this.config.getRequestTimeOut(), TimeUnit.SECONDS);
+            try {
+                this.executor.runIO(() -> {
+                    state.getDriver().write(validRecords);
+                    return null;
+                }, this.config.getRequestTimeOut(), TimeUnit.SECONDS);
+            } finally {
+                this.readCoalescer.invalidate();
+            }
         }
         logger.debug("Writing to channels...Done");
     }
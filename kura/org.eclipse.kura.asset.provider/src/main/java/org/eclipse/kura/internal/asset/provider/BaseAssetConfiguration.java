@@ -67,6 +67,8 @@ public final class BaseAssetConfiguration {
     private final boolean hasReadChannels;
     private final String kuraServicePid;
     private final int requestTimeOut;
+    private final long readCacheTtl;
+    private final boolean readCoalescing;
 
     public BaseAssetConfiguration(final Tocd baseOcd, final ComponentContext context,
             final Map<String, Object> properties) {
@@ -76,6 +78,16 @@ public final class BaseAssetConfiguration {
         } else {
             this.requestTimeOut = Integer.valueOf(this.getProperties().get("request.timeout").toString());
         }
+        if (this.properties.get("read.cache.ttl") == null) {
+            this.readCacheTtl = 0;
+        } else {
+            this.readCacheTtl = Long.parseLong(this.getProperties().get("read.cache.ttl").toString());
+        }
+        if (this.properties.get("read.coalescing") == null) {
+            this.readCoalescing = false;
+        } else {
+            this.readCoalescing = Boolean.parseBoolean(this.getProperties().get("read.coalescing").toString());
+        }
         this.assetConfiguration = new AssetConfiguration(getDescription(properties), getDriverPid(properties),
                 retreiveChannelList(properties));
         this.hasReadChannels = !getAllReadRecords().isEmpty();
@@ -98,6 +110,14 @@ public final class BaseAssetConfiguration {
         return requestTimeOut;
     }
 
+    public long getReadCacheTtl() {
+        return this.readCacheTtl;
+    }
+
+    public boolean isReadCoalescing() {
+        return this.readCoalescing;
+    }
+
     public boolean hasReadChannels() {
         return this.hasReadChannels;
     }
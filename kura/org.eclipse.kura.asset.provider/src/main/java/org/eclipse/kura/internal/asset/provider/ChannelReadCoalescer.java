@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import static org.eclipse.kura.channel.ChannelFlag.FAILURE;
+import static org.eclipse.kura.channel.ChannelFlag.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.type.TypedValue;
+
+/**
+ * Reduces the number of reads performed on the field device when the channels of an asset are read by multiple
+ * clients at the same time, for example by a Wire Asset timer and by ad hoc REST or cloudlet requests.
+ * <br>
+ * If the cache is enabled, the raw values returned by the driver are retained for the configured time to live, and
+ * requests for a channel read more recently than that are served from the cache. If coalescing is enabled, a request
+ * for a channel that is currently being read by another request waits for that read to complete and reuses its result
+ * instead of performing a new one. Only the channels that are neither cached nor in flight are read from the driver.
+ * <br>
+ * The values are stored as returned by the driver, before any scale and offset is applied, and are copied into the
+ * records of each request. Failed reads are never cached.
+ */
+public final class ChannelReadCoalescer {
+
+    private final long cacheTtlNanos;
+    private final boolean coalescing;
+
+    private final Map<String, Result> cache = new HashMap<>();
+    private final Map<String, Flight> inFlight = new HashMap<>();
+    private long generation;
+
+    /**
+     * Creates a new coalescer.
+     *
+     * @param cacheTtlMillis
+     *            the time to live of the cached values in milliseconds, 0 or a negative value disables the cache
+     * @param coalescing
+     *            {@code true} if concurrent reads of the same channel should be merged
+     */
+    public ChannelReadCoalescer(final long cacheTtlMillis, final boolean coalescing) {
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, cacheTtlMillis));
+        this.coalescing = coalescing;
+    }
+
+    public boolean isEnabled() {
+        return this.cacheTtlNanos > 0 || this.coalescing;
+    }
+
+    /**
+     * Fills the provided records, reading from the driver only the channels whose value is not cached and that are
+     * not being read by a concurrent request.
+     *
+     * @param records
+     *            the records to be filled, one for each channel
+     * @param reader
+     *            performs the actual read on the driver
+     * @throws KuraException
+     *             if the read performed by this request fails
+     */
+    public void read(final List<ChannelRecord> records, final ChannelReader reader) throws KuraException {
+        if (!isEnabled()) {
+            reader.read(records);
+            return;
+        }
+
+        final Flight flight = new Flight();
+        final List<ChannelRecord> toRead = new ArrayList<>(records.size());
+        final Map<ChannelRecord, Flight> joined = new IdentityHashMap<>();
+
+        synchronized (this) {
+            final long now = System.nanoTime();
+            flight.generation = this.generation;
+
+            for (final ChannelRecord channelRecord : records) {
+                final String channelName = channelRecord.getChannelName();
+
+                final Result cached = getCached(channelName, now);
+                if (cached != null) {
+                    cached.copyTo(channelRecord);
+                    continue;
+                }
+
+                final Flight other = this.coalescing ? this.inFlight.get(channelName) : null;
+                if (other != null) {
+                    joined.put(channelRecord, other);
+                    continue;
+                }
+
+                toRead.add(channelRecord);
+                start(channelName, flight);
+            }
+        }
+
+        if (!toRead.isEmpty()) {
+            run(flight, () -> {
+                reader.read(toRead);
+                return toRead;
+            });
+        }
+
+        for (final Entry<ChannelRecord, Flight> e : joined.entrySet()) {
+            e.getValue().await(e.getKey());
+        }
+    }
+
+    /**
+     * Performs a read of all the provided channels, typically using a prepared read. The cache is not used to serve
+     * this read, but the results are made available to the concurrent requests and are cached.
+     *
+     * @param channelNames
+     *            the names of the channels that are going to be read
+     * @param reader
+     *            performs the actual read on the driver
+     * @return the records returned by the reader
+     * @throws KuraException
+     *             if the read fails
+     */
+    public List<ChannelRecord> readAll(final Collection<String> channelNames, final ChannelRecordsReader reader)
+            throws KuraException {
+        if (!isEnabled()) {
+            return reader.read();
+        }
+
+        final Flight flight = new Flight();
+
+        synchronized (this) {
+            flight.generation = this.generation;
+            for (final String channelName : channelNames) {
+                if (!this.coalescing || !this.inFlight.containsKey(channelName)) {
+                    start(channelName, flight);
+                }
+            }
+        }
+
+        return run(flight, reader);
+    }
+
+    /**
+     * Discards the cached values, also the ones being read by the requests in flight. Must be called when the values
+     * on the field device are changed by this asset.
+     */
+    public synchronized void invalidate() {
+        this.cache.clear();
+        this.generation++;
+    }
+
+    private Result getCached(final String channelName, final long now) {
+        if (this.cacheTtlNanos <= 0) {
+            return null;
+        }
+
+        final Result cached = this.cache.get(channelName);
+
+        if (cached == null) {
+            return null;
+        }
+        if (now - cached.nanos >= this.cacheTtlNanos) {
+            this.cache.remove(channelName);
+            return null;
+        }
+        return cached;
+    }
+
+    private void start(final String channelName, final Flight flight) {
+        if (this.coalescing) {
+            this.inFlight.put(channelName, flight);
+        }
+    }
+
+    private List<ChannelRecord> run(final Flight flight, final ChannelRecordsReader reader) throws KuraException {
+        List<ChannelRecord> result = null;
+        Exception failure = null;
+
+        try {
+            result = reader.read();
+            return result;
+        } catch (KuraException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(flight, result, failure);
+        }
+    }
+
+    private synchronized void complete(final Flight flight, final List<ChannelRecord> records,
+            final Exception failure) {
+        final long now = System.nanoTime();
+
+        if (records != null) {
+            for (final ChannelRecord channelRecord : records) {
+                final String channelName = channelRecord.getChannelName();
+                final Result result = new Result(channelRecord, now);
+
+                flight.results.put(channelName, result);
+
+                if (this.cacheTtlNanos > 0 && flight.generation == this.generation && result.isSuccess()) {
+                    this.cache.put(channelName, result);
+                }
+            }
+        }
+
+        this.inFlight.values().removeIf(f -> f == flight);
+
+        flight.failure = failure;
+        flight.done = true;
+        notifyAll();
+    }
+
+    /**
+     * Performs a read of the provided records on the driver.
+     */
+    @FunctionalInterface
+    public interface ChannelReader {
+
+        public void read(List<ChannelRecord> records) throws KuraException;
+    }
+
+    /**
+     * Performs a read on the driver and returns the resulting records.
+     */
+    @FunctionalInterface
+    public interface ChannelRecordsReader {
+
+        public List<ChannelRecord> read() throws KuraException;
+    }
+
+    private final class Flight {
+
+        private final Map<String, Result> results = new HashMap<>();
+        private long generation;
+        private boolean done;
+        private Exception failure;
+
+        void await(final ChannelRecord channelRecord) {
+            final Result result;
+
+            synchronized (ChannelReadCoalescer.this) {
+                while (!this.done) {
+                    try {
+                        ChannelReadCoalescer.this.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        setFailure(channelRecord, e);
+                        return;
+                    }
+                }
+                result = this.results.get(channelRecord.getChannelName());
+            }
+
+            if (result != null) {
+                result.copyTo(channelRecord);
+            } else if (this.failure != null) {
+                setFailure(channelRecord, this.failure);
+            } else {
+                setFailure(channelRecord, new IllegalStateException("Channel not read"));
+            }
+        }
+
+        private void setFailure(final ChannelRecord channelRecord, final Exception e) {
+            channelRecord.setChannelStatus(new ChannelStatus(FAILURE, e.getMessage(), e));
+            channelRecord.setTimestamp(System.currentTimeMillis());
+        }
+    }
+
+    private static final class Result {
+
+        private final TypedValue<?> value;
+        private final ChannelStatus status;
+        private final long timestamp;
+        private final long nanos;
+
+        Result(final ChannelRecord channelRecord, final long nanos) {
+            this.value = channelRecord.getValue();
+            this.status = channelRecord.getChannelStatus();
+            this.timestamp = channelRecord.getTimestamp();
+            this.nanos = nanos;
+        }
+
+        boolean isSuccess() {
+            return this.status != null && this.status.getChannelFlag() == SUCCESS;
+        }
+
+        void copyTo(final ChannelRecord channelRecord) {
+            channelRecord.setValue(this.value);
+            channelRecord.setChannelStatus(this.status);
+            channelRecord.setTimestamp(this.timestamp);
+        }
+    }
+}
@@ -43,6 +43,8 @@ import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.connection.listener.ConnectionListener;
 import org.eclipse.kura.core.data.store.MessageStoreState;
+import org.eclipse.kura.core.internal.data.PublishLanes;
+import org.eclipse.kura.core.internal.data.PublishLanes.Lane;
 import org.eclipse.kura.core.internal.data.TokenBucket;
 import org.eclipse.kura.data.DataService;
 import org.eclipse.kura.data.DataTransportService;
@@ -97,6 +99,8 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
 
     private Map<DataTransportToken, Integer> inFlightMsgIds = new ConcurrentHashMap<>();
 
+    private final PublishLanes publishLanes = new PublishLanes();
+
     private ScheduledExecutorService congestionExecutor;
     private ScheduledFuture<?> congestionFuture;
 
@@ -218,9 +222,12 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
     private synchronized void startDbStore() {
         try {
             List<StoredMessage> inFlightMsgs = Collections.emptyList();
+            Map<Integer, Integer> unpublishedMsgCounts = Collections.emptyMap();
             // The initial list of in-flight messages
             if (DataServiceImpl.this.storeState.isPresent()) {
                 inFlightMsgs = this.storeState.get().getOrOpenMessageStore().getInFlightMessages();
+                unpublishedMsgCounts = this.storeState.get().getOrOpenMessageStore()
+                        .getUnpublishedMessageCountByPriority();
             }
 
             // The map associating a DataTransportToken with a message ID
@@ -242,6 +249,9 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                             message.getTopic(), message.getId(), token.get().getMessageId());
                 }
             }
+
+            this.publishLanes.reset(unpublishedMsgCounts != null ? unpublishedMsgCounts : Collections.emptyMap(),
+                    inFlightMsgs != null ? inFlightMsgs : Collections.emptyList());
         } catch (KuraStoreException e) {
             logger.error("Failed to start store", e);
             DataServiceImpl.this.disconnectDataTransportAndLog(e);
@@ -414,6 +424,7 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             try {
                 this.storeState.get().getOrOpenMessageStore().unpublishAllInFlighMessages();
                 this.inFlightMsgIds.clear();
+                this.publishLanes.inFlightMessagesUnpublished();
             } catch (KuraStoreException e) {
                 logger.error("Failed to unpublish in-flight messages", e);
                 DataServiceImpl.this.disconnectDataTransportAndLog(e);
@@ -423,6 +434,7 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             try {
                 this.storeState.get().getOrOpenMessageStore().dropAllInFlightMessages();
                 this.inFlightMsgIds.clear();
+                this.publishLanes.inFlightMessagesDropped();
             } catch (KuraStoreException e) {
                 logger.error("Failed to drop in-flight messages", e);
                 DataServiceImpl.this.disconnectDataTransportAndLog(e);
@@ -489,13 +501,14 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
 
     @Override
     // It's very important that the publishInternal and messageConfirmed methods are
-    // synchronized
+    // synchronized on the same monitor
     public synchronized void onMessageConfirmed(DataTransportToken token) {
 
         logger.debug("Confirmed message with MQTT message ID: {} on session ID: {}", token.getMessageId(),
                 token.getSessionId());
 
         Integer messageId = this.inFlightMsgIds.remove(token);
+        this.publishLanes.messageConfirmed(token);
         if (messageId == null) {
             logger.info(
                     "Confirmed message published with MQTT message ID: {} not tracked in the map of in-flight messages",
@@ -625,7 +638,7 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                     // We want to publish those message even if the DB is full, so allow their
                     // storage.
                     if (priority != 0 && priority != 1) {
-                        int count = currentStore.getMessageCount();
+                        int count = currentStore.getCachedMessageCount();
                         logger.debug("Store message count: {}", count);
                         if (count >= this.dataServiceOptions.getStoreCapacity()) {
                             logger.error("Store capacity exceeded");
@@ -637,6 +650,8 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                     logger.info("Stored message on topic: {}, priority: {}", topic, priority);
                 }
 
+                this.publishLanes.messageQueued(priority);
+
                 signalPublisher();
 
                 return messageId;
@@ -913,6 +928,8 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
 
     private final class PublishManager implements Runnable {
 
+        private boolean batchThrottled;
+
         @Override
         public void run() {
             Thread.currentThread().setName("DataServiceImpl:Submit");
@@ -923,19 +940,29 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                 if (DataServiceImpl.this.dataTransportService.isConnected()) {
                     try {
                         if (DataServiceImpl.this.storeState.isPresent()) {
-                            final Optional<StoredMessage> message = DataServiceImpl.this.storeState.get()
-                                    .getOrOpenMessageStore().getNextMessage();
+                            final MessageStore store = DataServiceImpl.this.storeState.get().getOrOpenMessageStore();
+                            final int batchSize = DataServiceImpl.this.dataServiceOptions.getStorePublishBatchSize();
 
-                            if (message.isPresent()) {
-                                checkInFlightMessages(message.get());
+                            if (batchSize > 1) {
+                                messagePublished = publishMessageBatch(store, batchSize);
 
-                                if (DataServiceImpl.this.dataServiceOptions.isRateLimitEnabled()
-                                        && message.get().getPriority() >= 5) {
-                                    messagePublished = publishMessageTokenBucket(message.get());
+                                if (!messagePublished && this.batchThrottled) {
                                     sleepingTime = DataServiceImpl.this.throttle.getTokenWaitTime();
-                                } else {
-                                    publishMessageUnbound(message.get());
-                                    messagePublished = true;
+                                }
+                            } else {
+                                final Optional<StoredMessage> message = store.getNextMessage();
+
+                                if (message.isPresent()) {
+                                    checkInFlightMessages(message.get());
+
+                                    if (DataServiceImpl.this.dataServiceOptions.isRateLimitEnabled()
+                                            && Lane.forPriority(message.get().getPriority()) == Lane.BULK) {
+                                        messagePublished = publishMessageTokenBucket(message.get());
+                                        sleepingTime = DataServiceImpl.this.throttle.getTokenWaitTime();
+                                    } else {
+                                        publishMessageUnbound(message.get());
+                                        messagePublished = true;
+                                    }
                                 }
                             }
                         }
@@ -958,9 +985,13 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             logger.debug("Exited publisher loop.");
         }
 
+        // Messages in the control lane are not subject to the in-flight window, so that life-cycle and remote
+        // management messages are not stuck behind application messages waiting for an acknowledgement. They are
+        // still limited by the maximum number of in-flight messages allowed by the transport.
         private void checkInFlightMessages(StoredMessage message) throws KuraTooManyInflightMessagesException {
-            if (message.getQos() > 0 && DataServiceImpl.this.inFlightMsgIds
-                    .size() >= DataServiceImpl.this.dataServiceOptions.getMaxInFlightMessages()) {
+            if (message.getQos() > 0 && Lane.forPriority(message.getPriority()) != Lane.CONTROL
+                    && DataServiceImpl.this.inFlightMsgIds
+                            .size() >= DataServiceImpl.this.dataServiceOptions.getMaxInFlightMessages()) {
                 logger.warn("The configured maximum number of in-flight messages has been reached");
                 throw new KuraTooManyInflightMessagesException("Too many in-flight messages");
             }
@@ -1005,6 +1036,104 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             return false;
         }
 
+        // Publishes up to batchSize messages and updates their state in the store
+        // with a single transaction per QoS class. The batch is interrupted as soon
+        // as the in-flight window is full or the rate limit does not allow to publish
+        // another message, the remaining messages will be fetched again by the next
+        // iteration.
+        private boolean publishMessageBatch(final MessageStore store, final int batchSize) throws KuraException {
+
+            final List<StoredMessage> messages = store.getNextMessages(batchSize);
+            final List<StoredMessage> publishedMessages = new ArrayList<>(messages.size());
+            final List<Integer> publishedMsgIds = new ArrayList<>();
+
+            this.batchThrottled = false;
+
+            try {
+                // The transport can deliver the confirmation of a message as soon as it is published.
+                // onMessageConfirmed holds the DataServiceImpl monitor, holding it until the in-flight messages
+                // of the batch are tracked and marked as published in the store makes sure that their
+                // confirmations are processed afterwards.
+                synchronized (DataServiceImpl.this) {
+                    publishBatch(store, messages, publishedMessages, publishedMsgIds);
+                }
+            } finally {
+                try {
+                    store.markAsPublished(publishedMsgIds);
+                    logger.debug("Published batch of {} messages", publishedMessages.size());
+                } catch (KuraStoreException e) {
+                    DataServiceImpl.this.disconnectDataTransportAndLog(e);
+                }
+
+                // Notify the listeners
+                for (final StoredMessage message : publishedMessages) {
+                    DataServiceImpl.this.dataServiceListeners.onMessagePublished(message.getId(),
+                            message.getTopic());
+                }
+            }
+
+            return !publishedMessages.isEmpty();
+        }
+
+        private void publishBatch(final MessageStore store, final List<StoredMessage> messages,
+                final List<StoredMessage> publishedMessages, final List<Integer> publishedMsgIds)
+                throws KuraException {
+
+            final Map<Integer, DataTransportToken> inFlightMsgTokens = new HashMap<>();
+
+            try {
+                for (final StoredMessage message : messages) {
+                    checkInFlightMessages(message);
+
+                    if (DataServiceImpl.this.dataServiceOptions.isRateLimitEnabled()
+                            && Lane.forPriority(message.getPriority()) == Lane.BULK
+                            && !DataServiceImpl.this.throttle.getToken()) {
+                        this.batchThrottled = true;
+                        break;
+                    }
+
+                    final int msgId = message.getId();
+
+                    logger.debug("Publishing message with ID: {} on topic: {}, priority: {}", msgId,
+                            message.getTopic(), message.getPriority());
+
+                    final DataTransportToken token = DataServiceImpl.this.dataTransportService
+                            .publish(message.getTopic(), message.getPayload(), message.getQos(), message.isRetain());
+
+                    if (token == null) {
+                        publishedMsgIds.add(msgId);
+                    } else {
+                        trackInFlightMessage(token, message);
+                        inFlightMsgTokens.put(msgId, token);
+                    }
+
+                    DataServiceImpl.this.publishLanes.messagePublished(message.getPriority());
+
+                    publishedMessages.add(message);
+                }
+            } finally {
+                try {
+                    store.markAsPublished(inFlightMsgTokens);
+                } catch (KuraStoreException e) {
+                    DataServiceImpl.this.disconnectDataTransportAndLog(e);
+                }
+            }
+        }
+
+        private void trackInFlightMessage(final DataTransportToken token, final StoredMessage message) {
+            final int msgId = message.getId();
+
+            // Check if the token is already tracked in the map (in which case we are in
+            // trouble)
+            Integer trackedMsgId = DataServiceImpl.this.inFlightMsgIds.get(token);
+            if (trackedMsgId != null) {
+                logger.error("Token already tracked: {} - {}", token.getSessionId(), token.getMessageId());
+            }
+
+            DataServiceImpl.this.inFlightMsgIds.put(token, msgId);
+            DataServiceImpl.this.publishLanes.messageInFlight(token, message.getPriority());
+        }
+
         private void handleInFlightCongestion() {
             int timeout = DataServiceImpl.this.dataServiceOptions.getInFlightMessagesCongestionTimeout();
 
@@ -1022,8 +1151,11 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         }
 
         // It's very important that the publishInternal and messageConfirmed methods are
-        // synchronized
-        private synchronized void publishInternal(StoredMessage message) throws KuraException {
+        // synchronized on the same monitor: the transport can deliver the confirmation of
+        // a message as soon as it is published, and the confirmation must be processed only
+        // after the message has been tracked as in-flight and marked as published in the store.
+        // QoS 0 messages are never confirmed, so they are marked as published without holding it.
+        private void publishInternal(StoredMessage message) throws KuraException {
 
             String topic = message.getTopic();
             byte[] payload = message.getPayload();
@@ -1034,7 +1166,25 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             logger.debug("Publishing message with ID: {} on topic: {}, priority: {}", msgId, topic,
                     message.getPriority());
 
-            DataTransportToken token = DataServiceImpl.this.dataTransportService.publish(topic, payload, qos, retain);
+            final DataTransportToken token;
+
+            synchronized (DataServiceImpl.this) {
+                token = DataServiceImpl.this.dataTransportService.publish(topic, payload, qos, retain);
+
+                DataServiceImpl.this.publishLanes.messagePublished(message.getPriority());
+
+                if (token != null) {
+                    recordPublished(message, token);
+                    return;
+                }
+            }
+
+            recordPublished(message, null);
+        }
+
+        private void recordPublished(final StoredMessage message, final DataTransportToken token)
+                throws KuraStoreException {
+            final int msgId = message.getId();
 
             if (DataServiceImpl.this.storeState.isPresent()) {
                 try {
@@ -1042,15 +1192,7 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                         DataServiceImpl.this.storeState.get().getOrOpenMessageStore().markAsPublished(msgId);
                         logger.debug("Published message with ID: {}", msgId);
                     } else {
-
-                        // Check if the token is already tracked in the map (in which case we are in
-                        // trouble)
-                        Integer trackedMsgId = DataServiceImpl.this.inFlightMsgIds.get(token);
-                        if (trackedMsgId != null) {
-                            logger.error("Token already tracked: {} - {}", token.getSessionId(), token.getMessageId());
-                        }
-
-                        DataServiceImpl.this.inFlightMsgIds.put(token, msgId);
+                        trackInFlightMessage(token, message);
                         DataServiceImpl.this.storeState.get().getOrOpenMessageStore().markAsPublished(msgId, token);
                         logger.debug("Published message with ID: {} and MQTT message ID: {}", msgId,
                                 token.getMessageId());
@@ -1063,7 +1205,6 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
             } else {
                 throw new KuraStoreException(MESSAGE_STORE_NOT_CONNECTED_MESSAGE);
             }
-
         }
     }
 
@@ -1083,6 +1224,11 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         result.put("Account", this.dataTransportService.getAccountName());
         result.put("Username", this.dataTransportService.getUsername());
         result.put("Client ID", this.dataTransportService.getClientId());
+        for (final Lane lane : Lane.values()) {
+            result.put("Publish lane " + lane.name().toLowerCase() + " (" + lane.getDescription() + ")",
+                    this.publishLanes.getQueuedCount(lane) + " queued, " + this.publishLanes.getInFlightCount(lane)
+                            + " in-flight");
+        }
         return result;
     }
 
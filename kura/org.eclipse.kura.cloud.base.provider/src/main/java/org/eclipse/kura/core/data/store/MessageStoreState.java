@@ -69,7 +69,15 @@ public class MessageStoreState {
 
     public synchronized MessageStore openMessageStore() throws KuraStoreException {
 
-        final MessageStore result = this.messageStoreProvider.openMessageStore(this.options.getKuraServicePid());
+        final MessageStore opened = this.messageStoreProvider.openMessageStore(this.options.getKuraServicePid());
+        final MessageStore result;
+
+        if (this.options.isStoreWriteBehindEnabled()) {
+            result = new WriteBehindMessageStore(opened, this.options.getStoreWriteBehindWindowMs(),
+                    this.options.getStoreWriteBehindMaxBatchSize());
+        } else {
+            result = opened;
+        }
 
         this.messageStore = Optional.of(result);
 
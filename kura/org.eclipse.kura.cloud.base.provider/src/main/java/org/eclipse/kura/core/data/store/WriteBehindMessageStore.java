@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.core.data.store;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MessageStore} that coalesces the messages stored within a configurable time window into a single
+ * {@link MessageStore#store(List)} call on the wrapped store, so that they are inserted with a single transaction.
+ * <br>
+ * The {@link #store(String, byte[], int, boolean, int)} method still returns the identifier of the stored message
+ * synchronously, the calling thread waits for the batch containing the message to be committed. While waiting, the
+ * monitor of this object is released, allowing other threads that synchronize on this store to enqueue their
+ * messages in the same batch.
+ * <br>
+ * Messages with priority 0 and 1 (life-cycle and request/response messages) are stored immediately.
+ */
+public class WriteBehindMessageStore implements MessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindMessageStore.class);
+
+    private final MessageStore wrapped;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private List<PendingMessage> pendingMessages = new ArrayList<>();
+    private int unflushedCount;
+
+    public WriteBehindMessageStore(final MessageStore wrapped, final long windowMs, final int maxBatchSize) {
+        this.wrapped = requireNonNull(wrapped, "Wrapped message store cannot be null");
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "WriteBehindMessageStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public MessageStore getWrapped() {
+        return this.wrapped;
+    }
+
+    @Override
+    public synchronized int store(String topic, byte[] payload, int qos, boolean retain, int priority)
+            throws KuraStoreException {
+
+        if (priority == 0 || priority == 1 || this.executor.isShutdown()) {
+            return this.wrapped.store(topic, payload, qos, retain, priority);
+        }
+
+        final PendingMessage pending = new PendingMessage(new StoredMessage.Builder(0).withTopic(topic)
+                .withPayload(payload).withQos(qos).withRetain(retain).withPriority(priority).build());
+
+        this.pendingMessages.add(pending);
+        this.unflushedCount++;
+
+        if (this.pendingMessages.size() == 1) {
+            this.executor.schedule(this::flush, this.windowMs, TimeUnit.MILLISECONDS);
+        } else if (this.pendingMessages.size() >= this.maxBatchSize) {
+            this.executor.execute(this::flush);
+        }
+
+        try {
+            while (!pending.isDone()) {
+                wait();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KuraStoreException(e, "Interrupted while waiting for message to be stored");
+        }
+
+        return pending.getId();
+    }
+
+    @Override
+    public List<Integer> store(List<StoredMessage> messages) throws KuraStoreException {
+        return this.wrapped.store(messages);
+    }
+
+    @Override
+    public synchronized int getCachedMessageCount() throws KuraStoreException {
+        return this.wrapped.getCachedMessageCount() + this.unflushedCount;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+
+        try {
+            this.executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            logger.warn("Interrupted while waiting for pending messages to be stored", e);
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+
+        this.wrapped.close();
+    }
+
+    private void flush() {
+        final List<PendingMessage> batch;
+
+        synchronized (this) {
+            if (this.pendingMessages.isEmpty()) {
+                return;
+            }
+
+            batch = this.pendingMessages;
+            this.pendingMessages = new ArrayList<>();
+        }
+
+        final List<StoredMessage> messages = new ArrayList<>(batch.size());
+
+        for (final PendingMessage pending : batch) {
+            messages.add(pending.message);
+        }
+
+        List<Integer> ids = null;
+        KuraStoreException error = null;
+
+        try {
+            ids = this.wrapped.store(messages);
+            logger.debug("Stored batch of {} messages", ids.size());
+        } catch (final KuraStoreException e) {
+            error = e;
+        } catch (final Exception e) {
+            error = new KuraStoreException(e, "Cannot store messages");
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (error != null) {
+                    batch.get(i).fail(error);
+                } else {
+                    batch.get(i).complete(ids.get(i));
+                }
+            }
+
+            this.unflushedCount -= batch.size();
+            notifyAll();
+        }
+    }
+
+    @Override
+    public void markAsPublished(int msgId) throws KuraStoreException {
+        this.wrapped.markAsPublished(msgId);
+    }
+
+    @Override
+    public void markAsPublished(int msgId, DataTransportToken dataTransportToken) throws KuraStoreException {
+        this.wrapped.markAsPublished(msgId, dataTransportToken);
+    }
+
+    @Override
+    public void markAsPublished(Collection<Integer> msgIds) throws KuraStoreException {
+        this.wrapped.markAsPublished(msgIds);
+    }
+
+    @Override
+    public void markAsPublished(Map<Integer, DataTransportToken> dataTransportTokens) throws KuraStoreException {
+        this.wrapped.markAsPublished(dataTransportTokens);
+    }
+
+    @Override
+    public void markAsConfirmed(int msgId) throws KuraStoreException {
+        this.wrapped.markAsConfirmed(msgId);
+    }
+
+    @Override
+    public void markAsConfirmed(Collection<Integer> msgIds) throws KuraStoreException {
+        this.wrapped.markAsConfirmed(msgIds);
+    }
+
+    @Override
+    public Optional<StoredMessage> getNextMessage() throws KuraStoreException {
+        return this.wrapped.getNextMessage();
+    }
+
+    @Override
+    public List<StoredMessage> getNextMessages(int maxCount) throws KuraStoreException {
+        return this.wrapped.getNextMessages(maxCount);
+    }
+
+    @Override
+    public Optional<StoredMessage> get(int msgId) throws KuraStoreException {
+        return this.wrapped.get(msgId);
+    }
+
+    @Override
+    public int getMessageCount() throws KuraStoreException {
+        return this.wrapped.getMessageCount();
+    }
+
+    @Override
+    public List<StoredMessage> getUnpublishedMessages() throws KuraStoreException {
+        return this.wrapped.getUnpublishedMessages();
+    }
+
+    @Override
+    public Map<Integer, Integer> getUnpublishedMessageCountByPriority() throws KuraStoreException {
+        return this.wrapped.getUnpublishedMessageCountByPriority();
+    }
+
+    @Override
+    public List<StoredMessage> getInFlightMessages() throws KuraStoreException {
+        return this.wrapped.getInFlightMessages();
+    }
+
+    @Override
+    public List<StoredMessage> getDroppedMessages() throws KuraStoreException {
+        return this.wrapped.getDroppedMessages();
+    }
+
+    @Override
+    public void unpublishAllInFlighMessages() throws KuraStoreException {
+        this.wrapped.unpublishAllInFlighMessages();
+    }
+
+    @Override
+    public void dropAllInFlightMessages() throws KuraStoreException {
+        this.wrapped.dropAllInFlightMessages();
+    }
+
+    @Override
+    public void deleteStaleMessages(int purgeAgeSeconds) throws KuraStoreException {
+        this.wrapped.deleteStaleMessages(purgeAgeSeconds);
+    }
+
+    private static final class PendingMessage {
+
+        private final StoredMessage message;
+        private boolean done;
+        private int id;
+        private KuraStoreException error;
+
+        PendingMessage(final StoredMessage message) {
+            this.message = message;
+        }
+
+        void complete(final int id) {
+            this.id = id;
+            this.done = true;
+        }
+
+        void fail(final KuraStoreException error) {
+            this.error = error;
+            this.done = true;
+        }
+
+        boolean isDone() {
+            return this.done;
+        }
+
+        int getId() throws KuraStoreException {
+            if (this.error != null) {
+                throw this.error;
+            }
+            return this.id;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.internal.data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+
+/**
+ * Keeps track of the number of queued and in-flight messages for each publishing lane. A lane groups the messages
+ * with priorities in the same band, see {@link Lane}.
+ */
+public class PublishLanes {
+
+    public enum Lane {
+
+        /**
+         * Life-cycle and remote management messages, priority 0 and 1. Messages in this lane are not limited by the
+         * in-flight window of the other lanes.
+         */
+        CONTROL("priority 0-1"),
+        /**
+         * Application messages with priority from 2 to 4.
+         */
+        NORMAL("priority 2-4"),
+        /**
+         * Application messages with priority 5 or greater, these messages are subject to rate limiting.
+         */
+        BULK("priority 5+");
+
+        private final String description;
+
+        private Lane(final String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return this.description;
+        }
+
+        public static Lane forPriority(final int priority) {
+            if (priority <= 1) {
+                return CONTROL;
+            } else if (priority < 5) {
+                return NORMAL;
+            } else {
+                return BULK;
+            }
+        }
+    }
+
+    private final AtomicLong[] queuedCounts = new AtomicLong[Lane.values().length];
+    private final Map<DataTransportToken, Lane> inFlightLanes = new ConcurrentHashMap<>();
+
+    public PublishLanes() {
+        for (int i = 0; i < this.queuedCounts.length; i++) {
+            this.queuedCounts[i] = new AtomicLong();
+        }
+    }
+
+    public void reset(final Map<Integer, Integer> unpublishedCountsByPriority,
+            final List<StoredMessage> inFlightMessages) {
+        for (final AtomicLong count : this.queuedCounts) {
+            count.set(0);
+        }
+        this.inFlightLanes.clear();
+
+        for (final Entry<Integer, Integer> e : unpublishedCountsByPriority.entrySet()) {
+            this.queuedCounts[Lane.forPriority(e.getKey()).ordinal()].addAndGet(e.getValue());
+        }
+
+        for (final StoredMessage message : inFlightMessages) {
+            if (message.getDataTransportToken().isPresent()) {
+                messageInFlight(message.getDataTransportToken().get(), message.getPriority());
+            }
+        }
+    }
+
+    public void messageQueued(final int priority) {
+        this.queuedCounts[Lane.forPriority(priority).ordinal()].incrementAndGet();
+    }
+
+    public void messagePublished(final int priority) {
+        this.queuedCounts[Lane.forPriority(priority).ordinal()].updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    public void messageInFlight(final DataTransportToken token, final int priority) {
+        this.inFlightLanes.put(token, Lane.forPriority(priority));
+    }
+
+    public void messageConfirmed(final DataTransportToken token) {
+        this.inFlightLanes.remove(token);
+    }
+
+    public void inFlightMessagesUnpublished() {
+        for (final Lane lane : this.inFlightLanes.values()) {
+            this.queuedCounts[lane.ordinal()].incrementAndGet();
+        }
+        this.inFlightLanes.clear();
+    }
+
+    public void inFlightMessagesDropped() {
+        this.inFlightLanes.clear();
+    }
+
+    public long getQueuedCount(final Lane lane) {
+        return this.queuedCounts[lane.ordinal()].get();
+    }
+
+    public int getInFlightCount(final Lane lane) {
+        int result = 0;
+
+        for (final Lane inFlightLane : this.inFlightLanes.values()) {
+            if (inFlightLane == lane) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+}
@@ -113,6 +113,7 @@ public class CloudConnectionManagerImpl
     private ComponentContext ctx;
 
     private CloudConnectionManagerOptions options;
+    private CloudPayloadCodec payloadCodec;
 
     private DataService dataService;
     private SystemService systemService;
@@ -286,6 +287,7 @@ public class CloudConnectionManagerImpl
         // save the bundle context and the properties
         this.ctx = componentContext;
         this.options = new CloudConnectionManagerOptions(properties, this.systemService);
+        this.payloadCodec = this.options.getCompression().createCodec(this.options.getCompressionDictionary());
         //
         // install event listener for GPS locked event
         Dictionary<String, Object> props = new Hashtable<>();
@@ -318,6 +320,7 @@ public class CloudConnectionManagerImpl
 
         // Update properties and re-publish Birth certificate
         this.options = new CloudConnectionManagerOptions(properties, this.systemService);
+        this.payloadCodec = this.options.getCompression().createCodec(this.options.getCompressionDictionary());
         if (isConnected()) {
             try {
                 setupCloudConnection(false);
@@ -564,7 +567,7 @@ public class CloudConnectionManagerImpl
     public byte[] getBytes(KuraPayload kuraPayload, boolean gzipped) throws KuraException {
         CloudPayloadEncoder encoder = new CloudPayloadProtoBufEncoderImpl(kuraPayload);
         if (gzipped) {
-            encoder = new CloudPayloadGZipEncoder(encoder);
+            encoder = new CloudPayloadCompressionEncoder(encoder, new GZipPayloadCodec(), 0);
         }
 
         byte[] bytes;
@@ -679,7 +682,8 @@ public class CloudConnectionManagerImpl
 
         CloudPayloadEncoder encoder = new CloudPayloadProtoBufEncoderImpl(payload);
         if (this.options.getEncodeGzip()) {
-            encoder = new CloudPayloadGZipEncoder(encoder);
+            encoder = new CloudPayloadCompressionEncoder(encoder, this.payloadCodec,
+                    this.options.getCompressionThreshold());
         }
 
         try {
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.cloudconnection.eclipseiot.mqtt.cloud;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.eclipse.kura.cloud.CloudPayloadEncoding;
@@ -32,6 +33,9 @@ public class CloudConnectionManagerOptions {
     private static final String DEVICE_DISPLAY_NAME = "device.display-name";
     private static final String DEVICE_CUSTOM_NAME = "device.custom-name";
     private static final String ENCODE_GZIP = "encode.gzip";
+    private static final String ENCODE_COMPRESSION = "encode.compression";
+    private static final String ENCODE_COMPRESSION_THRESHOLD = "encode.compression.threshold";
+    private static final String ENCODE_COMPRESSION_DICTIONARY = "encode.compression.dictionary";
     private static final String REPUB_BIRTH_ON_GPS_LOCK = "republish.mqtt.birth.cert.on.gps.lock";
     private static final String PAYLOAD_ENCODING = "payload.encoding";
 
@@ -96,6 +100,50 @@ public class CloudConnectionManagerOptions {
         return encodeGzip;
     }
 
+    /**
+     * Returns the codec used to compress outgoing payloads if {@link #getEncodeGzip()} returns true.
+     * By default, this method returns {@link CloudPayloadCompression} {@code GZIP}.
+     *
+     * @return a {@link CloudPayloadCompression} value.
+     */
+    public CloudPayloadCompression getCompression() {
+        CloudPayloadCompression result = CloudPayloadCompression.GZIP;
+        if (this.properties != null && this.properties.get(ENCODE_COMPRESSION) instanceof String) {
+            try {
+                result = CloudPayloadCompression.getCompression((String) this.properties.get(ENCODE_COMPRESSION));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Cannot parse the provided payload compression.", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the size in bytes below which outgoing payloads are not compressed.
+     *
+     * @return an int value.
+     */
+    public int getCompressionThreshold() {
+        int threshold = 0;
+        if (this.properties != null && this.properties.get(ENCODE_COMPRESSION_THRESHOLD) instanceof Integer) {
+            threshold = Math.max(0, (Integer) this.properties.get(ENCODE_COMPRESSION_THRESHOLD));
+        }
+        return threshold;
+    }
+
+    /**
+     * Returns the preset dictionary used by the codecs that support it, an empty array if not configured.
+     *
+     * @return a byte array.
+     */
+    public byte[] getCompressionDictionary() {
+        String dictionary = "";
+        if (this.properties != null && this.properties.get(ENCODE_COMPRESSION_DICTIONARY) instanceof String) {
+            dictionary = (String) this.properties.get(ENCODE_COMPRESSION_DICTIONARY);
+        }
+        return dictionary.getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Returns true if the current CloudService configuration
      * specifies the cloud client should republish the MQTT birth
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.cloudconnection.eclipseiot.mqtt.cloud;
+
+/**
+ * This enum specifies the supported payload compression codecs.
+ */
+public enum CloudPayloadCompression {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String compressionText;
+
+    private CloudPayloadCompression(String compression) {
+        this.compressionText = compression;
+    }
+
+    /**
+     * Creates the {@link CloudPayloadCodec} for this compression.
+     *
+     * @param dictionary
+     *            the preset dictionary, ignored by the codecs that do not support it
+     * @return a new {@link CloudPayloadCodec}
+     */
+    public CloudPayloadCodec createCodec(byte[] dictionary) {
+        if (this == DEFLATE) {
+            return new DeflatePayloadCodec(dictionary);
+        }
+        return new GZipPayloadCodec();
+    }
+
+    /**
+     * Allows to map a provided string with the corresponding {@link CloudPayloadCompression}
+     *
+     * @param proposedCompression
+     *            the String that has to be mapped to the corresponding {@link CloudPayloadCompression}
+     * @return {@link CloudPayloadCompression} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *             if the argument cannot be matched to a corresponding {@link CloudPayloadCompression} object.
+     */
+    public static CloudPayloadCompression getCompression(String proposedCompression) {
+        for (CloudPayloadCompression compression : CloudPayloadCompression.values()) {
+            if (compression.compressionText.equalsIgnoreCase(proposedCompression)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported Compression!");
+    }
+}
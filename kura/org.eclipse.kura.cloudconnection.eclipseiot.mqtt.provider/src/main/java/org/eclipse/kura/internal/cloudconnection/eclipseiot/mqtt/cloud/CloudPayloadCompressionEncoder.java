@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.cloudconnection.eclipseiot.mqtt.cloud;
+
+import java.io.IOException;
+
+/**
+ * Compresses the bytes produced by the decorated encoder with the provided {@link CloudPayloadCodec}.
+ * <br>
+ * Payloads shorter than the configured threshold are returned uncompressed without invoking the codec, larger
+ * payloads are returned compressed only if the compressed data is shorter than the uncompressed one.
+ */
+public class CloudPayloadCompressionEncoder implements CloudPayloadEncoder {
+
+    private final CloudPayloadEncoder decorated;
+    private final CloudPayloadCodec codec;
+    private final int threshold;
+
+    public CloudPayloadCompressionEncoder(CloudPayloadEncoder decorated, CloudPayloadCodec codec, int threshold) {
+        this.decorated = decorated;
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        byte[] source = this.decorated.getBytes();
+
+        if (source.length < this.threshold) {
+            return source;
+        }
+
+        byte[] compressed = this.codec.compress(source);
+
+        // Return compressed data only if shorter than uncompressed one
+        return compressed.length < source.length ? compressed : source;
+    }
+}
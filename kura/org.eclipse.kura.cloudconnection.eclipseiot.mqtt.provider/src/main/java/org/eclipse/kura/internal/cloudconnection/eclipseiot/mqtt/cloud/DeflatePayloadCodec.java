@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.cloudconnection.eclipseiot.mqtt.cloud;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses payloads in the zlib format (RFC 1950), optionally using a preset dictionary.
+ * <br>
+ * The zlib header starts with {@code 0x78}. If a dictionary is used, the {@code FDICT} bit of the second byte is set
+ * and the header is followed by the Adler-32 checksum of the dictionary, that allows the remote server to select the
+ * dictionary needed to decompress the payload.
+ */
+public class DeflatePayloadCodec implements CloudPayloadCodec {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final byte[] dictionary;
+
+    public DeflatePayloadCodec(byte[] dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public byte[] compress(byte[] source) throws IOException {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            if (this.dictionary != null && this.dictionary.length > 0) {
+                deflater.setDictionary(this.dictionary);
+            }
+            deflater.setInput(source);
+            deflater.finish();
+
+            final byte[] buf = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                final int n = deflater.deflate(buf);
+                baos.write(buf, 0, n);
+            }
+            return baos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import java.io.IOException;
+
+/**
+ * Common interface for the codecs used to compress the encoded payloads.
+ * <br>
+ * MQTT messages do not carry headers, implementations must therefore produce a self describing format whose leading
+ * bytes allow the remote server to detect the codec that has been used.
+ */
+public interface CloudPayloadCodec {
+
+    public byte[] compress(byte[] source) throws IOException;
+}
@@ -1,32 +1,39 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
- * 
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
+ *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
  * which is available at https://www.eclipse.org/legal/epl-2.0/
- * 
+ *
  * SPDX-License-Identifier: EPL-2.0
- * 
+ *
  * Contributors:
  *  Eurotech
  *******************************************************************************/
 package org.eclipse.kura.core.cloud;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Date;
 
 import org.eclipse.kura.KuraInvalidMessageException;
-import org.eclipse.kura.KuraInvalidMetricTypeException;
-import org.eclipse.kura.core.message.protobuf.KuraPayloadProto;
 import org.eclipse.kura.core.util.GZipUtil;
 import org.eclipse.kura.message.KuraPayload;
 import org.eclipse.kura.message.KuraPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
 
+/**
+ * Decodes a KuraPayload from the Google ProtoBuf binary format.
+ * <br>
+ * The timestamp, position and body are decoded immediately, the metrics are only validated and are decoded the first
+ * time they are accessed. The returned payload keeps a reference to the provided byte array until the metrics are
+ * decoded.
+ */
 public class CloudPayloadProtoBufDecoderImpl {
 
     private static final Logger s_logger = LoggerFactory.getLogger(CloudPayloadProtoBufDecoderImpl.class);
@@ -56,108 +63,196 @@ public class CloudPayloadProtoBufDecoderImpl {
             }
         }
 
-        // build the KuraPayloadProto.KuraPayload
-        KuraPayloadProto.KuraPayload protoMsg = null;
         try {
-            protoMsg = KuraPayloadProto.KuraPayload.parseFrom(this.m_bytes);
+            return parsePayload(this.m_bytes);
         } catch (InvalidProtocolBufferException ipbe) {
             throw new KuraInvalidMessageException(ipbe);
         }
+    }
 
-        // build the KuraPayload
-        KuraPayload kuraMsg = new KuraPayload();
+    private static KuraPayload parsePayload(final byte[] bytes) throws IOException {
+        final CodedInputStream in = CodedInputStream.newInstance(bytes);
 
-        // set the timestamp
-        if (protoMsg.hasTimestamp()) {
-            kuraMsg.setTimestamp(new Date(protoMsg.getTimestamp()));
-        }
+        Long timestamp = null;
+        KuraPosition position = null;
+        byte[] body = null;
 
-        // set the position
-        if (protoMsg.hasPosition()) {
-            kuraMsg.setPosition(buildFromProtoBuf(protoMsg.getPosition()));
-        }
+        int[] metricBounds = new int[16];
+        int metricCount = 0;
 
-        // set the metrics
-        for (int i = 0; i < protoMsg.getMetricCount(); i++) {
-            String name = protoMsg.getMetric(i).getName();
-            try {
-                Object value = getProtoKuraMetricValue(protoMsg.getMetric(i), protoMsg.getMetric(i).getType());
-                kuraMsg.addMetric(name, value);
-            } catch (KuraInvalidMetricTypeException ihte) {
-                s_logger.warn("During deserialization, ignoring metric named: {}. Unrecognized value type: {}", name,
-                        protoMsg.getMetric(i).getType(), ihte);
+        while (true) {
+            final int tag = in.readTag();
+
+            if (tag == 0) {
+                break;
+            }
+
+            final int fieldNumber = WireFormat.getTagFieldNumber(tag);
+            final int wireType = WireFormat.getTagWireType(tag);
+
+            if (fieldNumber == KuraPayloadProtoFields.PAYLOAD_TIMESTAMP && wireType == WireFormat.WIRETYPE_VARINT) {
+                timestamp = in.readInt64();
+            } else if (fieldNumber == KuraPayloadProtoFields.PAYLOAD_POSITION
+                    && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                // multiple occurrences of a message field are merged
+                if (position == null) {
+                    position = new KuraPosition();
+                }
+                final int limit = in.pushLimit(in.readRawVarint32());
+                parsePosition(in, position);
+                in.popLimit(limit);
+            } else if (fieldNumber == KuraPayloadProtoFields.PAYLOAD_METRIC
+                    && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                final int length = in.readRawVarint32();
+                final int offset = in.getTotalBytesRead();
+
+                final int limit = in.pushLimit(length);
+                validateMetric(in);
+                in.popLimit(limit);
+
+                if (metricCount * 2 == metricBounds.length) {
+                    metricBounds = Arrays.copyOf(metricBounds, metricBounds.length * 2);
+                }
+                metricBounds[metricCount * 2] = offset;
+                metricBounds[metricCount * 2 + 1] = length;
+                metricCount++;
+            } else if (fieldNumber == KuraPayloadProtoFields.PAYLOAD_BODY
+                    && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                body = in.readByteArray();
+            } else if (!in.skipField(tag)) {
+                break;
             }
         }
 
-        // set the body
-        if (protoMsg.hasBody()) {
-            kuraMsg.setBody(protoMsg.getBody().toByteArray());
+        if (position != null && (position.getLatitude() == null || position.getLongitude() == null)) {
+            throw new InvalidProtocolBufferException("Message missing required fields: position.latitude, "
+                    + "position.longitude");
         }
 
+        final KuraPayload kuraMsg = metricCount == 0 ? new KuraPayload()
+                : new LazyKuraPayload(bytes, metricBounds, metricCount);
+
+        if (timestamp != null) {
+            kuraMsg.setTimestamp(new Date(timestamp));
+        }
+        kuraMsg.setPosition(position);
+        kuraMsg.setBody(body);
+
         return kuraMsg;
     }
 
-    private KuraPosition buildFromProtoBuf(KuraPayloadProto.KuraPayload.KuraPosition protoPosition) {
-        KuraPosition position = new KuraPosition();
+    private static void parsePosition(final CodedInputStream in, final KuraPosition position) throws IOException {
+        while (true) {
+            final int tag = in.readTag();
 
-        if (protoPosition.hasLatitude()) {
-            position.setLatitude(protoPosition.getLatitude());
-        }
-        if (protoPosition.hasLongitude()) {
-            position.setLongitude(protoPosition.getLongitude());
-        }
-        if (protoPosition.hasAltitude()) {
-            position.setAltitude(protoPosition.getAltitude());
-        }
-        if (protoPosition.hasPrecision()) {
-            position.setPrecision(protoPosition.getPrecision());
-        }
-        if (protoPosition.hasHeading()) {
-            position.setHeading(protoPosition.getHeading());
-        }
-        if (protoPosition.hasSpeed()) {
-            position.setSpeed(protoPosition.getSpeed());
-        }
-        if (protoPosition.hasSatellites()) {
-            position.setSatellites(protoPosition.getSatellites());
-        }
-        if (protoPosition.hasStatus()) {
-            position.setStatus(protoPosition.getStatus());
-        }
-        if (protoPosition.hasTimestamp()) {
-            position.setTimestamp(new Date(protoPosition.getTimestamp()));
+            if (tag == 0) {
+                return;
+            }
+
+            final int wireType = WireFormat.getTagWireType(tag);
+
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case KuraPayloadProtoFields.POSITION_LATITUDE:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setLatitude(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_LONGITUDE:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setLongitude(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_ALTITUDE:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setAltitude(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_PRECISION:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setPrecision(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_HEADING:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setHeading(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_SPEED:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    position.setSpeed(in.readDouble());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_TIMESTAMP:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    position.setTimestamp(new Date(in.readInt64()));
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_SATELLITES:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    position.setSatellites(in.readInt32());
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.POSITION_STATUS:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    position.setStatus(in.readInt32());
+                    continue;
+                }
+                break;
+            default:
+                break;
+            }
+
+            if (!in.skipField(tag)) {
+                return;
+            }
         }
-        return position;
     }
 
-    private Object getProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric metric,
-            KuraPayloadProto.KuraPayload.KuraMetric.ValueType type) throws KuraInvalidMetricTypeException {
-        switch (type) {
+    // Checks that the metric is well formed and contains the required fields, without decoding it
+    private static void validateMetric(final CodedInputStream in) throws IOException {
+        boolean hasName = false;
+        boolean hasType = false;
 
-        case DOUBLE:
-            return metric.getDoubleValue();
+        while (true) {
+            final int tag = in.readTag();
 
-        case FLOAT:
-            return metric.getFloatValue();
-
-        case INT64:
-            return metric.getLongValue();
+            if (tag == 0) {
+                break;
+            }
 
-        case INT32:
-            return metric.getIntValue();
+            final int fieldNumber = WireFormat.getTagFieldNumber(tag);
+            final int wireType = WireFormat.getTagWireType(tag);
 
-        case BOOL:
-            return metric.getBoolValue();
+            if (fieldNumber == KuraPayloadProtoFields.METRIC_TYPE && wireType == WireFormat.WIRETYPE_VARINT) {
+                // unknown enum values are ignored, as done by the generated code
+                hasType |= isValidMetricType(in.readEnum());
+                continue;
+            }
 
-        case STRING:
-            return metric.getStringValue();
+            if (fieldNumber == KuraPayloadProtoFields.METRIC_NAME
+                    && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                hasName = true;
+            }
 
-        case BYTES:
-            ByteString bs = metric.getBytesValue();
-            return bs.toByteArray();
+            if (!in.skipField(tag)) {
+                break;
+            }
+        }
 
-        default:
-            throw new KuraInvalidMetricTypeException(type);
+        if (!hasName || !hasType) {
+            throw new InvalidProtocolBufferException("Message missing required fields: metric.name, metric.type");
         }
     }
+
+    static boolean isValidMetricType(final int type) {
+        return type >= KuraPayloadProtoFields.TYPE_DOUBLE && type <= KuraPayloadProtoFields.TYPE_BYTES;
+    }
 }
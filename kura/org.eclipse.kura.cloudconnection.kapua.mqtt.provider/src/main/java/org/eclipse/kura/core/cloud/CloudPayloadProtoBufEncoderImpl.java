@@ -1,12 +1,12 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
- * 
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
+ *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
  * which is available at https://www.eclipse.org/legal/epl-2.0/
- * 
+ *
  * SPDX-License-Identifier: EPL-2.0
- * 
+ *
  * Contributors:
  *  Eurotech
  *  Red Hat Inc
@@ -17,17 +17,21 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.eclipse.kura.KuraInvalidMetricTypeException;
-import org.eclipse.kura.core.message.protobuf.KuraPayloadProto;
-import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric;
 import org.eclipse.kura.message.KuraPayload;
 import org.eclipse.kura.message.KuraPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
 
 /**
  * Encodes an KuraPayload class using the Google ProtoBuf binary format.
+ * <br>
+ * The payload is written directly in the wire format defined by kurapayload.proto, without building the intermediate
+ * KuraPayloadProto object graph. The size of the encoded payload is computed in advance, so that the result is
+ * written into a single, exactly sized, byte array and no intermediate copies of the body and byte array metrics are
+ * performed.
  */
 public class CloudPayloadProtoBufEncoderImpl implements CloudPayloadEncoder {
 
@@ -46,117 +50,246 @@ public class CloudPayloadProtoBufEncoderImpl implements CloudPayloadEncoder {
      */
     @Override
     public byte[] getBytes() throws IOException {
-        // Build the message
-        KuraPayloadProto.KuraPayload.Builder protoMsg = KuraPayloadProto.KuraPayload.newBuilder();
+        final KuraPosition position = this.kuraPayload.getPosition();
+        final Map<String, Object> metrics = this.kuraPayload.metrics();
+        final byte[] body = this.kuraPayload.getBody();
 
-        // set the timestamp
+        int size = 0;
+
+        // the timestamp
         if (this.kuraPayload.getTimestamp() != null) {
-            protoMsg.setTimestamp(this.kuraPayload.getTimestamp().getTime());
+            size += CodedOutputStream.computeInt64Size(KuraPayloadProtoFields.PAYLOAD_TIMESTAMP,
+                    this.kuraPayload.getTimestamp().getTime());
         }
 
-        // set the position
-        if (this.kuraPayload.getPosition() != null) {
-            protoMsg.setPosition(buildPositionProtoBuf());
+        // the position
+        int positionSize = 0;
+        if (position != null) {
+            positionSize = computePositionSize(position);
+            size += computeLengthDelimitedSize(KuraPayloadProtoFields.PAYLOAD_POSITION, positionSize);
         }
 
-        // set the metrics
-        for (final Map.Entry<String, Object> entry : this.kuraPayload.metrics().entrySet()) {
-            final String name = entry.getKey();
-            final Object value = entry.getValue();
+        // the metrics, the sizes are stored to avoid computing them twice
+        final int[] metricSizes = new int[metrics.size()];
+        int metricIndex = 0;
+        for (final Map.Entry<String, Object> entry : metrics.entrySet()) {
+            final int metricSize = computeMetricSize(entry.getKey(), entry.getValue());
+            metricSizes[metricIndex++] = metricSize;
 
-            // build a metric
-            try {
-                KuraMetric.Builder metricB = KuraMetric.newBuilder();
-                metricB.setName(name);
+            if (metricSize >= 0) {
+                size += computeLengthDelimitedSize(KuraPayloadProtoFields.PAYLOAD_METRIC, metricSize);
+            }
+        }
 
-                boolean result = setProtoKuraMetricValue(metricB, value);
-                if (result) {
-                    // add it to the message
-                    protoMsg.addMetric(metricB);
-                }
-            } catch (KuraInvalidMetricTypeException e) {
-                logger.error("During serialization, ignoring metric named: {}. Unrecognized value type: {}.", name,
-                        value != null ? value.getClass().getName() : "<null>");
-                throw new RuntimeException(e);
+        // the body
+        if (body != null) {
+            size += CodedOutputStream.computeByteArraySize(KuraPayloadProtoFields.PAYLOAD_BODY, body);
+        }
+
+        final byte[] result = new byte[size];
+        final CodedOutputStream out = CodedOutputStream.newInstance(result);
+
+        if (this.kuraPayload.getTimestamp() != null) {
+            out.writeInt64(KuraPayloadProtoFields.PAYLOAD_TIMESTAMP, this.kuraPayload.getTimestamp().getTime());
+        }
+
+        if (position != null) {
+            writeLengthDelimitedHeader(out, KuraPayloadProtoFields.PAYLOAD_POSITION, positionSize);
+            writePosition(out, position);
+        }
+
+        metricIndex = 0;
+        for (final Map.Entry<String, Object> entry : metrics.entrySet()) {
+            final int metricSize = metricSizes[metricIndex++];
+
+            if (metricSize >= 0) {
+                writeLengthDelimitedHeader(out, KuraPayloadProtoFields.PAYLOAD_METRIC, metricSize);
+                writeMetric(out, entry.getKey(), entry.getValue());
             }
         }
 
-        // set the body
-        if (this.kuraPayload.getBody() != null) {
-            protoMsg.setBody(ByteString.copyFrom(this.kuraPayload.getBody()));
+        if (body != null) {
+            out.writeByteArray(KuraPayloadProtoFields.PAYLOAD_BODY, body);
         }
 
-        return protoMsg.build().toByteArray();
+        out.checkNoSpaceLeft();
+
+        return result;
     }
 
     //
-    // Helper methods to convert the KuraMetrics
+    // Helper methods to encode the KuraPosition
     //
-    private KuraPayloadProto.KuraPayload.KuraPosition buildPositionProtoBuf() {
-        KuraPayloadProto.KuraPayload.KuraPosition.Builder protoPos = KuraPayloadProto.KuraPayload.KuraPosition
-                .newBuilder();
+    private static int computePositionSize(final KuraPosition position) throws IOException {
+        if (position.getLatitude() == null || position.getLongitude() == null) {
+            throw new IOException("The position latitude and longitude are required");
+        }
+
+        int size = CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_LATITUDE,
+                position.getLatitude());
+        size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_LONGITUDE,
+                position.getLongitude());
 
-        KuraPosition position = this.kuraPayload.getPosition();
-        if (position.getLatitude() != null) {
-            protoPos.setLatitude(position.getLatitude());
+        if (position.getAltitude() != null) {
+            size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_ALTITUDE,
+                    position.getAltitude());
         }
-        if (position.getLongitude() != null) {
-            protoPos.setLongitude(position.getLongitude());
+        if (position.getPrecision() != null) {
+            size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_PRECISION,
+                    position.getPrecision());
         }
+        if (position.getHeading() != null) {
+            size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_HEADING,
+                    position.getHeading());
+        }
+        if (position.getSpeed() != null) {
+            size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.POSITION_SPEED, position.getSpeed());
+        }
+        if (position.getTimestamp() != null) {
+            size += CodedOutputStream.computeInt64Size(KuraPayloadProtoFields.POSITION_TIMESTAMP,
+                    position.getTimestamp().getTime());
+        }
+        if (position.getSatellites() != null) {
+            size += CodedOutputStream.computeInt32Size(KuraPayloadProtoFields.POSITION_SATELLITES,
+                    position.getSatellites());
+        }
+        if (position.getStatus() != null) {
+            size += CodedOutputStream.computeInt32Size(KuraPayloadProtoFields.POSITION_STATUS, position.getStatus());
+        }
+        return size;
+    }
+
+    private static void writePosition(final CodedOutputStream out, final KuraPosition position) throws IOException {
+        out.writeDouble(KuraPayloadProtoFields.POSITION_LATITUDE, position.getLatitude());
+        out.writeDouble(KuraPayloadProtoFields.POSITION_LONGITUDE, position.getLongitude());
+
         if (position.getAltitude() != null) {
-            protoPos.setAltitude(position.getAltitude());
+            out.writeDouble(KuraPayloadProtoFields.POSITION_ALTITUDE, position.getAltitude());
         }
         if (position.getPrecision() != null) {
-            protoPos.setPrecision(position.getPrecision());
+            out.writeDouble(KuraPayloadProtoFields.POSITION_PRECISION, position.getPrecision());
         }
         if (position.getHeading() != null) {
-            protoPos.setHeading(position.getHeading());
+            out.writeDouble(KuraPayloadProtoFields.POSITION_HEADING, position.getHeading());
         }
         if (position.getSpeed() != null) {
-            protoPos.setSpeed(position.getSpeed());
+            out.writeDouble(KuraPayloadProtoFields.POSITION_SPEED, position.getSpeed());
         }
         if (position.getTimestamp() != null) {
-            protoPos.setTimestamp(position.getTimestamp().getTime());
+            out.writeInt64(KuraPayloadProtoFields.POSITION_TIMESTAMP, position.getTimestamp().getTime());
         }
         if (position.getSatellites() != null) {
-            protoPos.setSatellites(position.getSatellites());
+            out.writeInt32(KuraPayloadProtoFields.POSITION_SATELLITES, position.getSatellites());
         }
         if (position.getStatus() != null) {
-            protoPos.setStatus(position.getStatus());
+            out.writeInt32(KuraPayloadProtoFields.POSITION_STATUS, position.getStatus());
         }
-        return protoPos.build();
     }
 
-    private static boolean setProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric.Builder metric, Object o)
-            throws KuraInvalidMetricTypeException {
+    //
+    // Helper methods to encode the KuraMetrics
+    //
 
+    // Returns the encoded size of the metric or -1 if the metric must be skipped
+    private static int computeMetricSize(final String name, final Object o) {
+        if (o == null) {
+            logger.warn("Received a metric with a null value!");
+            return -1;
+        }
+
+        final int type = getMetricType(name, o);
+
+        int size = CodedOutputStream.computeStringSize(KuraPayloadProtoFields.METRIC_NAME, name);
+        size += CodedOutputStream.computeEnumSize(KuraPayloadProtoFields.METRIC_TYPE, type);
+
+        switch (type) {
+        case KuraPayloadProtoFields.TYPE_STRING:
+            size += CodedOutputStream.computeStringSize(KuraPayloadProtoFields.METRIC_STRING_VALUE, (String) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_DOUBLE:
+            size += CodedOutputStream.computeDoubleSize(KuraPayloadProtoFields.METRIC_DOUBLE_VALUE, (Double) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_INT32:
+            size += CodedOutputStream.computeInt32Size(KuraPayloadProtoFields.METRIC_INT_VALUE, (Integer) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_FLOAT:
+            size += CodedOutputStream.computeFloatSize(KuraPayloadProtoFields.METRIC_FLOAT_VALUE, (Float) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_INT64:
+            size += CodedOutputStream.computeInt64Size(KuraPayloadProtoFields.METRIC_LONG_VALUE, (Long) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_BOOL:
+            size += CodedOutputStream.computeBoolSize(KuraPayloadProtoFields.METRIC_BOOL_VALUE, (Boolean) o);
+            break;
+        default:
+            size += CodedOutputStream.computeByteArraySize(KuraPayloadProtoFields.METRIC_BYTES_VALUE, (byte[]) o);
+            break;
+        }
+        return size;
+    }
+
+    private static void writeMetric(final CodedOutputStream out, final String name, final Object o)
+            throws IOException {
+        final int type = getMetricType(name, o);
+
+        out.writeString(KuraPayloadProtoFields.METRIC_NAME, name);
+        out.writeEnum(KuraPayloadProtoFields.METRIC_TYPE, type);
+
+        switch (type) {
+        case KuraPayloadProtoFields.TYPE_STRING:
+            out.writeString(KuraPayloadProtoFields.METRIC_STRING_VALUE, (String) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_DOUBLE:
+            out.writeDouble(KuraPayloadProtoFields.METRIC_DOUBLE_VALUE, (Double) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_INT32:
+            out.writeInt32(KuraPayloadProtoFields.METRIC_INT_VALUE, (Integer) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_FLOAT:
+            out.writeFloat(KuraPayloadProtoFields.METRIC_FLOAT_VALUE, (Float) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_INT64:
+            out.writeInt64(KuraPayloadProtoFields.METRIC_LONG_VALUE, (Long) o);
+            break;
+        case KuraPayloadProtoFields.TYPE_BOOL:
+            out.writeBool(KuraPayloadProtoFields.METRIC_BOOL_VALUE, (Boolean) o);
+            break;
+        default:
+            out.writeByteArray(KuraPayloadProtoFields.METRIC_BYTES_VALUE, (byte[]) o);
+            break;
+        }
+    }
+
+    private static int getMetricType(final String name, final Object o) {
         if (o instanceof String) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.STRING);
-            metric.setStringValue((String) o);
+            return KuraPayloadProtoFields.TYPE_STRING;
         } else if (o instanceof Double) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.DOUBLE);
-            metric.setDoubleValue((Double) o);
+            return KuraPayloadProtoFields.TYPE_DOUBLE;
         } else if (o instanceof Integer) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.INT32);
-            metric.setIntValue((Integer) o);
+            return KuraPayloadProtoFields.TYPE_INT32;
         } else if (o instanceof Float) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.FLOAT);
-            metric.setFloatValue((Float) o);
+            return KuraPayloadProtoFields.TYPE_FLOAT;
         } else if (o instanceof Long) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.INT64);
-            metric.setLongValue((Long) o);
+            return KuraPayloadProtoFields.TYPE_INT64;
         } else if (o instanceof Boolean) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.BOOL);
-            metric.setBoolValue((Boolean) o);
+            return KuraPayloadProtoFields.TYPE_BOOL;
         } else if (o instanceof byte[]) {
-            metric.setType(KuraPayloadProto.KuraPayload.KuraMetric.ValueType.BYTES);
-            metric.setBytesValue(ByteString.copyFrom((byte[]) o));
-        } else if (o == null) {
-            logger.warn("Received a metric with a null value!");
-            return false;
-        } else {
-            throw new KuraInvalidMetricTypeException(o.getClass().getName());
+            return KuraPayloadProtoFields.TYPE_BYTES;
         }
-        return true;
+
+        logger.error("During serialization, ignoring metric named: {}. Unrecognized value type: {}.", name,
+                o.getClass().getName());
+        throw new RuntimeException(new KuraInvalidMetricTypeException(o.getClass().getName()));
+    }
+
+    private static int computeLengthDelimitedSize(final int fieldNumber, final int length) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(length)
+                + length;
+    }
+
+    private static void writeLengthDelimitedHeader(final CodedOutputStream out, final int fieldNumber,
+            final int length) throws IOException {
+        out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(length);
     }
 }
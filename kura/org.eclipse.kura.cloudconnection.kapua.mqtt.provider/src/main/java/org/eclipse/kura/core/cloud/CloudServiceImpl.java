@@ -132,6 +132,7 @@ public class CloudServiceImpl
     private ComponentContext ctx;
 
     private CloudServiceOptions options;
+    private CloudPayloadCodec payloadCodec;
 
     private DataService dataService;
     private SystemService systemService;
@@ -333,6 +334,7 @@ public class CloudServiceImpl
         // save the bundle context and the properties
         this.ctx = componentContext;
         this.options = new CloudServiceOptions(properties, this.systemService);
+        this.payloadCodec = this.options.getCompression().createCodec(this.options.getCompressionDictionary());
         //
         // install event listener for GPS locked event
         Dictionary<String, Object> props = new Hashtable<>();
@@ -371,6 +373,7 @@ public class CloudServiceImpl
 
         // Update properties and re-publish Birth certificate
         this.options = new CloudServiceOptions(properties, this.systemService);
+        this.payloadCodec = this.options.getCompression().createCodec(this.options.getCompressionDictionary());
         if (isConnected()) {
             try {
                 setupCloudConnection(false);
@@ -758,7 +761,7 @@ public class CloudServiceImpl
     public byte[] getBytes(KuraPayload kuraPayload, boolean gzipped) throws KuraException {
         CloudPayloadEncoder encoder = new CloudPayloadProtoBufEncoderImpl(kuraPayload);
         if (gzipped) {
-            encoder = new CloudPayloadGZipEncoder(encoder);
+            encoder = new CloudPayloadCompressionEncoder(encoder, new GZipPayloadCodec(), 0);
         }
 
         byte[] bytes;
@@ -901,7 +904,8 @@ public class CloudServiceImpl
 
         CloudPayloadEncoder encoder = new CloudPayloadProtoBufEncoderImpl(payload);
         if (this.options.getEncodeGzip()) {
-            encoder = new CloudPayloadGZipEncoder(encoder);
+            encoder = new CloudPayloadCompressionEncoder(encoder, this.payloadCodec,
+                    this.options.getCompressionThreshold());
         }
 
         try {
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import java.io.IOException;
+
+import org.eclipse.kura.core.util.GZipUtil;
+
+/**
+ * Compresses payloads in the gzip format (RFC 1952), identified by the leading bytes {@code 0x1f 0x8b}.
+ */
+public class GZipPayloadCodec implements CloudPayloadCodec {
+
+    @Override
+    public byte[] compress(byte[] source) throws IOException {
+        return GZipUtil.compress(source);
+    }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+/**
+ * Field numbers and metric value types defined by kurapayload.proto, used by the streaming encoder and decoder.
+ */
+final class KuraPayloadProtoFields {
+
+    static final int PAYLOAD_TIMESTAMP = 1;
+    static final int PAYLOAD_POSITION = 2;
+    static final int PAYLOAD_METRIC = 5000;
+    static final int PAYLOAD_BODY = 5001;
+
+    static final int POSITION_LATITUDE = 1;
+    static final int POSITION_LONGITUDE = 2;
+    static final int POSITION_ALTITUDE = 3;
+    static final int POSITION_PRECISION = 4;
+    static final int POSITION_HEADING = 5;
+    static final int POSITION_SPEED = 6;
+    static final int POSITION_TIMESTAMP = 7;
+    static final int POSITION_SATELLITES = 8;
+    static final int POSITION_STATUS = 9;
+
+    static final int METRIC_NAME = 1;
+    static final int METRIC_TYPE = 2;
+    static final int METRIC_DOUBLE_VALUE = 3;
+    static final int METRIC_FLOAT_VALUE = 4;
+    static final int METRIC_LONG_VALUE = 5;
+    static final int METRIC_INT_VALUE = 6;
+    static final int METRIC_BOOL_VALUE = 7;
+    static final int METRIC_STRING_VALUE = 8;
+    static final int METRIC_BYTES_VALUE = 9;
+
+    static final int TYPE_DOUBLE = 0;
+    static final int TYPE_FLOAT = 1;
+    static final int TYPE_INT64 = 2;
+    static final int TYPE_INT32 = 3;
+    static final int TYPE_BOOL = 4;
+    static final int TYPE_STRING = 5;
+    static final int TYPE_BYTES = 6;
+
+    private KuraPayloadProtoFields() {
+    }
+}
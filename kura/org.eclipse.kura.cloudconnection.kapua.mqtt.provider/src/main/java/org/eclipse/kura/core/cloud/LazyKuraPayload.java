@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.kura.message.KuraPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+
+/**
+ * A {@link KuraPayload} whose metrics are decoded from the protobuf encoded representation the first time they are
+ * accessed. The encoded metrics must have been validated by {@link CloudPayloadProtoBufDecoderImpl}.
+ */
+final class LazyKuraPayload extends KuraPayload {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyKuraPayload.class);
+
+    private byte[] bytes;
+    private int[] metricBounds;
+    private final int metricCount;
+
+    private volatile boolean metricsDecoded;
+
+    LazyKuraPayload(final byte[] bytes, final int[] metricBounds, final int metricCount) {
+        this.bytes = bytes;
+        this.metricBounds = metricBounds;
+        this.metricCount = metricCount;
+    }
+
+    @Override
+    public Object getMetric(String name) {
+        decodeMetrics();
+        return super.getMetric(name);
+    }
+
+    @Override
+    public void addMetric(String name, Object value) {
+        decodeMetrics();
+        super.addMetric(name, value);
+    }
+
+    @Override
+    public void removeMetric(String name) {
+        decodeMetrics();
+        super.removeMetric(name);
+    }
+
+    @Override
+    public void removeAllMetrics() {
+        decodeMetrics();
+        super.removeAllMetrics();
+    }
+
+    @Override
+    public Set<String> metricNames() {
+        decodeMetrics();
+        return super.metricNames();
+    }
+
+    @Override
+    public Iterator<String> metricsIterator() {
+        decodeMetrics();
+        return super.metricsIterator();
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        decodeMetrics();
+        return super.metrics();
+    }
+
+    private void decodeMetrics() {
+        if (this.metricsDecoded) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.metricsDecoded) {
+                return;
+            }
+
+            try {
+                for (int i = 0; i < this.metricCount; i++) {
+                    decodeMetric(CodedInputStream.newInstance(this.bytes, this.metricBounds[i * 2],
+                            this.metricBounds[i * 2 + 1]));
+                }
+            } catch (IOException e) {
+                // not expected, the metrics have already been validated
+                throw new IllegalStateException("Failed to decode metrics", e);
+            }
+
+            this.bytes = null;
+            this.metricBounds = null;
+            this.metricsDecoded = true;
+        }
+    }
+
+    private void decodeMetric(final CodedInputStream in) throws IOException {
+        String name = null;
+        int type = -1;
+        double doubleValue = 0;
+        float floatValue = 0;
+        long longValue = 0;
+        int intValue = 0;
+        boolean boolValue = false;
+        byte[] stringValue = null;
+        byte[] bytesValue = null;
+
+        while (true) {
+            final int tag = in.readTag();
+
+            if (tag == 0) {
+                break;
+            }
+
+            final int wireType = WireFormat.getTagWireType(tag);
+
+            switch (WireFormat.getTagFieldNumber(tag)) {
+            case KuraPayloadProtoFields.METRIC_NAME:
+                if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    name = new String(in.readByteArray(), StandardCharsets.UTF_8);
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_TYPE:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    final int value = in.readEnum();
+                    if (CloudPayloadProtoBufDecoderImpl.isValidMetricType(value)) {
+                        type = value;
+                    }
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_DOUBLE_VALUE:
+                if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                    doubleValue = in.readDouble();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_FLOAT_VALUE:
+                if (wireType == WireFormat.WIRETYPE_FIXED32) {
+                    floatValue = in.readFloat();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_LONG_VALUE:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    longValue = in.readInt64();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_INT_VALUE:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    intValue = in.readInt32();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_BOOL_VALUE:
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    boolValue = in.readBool();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_STRING_VALUE:
+                if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    stringValue = in.readByteArray();
+                    continue;
+                }
+                break;
+            case KuraPayloadProtoFields.METRIC_BYTES_VALUE:
+                if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    bytesValue = in.readByteArray();
+                    continue;
+                }
+                break;
+            default:
+                break;
+            }
+
+            if (!in.skipField(tag)) {
+                break;
+            }
+        }
+
+        final Object value;
+
+        switch (type) {
+        case KuraPayloadProtoFields.TYPE_DOUBLE:
+            value = doubleValue;
+            break;
+        case KuraPayloadProtoFields.TYPE_FLOAT:
+            value = floatValue;
+            break;
+        case KuraPayloadProtoFields.TYPE_INT64:
+            value = longValue;
+            break;
+        case KuraPayloadProtoFields.TYPE_INT32:
+            value = intValue;
+            break;
+        case KuraPayloadProtoFields.TYPE_BOOL:
+            value = boolValue;
+            break;
+        case KuraPayloadProtoFields.TYPE_STRING:
+            value = stringValue != null ? new String(stringValue, StandardCharsets.UTF_8) : "";
+            break;
+        case KuraPayloadProtoFields.TYPE_BYTES:
+            value = bytesValue != null ? bytesValue : new byte[0];
+            break;
+        default:
+            logger.warn("During deserialization, ignoring metric named: {}. Unrecognized value type: {}", name, type);
+            return;
+        }
+
+        super.addMetric(name, value);
+    }
+}
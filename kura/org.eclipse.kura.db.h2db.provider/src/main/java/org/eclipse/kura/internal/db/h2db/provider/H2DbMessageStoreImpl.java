@@ -18,7 +18,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.message.store.StoredMessage;
@@ -71,6 +73,7 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
 
         super.createTable();
         super.createIndexes();
+        super.initMessageCount();
     }
 
     @Override
@@ -95,12 +98,18 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
                         + this.escapedTableName + " AS a JOIN (SELECT id, publishedOn FROM " + super.escapedTableName
                         + " ORDER BY publishedOn ASC NULLS FIRST, priority ASC, createdOn ASC LIMIT 1) AS b "
                         + "WHERE a.id = b.id AND b.publishedOn IS NULL;")
+                .withSqlGetNextMessages(
+                        "SELECT id, topic, qos, retain, createdOn, publishedOn, publishedMessageId, confirmedOn, "
+                                + "smallPayload, largePayload, priority, sessionId, droppedOn FROM " + super.escapedTableName
+                                + " WHERE publishedOn IS NULL ORDER BY priority ASC, createdOn ASC, id ASC LIMIT ?;")
                 .withSqlSetPublishedQoS1(UPDATE + super.escapedTableName
                         + " SET publishedOn = ?, publishedMessageId = ?, sessionId = ? WHERE id = ?;")
                 .withSqlSetPublishedQoS0(UPDATE + super.escapedTableName + " SET publishedOn = ? WHERE id = ?;")
                 .withSqlSetConfirmed(UPDATE + this.escapedTableName + " SET confirmedOn = ? WHERE id = ?;")
                 .withSqlAllUnpublishedMessages(SELECT_MESSAGE_METADATA_FROM + super.escapedTableName
                         + " WHERE publishedOn IS NULL ORDER BY priority ASC, createdOn ASC;")
+                .withSqlUnpublishedMessageCountByPriority("SELECT priority, COUNT(*) FROM " + super.escapedTableName
+                        + " WHERE publishedOn IS NULL GROUP BY priority;")
                 .withSqlAllInFlightMessages(SELECT_MESSAGE_METADATA_FROM + super.escapedTableName
                         + " WHERE publishedOn IS NOT NULL AND qos > 0 AND confirmedOn IS NULL AND droppedOn IS NULL "
                         + "ORDER BY priority ASC, createdOn ASC")
@@ -137,13 +146,18 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
 
         validate(topic);
 
+        int result;
+
         try {
-            return (int) storeInternal(topic, payload, qos, retain, priority);
+            result = (int) storeInternal(topic, payload, qos, retain, priority);
         } catch (KuraStoreException e) {
             handleKuraStoreException(e);
-            return (int) storeInternal(topic, payload, qos, retain, priority);
+            result = (int) storeInternal(topic, payload, qos, retain, priority);
         }
 
+        super.updateMessageCount(1);
+        return result;
+
     }
 
     private void handleKuraStoreException(final KuraStoreException e) throws KuraStoreException {
@@ -174,6 +188,29 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
         throw e;
     }
 
+    @Override
+    public synchronized List<Integer> store(List<StoredMessage> messages) throws KuraStoreException {
+
+        List<Long> ids;
+
+        try {
+            ids = storeInternal(messages);
+        } catch (KuraStoreException e) {
+            handleKuraStoreException(e);
+            ids = storeInternal(messages);
+        }
+
+        super.updateMessageCount(ids.size());
+
+        final List<Integer> result = new ArrayList<>(ids.size());
+
+        for (final Long id : ids) {
+            result.add(id.intValue());
+        }
+
+        return result;
+    }
+
     @Override
     protected synchronized long storeInternal(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException {
@@ -185,29 +222,11 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
             final long result;
 
             try (PreparedStatement pstmt = c.prepareStatement(super.queries.getSqlStore(), new String[] { "id" })) {
-                pstmt.setString(1, topic);
-                pstmt.setInt(2, qos);
-                pstmt.setBoolean(3, retain);
-                pstmt.setTimestamp(4, now, this.utcCalendar);
-                pstmt.setTimestamp(5, null);
-                pstmt.setInt(6, -1);
-                pstmt.setTimestamp(7, null);
-
-                if (payload == null || payload.length < PAYLOAD_BYTE_SIZE_THRESHOLD) {
-                    pstmt.setBytes(8, payload);
-                    pstmt.setNull(9, Types.BLOB);
-                } else {
-                    pstmt.setNull(8, Types.VARBINARY);
-                    pstmt.setBinaryStream(9, new ByteArrayInputStream(payload), payload.length);
-                }
-
-                pstmt.setInt(10, priority);
-                pstmt.setString(11, null);
-                pstmt.setTimestamp(12, null);
+                setStoreParameters(pstmt, topic, payload, qos, retain, priority, now);
 
                 pstmt.execute();
 
-                result = (long) JdbcUtil.getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getInt);
+                result = getGeneratedId(pstmt);
 
             }
 
@@ -218,6 +237,35 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
 
     }
 
+    @Override
+    protected void setStoreParameters(final PreparedStatement pstmt, String topic, byte[] payload, int qos,
+            boolean retain, int priority, final Timestamp now) throws SQLException {
+        pstmt.setString(1, topic);
+        pstmt.setInt(2, qos);
+        pstmt.setBoolean(3, retain);
+        pstmt.setTimestamp(4, now, this.utcCalendar);
+        pstmt.setTimestamp(5, null);
+        pstmt.setInt(6, -1);
+        pstmt.setTimestamp(7, null);
+
+        if (payload == null || payload.length < PAYLOAD_BYTE_SIZE_THRESHOLD) {
+            pstmt.setBytes(8, payload);
+            pstmt.setNull(9, Types.BLOB);
+        } else {
+            pstmt.setNull(8, Types.VARBINARY);
+            pstmt.setBinaryStream(9, new ByteArrayInputStream(payload), payload.length);
+        }
+
+        pstmt.setInt(10, priority);
+        pstmt.setString(11, null);
+        pstmt.setTimestamp(12, null);
+    }
+
+    @Override
+    protected long getGeneratedId(final PreparedStatement pstmt) throws SQLException {
+        return JdbcUtil.getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getInt);
+    }
+
     @Override
     protected Builder buildStoredMessageBuilder(ResultSet rs, boolean includePayload) throws SQLException {
         StoredMessage.Builder result = super.buildStoredMessageBuilder(rs, false);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,7 +12,11 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.db.sqlite.provider;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.message.store.StoredMessage;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.message.store.AbstractJdbcMessageStoreImpl;
 import org.eclipse.kura.util.message.store.JdbcMessageStoreQueries;
@@ -40,6 +44,7 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
 
         createTable();
         createIndexes();
+        initMessageCount();
     }
 
     @Override
@@ -63,12 +68,18 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
                         + escapedTableName + " AS a JOIN (SELECT id, publishedOn FROM " + super.escapedTableName
                         + " ORDER BY publishedOn ASC NULLS FIRST, priority ASC, createdOn ASC LIMIT 1) AS b "
                         + "WHERE a.id = b.id AND b.publishedOn IS NULL;")
+                .withSqlGetNextMessages(
+                        "SELECT id, topic, qos, retain, createdOn, publishedOn, publishedMessageId, confirmedOn, "
+                                + "payload, priority, sessionId, droppedOn FROM " + super.escapedTableName
+                                + " WHERE publishedOn IS NULL ORDER BY priority ASC, createdOn ASC, id ASC LIMIT ?;")
                 .withSqlSetPublishedQoS1(UPDATE + super.escapedTableName
                         + " SET publishedOn = ?, publishedMessageId = ?, sessionId = ? WHERE id = ?;")
                 .withSqlSetPublishedQoS0(UPDATE + super.escapedTableName + " SET publishedOn = ? WHERE id = ?;")
                 .withSqlSetConfirmed(UPDATE + escapedTableName + " SET confirmedOn = ? WHERE id = ?;")
                 .withSqlAllUnpublishedMessages(SELECT_MESSAGE_METADATA_FROM + super.escapedTableName
                         + " WHERE publishedOn IS NULL ORDER BY priority ASC, createdOn ASC;")
+                .withSqlUnpublishedMessageCountByPriority("SELECT priority, COUNT(*) FROM " + super.escapedTableName
+                        + " WHERE publishedOn IS NULL GROUP BY priority;")
                 .withSqlAllInFlightMessages(SELECT_MESSAGE_METADATA_FROM + super.escapedTableName
                         + " WHERE publishedOn IS NOT NULL AND qos > 0 AND confirmedOn IS NULL AND droppedOn IS NULL "
                         + "ORDER BY priority ASC, createdOn ASC")
@@ -115,11 +126,48 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
             }
 
             super.execute(this.sqlResetId);
-            return (int) super.storeInternal(topic, payload, qos, retain, priority);
+            final int result = (int) super.storeInternal(topic, payload, qos, retain, priority);
+            super.updateMessageCount(1);
+            return result;
         }
 
+        super.updateMessageCount(1);
         return (int) id;
 
     }
 
+    @Override
+    public synchronized List<Integer> store(List<StoredMessage> messages) throws KuraStoreException {
+
+        final List<Long> ids = super.storeInternal(messages);
+        final List<Integer> result = new ArrayList<>(ids.size());
+
+        for (int i = 0; i < ids.size(); i++) {
+            final long id = ids.get(i);
+
+            if (id > Integer.MAX_VALUE) {
+                // identifier space exhausted, delete the remaining messages of the batch and store
+                // them one by one, this will reset the identifier generator
+                for (int j = i; j < ids.size(); j++) {
+                    super.execute(this.sqlDeleteMessage, ids.get(j));
+                }
+
+                super.updateMessageCount(i);
+
+                for (int j = i; j < ids.size(); j++) {
+                    final StoredMessage message = messages.get(j);
+                    result.add(store(message.getTopic(), message.getPayload(), message.getQos(), message.isRetain(),
+                            message.getPriority()));
+                }
+
+                return result;
+            }
+
+            result.add((int) id);
+        }
+
+        super.updateMessageCount(result.size());
+        return result;
+    }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -64,6 +64,13 @@ import org.slf4j.LoggerFactory;
  * This class provides a default implementation for the {@link #read(List)}, {@link #write(List)} and
  * {@link #prepareRead(List)} methods of the {@link Driver} interface.
  * </p>
+ * <p>
+ * Reads, including the execution of {@link PreparedRead} instances, that are requested while the driver is busy are
+ * queued and then executed together, aggregating the records of all the queued requests in a single pass. This allows
+ * to serve with the same transfers the requests for overlapping or adjacent blocks coming from different assets
+ * attached to the driver. The tasks of a merged pass are run giving priority to ad hoc reads and then to the prepared
+ * reads that are executed more frequently, and each request returns as soon as its records have been read.
+ * </p>
  *
  * @param <T>
  *            the type of the domain, can be any type suitable for being used as an {@link java.util.HashMap} key
@@ -72,6 +79,8 @@ public abstract class AbstractBlockDriver<T> implements Driver {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractBlockDriver.class);
 
+    private final BlockReadScheduler<T> readScheduler = new BlockReadScheduler<>(this);
+
     /**
      * This method must provide a {@link BlockFactory} that can be used for creating {@link ToplevelBlockTask} instances
      * responsible of implementing the I/O operations for the specified domain.
@@ -217,6 +226,20 @@ public abstract class AbstractBlockDriver<T> implements Driver {
         }
     }
 
+    /**
+     * Executes the provided {@link BlockTask} instances, resulting from an aggregation, in order. Implementors can
+     * override this method, for example for transferring the data of multiple tasks with a single request. The default
+     * implementation calls {@link #runTask(BlockTask)} on each task.
+     *
+     * @param tasks
+     *            the {@link BlockTask} instances to be run
+     */
+    protected void runTasks(List<BlockTask> tasks) {
+        for (BlockTask task : tasks) {
+            runTask(task);
+        }
+    }
+
     @Override
     public void registerChannelListener(final Map<String, Object> channelConfig, final ChannelListener listener)
             throws ConnectionException {
@@ -229,24 +252,15 @@ public abstract class AbstractBlockDriver<T> implements Driver {
     }
 
     @Override
-    public synchronized void read(final List<ChannelRecord> records) throws ConnectionException {
-        connect();
-        try {
-            optimize(records, Mode.READ).forEach(this::runTask);
-        } catch (Exception e) {
-            logger.warn("Unexpected exception during read", e);
-            for (ChannelRecord record : records) {
-                record.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE, e.getMessage(), e));
-                record.setTimestamp(System.currentTimeMillis());
-            }
-        }
+    public void read(final List<ChannelRecord> records) throws ConnectionException {
+        this.readScheduler.read(records);
     }
 
     @Override
     public synchronized void write(final List<ChannelRecord> records) throws ConnectionException {
         connect();
         try {
-            optimize(records, Mode.WRITE).forEach(this::runTask);
+            runTasks(optimize(records, Mode.WRITE));
         } catch (Exception e) {
             logger.warn("Unexpected exception during write", e);
             for (ChannelRecord record : records) {
@@ -277,6 +291,7 @@ public abstract class AbstractBlockDriver<T> implements Driver {
 
         private final List<ChannelRecord> records;
         private final List<BlockTask> tasks;
+        private final BlockReadScheduler.PeriodEstimator periodEstimator = new BlockReadScheduler.PeriodEstimator();
 
         public BlockPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
             this.records = records;
@@ -285,17 +300,13 @@ public abstract class AbstractBlockDriver<T> implements Driver {
 
         @Override
         public void close() throws Exception {
+            AbstractBlockDriver.this.readScheduler.discard(this.periodEstimator);
         }
 
         @Override
         public List<ChannelRecord> execute() throws ConnectionException, KuraException {
-            synchronized (AbstractBlockDriver.this) {
-                connect();
-                for (BlockTask task : this.tasks) {
-                    runTask(task);
-                }
-                return this.records;
-            }
+            AbstractBlockDriver.this.readScheduler.execute(this.periodEstimator, this.records, this.tasks);
+            return this.records;
         }
 
         @Override
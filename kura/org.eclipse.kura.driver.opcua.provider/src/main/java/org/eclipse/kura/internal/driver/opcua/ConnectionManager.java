@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,9 +20,11 @@ import static org.eclipse.kura.internal.driver.opcua.Utils.runSafe;
 import java.security.KeyPair;
 import java.security.KeyStore.PrivateKeyEntry;
 import java.security.cert.X509Certificate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -120,13 +122,32 @@ public class ConnectionManager {
         this.subscriptionManager.onRegistrationsChanged();
     }
 
+    /**
+     * Reads the provided requests splitting them in chunks of at most {@link OpcUaOptions#getMaxItemCountPerRequest()}
+     * items. Up to {@link OpcUaOptions#getMaxConcurrentRequests()} chunks are sent to the server without waiting for
+     * the responses of the previous ones, the responses are processed in the order of the chunks.
+     *
+     * @param requests
+     *            the requests to be read
+     * @throws Exception
+     *             if a chunk fails or does not complete within the request timeout
+     */
     public void read(final List<Request<ReadParams>> requests) throws Exception {
 
         final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
-        final ArrayList<ReadValueId> tempList = new ArrayList<>(maxItemsPerRequest);
+        final int maxConcurrentRequests = this.options.getMaxConcurrentRequests();
+        final Deque<PendingRead> pendingReads = new ArrayDeque<>(maxConcurrentRequests);
 
         for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
-            this.read(requests.subList(i, Math.min(i + maxItemsPerRequest, requests.size())), tempList);
+            if (pendingReads.size() >= maxConcurrentRequests) {
+                pendingReads.removeFirst().complete();
+            }
+            final int end = Math.min(i + maxItemsPerRequest, requests.size());
+            pendingReads.addLast(new PendingRead(requests.subList(i, end)));
+        }
+
+        while (!pendingReads.isEmpty()) {
+            pendingReads.removeFirst().complete();
         }
     }
 
@@ -140,24 +161,6 @@ public class ConnectionManager {
         }
     }
 
-    private void read(final List<Request<ReadParams>> requests, final List<ReadValueId> tempList) throws Exception {
-        tempList.clear();
-
-        for (final Request<ReadParams> request : requests) {
-            tempList.add(request.getParameters().getReadValueId());
-        }
-
-        final ReadResponse response = runSafe(this.client.read(0.0, TimestampsToReturn.Both, tempList),
-                this.options.getRequestTimeout(), ex -> this.failureHandler.accept(this, ex));
-
-        final DataValue[] results = response.getResults();
-        for (int i = 0; i < requests.size(); i++) {
-            fillRecord(results[i], requests.get(i).getRecord());
-        }
-
-        logger.debug("Read Successful");
-    }
-
     private void write(final List<Request<WriteParams>> requests, final List<WriteValue> tempList) throws Exception {
         tempList.clear();
 
@@ -195,6 +198,35 @@ public class ConnectionManager {
                                 })));
     }
 
+    private final class PendingRead {
+
+        private final List<Request<ReadParams>> requests;
+        private final CompletableFuture<ReadResponse> response;
+
+        PendingRead(final List<Request<ReadParams>> requests) {
+            final List<ReadValueId> readValueIds = new ArrayList<>(requests.size());
+
+            for (final Request<ReadParams> request : requests) {
+                readValueIds.add(request.getParameters().getReadValueId());
+            }
+
+            this.requests = requests;
+            this.response = ConnectionManager.this.client.read(0.0, TimestampsToReturn.Both, readValueIds);
+        }
+
+        void complete() throws Exception {
+            final ReadResponse readResponse = runSafe(this.response, ConnectionManager.this.options.getRequestTimeout(),
+                    ex -> ConnectionManager.this.failureHandler.accept(ConnectionManager.this, ex));
+
+            final DataValue[] results = readResponse.getResults();
+            for (int i = 0; i < this.requests.size(); i++) {
+                fillRecord(results[i], this.requests.get(i).getRecord());
+            }
+
+            logger.debug("Read Successful");
+        }
+    }
+
     private static String getEndpointString(final OpcUaOptions options) {
         // opc.tcp://<IP>:<PORT>/<SERVER_NAME>
         final String serverName = options.getServerName();
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2016, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,8 @@ import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 
 /**
  * OPC-UA specific channel descriptor. The descriptor contains the following
@@ -49,6 +51,9 @@ public final class OpcUaChannelDescriptor implements ChannelDescriptor {
     private static final String LISTEN_SAMPLING_INTERVAL_PROP_NAME = "listen.sampling.interval";
     private static final String LISTEN_QUEUE_SIZE_PROP_NAME = "listen.queue.size";
     private static final String LISTEN_DISCARD_OLDEST_PROP_NAME = "listen.discard.oldest";
+    private static final String LISTEN_DATA_CHANGE_TRIGGER_PROP_NAME = "listen.data.change.trigger";
+    private static final String LISTEN_DEADBAND_TYPE_PROP_NAME = "listen.deadband.type";
+    private static final String LISTEN_DEADBAND_VALUE_PROP_NAME = "listen.deadband.value";
     private static final String LISTEN_SUBSCRIBE_TO_CHILDREN_PROP_NAME = "listen.subscribe.to.children";
 
     private static final String NODE_ID_DEFAULT = "MyNode";
@@ -59,6 +64,9 @@ public final class OpcUaChannelDescriptor implements ChannelDescriptor {
     private static final String LISTEN_SAMPLING_INTERVAL_DEFAULT = "1000";
     private static final String LISTEN_QUEUE_SIZE_DEFAULT = "10";
     private static final String LISTEN_DISCARD_OLDEST_DEFAULT = "true";
+    private static final String LISTEN_DATA_CHANGE_TRIGGER_DEFAULT = DataChangeTrigger.StatusValue.name();
+    private static final String LISTEN_DEADBAND_TYPE_DEFAULT = DeadbandType.None.name();
+    private static final String LISTEN_DEADBAND_VALUE_DEFAULT = "0.0";
     private static final String LISTEN_SUBSCRIBE_TO_CHILDREN_DEFAULT = "false";
 
     private static void addOptions(Tad target, Enum<?>[] values) {
@@ -161,6 +169,41 @@ public final class OpcUaChannelDescriptor implements ChannelDescriptor {
 
         elements.add(discardOldest);
 
+        final Tad dataChangeTrigger = new Tad();
+        dataChangeTrigger.setName("%" + LISTEN_DATA_CHANGE_TRIGGER_PROP_NAME);
+        dataChangeTrigger.setId(LISTEN_DATA_CHANGE_TRIGGER_PROP_NAME);
+        dataChangeTrigger.setDescription("%" + LISTEN_DATA_CHANGE_TRIGGER_PROP_NAME + "Desc");
+        dataChangeTrigger.setType(Tscalar.STRING);
+        dataChangeTrigger.setRequired(true);
+        dataChangeTrigger.setDefault(LISTEN_DATA_CHANGE_TRIGGER_DEFAULT);
+
+        addOptions(dataChangeTrigger, DataChangeTrigger.values());
+
+        elements.add(dataChangeTrigger);
+
+        final Tad deadbandType = new Tad();
+        deadbandType.setName("%" + LISTEN_DEADBAND_TYPE_PROP_NAME);
+        deadbandType.setId(LISTEN_DEADBAND_TYPE_PROP_NAME);
+        deadbandType.setDescription("%" + LISTEN_DEADBAND_TYPE_PROP_NAME + "Desc");
+        deadbandType.setType(Tscalar.STRING);
+        deadbandType.setRequired(true);
+        deadbandType.setDefault(LISTEN_DEADBAND_TYPE_DEFAULT);
+
+        addOptions(deadbandType, DeadbandType.values());
+
+        elements.add(deadbandType);
+
+        final Tad deadbandValue = new Tad();
+        deadbandValue.setName("%" + LISTEN_DEADBAND_VALUE_PROP_NAME);
+        deadbandValue.setId(LISTEN_DEADBAND_VALUE_PROP_NAME);
+        deadbandValue.setDescription("%" + LISTEN_DEADBAND_VALUE_PROP_NAME + "Desc");
+        deadbandValue.setType(Tscalar.DOUBLE);
+        deadbandValue.setRequired(true);
+        deadbandValue.setDefault(LISTEN_DEADBAND_VALUE_DEFAULT);
+        deadbandValue.setMin("0.0");
+
+        elements.add(deadbandValue);
+
         final Tad subscribeToChildren = new Tad();
         subscribeToChildren.setName("%" + LISTEN_SUBSCRIBE_TO_CHILDREN_PROP_NAME);
         subscribeToChildren.setId(LISTEN_SUBSCRIBE_TO_CHILDREN_PROP_NAME);
@@ -233,6 +276,30 @@ public final class OpcUaChannelDescriptor implements ChannelDescriptor {
         return Boolean.valueOf(discardOldest);
     }
 
+    public static DataChangeTrigger getDataChangeTrigger(Map<String, Object> properties) {
+        Object dataChangeTrigger = properties.get(LISTEN_DATA_CHANGE_TRIGGER_PROP_NAME);
+        if (dataChangeTrigger == null) {
+            return DataChangeTrigger.StatusValue;
+        }
+        return DataChangeTrigger.valueOf(dataChangeTrigger.toString());
+    }
+
+    public static DeadbandType getDeadbandType(Map<String, Object> properties) {
+        Object deadbandType = properties.get(LISTEN_DEADBAND_TYPE_PROP_NAME);
+        if (deadbandType == null) {
+            return DeadbandType.None;
+        }
+        return DeadbandType.valueOf(deadbandType.toString());
+    }
+
+    public static double getDeadbandValue(Map<String, Object> properties) {
+        Object deadbandValue = properties.get(LISTEN_DEADBAND_VALUE_PROP_NAME);
+        if (deadbandValue == null) {
+            return 0.0;
+        }
+        return Double.parseDouble(deadbandValue.toString());
+    }
+
     public static boolean getSubscribeToChildren(Map<String, Object> properties) {
         String discardOldest = properties.get(LISTEN_SUBSCRIBE_TO_CHILDREN_PROP_NAME).toString();
         return Boolean.valueOf(discardOldest);
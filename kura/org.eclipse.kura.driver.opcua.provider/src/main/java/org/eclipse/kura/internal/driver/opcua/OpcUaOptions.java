@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2016, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -138,6 +138,8 @@ final class OpcUaOptions {
 
     private static final String MAX_REQUEST_ITEMS = "max.request.items";
 
+    private static final String MAX_CONCURRENT_REQUESTS = "max.concurrent.requests";
+
     private static final String MAX_CONNECT_RETRY = "max.connect.retry";
 
     private static final String FORCE_ENDPOINT_URL = "force.endpoint.url";
@@ -429,6 +431,14 @@ final class OpcUaOptions {
         return 10;
     }
 
+    int getMaxConcurrentRequests() {
+        final Object maxConcurrentRequests = this.properties.get(MAX_CONCURRENT_REQUESTS);
+        if (maxConcurrentRequests instanceof Integer) {
+            return Math.max(1, (Integer) maxConcurrentRequests);
+        }
+        return 4;
+    }
+
     int getMaxConnectRetry() {
         final Object maxConnectRetry = this.properties.get(MAX_CONNECT_RETRY);
         if (maxConnectRetry instanceof Integer) {
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -48,9 +48,12 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.QualifiedName;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.MonitoringMode;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.ContentFilter;
+import org.eclipse.milo.opcua.stack.core.types.structured.DataChangeFilter;
 import org.eclipse.milo.opcua.stack.core.types.structured.EventFilter;
 import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateRequest;
 import org.eclipse.milo.opcua.stack.core.types.structured.MonitoringParameters;
@@ -328,11 +331,26 @@ public class SubscriptionManager implements SubscriptionListener, ListenerRegist
             final ReadValueId readValueId = params.getReadValueId();
             final boolean isEventNotifier = AttributeId.EventNotifier.uid().equals(readValueId.getAttributeId());
             final MonitoringParameters monitoringParams = new MonitoringParameters(requestHandle,
-                    isEventNotifier ? 0.0 : params.getSamplingInterval(), isEventNotifier ? eventFilter : null,
-                    UInteger.valueOf(params.getQueueSize()), params.getDiscardOldest());
+                    isEventNotifier ? 0.0 : params.getSamplingInterval(),
+                    isEventNotifier ? eventFilter : getDataChangeFilter(params), UInteger.valueOf(params.getQueueSize()),
+                    params.getDiscardOldest());
             return new MonitoredItemCreateRequest(params.getReadValueId(), MonitoringMode.Reporting, monitoringParams);
         }
 
+        private ExtensionObject getDataChangeFilter(final ListenParams params) {
+            final DataChangeTrigger trigger = params.getDataChangeTrigger();
+            final DeadbandType deadbandType = params.getDeadbandType();
+
+            if (trigger == DataChangeTrigger.StatusValue && deadbandType == DeadbandType.None) {
+                // this is the behavior of the server when no filter is specified
+                return null;
+            }
+
+            final DataChangeFilter filter = new DataChangeFilter(trigger, UInteger.valueOf(deadbandType.getValue()),
+                    deadbandType == DeadbandType.None ? 0.0 : params.getDeadbandValue());
+            return ExtensionObject.encode(SubscriptionManager.this.client.getStaticSerializationContext(), filter);
+        }
+
         public Optional<UaMonitoredItem> getMonitoredItem() {
             return this.monitoredItem;
         }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@ package org.eclipse.kura.internal.driver.opcua.request;
 
 import java.util.Map;
 
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 
 public abstract class ListenParams extends ReadParams {
@@ -33,6 +35,12 @@ public abstract class ListenParams extends ReadParams {
 
     public abstract boolean getDiscardOldest();
 
+    public abstract DataChangeTrigger getDataChangeTrigger();
+
+    public abstract DeadbandType getDeadbandType();
+
+    public abstract double getDeadbandValue();
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -42,6 +50,10 @@ public abstract class ListenParams extends ReadParams {
         long temp;
         temp = Double.doubleToLongBits(getSamplingInterval());
         result = prime * result + (int) (temp ^ temp >>> 32);
+        result = prime * result + getDataChangeTrigger().hashCode();
+        result = prime * result + getDeadbandType().hashCode();
+        temp = Double.doubleToLongBits(getDeadbandValue());
+        result = prime * result + (int) (temp ^ temp >>> 32);
         return result;
     }
 
@@ -59,13 +71,22 @@ public abstract class ListenParams extends ReadParams {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        SingleNodeListenParams other = (SingleNodeListenParams) obj;
+        ListenParams other = (ListenParams) obj;
         if (getDiscardOldest() != other.getDiscardOldest()) {
             return false;
         }
         if (getQueueSize() != other.getQueueSize()) {
             return false;
         }
+        if (getDataChangeTrigger() != other.getDataChangeTrigger()) {
+            return false;
+        }
+        if (getDeadbandType() != other.getDeadbandType()) {
+            return false;
+        }
+        if (Double.doubleToLongBits(getDeadbandValue()) != Double.doubleToLongBits(other.getDeadbandValue())) {
+            return false;
+        }
         return Double.doubleToLongBits(getSamplingInterval()) == Double.doubleToLongBits(other.getSamplingInterval());
     }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2019, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2019, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,8 @@ import static org.eclipse.kura.internal.driver.opcua.Utils.tryExtract;
 import java.util.Map;
 
 import org.eclipse.kura.internal.driver.opcua.OpcUaChannelDescriptor;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 
 public class SingleNodeListenParams extends ListenParams {
@@ -25,13 +27,20 @@ public class SingleNodeListenParams extends ListenParams {
     private final double samplingInterval;
     private final long queueSize;
     private final boolean discardOldest;
+    private final DataChangeTrigger dataChangeTrigger;
+    private final DeadbandType deadbandType;
+    private final double deadbandValue;
 
     public SingleNodeListenParams(final ReadValueId readValueId, final double samplingInterval, final long queueSize,
-            final boolean discardOldest) {
+            final boolean discardOldest, final DataChangeTrigger dataChangeTrigger, final DeadbandType deadbandType,
+            final double deadbandValue) {
         super(readValueId);
         this.samplingInterval = samplingInterval;
         this.queueSize = queueSize;
         this.discardOldest = discardOldest;
+        this.dataChangeTrigger = dataChangeTrigger;
+        this.deadbandType = deadbandType;
+        this.deadbandValue = deadbandValue;
     }
 
     public SingleNodeListenParams(Map<String, Object> channelConfig) {
@@ -42,6 +51,12 @@ public class SingleNodeListenParams extends ListenParams {
                 "Error while retrieving Queue Size");
         this.discardOldest = tryExtract(channelConfig, OpcUaChannelDescriptor::getDiscardOldest,
                 "Error while retrieving Discard Oldest parameter");
+        this.dataChangeTrigger = tryExtract(channelConfig, OpcUaChannelDescriptor::getDataChangeTrigger,
+                "Error while retrieving Data Change Trigger");
+        this.deadbandType = tryExtract(channelConfig, OpcUaChannelDescriptor::getDeadbandType,
+                "Error while retrieving Deadband Type");
+        this.deadbandValue = tryExtract(channelConfig, OpcUaChannelDescriptor::getDeadbandValue,
+                "Error while retrieving Deadband Value");
     }
 
     @Override
@@ -59,4 +74,19 @@ public class SingleNodeListenParams extends ListenParams {
         return this.discardOldest;
     }
 
+    @Override
+    public DataChangeTrigger getDataChangeTrigger() {
+        return this.dataChangeTrigger;
+    }
+
+    @Override
+    public DeadbandType getDeadbandType() {
+        return this.deadbandType;
+    }
+
+    @Override
+    public double getDeadbandValue() {
+        return this.deadbandValue;
+    }
+
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2019, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2019, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
 
 package org.eclipse.kura.internal.driver.opcua.request;
 
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 
 public class SubtreeNodeListenParams extends ListenParams {
@@ -38,4 +40,19 @@ public class SubtreeNodeListenParams extends ListenParams {
     public boolean getDiscardOldest() {
         return this.rootParams.getDiscardOldest();
     }
+
+    @Override
+    public DataChangeTrigger getDataChangeTrigger() {
+        return this.rootParams.getDataChangeTrigger();
+    }
+
+    @Override
+    public DeadbandType getDeadbandType() {
+        return this.rootParams.getDeadbandType();
+    }
+
+    @Override
+    public double getDeadbandValue() {
+        return this.rootParams.getDeadbandValue();
+    }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2019, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2019, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@ package org.eclipse.kura.internal.driver.opcua.request;
 
 import java.util.Map;
 
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 
 public class TreeListenParams extends SingleNodeListenParams {
@@ -24,7 +26,8 @@ public class TreeListenParams extends SingleNodeListenParams {
     }
 
     public TreeListenParams(final ReadValueId readValueId, final double samplingInterval, final long queueSize,
-            final boolean discardOldest) {
-        super(readValueId, samplingInterval, queueSize, discardOldest);
+            final boolean discardOldest, final DataChangeTrigger dataChangeTrigger, final DeadbandType deadbandType,
+            final double deadbandValue) {
+        super(readValueId, samplingInterval, queueSize, discardOldest, dataChangeTrigger, deadbandType, deadbandValue);
     }
 }
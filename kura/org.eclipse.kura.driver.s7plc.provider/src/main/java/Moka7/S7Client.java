@@ -59,6 +59,11 @@ public class S7Client {
     public static final int errS7BufferTooSmall = 0x000C;
     public static final int errS7FunctionError = 0x000D;
     public static final int errS7InvalidParams = 0x000E;
+    public static final int errS7TooManyItems = 0x000F;
+    public static final int errS7SizeOverPDU = 0x0010;
+
+    // Max number of variables that can be transferred with a single ReadMultiVars/WriteMultiVars request
+    public static final int MaxVars = 20;
 
     // Public fields
     public boolean Connected = false;
@@ -153,6 +158,8 @@ public class S7Client {
     };
     private static final int Size_RD = 31;
     private static final int Size_WR = 35;
+    private static final int Size_MultiHeader = 19; // ReadMultiVars/WriteMultiVars header, up to Items count
+    private static final int Size_MultiItem = 12;   // Var spec. of a single item
 
     // S7 Get Block Info Request Header (contains also ISO Header and COTP Header)
     private static final byte S7_BI[] = { (byte) 0x03, (byte) 0x00, (byte) 0x00, (byte) 0x25, (byte) 0x02, (byte) 0xf0,
@@ -278,6 +285,10 @@ public class S7Client {
             return "S7 function refused by the CPU.";
         case errS7InvalidParams:
             return "Invalid parameters supplied to the function.";
+        case errS7TooManyItems:
+            return "Too many items (>20) in multi read/write.";
+        case errS7SizeOverPDU:
+            return "Total data exceeds the PDU size.";
         default:
             return "Unknown error : 0x" + Integer.toHexString(Error);
         }
@@ -735,6 +746,215 @@ public class S7Client {
         return this.LastError;
     }
 
+    /**
+     * Returns the size of the S7 PDU (ISO headers excluded) required by ReadMultiVars, the largest between the
+     * request and the reply telegram.
+     *
+     * @param ItemsCount
+     *            the number of items
+     * @param DataSize
+     *            the sum of the item sizes, each one rounded up to an even number of bytes
+     */
+    public static int ReadMultiVarsSize(int ItemsCount, int DataSize) {
+        return Math.max(12 + ItemsCount * Size_MultiItem, 14 + ItemsCount * 4 + DataSize);
+    }
+
+    /**
+     * Returns the size of the S7 PDU (ISO headers excluded) required by WriteMultiVars, the largest between the
+     * request and the reply telegram.
+     *
+     * @param ItemsCount
+     *            the number of items
+     * @param DataSize
+     *            the sum of the item sizes, each one rounded up to an even number of bytes
+     */
+    public static int WriteMultiVarsSize(int ItemsCount, int DataSize) {
+        return Math.max(12 + ItemsCount * (Size_MultiItem + 4) + DataSize, 14 + ItemsCount);
+    }
+
+    private int CheckMultiVars(S7DataItem[] Items, int ItemsCount, boolean Write) {
+        if (ItemsCount > MaxVars) {
+            return errS7TooManyItems;
+        }
+        if (ItemsCount <= 0 || Items == null || Items.length < ItemsCount) {
+            return errS7InvalidParams;
+        }
+
+        int DataSize = 0;
+        for (int c = 0; c < ItemsCount; c++) {
+            S7DataItem Item = Items[c];
+            if (Item.Area == S7.S7AreaCT || Item.Area == S7.S7AreaTM || Item.Amount <= 0 || Item.Data == null
+                    || Item.Data.length < Item.Amount) {
+                return errS7InvalidParams;
+            }
+            DataSize += Item.Amount + (Item.Amount & 1);
+        }
+
+        int Size = Write ? WriteMultiVarsSize(ItemsCount, DataSize) : ReadMultiVarsSize(ItemsCount, DataSize);
+        if (Size > this._PDULength) {
+            return errS7SizeOverPDU;
+        }
+        return 0;
+    }
+
+    private void SetupMultiVars(S7DataItem[] Items, int ItemsCount, byte Function, int DataLength) {
+        // Header
+        System.arraycopy(S7_RW, 0, this.PDU, 0, Size_MultiHeader);
+        S7.SetWordAt(this.PDU, 2, Size_MultiHeader + ItemsCount * Size_MultiItem + DataLength);
+        S7.SetShortAt(this.PDU, 11, PDUReference.getAndIncrement());
+        S7.SetWordAt(this.PDU, 13, 2 + ItemsCount * Size_MultiItem);
+        S7.SetWordAt(this.PDU, 15, DataLength);
+        this.PDU[17] = Function;
+        this.PDU[18] = (byte) ItemsCount;
+
+        // Var specs
+        int Offset = Size_MultiHeader;
+        for (int c = 0; c < ItemsCount; c++) {
+            S7DataItem Item = Items[c];
+            System.arraycopy(S7_RW, Size_MultiHeader, this.PDU, Offset, Size_MultiItem);
+            S7.SetWordAt(this.PDU, Offset + 4, Item.Amount);
+            if (Item.Area == S7.S7AreaDB) {
+                S7.SetWordAt(this.PDU, Offset + 6, Item.DBNumber);
+            }
+            this.PDU[Offset + 8] = (byte) Item.Area;
+            int Address = Item.Start << 3;
+            this.PDU[Offset + 11] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            this.PDU[Offset + 10] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            this.PDU[Offset + 9] = (byte) (Address & 0x0FF);
+            Offset += Size_MultiItem;
+        }
+    }
+
+    /**
+     * Reads up to MaxVars byte addressed variables with a single request. The whole request and its reply must fit
+     * the negotiated PDU length, see ReadMultiVarsSize().
+     * The returned value reports telegram level errors, the outcome of each variable is stored in its Result field.
+     */
+    public int ReadMultiVars(S7DataItem[] Items, int ItemsCount) {
+        int Length = 0;
+        int Offset;
+
+        this.LastError = CheckMultiVars(Items, ItemsCount, false);
+        if (this.LastError != 0) {
+            return this.LastError;
+        }
+
+        SetupMultiVars(Items, ItemsCount, (byte) 0x04, 0);
+
+        SendPacket(this.PDU, Size_MultiHeader + ItemsCount * Size_MultiItem);
+        if (this.LastError == 0) {
+            Length = RecvIsoPacket();
+            if (this.LastError == 0) {
+                if (Length < 19) {
+                    this.LastError = errS7InvalidPDU;
+                } else if (S7.GetWordAt(this.PDU, 17) != 0) {
+                    this.LastError = errS7FunctionError;
+                } else if (Length < 21 || this.PDU[20] != (byte) ItemsCount) {
+                    this.LastError = errS7InvalidPDU;
+                }
+            }
+            Offset = 21;
+            for (int c = 0; c < ItemsCount && this.LastError == 0; c++) {
+                S7DataItem Item = Items[c];
+                if (Offset + 4 > Length) {
+                    this.LastError = errS7InvalidPDU;
+                    break;
+                }
+                int Size = S7.GetWordAt(this.PDU, Offset + 2);
+                // Transport sizes Bit, Byte/Word/DWord and Integer report the length in bits
+                int TransportSize = this.PDU[Offset + 1];
+                if (TransportSize == 0x03 || TransportSize == 0x04 || TransportSize == 0x05) {
+                    Size = (Size + 7) >> 3;
+                }
+                if (this.PDU[Offset] != (byte) 0xFF) {
+                    Item.Result = errS7DataRead;
+                    Size = 0;
+                } else if (Offset + 4 + Size > Length) {
+                    this.LastError = errS7InvalidPDU;
+                    break;
+                } else if (Size != Item.Amount) {
+                    Item.Result = errS7DataRead;
+                } else {
+                    System.arraycopy(this.PDU, Offset + 4, Item.Data, 0, Size);
+                    Item.Result = 0;
+                }
+                Offset += 4 + Size + (Size & 1);
+            }
+        }
+        if (this.LastError != 0) {
+            for (int c = 0; c < ItemsCount; c++) {
+                Items[c].Result = this.LastError;
+            }
+        }
+        return this.LastError;
+    }
+
+    /**
+     * Writes up to MaxVars byte addressed variables with a single request. The whole request and its reply must fit
+     * the negotiated PDU length, see WriteMultiVarsSize().
+     * The returned value reports telegram level errors, the outcome of each variable is stored in its Result field.
+     */
+    public int WriteMultiVars(S7DataItem[] Items, int ItemsCount) {
+        int Length;
+        int Offset;
+        int DataLength = 0;
+
+        this.LastError = CheckMultiVars(Items, ItemsCount, true);
+        if (this.LastError != 0) {
+            return this.LastError;
+        }
+
+        for (int c = 0; c < ItemsCount; c++) {
+            int Amount = Items[c].Amount;
+            DataLength += 4 + Amount;
+            if (c < ItemsCount - 1) {
+                DataLength += Amount & 1;
+            }
+        }
+
+        SetupMultiVars(Items, ItemsCount, (byte) 0x05, DataLength);
+
+        // Data
+        Offset = Size_MultiHeader + ItemsCount * Size_MultiItem;
+        for (int c = 0; c < ItemsCount; c++) {
+            S7DataItem Item = Items[c];
+            this.PDU[Offset] = 0x00;     // Reserved
+            this.PDU[Offset + 1] = 0x04; // Transport size
+            S7.SetWordAt(this.PDU, Offset + 2, Item.Amount << 3);
+            System.arraycopy(Item.Data, 0, this.PDU, Offset + 4, Item.Amount);
+            Offset += 4 + Item.Amount;
+            if (c < ItemsCount - 1 && (Item.Amount & 1) != 0) {
+                this.PDU[Offset++] = 0x00;
+            }
+        }
+
+        SendPacket(this.PDU, Offset);
+        if (this.LastError == 0) {
+            Length = RecvIsoPacket();
+            if (this.LastError == 0) {
+                if (Length < 19) {
+                    this.LastError = errS7InvalidPDU;
+                } else if (S7.GetWordAt(this.PDU, 17) != 0) {
+                    this.LastError = errS7FunctionError;
+                } else if (Length < 21 + ItemsCount || this.PDU[20] != (byte) ItemsCount) {
+                    this.LastError = errS7InvalidPDU;
+                } else {
+                    for (int c = 0; c < ItemsCount; c++) {
+                        Items[c].Result = this.PDU[21 + c] == (byte) 0xFF ? 0 : errS7DataWrite;
+                    }
+                }
+            }
+        }
+        if (this.LastError != 0) {
+            for (int c = 0; c < ItemsCount; c++) {
+                Items[c].Result = this.LastError;
+            }
+        }
+        return this.LastError;
+    }
+
     public int GetAgBlockInfo(int BlockType, int BlockNumber, S7BlockInfo Block) {
         int Length;
         this.LastError = 0;
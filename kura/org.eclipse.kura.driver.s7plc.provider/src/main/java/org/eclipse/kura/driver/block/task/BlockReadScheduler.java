@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.driver.block.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Schedules the read operations performed by an {@link AbstractBlockDriver}.
+ * </p>
+ * <p>
+ * Reads requested while the driver is busy are queued and are executed together, as a batch, by the first thread that
+ * finds the driver idle. The records of all the requests in a batch are aggregated in a single pass, so that requests
+ * for overlapping or adjacent blocks, for example coming from different assets attached to the same driver, are served
+ * by the same transfers. The aggregation performed for a given set of prepared reads is cached.
+ * </p>
+ * <p>
+ * The resulting tasks are run in priority order, and each request is released as soon as all the tasks that
+ * contribute to its records have been run. Ad hoc reads come first, followed by prepared reads ordered by their
+ * estimated execution period, so that fast polling assets are served before slow ones. A request that is executed
+ * alone runs the tasks resulting from its own aggregation, as if no scheduler was involved.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the domain of the driver
+ */
+final class BlockReadScheduler<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockReadScheduler.class);
+
+    private static final int MAX_CACHED_PLANS = 16;
+    private static final long AD_HOC_READ_PERIOD = 0;
+    private static final long UNKNOWN_PERIOD = Long.MAX_VALUE;
+
+    private final AbstractBlockDriver<T> driver;
+    private final List<ReadRequest> pending = new ArrayList<>();
+    private final Map<Set<Object>, List<BlockTask>> cachedPlans = new LinkedHashMap<Set<Object>, List<BlockTask>>(
+            MAX_CACHED_PLANS, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Set<Object>, List<BlockTask>> eldest) {
+            return size() > MAX_CACHED_PLANS;
+        }
+    };
+    private boolean busy;
+
+    BlockReadScheduler(final AbstractBlockDriver<T> driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Reads the provided records, aggregating them with the reads requested concurrently.
+     *
+     * @param records
+     *            the records to be read
+     * @throws ConnectionException
+     *             if the connection to the field device fails
+     */
+    void read(final List<ChannelRecord> records) throws ConnectionException {
+        submit(new ReadRequest(null, records, null, AD_HOC_READ_PERIOD));
+    }
+
+    /**
+     * Executes a prepared read, aggregating it with the reads requested concurrently.
+     *
+     * @param periodEstimator
+     *            the {@link PeriodEstimator} of the prepared read, that also identifies it
+     * @param records
+     *            the records of the prepared read
+     * @param tasks
+     *            the tasks resulting from the aggregation of the records of the prepared read
+     * @throws ConnectionException
+     *             if the connection to the field device fails
+     */
+    void execute(final PeriodEstimator periodEstimator, final List<ChannelRecord> records, final List<BlockTask> tasks)
+            throws ConnectionException {
+        final long period;
+        synchronized (this) {
+            period = periodEstimator.update(System.nanoTime());
+        }
+        submit(new ReadRequest(periodEstimator, records, tasks, period));
+    }
+
+    /**
+     * Discards the cached aggregations that include the prepared read identified by the provided
+     * {@link PeriodEstimator}.
+     *
+     * @param periodEstimator
+     *            the {@link PeriodEstimator} of the prepared read that is no longer used
+     */
+    synchronized void discard(final PeriodEstimator periodEstimator) {
+        this.cachedPlans.keySet().removeIf(key -> key.contains(periodEstimator));
+    }
+
+    private void submit(final ReadRequest request) throws ConnectionException {
+        if (Thread.holdsLock(this.driver)) {
+            // the driver is already owned by this thread, waiting for another thread would result in a deadlock
+            executeBatch(Collections.singletonList(request));
+            request.rethrowFailure();
+            return;
+        }
+
+        final List<ReadRequest> batch;
+
+        synchronized (this) {
+            this.pending.add(request);
+
+            boolean interrupted = false;
+
+            try {
+                while (this.busy && !request.done) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        if (abandon(request)) {
+                            return;
+                        }
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (request.done) {
+                request.rethrowFailure();
+                return;
+            }
+
+            this.busy = true;
+            batch = new ArrayList<>(this.pending);
+            this.pending.clear();
+        }
+
+        try {
+            executeBatch(batch);
+        } finally {
+            synchronized (this) {
+                for (final ReadRequest batchRequest : batch) {
+                    batchRequest.done = true;
+                }
+                this.busy = false;
+                notifyAll();
+            }
+        }
+
+        request.rethrowFailure();
+    }
+
+    /**
+     * Drops a request whose thread has been interrupted while waiting. If the request is no longer pending it has
+     * already been taken by the thread executing the current batch, that is still writing its records: in this case
+     * the request cannot be abandoned and the caller must keep waiting until it is done.
+     *
+     * @return {@code true} if the request has been abandoned
+     */
+    private boolean abandon(final ReadRequest request) {
+        if (!this.pending.remove(request)) {
+            return false;
+        }
+        setFailure(request.records, new InterruptedException("Read interrupted while waiting for the driver"));
+        return true;
+    }
+
+    private void executeBatch(final List<ReadRequest> batch) {
+        synchronized (this.driver) {
+            try {
+                this.driver.connect();
+            } catch (ConnectionException e) {
+                for (final ReadRequest request : batch) {
+                    request.failure = e;
+                }
+                return;
+            }
+
+            if (batch.size() == 1) {
+                runAlone(batch.get(0));
+                return;
+            }
+
+            final List<BlockTask> tasks;
+
+            try {
+                tasks = getPlan(batch);
+            } catch (Exception e) {
+                logger.debug("Failed to aggregate concurrent reads, executing them separately", e);
+                for (final ReadRequest request : batch) {
+                    runAlone(request);
+                    complete(request);
+                }
+                return;
+            }
+
+            runInPriorityOrder(batch, tasks);
+        }
+    }
+
+    private void runAlone(final ReadRequest request) {
+        if (request.tasks != null) {
+            this.driver.runTasks(request.tasks);
+            return;
+        }
+
+        try {
+            this.driver.runTasks(this.driver.optimize(request.records, Mode.READ));
+        } catch (Exception e) {
+            logger.warn("Unexpected exception during read", e);
+            setFailure(request.records, e);
+        }
+    }
+
+    private List<BlockTask> getPlan(final List<ReadRequest> batch) throws Exception {
+        final List<ChannelRecord> records = new ArrayList<>();
+        final Set<Object> key = new HashSet<>();
+
+        for (final ReadRequest request : batch) {
+            records.addAll(request.records);
+            key.add(request.key);
+        }
+
+        if (key.contains(null) || key.size() != batch.size()) {
+            return this.driver.optimize(records, Mode.READ);
+        }
+
+        synchronized (this) {
+            final List<BlockTask> cached = this.cachedPlans.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final List<BlockTask> tasks = this.driver.optimize(records, Mode.READ);
+
+        synchronized (this) {
+            this.cachedPlans.put(key, tasks);
+        }
+
+        return tasks;
+    }
+
+    private void runInPriorityOrder(final List<ReadRequest> batch, final List<BlockTask> tasks) {
+        final List<ReadRequest> requests = new ArrayList<>(batch);
+        requests.sort(Comparator.comparingLong(request -> request.period));
+
+        final Map<ChannelRecord, Integer> ranks = new IdentityHashMap<>();
+
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            for (final ChannelRecord record : requests.get(i).records) {
+                ranks.put(record, i);
+            }
+        }
+
+        final List<List<BlockTask>> waves = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            waves.add(new ArrayList<>());
+        }
+
+        for (final BlockTask task : tasks) {
+            waves.get(getRank(task, ranks)).add(task);
+        }
+
+        int released = 0;
+
+        try {
+            for (; released < requests.size(); released++) {
+                final List<BlockTask> wave = waves.get(released);
+                if (!wave.isEmpty()) {
+                    this.driver.runTasks(wave);
+                }
+                complete(requests.get(released));
+            }
+        } catch (Exception e) {
+            logger.warn("Unexpected exception during read", e);
+            for (; released < requests.size(); released++) {
+                setFailure(requests.get(released).records, e);
+            }
+        }
+    }
+
+    private static int getRank(final BlockTask task, final Map<ChannelRecord, Integer> ranks) {
+        if (!(task instanceof ToplevelBlockTask)) {
+            return 0;
+        }
+
+        int rank = Integer.MAX_VALUE;
+
+        for (final BlockTask child : ((ToplevelBlockTask) task).getChildren()) {
+            final Integer childRank = child instanceof ChannelBlockTask
+                    ? ranks.get(((ChannelBlockTask) child).getRecord())
+                    : null;
+            rank = Math.min(rank, childRank != null ? childRank : 0);
+        }
+
+        return rank == Integer.MAX_VALUE ? 0 : rank;
+    }
+
+    private synchronized void complete(final ReadRequest request) {
+        request.done = true;
+        notifyAll();
+    }
+
+    private static void setFailure(final List<ChannelRecord> records, final Exception e) {
+        for (final ChannelRecord record : records) {
+            record.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE, e.getMessage(), e));
+            record.setTimestamp(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Estimates the execution period of a prepared read, using an exponential moving average of the intervals
+     * between consecutive executions. Must be accessed while holding the lock of the scheduler.
+     */
+    static final class PeriodEstimator {
+
+        private long lastExecutionNanos;
+        private long period = UNKNOWN_PERIOD;
+        private boolean executed;
+
+        long update(final long nowNanos) {
+            if (this.executed) {
+                final long interval = Math.max(0, nowNanos - this.lastExecutionNanos);
+                if (this.period == UNKNOWN_PERIOD) {
+                    this.period = interval;
+                } else {
+                    this.period += (interval - this.period) / 4;
+                }
+            }
+            this.executed = true;
+            this.lastExecutionNanos = nowNanos;
+            return this.period;
+        }
+    }
+
+    private static final class ReadRequest {
+
+        private final Object key;
+        private final List<ChannelRecord> records;
+        private final List<BlockTask> tasks;
+        private final long period;
+        private boolean done;
+        private ConnectionException failure;
+
+        ReadRequest(final Object key, final List<ChannelRecord> records, final List<BlockTask> tasks,
+                final long period) {
+            this.key = key;
+            this.records = records;
+            this.tasks = tasks;
+            this.period = period;
+        }
+
+        void rethrowFailure() throws ConnectionException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+        }
+    }
+}
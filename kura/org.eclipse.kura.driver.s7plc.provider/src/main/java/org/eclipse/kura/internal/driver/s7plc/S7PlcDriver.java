@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.kura.internal.driver.s7plc;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import Moka7.S7;
 import Moka7.S7Client;
+import Moka7.S7DataItem;
 
 /**
  * The Kura S7PlcDriver is a S7 PLC Driver implementation for Kura Asset-Driver
@@ -194,6 +196,141 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
         }
     }
 
+    @Override
+    protected void runTasks(List<BlockTask> tasks) {
+        final S7PlcOptions currentOptions = this.options.get();
+
+        if (currentOptions.isMultiVarReadEnabled()) {
+            readMultiVars(tasks);
+        }
+
+        if (!currentOptions.isMultiVarWriteEnabled()) {
+            super.runTasks(tasks);
+            return;
+        }
+
+        // the read tasks provide the data for read-update-write operations, they must be run before the children of
+        // the write tasks fill the buffers to be written
+        final List<BlockTask> writeTasks = new ArrayList<>();
+
+        for (final BlockTask task : tasks) {
+            if (task.getMode() == Mode.READ) {
+                runTask(task);
+            } else {
+                writeTasks.add(task);
+            }
+        }
+
+        writeMultiVars(writeTasks);
+
+        for (final BlockTask task : writeTasks) {
+            runTask(task);
+        }
+    }
+
+    /**
+     * Fills the buffers of the provided read tasks using as few multi-variable requests as the negotiated PDU length
+     * allows. The tasks whose buffer has not been filled, for example because the request failed, will perform a
+     * dedicated read request when they are run, this also takes care of reconnecting if needed.
+     */
+    private synchronized void readMultiVars(List<BlockTask> tasks) {
+        final List<S7PlcToplevelBlockTask> readTasks = new ArrayList<>();
+
+        for (final BlockTask task : tasks) {
+            if (task instanceof S7PlcToplevelBlockTask && task.getMode() == Mode.READ) {
+                readTasks.add((S7PlcToplevelBlockTask) task);
+            }
+        }
+
+        if (readTasks.size() < 2 || !this.state.client.Connected) {
+            return;
+        }
+
+        for (final List<S7PlcToplevelBlockTask> group : S7PlcTaskBuilder.pack(readTasks,
+                this.state.client.PDULength())) {
+            final S7DataItem[] items = new S7DataItem[group.size()];
+
+            for (int i = 0; i < items.length; i++) {
+                items[i] = group.get(i).toDataItem();
+            }
+
+            logger.debug("Reading {} blocks from PLC with a multi-variable request", items.length);
+            final int result = this.state.client.ReadMultiVars(items, items.length);
+
+            if (result != 0) {
+                logger.debug("Multi-variable read failed, Error: {}", S7Client.ErrorText(result));
+                if (result <= S7Client.errTCPConnectionReset) {
+                    return;
+                }
+                continue;
+            }
+
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].Result == 0) {
+                    group.get(i).setTransferred();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the buffers of the provided write tasks using as few multi-variable requests as the negotiated PDU
+     * length allows. The children of the packed tasks are run first to fill the buffers. The tasks whose buffer has
+     * not been written, for example because the request failed, will perform a dedicated write request when they are
+     * run, this also takes care of reconnecting if needed.
+     */
+    private synchronized void writeMultiVars(List<BlockTask> tasks) {
+        final List<S7PlcToplevelBlockTask> writeTasks = new ArrayList<>();
+
+        for (final BlockTask task : tasks) {
+            if (task instanceof S7PlcToplevelBlockTask && task.getMode() != Mode.READ) {
+                writeTasks.add((S7PlcToplevelBlockTask) task);
+            }
+        }
+
+        if (writeTasks.size() < 2 || !this.state.client.Connected) {
+            return;
+        }
+
+        for (final List<S7PlcToplevelBlockTask> group : S7PlcTaskBuilder.pack(writeTasks,
+                this.state.client.PDULength())) {
+            final List<S7PlcToplevelBlockTask> preparedTasks = new ArrayList<>(group.size());
+
+            for (final S7PlcToplevelBlockTask task : group) {
+                if (task.prepareWrite()) {
+                    preparedTasks.add(task);
+                }
+            }
+
+            if (preparedTasks.size() < 2) {
+                continue;
+            }
+
+            final S7DataItem[] items = new S7DataItem[preparedTasks.size()];
+
+            for (int i = 0; i < items.length; i++) {
+                items[i] = preparedTasks.get(i).toDataItem();
+            }
+
+            logger.debug("Writing {} blocks to PLC with a multi-variable request", items.length);
+            final int result = this.state.client.WriteMultiVars(items, items.length);
+
+            if (result != 0) {
+                logger.debug("Multi-variable write failed, Error: {}", S7Client.ErrorText(result));
+                if (result <= S7Client.errTCPConnectionReset) {
+                    return;
+                }
+                continue;
+            }
+
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].Result == 0) {
+                    preparedTasks.get(i).setTransferred();
+                }
+            }
+        }
+    }
+
     private void handleMoka7IOException(Moka7Exception e) {
         logger.warn("Operation failed due to IO error", e);
         if (e.getStatusCode() <= S7Client.errTCPConnectionReset) {
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -25,6 +25,8 @@ final class S7PlcOptions {
     private static final Property<Integer> RACK_PROP = new Property<>("rack", 0);
     private static final Property<Integer> SLOT_PROP = new Property<>("slot", 2);
     private static final Property<Integer> MINIMUM_GAP_SIZE_PROP = new Property<>("read.minimum.gap.size", 0);
+    private static final Property<Boolean> MULTI_VAR_READ_PROP = new Property<>("read.multi.var", true);
+    private static final Property<Boolean> MULTI_VAR_WRITE_PROP = new Property<>("write.multi.var", true);
 
     private final String ip;
     private final int port;
@@ -33,6 +35,8 @@ final class S7PlcOptions {
     private final int rack;
     private final int slot;
     private final int minimumGapSize;
+    private final boolean multiVarRead;
+    private final boolean multiVarWrite;
 
     S7PlcOptions(final Map<String, Object> properties) {
         this.ip = IP_PROP.get(properties);
@@ -42,6 +46,8 @@ final class S7PlcOptions {
         this.rack = RACK_PROP.get(properties);
         this.slot = SLOT_PROP.get(properties);
         this.minimumGapSize = MINIMUM_GAP_SIZE_PROP.get(properties);
+        this.multiVarRead = MULTI_VAR_READ_PROP.get(properties);
+        this.multiVarWrite = MULTI_VAR_WRITE_PROP.get(properties);
     }
 
     String getIp() {
@@ -72,6 +78,14 @@ final class S7PlcOptions {
         return this.minimumGapSize;
     }
 
+    boolean isMultiVarReadEnabled() {
+        return this.multiVarRead;
+    }
+
+    boolean isMultiVarWriteEnabled() {
+        return this.multiVarWrite;
+    }
+
     private static class Property<T> {
 
         private final String key;
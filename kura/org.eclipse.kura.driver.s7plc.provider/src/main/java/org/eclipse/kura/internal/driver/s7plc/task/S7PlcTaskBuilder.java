@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.kura.internal.driver.s7plc.task;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -37,6 +38,8 @@ import org.eclipse.kura.internal.driver.s7plc.S7PlcDataType;
 import org.eclipse.kura.internal.driver.s7plc.S7PlcDomain;
 import org.eclipse.kura.type.DataType;
 
+import Moka7.S7Client;
+
 public final class S7PlcTaskBuilder {
 
     private S7PlcTaskBuilder() {
@@ -184,6 +187,69 @@ public final class S7PlcTaskBuilder {
 
     }
 
+    /**
+     * Packs the provided tasks into groups that can be transferred with a single
+     * {@link S7Client#ReadMultiVars(Moka7.S7DataItem[], int)} request, or a single
+     * {@link S7Client#WriteMultiVars(Moka7.S7DataItem[], int)} request if the tasks are not in {@link Mode#READ}
+     * mode, given the negotiated PDU length.
+     * <br>
+     * Each task is added to the first group that can accommodate it, so that the number of requests is kept low even
+     * if the tasks have different sizes. Tasks that cannot be transferred with a multi-variable request, because they
+     * do not fit a PDU or are not byte addressed, and groups containing a single task are not returned, since they
+     * do not benefit from a multi-variable request.
+     *
+     * @param tasks
+     *            the tasks to be packed, either all in {@link Mode#READ} mode or all in a writing mode
+     * @param pduLength
+     *            the negotiated PDU length
+     * @return the groups of tasks, in the order of their first task
+     */
+    public static List<List<S7PlcToplevelBlockTask>> pack(List<S7PlcToplevelBlockTask> tasks, int pduLength) {
+        final List<List<S7PlcToplevelBlockTask>> groups = new ArrayList<>();
+        final List<int[]> groupSizes = new ArrayList<>();
+
+        for (final S7PlcToplevelBlockTask task : tasks) {
+            final int dataSize = paddedSize(task);
+            final boolean write = task.getMode() != Mode.READ;
+
+            if (!task.supportsMultiVars() || multiVarsSize(write, 1, dataSize) > pduLength) {
+                continue;
+            }
+
+            int index = 0;
+            while (index < groups.size()) {
+                final int[] size = groupSizes.get(index);
+                if (size[0] < S7Client.MaxVars
+                        && multiVarsSize(write, size[0] + 1, size[1] + dataSize) <= pduLength) {
+                    break;
+                }
+                index++;
+            }
+
+            if (index == groups.size()) {
+                groups.add(new ArrayList<>());
+                groupSizes.add(new int[2]);
+            }
+
+            groups.get(index).add(task);
+            groupSizes.get(index)[0]++;
+            groupSizes.get(index)[1] += dataSize;
+        }
+
+        groups.removeIf(group -> group.size() < 2);
+        return groups;
+    }
+
+    private static int multiVarsSize(boolean write, int itemsCount, int dataSize) {
+        return write ? S7Client.WriteMultiVarsSize(itemsCount, dataSize)
+                : S7Client.ReadMultiVarsSize(itemsCount, dataSize);
+    }
+
+    private static int paddedSize(S7PlcToplevelBlockTask task) {
+        final int size = task.getEnd() - task.getStart();
+        return size + (size & 1);
+    }
+
     public static Stream<Pair<S7PlcDomain, BlockTask>> build(List<ChannelRecord> records, Mode mode) {
         return records.stream().map((record) -> {
             try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,9 @@ import org.eclipse.kura.internal.driver.s7plc.S7PlcDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import Moka7.S7;
+import Moka7.S7DataItem;
+
 public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
 
     private static final Logger logger = LoggerFactory.getLogger(S7PlcDriver.class);
@@ -30,6 +33,9 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
     private final int areaNo;
     private ByteArrayBuffer data;
     private final S7PlcDriver driver;
+    private boolean isTransferred;
+    private boolean isPrepared;
+    private boolean isAborted;
 
     public S7PlcToplevelBlockTask(S7PlcDriver driver, Mode mode, int dbType, int dbNumber, int start, int end) {
         super(start, end, mode);
@@ -38,8 +44,102 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
         this.dbType = dbType;
     }
 
+    public int getDbType() {
+        return this.dbType;
+    }
+
+    public int getAreaNo() {
+        return this.areaNo;
+    }
+
+    /**
+     * Returns whether the buffer of this task can be transferred with a multi-variable request. Timers and Counters
+     * are not byte addressed and are always transferred with a dedicated request.
+     *
+     * @return {@code true} if the buffer can be transferred with a multi-variable request
+     */
+    public boolean supportsMultiVars() {
+        return this.dbType != S7.S7AreaCT && this.dbType != S7.S7AreaTM;
+    }
+
+    /**
+     * Returns a {@link S7DataItem} backed by the buffer of this task.
+     *
+     * @return the {@link S7DataItem}
+     */
+    public S7DataItem toDataItem() {
+        return new S7DataItem(this.dbType, this.areaNo, getStart(), getEnd() - getStart(),
+                ((ByteArrayBuffer) getBuffer()).getBackingArray());
+    }
+
+    /**
+     * Marks the buffer of this task as already transferred by a multi-variable request, the next call to
+     * {@link #processBuffer()} will not perform any I/O operation.
+     */
+    public void setTransferred() {
+        this.isTransferred = true;
+    }
+
+    /**
+     * Runs the children of a task that is not in {@link Mode#READ} mode, so that its buffer is filled with the data to
+     * be written and can be transferred with a multi-variable request. The next call to {@link #run()} will not run
+     * the children again.
+     *
+     * @return {@code true} if the buffer has been filled, {@code false} if the operation has been aborted by a child or
+     *         a child failed, in this case the failure has already been notified and the next call to {@link #run()}
+     *         will not perform any operation
+     */
+    public boolean prepareWrite() {
+        this.isPrepared = true;
+        this.isAborted = false;
+
+        try {
+            runChildren();
+        } catch (Exception e) {
+            this.isAborted = true;
+            onFailure(e);
+        }
+
+        return !this.isAborted;
+    }
+
+    @Override
+    public void abort(Exception exception) {
+        this.isAborted = true;
+        super.abort(exception);
+    }
+
+    @Override
+    public void run() throws IOException {
+        if (!this.isPrepared) {
+            super.run();
+            return;
+        }
+
+        this.isPrepared = false;
+
+        if (this.isAborted) {
+            return;
+        }
+
+        try {
+            processBuffer();
+            onSuccess();
+        } catch (Exception e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
     @Override
     public void processBuffer() throws IOException {
+        if (this.isTransferred) {
+            this.isTransferred = false;
+            logger.debug("DB{} offset: {} length: {} already transferred", this.areaNo, getStart(),
+                    getBuffer().getLength());
+            return;
+        }
+
         if (getMode() == Mode.READ) {
             logger.debug("Reading from PLC, DB{} offset: {} length: {}", this.areaNo, getStart(),
                     getBuffer().getLength());
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.eclipse.kura.message.store.provider.MessageStore;
+
+/**
+ * A {@link MessageStore} handle returned to the clients of the provider. Multiple handles can refer to the same
+ * {@link MessageJournal}, the journal is closed by the provider when all the handles have been closed.
+ */
+class JournalMessageStoreImpl implements MessageStore {
+
+    private final MessageJournal journal;
+    private final Consumer<MessageJournal> onClose;
+    private boolean closed;
+
+    JournalMessageStoreImpl(final MessageJournal journal, final Consumer<MessageJournal> onClose) {
+        this.journal = journal;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int store(final String topic, final byte[] payload, final int qos, final boolean retain,
+            final int priority) throws KuraStoreException {
+        checkOpen();
+        return this.journal.store(topic, payload, qos, retain, priority);
+    }
+
+    @Override
+    public List<Integer> store(final List<StoredMessage> messages) throws KuraStoreException {
+        checkOpen();
+        return this.journal.store(messages);
+    }
+
+    @Override
+    public void markAsPublished(final int msgId) throws KuraStoreException {
+        markAsPublished(Collections.singleton(msgId));
+    }
+
+    @Override
+    public void markAsPublished(final int msgId, final DataTransportToken dataTransportToken)
+            throws KuraStoreException {
+        markAsPublished(Collections.singletonMap(msgId, dataTransportToken));
+    }
+
+    @Override
+    public void markAsConfirmed(final int msgId) throws KuraStoreException {
+        markAsConfirmed(Collections.singleton(msgId));
+    }
+
+    @Override
+    public void markAsPublished(final Collection<Integer> msgIds) throws KuraStoreException {
+        checkOpen();
+        this.journal.markAsPublished(msgIds);
+    }
+
+    @Override
+    public void markAsPublished(final Map<Integer, DataTransportToken> dataTransportTokens)
+            throws KuraStoreException {
+        checkOpen();
+        this.journal.markAsPublished(dataTransportTokens);
+    }
+
+    @Override
+    public void markAsConfirmed(final Collection<Integer> msgIds) throws KuraStoreException {
+        checkOpen();
+        this.journal.markAsConfirmed(msgIds);
+    }
+
+    @Override
+    public Optional<StoredMessage> getNextMessage() throws KuraStoreException {
+        final List<StoredMessage> next = getNextMessages(1);
+
+        return next.isEmpty() ? Optional.empty() : Optional.of(next.get(0));
+    }
+
+    @Override
+    public List<StoredMessage> getNextMessages(final int maxCount) throws KuraStoreException {
+        checkOpen();
+        return this.journal.getNextMessages(maxCount);
+    }
+
+    @Override
+    public Optional<StoredMessage> get(final int msgId) throws KuraStoreException {
+        checkOpen();
+        return this.journal.get(msgId);
+    }
+
+    @Override
+    public int getMessageCount() throws KuraStoreException {
+        checkOpen();
+        return this.journal.getMessageCount();
+    }
+
+    @Override
+    public List<StoredMessage> getUnpublishedMessages() throws KuraStoreException {
+        checkOpen();
+        return this.journal.getUnpublishedMessages();
+    }
+
+    @Override
+    public List<StoredMessage> getInFlightMessages() throws KuraStoreException {
+        checkOpen();
+        return this.journal.getInFlightMessages();
+    }
+
+    @Override
+    public List<StoredMessage> getDroppedMessages() throws KuraStoreException {
+        checkOpen();
+        return this.journal.getDroppedMessages();
+    }
+
+    @Override
+    public void unpublishAllInFlighMessages() throws KuraStoreException {
+        checkOpen();
+        this.journal.unpublishAllInFlighMessages();
+    }
+
+    @Override
+    public void dropAllInFlightMessages() throws KuraStoreException {
+        checkOpen();
+        this.journal.dropAllInFlightMessages();
+    }
+
+    @Override
+    public void deleteStaleMessages(final int purgeAgeSeconds) throws KuraStoreException {
+        checkOpen();
+        this.journal.deleteStaleMessages(purgeAgeSeconds);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.onClose.accept(this.journal);
+        }
+    }
+
+    private synchronized void checkOpen() throws KuraStoreException {
+        if (this.closed) {
+            throw new KuraStoreException("Message store " + this.journal.getName() + " is closed");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.kura.util.configuration.Property;
+
+class JournalMessageStoreOptions {
+
+    static final String STORE_DIRECTORY_PROP_NAME = "store.directory";
+    static final String SEGMENT_MAX_SIZE_PROP_NAME = "segment.max.size.kb";
+    static final String SYNC_ENABLED_PROP_NAME = "sync.enabled";
+
+    private static final Property<String> STORE_DIRECTORY_PROPERTY = new Property<>(STORE_DIRECTORY_PROP_NAME,
+            "/opt/eclipse/kura/data/message-store");
+    private static final Property<Integer> SEGMENT_MAX_SIZE_PROPERTY = new Property<>(SEGMENT_MAX_SIZE_PROP_NAME,
+            1024);
+    private static final Property<Boolean> SYNC_ENABLED_PROPERTY = new Property<>(SYNC_ENABLED_PROP_NAME, false);
+
+    private static final int SEGMENT_MAX_SIZE_LIMIT_KB = 1024 * 1024;
+
+    private final String storeDirectory;
+    private final int segmentMaxSizeKb;
+    private final boolean syncEnabled;
+
+    JournalMessageStoreOptions(final Map<String, Object> properties) {
+        this.storeDirectory = STORE_DIRECTORY_PROPERTY.get(properties).trim();
+        this.segmentMaxSizeKb = Math.min(SEGMENT_MAX_SIZE_LIMIT_KB,
+                Math.max(1, SEGMENT_MAX_SIZE_PROPERTY.get(properties)));
+        this.syncEnabled = SYNC_ENABLED_PROPERTY.get(properties);
+    }
+
+    String getStoreDirectory() {
+        return this.storeDirectory;
+    }
+
+    long getSegmentMaxSizeBytes() {
+        return this.segmentMaxSizeKb * 1024L;
+    }
+
+    boolean isSyncEnabled() {
+        return this.syncEnabled;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.segmentMaxSizeKb, this.storeDirectory, this.syncEnabled);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof JournalMessageStoreOptions)) {
+            return false;
+        }
+        final JournalMessageStoreOptions other = (JournalMessageStoreOptions) obj;
+        return this.segmentMaxSizeKb == other.segmentMaxSizeKb
+                && Objects.equals(this.storeDirectory, other.storeDirectory) && this.syncEnabled == other.syncEnabled;
+    }
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.connection.listener.ConnectionListener;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.eclipse.kura.message.store.provider.MessageStoreProvider;
+import org.eclipse.kura.util.store.listener.ConnectionListenerManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MessageStoreProvider} that does not rely on a SQL database. Each message store is persisted in a
+ * directory as a segmented append only journal, see {@link MessageJournal}.
+ */
+public class JournalMessageStoreProviderImpl implements ConfigurableComponent, MessageStoreProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalMessageStoreProviderImpl.class);
+
+    private final ConnectionListenerManager listenerManager = new ConnectionListenerManager();
+    private final Map<String, OpenJournal> openJournals = new HashMap<>();
+
+    private Optional<JournalMessageStoreOptions> options = Optional.empty();
+
+    public void activate(final Map<String, Object> properties) {
+        logger.info("activating...");
+
+        updated(properties);
+
+        logger.info("activating...done");
+    }
+
+    public synchronized void updated(final Map<String, Object> properties) {
+        logger.info("updating...");
+
+        final JournalMessageStoreOptions newOptions = new JournalMessageStoreOptions(properties);
+
+        if (!this.options.equals(Optional.of(newOptions))) {
+            shutdown();
+            this.options = Optional.of(newOptions);
+        }
+
+        logger.info("updating...done");
+    }
+
+    public synchronized void deactivate() {
+        logger.info("deactivating...");
+
+        shutdown();
+        this.options = Optional.empty();
+        this.listenerManager.shutdown();
+
+        logger.info("deactivating...done");
+    }
+
+    @Override
+    public synchronized MessageStore openMessageStore(final String name) throws KuraStoreException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new KuraStoreException("Store name cannot be null or empty");
+        }
+
+        if (!this.options.isPresent()) {
+            throw new KuraStoreException("Journal message store provider is not configured");
+        }
+
+        OpenJournal openJournal = this.openJournals.get(name);
+
+        if (openJournal == null) {
+            openJournal = new OpenJournal(new MessageJournal(name,
+                    Paths.get(this.options.get().getStoreDirectory(), encodeStoreName(name)), this.options.get()));
+            this.openJournals.put(name, openJournal);
+        }
+
+        openJournal.handles++;
+
+        return new JournalMessageStoreImpl(openJournal.journal, this::release);
+    }
+
+    @Override
+    public void addListener(final ConnectionListener listener) {
+        this.listenerManager.add(listener);
+    }
+
+    @Override
+    public void removeListener(final ConnectionListener listener) {
+        this.listenerManager.remove(listener);
+    }
+
+    private synchronized void release(final MessageJournal journal) {
+        final OpenJournal openJournal = this.openJournals.get(journal.getName());
+
+        if (openJournal == null || openJournal.journal != journal) {
+            return;
+        }
+
+        openJournal.handles--;
+
+        if (openJournal.handles <= 0) {
+            this.openJournals.remove(journal.getName());
+            journal.close();
+        }
+    }
+
+    private void shutdown() {
+        if (this.openJournals.isEmpty()) {
+            return;
+        }
+
+        for (final OpenJournal openJournal : this.openJournals.values()) {
+            openJournal.journal.close();
+        }
+
+        this.openJournals.clear();
+        this.listenerManager.dispatchDisconnected();
+    }
+
+    // store names are used as directory names, characters that could be unsafe in a file name are percent encoded
+    static String encodeStoreName(final String name) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (final byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            final char c = (char) (b & 0xFF);
+
+            if (c < 0x80 && (Character.isLetterOrDigit(c) || c == '_' || c == '-')) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static final class OpenJournal {
+
+        private final MessageJournal journal;
+        private int handles;
+
+        OpenJournal(final MessageJournal journal) {
+            this.journal = journal;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import org.eclipse.kura.data.DataTransportToken;
+
+/**
+ * A record of the message journal. Records are framed as follows:
+ *
+ * <pre>
+ * [int length][byte type][body][int crc32]
+ * </pre>
+ *
+ * where length is the size of type and body and the checksum is computed on the same bytes. The following record
+ * types are defined:
+ *
+ * <ul>
+ * <li>{@link #STORE}: a new message, including its full state and payload.</li>
+ * <li>{@link #RELOCATED}: same layout as {@link #STORE}, a copy of a live message written to the tail of the journal
+ * to allow deleting the segment containing the original record.</li>
+ * <li>{@link #UPDATE}: the new state of a message.</li>
+ * <li>{@link #DELETE}: the deletion of a message.</li>
+ * </ul>
+ *
+ * Later records override earlier ones, the state of the store is rebuilt by replaying the records in order.
+ */
+final class LogRecord {
+
+    static final byte STORE = 1;
+    static final byte RELOCATED = 2;
+    static final byte UPDATE = 3;
+    static final byte DELETE = 4;
+
+    static final int FRAMING_SIZE = 8;
+
+    private final byte type;
+    private final int id;
+    private final int size;
+    private final long createdOn;
+    private final int qos;
+    private final boolean retain;
+    private final int priority;
+    private final MessageState state;
+    private final String topic;
+    private final byte[] payload;
+
+    private LogRecord(final byte type, final int id, final int size, final long createdOn, final int qos,
+            final boolean retain, final int priority, final MessageState state, final String topic,
+            final byte[] payload) {
+        this.type = type;
+        this.id = id;
+        this.size = size;
+        this.createdOn = createdOn;
+        this.qos = qos;
+        this.retain = retain;
+        this.priority = priority;
+        this.state = state;
+        this.topic = topic;
+        this.payload = payload;
+    }
+
+    byte getType() {
+        return this.type;
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the size of the record, including framing.
+     */
+    int getSize() {
+        return this.size;
+    }
+
+    long getCreatedOn() {
+        return this.createdOn;
+    }
+
+    int getQos() {
+        return this.qos;
+    }
+
+    boolean isRetain() {
+        return this.retain;
+    }
+
+    int getPriority() {
+        return this.priority;
+    }
+
+    MessageState getState() {
+        return this.state;
+    }
+
+    String getTopic() {
+        return this.topic;
+    }
+
+    byte[] getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Decodes the record starting at the given position of the buffer.
+     *
+     * @param buffer
+     *            the buffer, its position and limit are not modified.
+     * @param position
+     *            the position of the record.
+     * @param verifyChecksum
+     *            whether the record checksum should be verified.
+     * @param includePayload
+     *            if false the message payload is skipped and {@link #getPayload()} will return null.
+     * @return the decoded record, or null if the buffer does not contain a valid record at the given position.
+     */
+    static LogRecord decode(final ByteBuffer buffer, final int position, final boolean verifyChecksum,
+            final boolean includePayload) {
+        final int limit = buffer.limit();
+
+        if (position < 0 || limit - position < FRAMING_SIZE + 1) {
+            return null;
+        }
+
+        final int length = buffer.getInt(position);
+
+        if (length < 1 || length > limit - position - FRAMING_SIZE) {
+            return null;
+        }
+
+        final ByteBuffer body = buffer.duplicate();
+        body.limit(position + 4 + length);
+        body.position(position + 4);
+
+        if (verifyChecksum) {
+            final CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+
+            if ((int) crc.getValue() != buffer.getInt(position + 4 + length)) {
+                return null;
+            }
+        }
+
+        final int size = length + FRAMING_SIZE;
+
+        try {
+            final byte type = body.get();
+            final int id = body.getInt();
+
+            switch (type) {
+            case STORE:
+            case RELOCATED:
+                return decodeMessage(type, id, size, body, includePayload);
+            case UPDATE:
+                return new LogRecord(type, id, size, MessageState.NOT_SET, 0, false, 0, decodeState(body), null,
+                        null);
+            case DELETE:
+                return new LogRecord(type, id, size, MessageState.NOT_SET, 0, false, 0, null, null, null);
+            default:
+                return null;
+            }
+        } catch (final RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static LogRecord decodeMessage(final byte type, final int id, final int size, final ByteBuffer body,
+            final boolean includePayload) {
+        final long createdOn = body.getLong();
+        final int qos = body.getInt();
+        final boolean retain = body.get() != 0;
+        final int priority = body.getInt();
+        final MessageState state = decodeState(body);
+        final String topic = decodeString(body);
+
+        final int payloadLength = body.getInt();
+        byte[] payload = null;
+
+        if (payloadLength >= 0) {
+            if (payloadLength > body.remaining()) {
+                return null;
+            }
+
+            if (includePayload) {
+                payload = new byte[payloadLength];
+                body.get(payload);
+            }
+        }
+
+        return new LogRecord(type, id, size, createdOn, qos, retain, priority, state, topic, payload);
+    }
+
+    private static MessageState decodeState(final ByteBuffer body) {
+        final long publishedOn = body.getLong();
+        final long confirmedOn = body.getLong();
+        final long droppedOn = body.getLong();
+
+        DataTransportToken token = null;
+
+        if (body.get() != 0) {
+            final int messageId = body.getInt();
+            token = new DataTransportToken(messageId, decodeString(body));
+        }
+
+        return new MessageState(publishedOn, confirmedOn, droppedOn, token);
+    }
+
+    private static String decodeString(final ByteBuffer body) {
+        final int length = body.getInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        if (length < 0 || length > body.remaining()) {
+            throw new IllegalArgumentException("invalid string length");
+        }
+
+        final byte[] bytes = new byte[length];
+        body.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Accumulates encoded records so that they can be appended to the journal with a single write.
+     */
+    static final class Writer {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final DataOutputStream bodyOut = new DataOutputStream(this.body);
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final DataOutputStream recordsOut = new DataOutputStream(this.records);
+        private final CRC32 crc = new CRC32();
+
+        /**
+         * Encodes a message record.
+         *
+         * @return the position of the record relative to the start of the data accumulated by this writer.
+         */
+        int writeMessage(final byte type, final int id, final long createdOn, final int qos, final boolean retain,
+                final int priority, final MessageState state, final String topic, final byte[] payload)
+                throws IOException {
+            startRecord(type, id);
+
+            this.bodyOut.writeLong(createdOn);
+            this.bodyOut.writeInt(qos);
+            this.bodyOut.writeBoolean(retain);
+            this.bodyOut.writeInt(priority);
+            writeState(state);
+            writeString(topic);
+
+            if (payload == null) {
+                this.bodyOut.writeInt(-1);
+            } else {
+                this.bodyOut.writeInt(payload.length);
+                this.bodyOut.write(payload);
+            }
+
+            return endRecord();
+        }
+
+        int writeUpdate(final int id, final MessageState state) throws IOException {
+            startRecord(UPDATE, id);
+            writeState(state);
+            return endRecord();
+        }
+
+        int writeDelete(final int id) throws IOException {
+            startRecord(DELETE, id);
+            return endRecord();
+        }
+
+        int size() {
+            return this.records.size();
+        }
+
+        byte[] toByteArray() {
+            return this.records.toByteArray();
+        }
+
+        void reset() {
+            this.records.reset();
+        }
+
+        private void startRecord(final byte type, final int id) throws IOException {
+            this.body.reset();
+            this.bodyOut.writeByte(type);
+            this.bodyOut.writeInt(id);
+        }
+
+        private int endRecord() throws IOException {
+            final int position = this.records.size();
+            final byte[] bytes = this.body.toByteArray();
+
+            this.crc.reset();
+            this.crc.update(bytes, 0, bytes.length);
+
+            this.recordsOut.writeInt(bytes.length);
+            this.recordsOut.write(bytes);
+            this.recordsOut.writeInt((int) this.crc.getValue());
+
+            return position;
+        }
+
+        private void writeState(final MessageState state) throws IOException {
+            this.bodyOut.writeLong(state.getPublishedOn());
+            this.bodyOut.writeLong(state.getConfirmedOn());
+            this.bodyOut.writeLong(state.getDroppedOn());
+
+            if (state.getDataTransportToken().isPresent()) {
+                final DataTransportToken token = state.getDataTransportToken().get();
+
+                this.bodyOut.writeBoolean(true);
+                this.bodyOut.writeInt(token.getMessageId());
+                writeString(token.getSessionId());
+            } else {
+                this.bodyOut.writeBoolean(false);
+            }
+        }
+
+        private void writeString(final String value) throws IOException {
+            if (value == null) {
+                this.bodyOut.writeInt(-1);
+                return;
+            }
+
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            this.bodyOut.writeInt(bytes.length);
+            this.bodyOut.write(bytes);
+        }
+    }
+}
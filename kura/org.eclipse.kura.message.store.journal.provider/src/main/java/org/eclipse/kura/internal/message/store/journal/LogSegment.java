@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append only journal file. The file starts with a header containing the last message identifier assigned when
+ * the segment was created, followed by a sequence of {@link LogRecord}s.
+ * <br>
+ * Records are appended using regular writes. Reads are served from a read only memory mapping of the file, the
+ * region appended after the mapping has been created is read using positional reads until the segment is sealed.
+ */
+final class LogSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSegment.class);
+
+    static final String FILE_EXTENSION = ".log";
+
+    private static final int MAGIC = 0x4B4D4A31;
+    static final int HEADER_SIZE = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final int headerLastId;
+
+    private long size;
+    private ByteBuffer mapped;
+
+    private int liveMessages;
+    private long liveBytes;
+
+    private LogSegment(final long sequence, final Path path, final FileChannel channel, final int headerLastId,
+            final long size) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.headerLastId = headerLastId;
+        this.size = size;
+    }
+
+    static String fileName(final long sequence) {
+        return String.format("%020d", sequence) + FILE_EXTENSION;
+    }
+
+    static LogSegment create(final Path directory, final long sequence, final int lastId) throws IOException {
+        final Path path = directory.resolve(fileName(sequence));
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(lastId);
+            header.flip();
+
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_SIZE - header.remaining());
+            }
+
+            final LogSegment result = new LogSegment(sequence, path, channel, lastId, HEADER_SIZE);
+            result.map();
+
+            return result;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing segment.
+     *
+     * @return the opened segment, or null if the file does not contain a valid header.
+     */
+    static LogSegment open(final Path path, final long sequence) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            final long size = channel.size();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // read until the header is complete or the end of file is reached
+            }
+
+            header.flip();
+
+            if (size < HEADER_SIZE || header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                logger.warn("invalid journal segment header in {}", path);
+                channel.close();
+                return null;
+            }
+
+            final LogSegment result = new LogSegment(sequence, path, channel, header.getInt(), size);
+            result.map();
+
+            return result;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getSequence() {
+        return this.sequence;
+    }
+
+    int getHeaderLastId() {
+        return this.headerLastId;
+    }
+
+    long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns a read only view of the records contained in the memory mapped region of the segment, starting at
+     * position 0 of the file.
+     */
+    ByteBuffer getMappedRecords() {
+        return this.mapped.duplicate();
+    }
+
+    /**
+     * Appends the given data to the end of the segment.
+     *
+     * @return the offset of the appended data
+     */
+    long append(final byte[] data, final boolean sync) throws IOException {
+        final long offset = this.size;
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        try {
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer, offset + buffer.position());
+            }
+
+            if (sync) {
+                this.channel.force(false);
+            }
+        } catch (final IOException e) {
+            // drop partially written data, otherwise records appended later would be unreachable on replay
+            try {
+                this.channel.truncate(offset);
+            } catch (final IOException e1) {
+                logger.warn("failed to truncate journal segment {}", this.path, e1);
+            }
+            throw e;
+        }
+
+        this.size = offset + data.length;
+
+        return offset;
+    }
+
+    /**
+     * Returns a buffer containing the given region of the segment, positioned at 0.
+     */
+    ByteBuffer read(final long offset, final int length) throws IOException {
+        if (offset + length <= this.mapped.limit()) {
+            final ByteBuffer result = this.mapped.duplicate();
+            result.position((int) offset);
+            result.limit((int) offset + length);
+            return result.slice();
+        }
+
+        final ByteBuffer result = ByteBuffer.allocate(length);
+
+        while (result.hasRemaining()) {
+            if (this.channel.read(result, offset + result.position()) < 0) {
+                throw new IOException("unexpected end of journal segment " + this.path);
+            }
+        }
+
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Discards the data following the given offset, used to drop a partially written tail after a crash.
+     */
+    void truncate(final long newSize) throws IOException {
+        this.channel.truncate(newSize);
+        this.size = newSize;
+        map();
+    }
+
+    /**
+     * Maps the whole segment, invoked when the segment is no longer the journal tail.
+     */
+    void seal() throws IOException {
+        map();
+    }
+
+    void addLiveMessage(final int recordSize) {
+        this.liveMessages++;
+        this.liveBytes += recordSize;
+    }
+
+    void removeLiveMessage(final int recordSize) {
+        this.liveMessages--;
+        this.liveBytes -= recordSize;
+    }
+
+    int getLiveMessages() {
+        return this.liveMessages;
+    }
+
+    long getLiveBytes() {
+        return this.liveBytes;
+    }
+
+    void close() {
+        try {
+            this.channel.close();
+        } catch (final IOException e) {
+            logger.warn("failed to close journal segment {}", this.path, e);
+        }
+        this.mapped = null;
+    }
+
+    void delete() {
+        close();
+
+        try {
+            Files.deleteIfExists(this.path);
+        } catch (final IOException e) {
+            logger.warn("failed to delete journal segment {}", this.path, e);
+        }
+    }
+
+    private void map() throws IOException {
+        final MappedByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, 0, this.size);
+        this.mapped = buffer;
+    }
+
+    @Override
+    public String toString() {
+        return this.path.toString();
+    }
+}
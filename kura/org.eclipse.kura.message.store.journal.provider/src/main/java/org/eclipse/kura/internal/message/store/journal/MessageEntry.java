@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.util.Comparator;
+
+/**
+ * The in-memory index entry of a stored message. It contains the fields required to select messages and the
+ * location of the record containing topic and payload.
+ */
+final class MessageEntry {
+
+    static final Comparator<MessageEntry> PUBLISH_ORDER = Comparator.comparingInt(MessageEntry::getPriority)
+            .thenComparingLong(MessageEntry::getCreatedOn).thenComparingLong(MessageEntry::getSequence);
+
+    static final Comparator<MessageEntry> CREATION_ORDER = Comparator.comparingLong(MessageEntry::getCreatedOn)
+            .thenComparingLong(MessageEntry::getSequence);
+
+    private final int id;
+    private final long sequence;
+    private final long createdOn;
+    private final int qos;
+    private final int priority;
+
+    private LogSegment segment;
+    private long offset;
+    private int size;
+    private MessageState state;
+
+    MessageEntry(final int id, final long sequence, final long createdOn, final int qos, final int priority,
+            final MessageState state) {
+        this.id = id;
+        this.sequence = sequence;
+        this.createdOn = createdOn;
+        this.qos = qos;
+        this.priority = priority;
+        this.state = state;
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    long getSequence() {
+        return this.sequence;
+    }
+
+    long getCreatedOn() {
+        return this.createdOn;
+    }
+
+    int getQos() {
+        return this.qos;
+    }
+
+    int getPriority() {
+        return this.priority;
+    }
+
+    LogSegment getSegment() {
+        return this.segment;
+    }
+
+    long getOffset() {
+        return this.offset;
+    }
+
+    int getSize() {
+        return this.size;
+    }
+
+    MessageState getState() {
+        return this.state;
+    }
+
+    void setState(final MessageState state) {
+        this.state = state;
+    }
+
+    boolean isInFlight() {
+        return this.qos > 0 && this.state.isPublished() && !this.state.isConfirmed() && !this.state.isDropped();
+    }
+
+    /**
+     * Sets the location of the record containing the message, updating the live message statistics of the involved
+     * segments.
+     */
+    void moveTo(final LogSegment newSegment, final long newOffset, final int newSize) {
+        release();
+
+        this.segment = newSegment;
+        this.offset = newOffset;
+        this.size = newSize;
+        newSegment.addLiveMessage(newSize);
+    }
+
+    void release() {
+        if (this.segment != null) {
+            this.segment.removeLiveMessage(this.size);
+            this.segment = null;
+        }
+    }
+}
@@ -0,0 +1,721 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A message store backed by a segmented append only journal.
+ * <br>
+ * Every operation appends one or more {@link LogRecord}s to the last segment, existing data is never modified.
+ * All the message metadata required to select messages is kept in an in-memory index, together with an index of the
+ * unpublished messages for each priority. Topic and payload are read from the segments, which are memory mapped.
+ * <br>
+ * A segment is deleted as soon as it is the oldest one and it does not contain live messages anymore. If the oldest
+ * segment contains only a few live messages, they are copied to the end of the journal so that the segment can be
+ * deleted. The state of the store is rebuilt on startup by replaying the segments in order.
+ */
+final class MessageJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageJournal.class);
+
+    // the oldest segment is compacted if its live messages use less than 1/RELOCATION_RATIO of the segment size
+    private static final int RELOCATION_RATIO = 4;
+
+    private final String name;
+    private final Path directory;
+    private final long segmentMaxSizeBytes;
+    private final boolean syncEnabled;
+
+    private final TreeMap<Long, LogSegment> segments = new TreeMap<>();
+    private final Map<Integer, MessageEntry> messages = new HashMap<>();
+    private final TreeMap<Integer, TreeSet<MessageEntry>> unpublished = new TreeMap<>();
+    private final LogRecord.Writer writer = new LogRecord.Writer();
+
+    private LogSegment tail;
+    private int lastId;
+    private long nextSequence;
+
+    MessageJournal(final String name, final Path directory, final JournalMessageStoreOptions options)
+            throws KuraStoreException {
+        this.name = name;
+        this.directory = directory;
+        this.segmentMaxSizeBytes = options.getSegmentMaxSizeBytes();
+        this.syncEnabled = options.isSyncEnabled();
+
+        try {
+            open();
+        } catch (final Exception e) {
+            close();
+            throw new KuraStoreException(e, "Cannot open message store " + name);
+        }
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    synchronized int store(final String topic, final byte[] payload, final int qos, final boolean retain,
+            final int priority) throws KuraStoreException {
+        validate(topic);
+
+        final int id = nextId(Collections.emptyList());
+        final long now = System.currentTimeMillis();
+
+        final byte[] data;
+
+        try {
+            this.writer.reset();
+            this.writer.writeMessage(LogRecord.STORE, id, now, qos, retain, priority, MessageState.INITIAL, topic,
+                    payload);
+            data = this.writer.toByteArray();
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, "Cannot store message");
+        }
+
+        final LogSegment segment = append(data, "Cannot store message");
+
+        final MessageEntry entry = new MessageEntry(id, this.nextSequence++, now, qos, priority,
+                MessageState.INITIAL);
+        entry.moveTo(segment, segment.getSize() - data.length, data.length);
+        this.lastId = id;
+        putMessage(entry);
+
+        reclaimSegments();
+
+        return id;
+    }
+
+    synchronized List<Integer> store(final List<StoredMessage> toStore) throws KuraStoreException {
+        for (final StoredMessage message : toStore) {
+            validate(message.getTopic());
+        }
+
+        if (toStore.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final long now = System.currentTimeMillis();
+        final int previousLastId = this.lastId;
+        final List<Integer> ids = new ArrayList<>(toStore.size());
+        final int[] positions = new int[toStore.size()];
+
+        final byte[] data;
+
+        try {
+            this.writer.reset();
+
+            for (int i = 0; i < toStore.size(); i++) {
+                final StoredMessage message = toStore.get(i);
+                final int id = nextId(ids);
+
+                positions[i] = this.writer.writeMessage(LogRecord.STORE, id, now, message.getQos(),
+                        message.isRetain(), message.getPriority(), MessageState.INITIAL, message.getTopic(),
+                        message.getPayload());
+                ids.add(id);
+                this.lastId = id;
+            }
+
+            data = this.writer.toByteArray();
+        } catch (final IOException e) {
+            this.lastId = previousLastId;
+            throw new KuraStoreException(e, "Cannot store messages");
+        } catch (final KuraStoreException e) {
+            this.lastId = previousLastId;
+            throw e;
+        }
+
+        final LogSegment segment;
+
+        try {
+            segment = append(data, "Cannot store messages");
+        } catch (final KuraStoreException e) {
+            this.lastId = previousLastId;
+            throw e;
+        }
+
+        final long base = segment.getSize() - data.length;
+
+        for (int i = 0; i < toStore.size(); i++) {
+            final StoredMessage message = toStore.get(i);
+            final int end = i + 1 < positions.length ? positions[i + 1] : data.length;
+
+            final MessageEntry entry = new MessageEntry(ids.get(i), this.nextSequence++, now, message.getQos(),
+                    message.getPriority(), MessageState.INITIAL);
+            entry.moveTo(segment, base + positions[i], end - positions[i]);
+            putMessage(entry);
+        }
+
+        reclaimSegments();
+
+        return ids;
+    }
+
+    synchronized void markAsPublished(final Collection<Integer> msgIds) throws KuraStoreException {
+        final long now = System.currentTimeMillis();
+
+        update(msgIds, state -> state.published(now));
+    }
+
+    synchronized void markAsPublished(final Map<Integer, DataTransportToken> tokens) throws KuraStoreException {
+        final long now = System.currentTimeMillis();
+        final Map<MessageEntry, MessageState> updates = new HashMap<>();
+
+        for (final Entry<Integer, DataTransportToken> e : tokens.entrySet()) {
+            final MessageEntry entry = this.messages.get(e.getKey());
+
+            if (entry != null) {
+                updates.put(entry, entry.getState().published(now, e.getValue()));
+            }
+        }
+
+        applyUpdates(updates);
+    }
+
+    synchronized void markAsConfirmed(final Collection<Integer> msgIds) throws KuraStoreException {
+        final long now = System.currentTimeMillis();
+
+        update(msgIds, state -> state.confirmed(now));
+    }
+
+    synchronized void unpublishAllInFlighMessages() throws KuraStoreException {
+        update(e -> e.getQos() > 0 && e.getState().isPublished() && !e.getState().isConfirmed(),
+                MessageState::unpublished);
+    }
+
+    synchronized void dropAllInFlightMessages() throws KuraStoreException {
+        final long now = System.currentTimeMillis();
+
+        update(e -> e.getQos() > 0 && e.getState().isPublished() && !e.getState().isConfirmed(),
+                state -> state.dropped(now));
+    }
+
+    synchronized void deleteStaleMessages(final int purgeAgeSeconds) throws KuraStoreException {
+        final long timestamp = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(purgeAgeSeconds);
+
+        final List<MessageEntry> stale = new ArrayList<>();
+
+        for (final MessageEntry entry : this.messages.values()) {
+            final MessageState state = entry.getState();
+
+            if (state.isDropped() && state.getDroppedOn() <= timestamp
+                    || state.isConfirmed() && state.getConfirmedOn() <= timestamp
+                    || entry.getQos() == 0 && state.isPublished() && state.getPublishedOn() <= timestamp) {
+                stale.add(entry);
+            }
+        }
+
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        final byte[] data;
+
+        try {
+            this.writer.reset();
+
+            for (final MessageEntry entry : stale) {
+                this.writer.writeDelete(entry.getId());
+            }
+
+            data = this.writer.toByteArray();
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, "Cannot delete stale messages");
+        }
+
+        append(data, "Cannot delete stale messages");
+
+        for (final MessageEntry entry : stale) {
+            removeMessage(entry.getId());
+        }
+
+        reclaimSegments();
+    }
+
+    synchronized Optional<StoredMessage> get(final int msgId) throws KuraStoreException {
+        final MessageEntry entry = this.messages.get(msgId);
+
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(read(entry, true));
+    }
+
+    synchronized List<StoredMessage> getNextMessages(final int maxCount) throws KuraStoreException {
+        final List<StoredMessage> result = new ArrayList<>();
+
+        if (maxCount <= 0) {
+            return result;
+        }
+
+        for (final TreeSet<MessageEntry> entries : this.unpublished.values()) {
+            for (final MessageEntry entry : entries) {
+                result.add(read(entry, true));
+
+                if (result.size() >= maxCount) {
+                    return result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    synchronized List<StoredMessage> getUnpublishedMessages() throws KuraStoreException {
+        final List<StoredMessage> result = new ArrayList<>();
+
+        for (final TreeSet<MessageEntry> entries : this.unpublished.values()) {
+            for (final MessageEntry entry : entries) {
+                result.add(read(entry, false));
+            }
+        }
+
+        return result;
+    }
+
+    synchronized List<StoredMessage> getInFlightMessages() throws KuraStoreException {
+        return list(MessageEntry::isInFlight);
+    }
+
+    synchronized List<StoredMessage> getDroppedMessages() throws KuraStoreException {
+        return list(e -> e.getState().isDropped());
+    }
+
+    synchronized int getMessageCount() {
+        return this.messages.size();
+    }
+
+    synchronized void close() {
+        for (final LogSegment segment : this.segments.values()) {
+            segment.close();
+        }
+
+        this.segments.clear();
+        this.messages.clear();
+        this.unpublished.clear();
+        this.tail = null;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(this.directory);
+
+        final TreeMap<Long, Path> files = new TreeMap<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory,
+                "*" + LogSegment.FILE_EXTENSION)) {
+            for (final Path path : stream) {
+                final String fileName = path.getFileName().toString();
+
+                try {
+                    files.put(Long.parseLong(
+                            fileName.substring(0, fileName.length() - LogSegment.FILE_EXTENSION.length())), path);
+                } catch (final NumberFormatException e) {
+                    logger.warn("ignoring unexpected file {}", path);
+                }
+            }
+        }
+
+        for (final Entry<Long, Path> file : files.entrySet()) {
+            final LogSegment segment = LogSegment.open(file.getValue(), file.getKey());
+
+            if (segment == null) {
+                Files.deleteIfExists(file.getValue());
+                continue;
+            }
+
+            this.segments.put(file.getKey(), segment);
+            replay(segment, file.getKey().equals(files.lastKey()));
+        }
+
+        if (this.segments.isEmpty()) {
+            this.tail = LogSegment.create(this.directory, 0, this.lastId);
+            this.segments.put(this.tail.getSequence(), this.tail);
+        } else {
+            this.tail = this.segments.lastEntry().getValue();
+        }
+
+        reclaimSegments();
+
+        logger.info("opened message store {}, {} messages in {} segments", this.name, this.messages.size(),
+                this.segments.size());
+    }
+
+    private void replay(final LogSegment segment, final boolean isTail) throws IOException {
+        final ByteBuffer buffer = segment.getMappedRecords();
+
+        this.lastId = segment.getHeaderLastId();
+
+        int position = LogSegment.HEADER_SIZE;
+
+        while (position < buffer.limit()) {
+            final LogRecord logRecord = LogRecord.decode(buffer, position, true, false);
+
+            if (logRecord == null) {
+                if (isTail) {
+                    logger.warn("discarding invalid data at the end of journal segment {}, offset {}", segment,
+                            position);
+                    segment.truncate(position);
+                } else {
+                    logger.warn("invalid record in journal segment {}, offset {}, ignoring the rest of the segment",
+                            segment, position);
+                }
+                break;
+            }
+
+            apply(logRecord, segment, position);
+
+            position += logRecord.getSize();
+        }
+    }
+
+    private void apply(final LogRecord logRecord, final LogSegment segment, final long offset) {
+        final int id = logRecord.getId();
+
+        switch (logRecord.getType()) {
+        case LogRecord.STORE:
+        case LogRecord.RELOCATED:
+            if (logRecord.getType() == LogRecord.STORE) {
+                this.lastId = id;
+            }
+
+            removeMessage(id);
+
+            final MessageEntry entry = new MessageEntry(id, this.nextSequence++, logRecord.getCreatedOn(),
+                    logRecord.getQos(), logRecord.getPriority(), logRecord.getState());
+            entry.moveTo(segment, offset, logRecord.getSize());
+            putMessage(entry);
+            break;
+        case LogRecord.UPDATE:
+            final MessageEntry existing = this.messages.get(id);
+
+            if (existing != null) {
+                setState(existing, logRecord.getState());
+            }
+            break;
+        case LogRecord.DELETE:
+            removeMessage(id);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void update(final Collection<Integer> msgIds, final UnaryOperator<MessageState> transition)
+            throws KuraStoreException {
+        final Map<MessageEntry, MessageState> updates = new HashMap<>();
+
+        for (final Integer msgId : msgIds) {
+            final MessageEntry entry = this.messages.get(msgId);
+
+            if (entry != null) {
+                updates.put(entry, transition.apply(entry.getState()));
+            }
+        }
+
+        applyUpdates(updates);
+    }
+
+    private void update(final Predicate<MessageEntry> filter, final UnaryOperator<MessageState> transition)
+            throws KuraStoreException {
+        final Map<MessageEntry, MessageState> updates = new HashMap<>();
+
+        for (final MessageEntry entry : this.messages.values()) {
+            if (filter.test(entry)) {
+                updates.put(entry, transition.apply(entry.getState()));
+            }
+        }
+
+        applyUpdates(updates);
+    }
+
+    private void applyUpdates(final Map<MessageEntry, MessageState> updates) throws KuraStoreException {
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        final byte[] data;
+
+        try {
+            this.writer.reset();
+
+            for (final Entry<MessageEntry, MessageState> update : updates.entrySet()) {
+                this.writer.writeUpdate(update.getKey().getId(), update.getValue());
+            }
+
+            data = this.writer.toByteArray();
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, "Cannot update messages");
+        }
+
+        append(data, "Cannot update messages");
+
+        for (final Entry<MessageEntry, MessageState> update : updates.entrySet()) {
+            setState(update.getKey(), update.getValue());
+        }
+
+        reclaimSegments();
+    }
+
+    private LogSegment append(final byte[] data, final String errorMessage) throws KuraStoreException {
+        try {
+            if (this.tail.getSize() > LogSegment.HEADER_SIZE
+                    && this.tail.getSize() + data.length > this.segmentMaxSizeBytes) {
+                roll();
+            }
+
+            this.tail.append(data, this.syncEnabled);
+
+            return this.tail;
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, errorMessage);
+        }
+    }
+
+    private void roll() throws IOException {
+        final LogSegment next = LogSegment.create(this.directory, this.tail.getSequence() + 1, this.lastId);
+
+        this.tail.seal();
+        this.tail = next;
+        this.segments.put(next.getSequence(), next);
+    }
+
+    /**
+     * Deletes the oldest segments that do not contain live messages anymore. If the oldest segment contains a small
+     * amount of live data, it is copied to the end of the journal and the segment is deleted.
+     */
+    private void reclaimSegments() {
+        while (this.segments.size() > 1) {
+            final LogSegment head = this.segments.firstEntry().getValue();
+
+            if (head == this.tail) {
+                return;
+            }
+
+            if (head.getLiveMessages() > 0) {
+                if (head.getLiveBytes() > this.segmentMaxSizeBytes / RELOCATION_RATIO) {
+                    return;
+                }
+
+                try {
+                    relocate(head);
+                } catch (final IOException | KuraStoreException e) {
+                    logger.warn("failed to compact journal segment {}", head, e);
+                    return;
+                }
+            }
+
+            this.segments.remove(head.getSequence());
+            head.delete();
+        }
+    }
+
+    private void relocate(final LogSegment head) throws IOException, KuraStoreException {
+        final List<MessageEntry> toRelocate = new ArrayList<>();
+
+        for (final MessageEntry entry : this.messages.values()) {
+            if (entry.getSegment() == head) {
+                toRelocate.add(entry);
+            }
+        }
+
+        final int[] positions = new int[toRelocate.size()];
+
+        this.writer.reset();
+
+        for (int i = 0; i < toRelocate.size(); i++) {
+            final MessageEntry entry = toRelocate.get(i);
+            final LogRecord logRecord = readRecord(entry, true);
+
+            positions[i] = this.writer.writeMessage(LogRecord.RELOCATED, entry.getId(), entry.getCreatedOn(),
+                    entry.getQos(), logRecord.isRetain(), entry.getPriority(), entry.getState(),
+                    logRecord.getTopic(), logRecord.getPayload());
+        }
+
+        final byte[] data = this.writer.toByteArray();
+        final LogSegment segment = append(data, "Cannot compact journal");
+        final long base = segment.getSize() - data.length;
+
+        for (int i = 0; i < toRelocate.size(); i++) {
+            final int end = i + 1 < positions.length ? positions[i + 1] : data.length;
+
+            toRelocate.get(i).moveTo(segment, base + positions[i], end - positions[i]);
+        }
+
+        logger.debug("relocated {} messages from journal segment {}", toRelocate.size(), head);
+    }
+
+    private List<StoredMessage> list(final Predicate<MessageEntry> filter) throws KuraStoreException {
+        final List<MessageEntry> entries = new ArrayList<>();
+
+        for (final MessageEntry entry : this.messages.values()) {
+            if (filter.test(entry)) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(MessageEntry.PUBLISH_ORDER);
+
+        final List<StoredMessage> result = new ArrayList<>(entries.size());
+
+        for (final MessageEntry entry : entries) {
+            result.add(read(entry, false));
+        }
+
+        return result;
+    }
+
+    private StoredMessage read(final MessageEntry entry, final boolean includePayload) throws KuraStoreException {
+        final LogRecord logRecord;
+
+        try {
+            logRecord = readRecord(entry, includePayload);
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, "Cannot read message " + entry.getId());
+        }
+
+        final MessageState state = entry.getState();
+
+        StoredMessage.Builder builder = new StoredMessage.Builder(entry.getId()).withTopic(logRecord.getTopic())
+                .withQos(entry.getQos()).withRetain(logRecord.isRetain())
+                .withCreatedOn(MessageState.toDate(entry.getCreatedOn()))
+                .withPublishedOn(MessageState.toDate(state.getPublishedOn()))
+                .withConfirmedOn(MessageState.toDate(state.getConfirmedOn())).withPriority(entry.getPriority())
+                .withDroppedOn(MessageState.toDate(state.getDroppedOn()));
+
+        if (includePayload) {
+            builder = builder.withPayload(logRecord.getPayload());
+        }
+
+        if (state.getDataTransportToken().isPresent()) {
+            builder = builder.withDataTransportToken(state.getDataTransportToken().get());
+        }
+
+        return builder.build();
+    }
+
+    private LogRecord readRecord(final MessageEntry entry, final boolean includePayload) throws IOException {
+        final ByteBuffer buffer = entry.getSegment().read(entry.getOffset(), entry.getSize());
+        final LogRecord logRecord = LogRecord.decode(buffer, 0, false, includePayload);
+
+        if (logRecord == null) {
+            throw new IOException("invalid record for message " + entry.getId() + " in " + entry.getSegment());
+        }
+
+        return logRecord;
+    }
+
+    private void putMessage(final MessageEntry entry) {
+        this.messages.put(entry.getId(), entry);
+
+        if (!entry.getState().isPublished()) {
+            this.unpublished.computeIfAbsent(entry.getPriority(), p -> new TreeSet<>(MessageEntry.CREATION_ORDER))
+                    .add(entry);
+        }
+    }
+
+    private void removeMessage(final int id) {
+        final MessageEntry entry = this.messages.remove(id);
+
+        if (entry != null) {
+            entry.release();
+            removeUnpublished(entry);
+        }
+    }
+
+    private void setState(final MessageEntry entry, final MessageState state) {
+        final boolean wasPublished = entry.getState().isPublished();
+
+        entry.setState(state);
+
+        if (wasPublished && !state.isPublished()) {
+            this.unpublished.computeIfAbsent(entry.getPriority(), p -> new TreeSet<>(MessageEntry.CREATION_ORDER))
+                    .add(entry);
+        } else if (!wasPublished && state.isPublished()) {
+            removeUnpublished(entry);
+        }
+    }
+
+    private void removeUnpublished(final MessageEntry entry) {
+        final TreeSet<MessageEntry> entries = this.unpublished.get(entry.getPriority());
+
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            this.unpublished.remove(entry.getPriority());
+        }
+    }
+
+    private int nextId(final List<Integer> pending) throws KuraStoreException {
+        if (this.lastId < Integer.MAX_VALUE) {
+            return this.lastId + 1;
+        }
+
+        // identifier space exhausted, restart from the highest identifier in use
+        if ((long) this.messages.size() + pending.size() >= Integer.MAX_VALUE) {
+            throw new KuraStoreException("Message count is greater or equal than integer max value");
+        }
+
+        int max = 0;
+
+        for (final Integer id : this.messages.keySet()) {
+            max = Math.max(max, id);
+        }
+
+        for (final Integer id : pending) {
+            max = Math.max(max, id);
+        }
+
+        if (max < Integer.MAX_VALUE) {
+            return max + 1;
+        }
+
+        for (int id = 1;; id++) {
+            if (!this.messages.containsKey(id) && !pending.contains(id)) {
+                return id;
+            }
+        }
+    }
+
+    private static void validate(final String topic) throws KuraStoreException {
+        if (topic == null || topic.trim().length() == 0) {
+            throw new KuraStoreException(null, "topic must be not null and not empty");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.journal;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.eclipse.kura.data.DataTransportToken;
+
+/**
+ * The mutable part of a stored message. Instances are immutable, each state transition creates a new instance that
+ * is persisted as a whole in an update record.
+ */
+final class MessageState {
+
+    static final long NOT_SET = -1;
+
+    static final MessageState INITIAL = new MessageState(NOT_SET, NOT_SET, NOT_SET, null);
+
+    private final long publishedOn;
+    private final long confirmedOn;
+    private final long droppedOn;
+    private final DataTransportToken dataTransportToken;
+
+    MessageState(final long publishedOn, final long confirmedOn, final long droppedOn,
+            final DataTransportToken dataTransportToken) {
+        this.publishedOn = publishedOn;
+        this.confirmedOn = confirmedOn;
+        this.droppedOn = droppedOn;
+        this.dataTransportToken = dataTransportToken;
+    }
+
+    long getPublishedOn() {
+        return this.publishedOn;
+    }
+
+    long getConfirmedOn() {
+        return this.confirmedOn;
+    }
+
+    long getDroppedOn() {
+        return this.droppedOn;
+    }
+
+    Optional<DataTransportToken> getDataTransportToken() {
+        return Optional.ofNullable(this.dataTransportToken);
+    }
+
+    boolean isPublished() {
+        return this.publishedOn != NOT_SET;
+    }
+
+    boolean isConfirmed() {
+        return this.confirmedOn != NOT_SET;
+    }
+
+    boolean isDropped() {
+        return this.droppedOn != NOT_SET;
+    }
+
+    MessageState published(final long timestamp) {
+        return new MessageState(timestamp, this.confirmedOn, this.droppedOn, this.dataTransportToken);
+    }
+
+    MessageState published(final long timestamp, final DataTransportToken token) {
+        return new MessageState(timestamp, this.confirmedOn, this.droppedOn, token);
+    }
+
+    MessageState unpublished() {
+        return new MessageState(NOT_SET, this.confirmedOn, this.droppedOn, this.dataTransportToken);
+    }
+
+    MessageState confirmed(final long timestamp) {
+        return new MessageState(this.publishedOn, timestamp, this.droppedOn, this.dataTransportToken);
+    }
+
+    MessageState dropped(final long timestamp) {
+        return new MessageState(this.publishedOn, this.confirmedOn, timestamp, this.dataTransportToken);
+    }
+
+    static Date toDate(final long timestamp) {
+        return timestamp == NOT_SET ? null : new Date(timestamp);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,14 +16,20 @@ import static java.util.Objects.requireNonNull;
 import static org.eclipse.kura.util.jdbc.JdbcUtil.getFirstColumnValue;
 import static org.eclipse.kura.util.jdbc.JdbcUtil.getFirstColumnValueOrEmpty;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +40,7 @@ import org.eclipse.kura.message.store.StoredMessage;
 import org.eclipse.kura.message.store.provider.MessageStore;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.util.jdbc.SQLSupplier;
 
 public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
 
@@ -45,6 +52,8 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
     protected final ConnectionProvider connectionProvider;
     protected final Calendar utcCalendar;
 
+    private long messageCount = -1;
+
     protected AbstractJdbcMessageStoreImpl(final ConnectionProvider connectionProvider, final String tableName) {
         if (tableName == null || tableName.trim().isEmpty()) {
             throw new IllegalArgumentException("Table name cannot be null or empty.");
@@ -77,7 +86,38 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
     @Override
     public synchronized int getMessageCount() throws KuraStoreException {
 
-        return (int) getMessageCountInternal();
+        this.messageCount = getMessageCountInternal();
+
+        return (int) this.messageCount;
+    }
+
+    @Override
+    public synchronized int getCachedMessageCount() throws KuraStoreException {
+
+        if (this.messageCount < 0) {
+            initMessageCount();
+        }
+
+        return (int) this.messageCount;
+    }
+
+    /**
+     * Initializes the message counter returned by {@link #getCachedMessageCount()}
+     * with the current table size. Implementations should call this method once
+     * the table has been created.
+     */
+    protected synchronized void initMessageCount() throws KuraStoreException {
+        this.messageCount = getMessageCountInternal();
+    }
+
+    /**
+     * Updates the message counter returned by {@link #getCachedMessageCount()},
+     * implementations must call this method after storing a message.
+     */
+    protected synchronized void updateMessageCount(final long delta) {
+        if (this.messageCount >= 0) {
+            this.messageCount = Math.max(0, this.messageCount + delta);
+        }
     }
 
     protected long getMessageCountInternal() throws KuraStoreException {
@@ -106,20 +146,10 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
             try (PreparedStatement pstmt = c.prepareStatement(this.queries.getSqlStore(),
                     new String[] { "id" })) {
 
-                pstmt.setString(1, topic);
-                pstmt.setInt(2, qos);
-                pstmt.setBoolean(3, retain);
-                pstmt.setTimestamp(4, now, this.utcCalendar);
-                pstmt.setTimestamp(5, null);
-                pstmt.setInt(6, -1);
-                pstmt.setTimestamp(7, null);
-                pstmt.setBytes(8, payload);
-                pstmt.setInt(9, priority);
-                pstmt.setString(10, null);
-                pstmt.setTimestamp(11, null);
+                setStoreParameters(pstmt, topic, payload, qos, retain, priority, now);
                 pstmt.execute();
 
-                result = getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getLong);
+                result = getGeneratedId(pstmt);
             }
 
             if (isExplicitCommitEnabled()) {
@@ -131,6 +161,52 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
 
     }
 
+    protected List<Long> storeInternal(final List<StoredMessage> messages) throws KuraStoreException {
+        for (final StoredMessage message : messages) {
+            validate(message.getTopic());
+        }
+
+        final Timestamp now = new Timestamp(new Date().getTime());
+
+        return this.connectionProvider.withConnection(c -> withTransaction(c, () -> {
+
+            final List<Long> result = new ArrayList<>(messages.size());
+
+            try (PreparedStatement pstmt = c.prepareStatement(this.queries.getSqlStore(),
+                    new String[] { "id" })) {
+
+                for (final StoredMessage message : messages) {
+                    setStoreParameters(pstmt, message.getTopic(), message.getPayload(), message.getQos(),
+                            message.isRetain(), message.getPriority(), now);
+                    pstmt.execute();
+
+                    result.add(getGeneratedId(pstmt));
+                }
+            }
+
+            return result;
+        }), "Cannot store messages");
+    }
+
+    protected void setStoreParameters(final PreparedStatement pstmt, String topic, byte[] payload, int qos,
+            boolean retain, int priority, final Timestamp now) throws SQLException {
+        pstmt.setString(1, topic);
+        pstmt.setInt(2, qos);
+        pstmt.setBoolean(3, retain);
+        pstmt.setTimestamp(4, now, this.utcCalendar);
+        pstmt.setTimestamp(5, null);
+        pstmt.setInt(6, -1);
+        pstmt.setTimestamp(7, null);
+        pstmt.setBytes(8, payload);
+        pstmt.setInt(9, priority);
+        pstmt.setString(10, null);
+        pstmt.setTimestamp(11, null);
+    }
+
+    protected long getGeneratedId(final PreparedStatement pstmt) throws SQLException {
+        return getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getLong);
+    }
+
     @Override
     public Optional<StoredMessage> get(int msgId) throws KuraStoreException {
 
@@ -163,6 +239,28 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
                 "Cannot get message next message");
     }
 
+    @Override
+    public List<StoredMessage> getNextMessages(final int maxCount) throws KuraStoreException {
+
+        if (maxCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        return this.connectionProvider.withPreparedStatement(this.queries.getSqlGetNextMessages(), (c, stmt) -> {
+            stmt.setInt(1, maxCount);
+
+            final List<StoredMessage> messages = new ArrayList<>();
+
+            try (final ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    messages.add(buildStoredMessageBuilder(rs, true).build());
+                }
+            }
+
+            return messages;
+        }, "Cannot get next messages");
+    }
+
     @Override
     public void markAsPublished(int msgId, DataTransportToken token) throws KuraStoreException {
         final Timestamp now = new Timestamp(new Date().getTime());
@@ -195,12 +293,63 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         updateTimestamp(this.queries.getSqlSetConfirmed(), msgId);
     }
 
+    @Override
+    public void markAsPublished(final Collection<Integer> msgIds) throws KuraStoreException {
+        updateTimestamps(this.queries.getSqlSetPublishedQoS0(), msgIds);
+    }
+
+    @Override
+    public void markAsPublished(final Map<Integer, DataTransportToken> tokens) throws KuraStoreException {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        final Timestamp now = new Timestamp(new Date().getTime());
+
+        this.connectionProvider.withConnection(c -> withTransaction(c, () -> {
+            try (final PreparedStatement stmt = c.prepareStatement(this.queries.getSqlSetPublishedQoS1())) {
+                for (final Entry<Integer, DataTransportToken> e : tokens.entrySet()) {
+                    stmt.setTimestamp(1, now, this.utcCalendar);
+                    stmt.setInt(2, e.getValue().getMessageId());
+                    stmt.setString(3, e.getValue().getSessionId());
+                    stmt.setInt(4, e.getKey());
+                    stmt.addBatch();
+                }
+
+                stmt.executeBatch();
+            }
+            return null;
+        }), "Cannot update timestamps");
+    }
+
+    @Override
+    public void markAsConfirmed(final Collection<Integer> msgIds) throws KuraStoreException {
+        updateTimestamps(this.queries.getSqlSetConfirmed(), msgIds);
+    }
+
     @Override
     public List<StoredMessage> getUnpublishedMessages() throws KuraStoreException {
 
         return listMessages(this.queries.getSqlAllUnpublishedMessages());
     }
 
+    @Override
+    public Map<Integer, Integer> getUnpublishedMessageCountByPriority() throws KuraStoreException {
+
+        return this.connectionProvider.withPreparedStatement(this.queries.getSqlUnpublishedMessageCountByPriority(),
+                (c, stmt) -> {
+                    final Map<Integer, Integer> result = new HashMap<>();
+
+                    try (final ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            result.put(rs.getInt(1), rs.getInt(2));
+                        }
+                    }
+
+                    return result;
+                }, "Cannot get unpublished message count");
+    }
+
     @Override
     public List<StoredMessage> getInFlightMessages() throws KuraStoreException {
 
@@ -237,11 +386,13 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
 
     protected void deleteStaleMessages(final Object timestamp) throws KuraStoreException {
 
-        execute(this.queries.getSqlDeleteDroppedMessages(), timestamp);
+        long deleted = executeUpdate(this.queries.getSqlDeleteDroppedMessages(), timestamp);
+
+        deleted += executeUpdate(this.queries.getSqlDeleteConfirmedMessages(), timestamp);
 
-        execute(this.queries.getSqlDeleteConfirmedMessages(), timestamp);
+        deleted += executeUpdate(this.queries.getSqlDeletePublishedMessages(), timestamp);
 
-        execute(this.queries.getSqlDeletePublishedMessages(), timestamp);
+        updateMessageCount(-deleted);
     }
 
     protected void updateTimestamp(String sql, Integer... msgIds) throws KuraStoreException {
@@ -263,6 +414,48 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         }, "Cannot update timestamp");
     }
 
+    protected void updateTimestamps(final String sql, final Collection<Integer> msgIds) throws KuraStoreException {
+        if (msgIds.isEmpty()) {
+            return;
+        }
+
+        final Timestamp now = new Timestamp(new Date().getTime());
+
+        this.connectionProvider.withConnection(c -> withTransaction(c, () -> {
+            try (final PreparedStatement stmt = c.prepareStatement(sql)) {
+                for (final Integer msgId : msgIds) {
+                    stmt.setTimestamp(1, now, this.utcCalendar);
+                    stmt.setInt(2, msgId);
+                    stmt.addBatch();
+                }
+
+                stmt.executeBatch();
+            }
+            return null;
+        }), "Cannot update timestamps");
+    }
+
+    protected <T> T withTransaction(final Connection c, final SQLSupplier<T> task) throws SQLException {
+        final boolean wasAutoCommit = c.getAutoCommit();
+
+        if (wasAutoCommit) {
+            c.setAutoCommit(false);
+        }
+
+        try {
+            final T result = task.get();
+            c.commit();
+            return result;
+        } catch (final SQLException | RuntimeException e) {
+            c.rollback();
+            throw e;
+        } finally {
+            if (wasAutoCommit) {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+
     protected List<StoredMessage> listMessages(String sql, Integer... params) throws KuraStoreException {
         return this.connectionProvider.withPreparedStatement(sql, (c, stmt) -> {
             if (params != null) {
@@ -294,6 +487,23 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         }, "Cannot execute query");
     }
 
+    protected int executeUpdate(String sql, Object... params) throws KuraStoreException {
+        return this.connectionProvider.withPreparedStatement(sql, (c, stmt) -> {
+
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(1 + i, params[i]);
+            }
+
+            final int result = stmt.executeUpdate();
+
+            if (isExplicitCommitEnabled()) {
+                c.commit();
+            }
+            return result;
+
+        }, "Cannot execute update");
+    }
+
     protected List<StoredMessage> buildStoredMessagesNoPayload(ResultSet rs) throws SQLException {
         List<StoredMessage> messages = new ArrayList<>();
         while (rs.next()) {
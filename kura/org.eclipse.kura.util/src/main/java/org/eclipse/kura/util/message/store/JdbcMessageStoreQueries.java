@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -21,10 +21,12 @@ public final class JdbcMessageStoreQueries {
     private final String sqlStore;
     private final String sqlGetMessage;
     private final String sqlGetNextMessage;
+    private final String sqlGetNextMessages;
     private final String sqlSetPublishedQoS1;
     private final String sqlSetPublishedQoS0;
     private final String sqlSetConfirmed;
     private final String sqlAllUnpublishedMessages;
+    private final String sqlUnpublishedMessageCountByPriority;
     private final String sqlAllInFlightMessages;
     private final String sqlAllDroppedInFlightMessages;
     private final String sqlUnpublishAllInFlightMessages;
@@ -43,10 +45,12 @@ public final class JdbcMessageStoreQueries {
         this.sqlStore = requireNonNull(builder.sqlStore);
         this.sqlGetMessage = requireNonNull(builder.sqlGetMessage);
         this.sqlGetNextMessage = requireNonNull(builder.sqlGetNextMessage);
+        this.sqlGetNextMessages = requireNonNull(builder.sqlGetNextMessages);
         this.sqlSetPublishedQoS1 = requireNonNull(builder.sqlSetPublishedQoS1);
         this.sqlSetPublishedQoS0 = requireNonNull(builder.sqlSetPublishedQoS0);
         this.sqlSetConfirmed = requireNonNull(builder.sqlSetConfirmed);
         this.sqlAllUnpublishedMessages = requireNonNull(builder.sqlAllUnpublishedMessages);
+        this.sqlUnpublishedMessageCountByPriority = requireNonNull(builder.sqlUnpublishedMessageCountByPriority);
         this.sqlAllInFlightMessages = requireNonNull(builder.sqlAllInFlightMessages);
         this.sqlAllDroppedInFlightMessages = requireNonNull(builder.sqlAllDroppedInFlightMessages);
         this.sqlUnpublishAllInFlightMessages = requireNonNull(builder.sqlUnpublishAllInFlightMessages);
@@ -80,6 +84,10 @@ public final class JdbcMessageStoreQueries {
         return sqlGetNextMessage;
     }
 
+    public String getSqlGetNextMessages() {
+        return sqlGetNextMessages;
+    }
+
     public String getSqlSetPublishedQoS1() {
         return sqlSetPublishedQoS1;
     }
@@ -96,6 +104,10 @@ public final class JdbcMessageStoreQueries {
         return sqlAllUnpublishedMessages;
     }
 
+    public String getSqlUnpublishedMessageCountByPriority() {
+        return sqlUnpublishedMessageCountByPriority;
+    }
+
     public String getSqlAllInFlightMessages() {
         return sqlAllInFlightMessages;
     }
@@ -151,10 +163,12 @@ public final class JdbcMessageStoreQueries {
         private String sqlStore;
         private String sqlGetMessage;
         private String sqlGetNextMessage;
+        private String sqlGetNextMessages;
         private String sqlSetPublishedQoS1;
         private String sqlSetPublishedQoS0;
         private String sqlSetConfirmed;
         private String sqlAllUnpublishedMessages;
+        private String sqlUnpublishedMessageCountByPriority;
         private String sqlAllInFlightMessages;
         private String sqlAllDroppedInFlightMessages;
         private String sqlUnpublishAllInFlightMessages;
@@ -192,6 +206,11 @@ public final class JdbcMessageStoreQueries {
             return this;
         }
 
+        public Builder withSqlGetNextMessages(String sqlGetNextMessages) {
+            this.sqlGetNextMessages = sqlGetNextMessages;
+            return this;
+        }
+
         public Builder withSqlSetPublishedQoS1(String sqlSetPublishedQoS1) {
             this.sqlSetPublishedQoS1 = sqlSetPublishedQoS1;
             return this;
@@ -212,6 +231,11 @@ public final class JdbcMessageStoreQueries {
             return this;
         }
 
+        public Builder withSqlUnpublishedMessageCountByPriority(String sqlUnpublishedMessageCountByPriority) {
+            this.sqlUnpublishedMessageCountByPriority = sqlUnpublishedMessageCountByPriority;
+            return this;
+        }
+
         public Builder withSqlAllInFlightMessages(String sqlAllInFlightMessages) {
             this.sqlAllInFlightMessages = sqlAllInFlightMessages;
             return this;
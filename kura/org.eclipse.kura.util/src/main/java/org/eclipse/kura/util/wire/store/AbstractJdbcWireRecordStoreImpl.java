@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -21,7 +21,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,6 +32,7 @@ import java.util.Set;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.connection.listener.ConnectionListener;
+import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.jdbc.JdbcUtil;
@@ -44,12 +47,16 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
     private static final String COLUMN_NAME = "COLUMN_NAME";
     private static final String TYPE_NAME = "TYPE_NAME";
+    private static final int MAX_CACHED_COLUMN_SETS = 256;
 
     protected final String tableName;
     protected final String escapedTableName;
     protected final ConnectionProvider connectionProvider;
     protected final JdbcWireRecordStoreQueries queries;
 
+    private final Set<ColumnSet> knownColumnSets = new HashSet<>();
+    private final Map<List<String>, String> insertQueries = new HashMap<>();
+
     private Set<ConnectionListener> connectionListeners;
 
     protected AbstractJdbcWireRecordStoreImpl(final ConnectionProvider connectionProvider, final String tableName) {
@@ -121,19 +128,30 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         return this.connectionProvider.withConnection(this::getTableSize, "failed to determine table size");
     }
 
+    /**
+     * Inserts the provided records in a single transaction. Consecutive records with the same columns are inserted
+     * using a single JDBC batch; the table columns are probed and created, before inserting any record, only for
+     * column sets that have not been seen before by this instance. If an insertion fails, the transaction is rolled
+     * back, the table and columns are reconciled and all the records are inserted again.
+     */
     @Override
     public synchronized void insertRecords(final List<WireRecord> records) throws KuraStoreException {
         this.connectionProvider.withConnection(c -> {
+            final boolean wasAutoCommit = c.getAutoCommit();
+
+            if (wasAutoCommit) {
+                c.setAutoCommit(false);
+            }
 
-            for (final WireRecord r : records) {
-                try {
-                    createColumns(c, r);
-                    insertRecord(c, r);
-                } catch (final SQLException e) {
-                    logger.info("Reconciling table and columns");
-                    execute(c, this.queries.getSqlCreateTable());
-                    createColumns(c, r);
-                    insertRecord(c, r);
+            try {
+                insertRecordsInternal(c, records);
+                c.commit();
+            } catch (final SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                if (wasAutoCommit) {
+                    c.setAutoCommit(true);
                 }
             }
 
@@ -146,6 +164,99 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         // nothing to close
     }
 
+    private void insertRecordsInternal(final Connection c, final List<WireRecord> records) throws SQLException {
+        final List<List<WireRecord>> batches = new ArrayList<>();
+
+        int next = 0;
+
+        while (next < records.size()) {
+            final ColumnSet columnSet = ColumnSet.of(records.get(next));
+            int end = next + 1;
+
+            while (end < records.size() && columnSet.equals(ColumnSet.of(records.get(end)))) {
+                end++;
+            }
+
+            batches.add(records.subList(next, end));
+            next = end;
+        }
+
+        boolean reconciled = false;
+
+        while (true) {
+            try {
+                createMissingColumns(c, batches);
+
+                for (final List<WireRecord> batch : batches) {
+                    insertRecordBatch(c, ColumnSet.of(batch.get(0)), batch);
+                }
+
+                return;
+            } catch (final SQLException e) {
+                if (reconciled) {
+                    throw e;
+                }
+
+                logger.info("Reconciling table and columns");
+                c.rollback();
+                this.knownColumnSets.clear();
+                execute(c, this.queries.getSqlCreateTable());
+
+                reconciled = true;
+            }
+        }
+    }
+
+    private void createMissingColumns(final Connection c, final List<List<WireRecord>> batches)
+            throws SQLException {
+
+        boolean columnsCreated = false;
+
+        for (final List<WireRecord> batch : batches) {
+            final ColumnSet columnSet = ColumnSet.of(batch.get(0));
+
+            if (this.knownColumnSets.contains(columnSet)) {
+                continue;
+            }
+
+            createColumns(c, batch.get(0));
+            columnsCreated = true;
+
+            if (this.knownColumnSets.size() >= MAX_CACHED_COLUMN_SETS) {
+                this.knownColumnSets.clear();
+            }
+            this.knownColumnSets.add(columnSet);
+        }
+
+        if (columnsCreated) {
+            // some databases implicitly commit on DDL statements, the columns are created before inserting any record
+            // so that the records are inserted in a transaction that does not contain DDL statements
+            c.commit();
+        }
+    }
+
+    private void insertRecordBatch(final Connection c, final ColumnSet columnSet, final List<WireRecord> records)
+            throws SQLException {
+
+        if (this.insertQueries.size() >= MAX_CACHED_COLUMN_SETS) {
+            this.insertQueries.clear();
+        }
+
+        final String insertQuery = this.insertQueries.computeIfAbsent(columnSet.names,
+                k -> buildInsertQuerySql(records.get(0).getProperties()));
+
+        logger.debug("Storing {} records into table {}...", records.size(), escapedTableName);
+
+        try (final PreparedStatement stmt = c.prepareStatement(insertQuery)) {
+            for (final WireRecord wireRecord : records) {
+                setRecordParameters(stmt, wireRecord);
+                stmt.addBatch();
+            }
+
+            stmt.executeBatch();
+        }
+    }
+
     protected void createColumns(final Connection c, final WireRecord wireRecord) throws SQLException {
 
         final Map<String, String> columnTypes = probeColumnTypes(c);
@@ -181,6 +292,9 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
                 logger.debug("changing column type: {} {}", name, mappedType.get());
 
+                // the column sets already seen could now refer to a column with the wrong type
+                this.knownColumnSets.clear();
+
                 execute(c, MessageFormat.format(queries.getSqlDropColumn(), escapedColName));
                 execute(c, MessageFormat.format(queries.getSqlAddColumn(), escapedColName, mappedType.get()));
             }
@@ -217,25 +331,21 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         return columnMetadata.getString(TYPE_NAME);
     }
 
+    /**
+     * Inserts a single record, committing it if {@link #isExplicitCommitEnabled()} returns {@code true}.
+     *
+     * @deprecated No longer used by {@link #insertRecords(List)}, that inserts the records in batches within a single
+     *             transaction. Kept for compatibility with existing subclasses.
+     */
+    @Deprecated
     protected void insertRecord(Connection connection, final WireRecord wireRecord) throws SQLException {
 
         final String insertQuery = buildInsertQuerySql(wireRecord.getProperties());
 
-        final long timestamp = System.currentTimeMillis();
-
         logger.debug("Storing data into table {}...", escapedTableName);
 
         try (final PreparedStatement stmt = connection.prepareStatement(insertQuery)) {
-            stmt.setLong(1, timestamp);
-
-            int i = 2;
-
-            for (Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
-
-                setParameterValue(stmt, i, entry.getValue().getValue());
-
-                i++;
-            }
+            setRecordParameters(stmt, wireRecord);
 
             stmt.execute();
 
@@ -248,6 +358,20 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
     }
 
+    protected void setRecordParameters(final PreparedStatement stmt, final WireRecord wireRecord)
+            throws SQLException {
+        stmt.setLong(1, System.currentTimeMillis());
+
+        int i = 2;
+
+        for (Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
+
+            setParameterValue(stmt, i, entry.getValue().getValue());
+
+            i++;
+        }
+    }
+
     protected String buildInsertQuerySql(final Map<String, TypedValue<?>> properties) {
         final StringBuilder sbCols = new StringBuilder();
         final StringBuilder sbVals = new StringBuilder();
@@ -310,4 +434,46 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         return false;
     }
 
+    private static final class ColumnSet {
+
+        private final List<String> names;
+        private final List<DataType> types;
+
+        private ColumnSet(final List<String> names, final List<DataType> types) {
+            this.names = names;
+            this.types = types;
+        }
+
+        static ColumnSet of(final WireRecord wireRecord) {
+            final Map<String, TypedValue<?>> properties = wireRecord.getProperties();
+
+            final List<String> names = new ArrayList<>(properties.size());
+            final List<DataType> types = new ArrayList<>(properties.size());
+
+            for (final Entry<String, TypedValue<?>> entry : properties.entrySet()) {
+                names.add(entry.getKey());
+                types.add(entry.getValue() != null ? entry.getValue().getType() : null);
+            }
+
+            return new ColumnSet(names, types);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.names.hashCode() + this.types.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ColumnSet)) {
+                return false;
+            }
+            final ColumnSet other = (ColumnSet) obj;
+            return this.names.equals(other.names) && this.types.equals(other.types);
+        }
+    }
+
 }
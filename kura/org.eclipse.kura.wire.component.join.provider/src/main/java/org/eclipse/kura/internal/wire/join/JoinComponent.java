@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.kura.configuration.ConfigurableComponent;
@@ -31,6 +32,7 @@ import org.eclipse.kura.wire.WireEnvelope;
 import org.eclipse.kura.wire.WireHelperService;
 import org.eclipse.kura.wire.WireRecord;
 import org.eclipse.kura.wire.graph.MultiportWireSupport;
+import org.eclipse.kura.wire.graph.ReceiverPort;
 import org.eclipse.kura.wire.multiport.MultiportWireReceiver;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
@@ -79,8 +81,21 @@ public final class JoinComponent implements MultiportWireReceiver, WireEmitter,
         logger.debug("Updating Join Wire Component...");
         this.joinComponentOptions = new JoinComponentOptions(properties, this.context.getBundleContext());
 
-        this.joinComponentOptions.getPortAggregatorFactory().build(this.wireSupport.getReceiverPorts())
-                .onWireReceive(this::onWireReceive);
+        final JoinMode joinMode = this.joinComponentOptions.getJoinMode();
+
+        if (joinMode == JoinMode.POSITION) {
+            this.joinComponentOptions.getPortAggregatorFactory().build(this.wireSupport.getReceiverPorts())
+                    .onWireReceive(this::onWireReceive);
+        } else {
+            final TimeAlignedJoiner joiner = new TimeAlignedJoiner(joinMode,
+                    this.joinComponentOptions.getTimeTolerance(), this.joinComponentOptions.getBufferSize(),
+                    this.joinComponentOptions.getBufferMaxAge(), this.joinComponentOptions.getTimestampProperty(),
+                    JoinComponent::join);
+            final List<ReceiverPort> receiverPorts = this.wireSupport.getReceiverPorts();
+
+            receiverPorts.get(0).onWireReceive(envelope -> onTimeAlignedReceive(envelope, joiner::onFirstReceive));
+            receiverPorts.get(1).onWireReceive(envelope -> onTimeAlignedReceive(envelope, joiner::onSecondReceive));
+        }
 
         logger.debug("Updating Join Wire Component... Done");
     }
@@ -94,20 +109,8 @@ public final class JoinComponent implements MultiportWireReceiver, WireEmitter,
             final List<WireRecord> secondRecords = secondEnvelope != null ? ((WireEnvelope) secondEnvelope).getRecords()
                     : Collections.emptyList();
             final List<WireRecord> result = new ArrayList<>();
-            forEachPair(firstRecords.iterator(), secondRecords.iterator(), (first, second) -> {
-                if (first == null) {
-                    result.add(new WireRecord(covertProperies(second.getProperties())));
-                    return;
-                }
-                if (second == null) {
-                    result.add(new WireRecord(covertProperies(first.getProperties())));
-                    return;
-                }
-                final Map<String, TypedValue<?>> resultProperties = new HashMap<>(
-                        covertProperies(first.getProperties()));
-                resultProperties.putAll(covertProperies(second.getProperties()));
-                result.add(new WireRecord(resultProperties));
-            });
+            forEachPair(firstRecords.iterator(), secondRecords.iterator(),
+                    (first, second) -> result.add(join(first, second)));
             this.wireSupport.emit(result);
         } else {
             logger.warn("receive firstEnvelope:{} or secondEnvelope:{} is not WireEnvelope", firstEnvelope,
@@ -115,6 +118,33 @@ public final class JoinComponent implements MultiportWireReceiver, WireEmitter,
         }
     }
 
+    private void onTimeAlignedReceive(final Object envelope,
+            final BiFunction<List<WireRecord>, Long, List<WireRecord>> joiner) {
+        if (!(envelope instanceof WireEnvelope)) {
+            logger.warn("receive envelope:{} is not WireEnvelope", envelope);
+            return;
+        }
+
+        final List<WireRecord> result = joiner.apply(((WireEnvelope) envelope).getRecords(),
+                System.currentTimeMillis());
+
+        if (!result.isEmpty()) {
+            this.wireSupport.emit(result);
+        }
+    }
+
+    private static WireRecord join(final WireRecord first, final WireRecord second) {
+        if (first == null) {
+            return new WireRecord(covertProperies(second.getProperties()));
+        }
+        if (second == null) {
+            return new WireRecord(covertProperies(first.getProperties()));
+        }
+        final Map<String, TypedValue<?>> resultProperties = new HashMap<>(covertProperies(first.getProperties()));
+        resultProperties.putAll(covertProperies(second.getProperties()));
+        return new WireRecord(resultProperties);
+    }
+
     private <T, U> void forEachPair(Iterator<T> first, Iterator<U> second, BiConsumer<T, U> consumer) {
         while (first.hasNext() || second.hasNext()) {
             final T firstValue = first.hasNext() ? first.next() : null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,18 @@ public class JoinComponentOptions {
 
     private static final boolean BARRIER_MODALITY_PROPERTY_DEFAULT = true;
 
+    private static final String JOIN_MODE_PROPERTY_KEY = "join.mode";
+    private static final String TIME_TOLERANCE_PROPERTY_KEY = "time.tolerance";
+    private static final String TIMESTAMP_PROPERTY_PROPERTY_KEY = "timestamp.property";
+    private static final String BUFFER_SIZE_PROPERTY_KEY = "buffer.size";
+    private static final String BUFFER_MAX_AGE_PROPERTY_KEY = "buffer.max.age";
+
+    private static final String JOIN_MODE_PROPERTY_DEFAULT = "position";
+    private static final long TIME_TOLERANCE_PROPERTY_DEFAULT = 1000L;
+    private static final String TIMESTAMP_PROPERTY_PROPERTY_DEFAULT = "assetTimestamp";
+    private static final int BUFFER_SIZE_PROPERTY_DEFAULT = 100;
+    private static final long BUFFER_MAX_AGE_PROPERTY_DEFAULT = 60000L;
+
     private final Map<String, Object> properties;
     private final BundleContext context;
     private ServiceReference<?> serviceReference;
@@ -50,6 +62,28 @@ public class JoinComponentOptions {
         }
     }
 
+    JoinMode getJoinMode() {
+        return JoinMode.getMode(
+                (String) this.properties.getOrDefault(JOIN_MODE_PROPERTY_KEY, JOIN_MODE_PROPERTY_DEFAULT));
+    }
+
+    long getTimeTolerance() {
+        return (Long) this.properties.getOrDefault(TIME_TOLERANCE_PROPERTY_KEY, TIME_TOLERANCE_PROPERTY_DEFAULT);
+    }
+
+    String getTimestampProperty() {
+        return (String) this.properties.getOrDefault(TIMESTAMP_PROPERTY_PROPERTY_KEY,
+                TIMESTAMP_PROPERTY_PROPERTY_DEFAULT);
+    }
+
+    int getBufferSize() {
+        return (Integer) this.properties.getOrDefault(BUFFER_SIZE_PROPERTY_KEY, BUFFER_SIZE_PROPERTY_DEFAULT);
+    }
+
+    long getBufferMaxAge() {
+        return (Long) this.properties.getOrDefault(BUFFER_MAX_AGE_PROPERTY_KEY, BUFFER_MAX_AGE_PROPERTY_DEFAULT);
+    }
+
     public void dispose() {
         if (this.serviceReference != null) {
             this.context.ungetService(this.serviceReference);
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.join;
+
+/**
+ * This enum specifies how the {@link JoinComponent} pairs the records received on its ports.
+ *
+ */
+public enum JoinMode {
+
+    /**
+     * The i-th record of an envelope received on the first port is paired with the i-th record of an envelope
+     * received on the second port, envelopes are paired by the configured port aggregator.
+     */
+    POSITION("position"),
+    /**
+     * Every record received on the first port is paired with the record received on the second port having the
+     * nearest timestamp, within the configured tolerance.
+     */
+    NEAREST("nearest"),
+    /**
+     * Every record received on the first port is paired with the latest record received on the second port having a
+     * timestamp not greater than its own one, within the configured tolerance.
+     */
+    AS_OF("asof");
+
+    private final String mode;
+
+    private JoinMode(String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Allows to map a provided string with the corresponding {@link JoinMode}
+     *
+     * @param proposedMode
+     *            the String that has to be mapped to the corresponding {@link JoinMode}
+     * @return {@link JoinMode} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *             if the argument cannot be matched to a corresponding {@link JoinMode} object.
+     */
+    public static JoinMode getMode(String proposedMode) {
+        for (JoinMode value : JoinMode.values()) {
+            if (value.mode.equalsIgnoreCase(proposedMode)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported join mode!");
+    }
+
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.join;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireRecord;
+
+/**
+ * Pairs the records received on the first port with the records received on the second port by timestamp.
+ * <br>
+ * The records of the first port are kept in a pending queue until the records received on the second port are recent
+ * enough to tell which one is the best match, then they are joined and released in order. The records of the second
+ * port are kept ordered by timestamp and are evicted as soon as they become too old to match any pending record or any
+ * of the records released together. The records of the first port do not need to be received in timestamp order, but
+ * a record older than the ones already released might no longer find its match, since the records of the second port
+ * it would have been paired with may have been evicted in the meantime.
+ * Both buffers are bounded by the configured size. Moreover, pending records older than the configured maximum age,
+ * measured with respect to the most recent record received on the first port, are released with the best match
+ * available at that time, or alone, so that a stalled second port does not delay the first one indefinitely.
+ * <br>
+ * The timestamp of a record is read from the configured property, or is the reception time if the property is not
+ * present.
+ */
+final class TimeAlignedJoiner {
+
+    private final JoinMode mode;
+    private final long tolerance;
+    private final int bufferSize;
+    private final long maxAge;
+    private final String timestampProperty;
+    private final BiFunction<WireRecord, WireRecord, WireRecord> joiner;
+
+    private final Deque<TimestampedRecord> pending = new ArrayDeque<>();
+    private final Deque<TimestampedRecord> buffered = new ArrayDeque<>();
+    private long firstWatermark = Long.MIN_VALUE;
+    private long secondWatermark = Long.MIN_VALUE;
+
+    TimeAlignedJoiner(final JoinMode mode, final long tolerance, final int bufferSize, final long maxAge,
+            final String timestampProperty, final BiFunction<WireRecord, WireRecord, WireRecord> joiner) {
+        this.mode = mode;
+        this.tolerance = Math.max(0, tolerance);
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxAge = Math.max(0, maxAge);
+        this.timestampProperty = timestampProperty;
+        this.joiner = joiner;
+    }
+
+    /**
+     * Adds the records received on the first port.
+     *
+     * @param records
+     *            the received records
+     * @param now
+     *            the reception time
+     * @return the joined records that can be released
+     */
+    synchronized List<WireRecord> onFirstReceive(final List<WireRecord> records, final long now) {
+        for (final WireRecord wireRecord : records) {
+            final TimestampedRecord timestamped = new TimestampedRecord(getTimestamp(wireRecord, now), wireRecord);
+            this.pending.addLast(timestamped);
+            this.firstWatermark = Math.max(this.firstWatermark, timestamped.timestamp);
+        }
+
+        return release();
+    }
+
+    /**
+     * Adds the records received on the second port.
+     *
+     * @param records
+     *            the received records
+     * @param now
+     *            the reception time
+     * @return the joined records that can be released
+     */
+    synchronized List<WireRecord> onSecondReceive(final List<WireRecord> records, final long now) {
+        for (final WireRecord wireRecord : records) {
+            final TimestampedRecord timestamped = new TimestampedRecord(getTimestamp(wireRecord, now), wireRecord);
+            insertOrdered(timestamped);
+            this.secondWatermark = Math.max(this.secondWatermark, timestamped.timestamp);
+
+            if (this.buffered.size() > this.bufferSize) {
+                this.buffered.removeFirst();
+            }
+        }
+
+        return release();
+    }
+
+    private List<WireRecord> release() {
+        List<WireRecord> result = Collections.emptyList();
+        long oldestReleased = Long.MAX_VALUE;
+
+        while (!this.pending.isEmpty()) {
+            final TimestampedRecord first = this.pending.peekFirst();
+
+            if (!isReady(first) && !isExpired(first)) {
+                break;
+            }
+
+            this.pending.removeFirst();
+
+            if (result.isEmpty()) {
+                result = new ArrayList<>();
+            }
+
+            final TimestampedRecord second = this.mode == JoinMode.AS_OF ? findAsOf(first.timestamp)
+                    : findNearest(first.timestamp);
+            result.add(this.joiner.apply(first.record, second != null ? second.record : null));
+
+            oldestReleased = Math.min(oldestReleased, first.timestamp);
+        }
+
+        if (!result.isEmpty()) {
+            evictBefore(getOldestTimestamp(oldestReleased) - this.tolerance);
+        }
+
+        return result;
+    }
+
+    private boolean isReady(final TimestampedRecord first) {
+        if (this.secondWatermark == Long.MIN_VALUE) {
+            return false;
+        }
+        final long horizon = this.mode == JoinMode.NEAREST ? first.timestamp + this.tolerance : first.timestamp;
+        return this.secondWatermark >= horizon;
+    }
+
+    private boolean isExpired(final TimestampedRecord first) {
+        return this.pending.size() > this.bufferSize
+                || this.maxAge > 0 && first.timestamp < this.firstWatermark - this.maxAge;
+    }
+
+    private TimestampedRecord findNearest(final long timestamp) {
+        TimestampedRecord result = null;
+        long bestDistance = Long.MAX_VALUE;
+
+        for (final TimestampedRecord candidate : this.buffered) {
+            if (candidate.timestamp > timestamp + this.tolerance) {
+                break;
+            }
+            final long distance = Math.abs(candidate.timestamp - timestamp);
+            if (distance <= this.tolerance && distance <= bestDistance) {
+                result = candidate;
+                bestDistance = distance;
+            }
+        }
+
+        return result;
+    }
+
+    private TimestampedRecord findAsOf(final long timestamp) {
+        TimestampedRecord result = null;
+
+        for (final TimestampedRecord candidate : this.buffered) {
+            if (candidate.timestamp > timestamp) {
+                break;
+            }
+            if (timestamp - candidate.timestamp <= this.tolerance) {
+                result = candidate;
+            }
+        }
+
+        return result;
+    }
+
+    private long getOldestTimestamp(final long oldestReleased) {
+        long result = oldestReleased;
+
+        for (final TimestampedRecord first : this.pending) {
+            result = Math.min(result, first.timestamp);
+        }
+
+        return result;
+    }
+
+    private void evictBefore(final long timestamp) {
+        while (!this.buffered.isEmpty() && this.buffered.peekFirst().timestamp < timestamp) {
+            this.buffered.removeFirst();
+        }
+    }
+
+    private void insertOrdered(final TimestampedRecord timestamped) {
+        if (this.buffered.isEmpty() || this.buffered.peekLast().timestamp <= timestamped.timestamp) {
+            this.buffered.addLast(timestamped);
+            return;
+        }
+
+        final Deque<TimestampedRecord> newer = new ArrayDeque<>();
+
+        while (!this.buffered.isEmpty() && this.buffered.peekLast().timestamp > timestamped.timestamp) {
+            newer.addFirst(this.buffered.removeLast());
+        }
+
+        this.buffered.addLast(timestamped);
+        this.buffered.addAll(newer);
+    }
+
+    private long getTimestamp(final WireRecord wireRecord, final long now) {
+        final TypedValue<?> value = wireRecord.getProperties().get(this.timestampProperty);
+
+        if (value != null && value.getValue() instanceof Long) {
+            return (Long) value.getValue();
+        }
+        return now;
+    }
+
+    private static final class TimestampedRecord {
+
+        private final long timestamp;
+        private final WireRecord record;
+
+        TimestampedRecord(final long timestamp, final WireRecord record) {
+            this.timestamp = timestamp;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+
+/**
+ * This enum specifies the statistics that can be computed by the {@link WindowAggregator} component. The value of a
+ * statistic is emitted in a property named {@code <property name>_<statistic name>}.
+ *
+ */
+public enum Statistic {
+
+    MIN("min") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getMin());
+        }
+    },
+    MAX("max") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getMax());
+        }
+    },
+    MEAN("mean") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getMean());
+        }
+    },
+    /**
+     * The population standard deviation.
+     */
+    STDDEV("stddev") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getStdDev());
+        }
+    },
+    COUNT("count") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newLongValue(statistics.getCount());
+        }
+    },
+    FIRST("first") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getFirst());
+        }
+    },
+    LAST("last") {
+
+        @Override
+        TypedValue<?> getValue(final WindowStatistics statistics) {
+            return TypedValues.newDoubleValue(statistics.getLast());
+        }
+    };
+
+    private final String statistic;
+
+    private Statistic(String statistic) {
+        this.statistic = statistic;
+    }
+
+    String getName() {
+        return this.statistic;
+    }
+
+    abstract TypedValue<?> getValue(final WindowStatistics statistics);
+
+    /**
+     * Allows to map a provided string with the corresponding {@link Statistic}
+     *
+     * @param proposedStatistic
+     *            the String that has to be mapped to the corresponding {@link Statistic}
+     * @return {@link Statistic} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *             if the argument cannot be matched to a corresponding {@link Statistic} object.
+     */
+    public static Statistic getStatistic(String proposedStatistic) {
+        for (Statistic value : Statistic.values()) {
+            if (value.statistic.equalsIgnoreCase(proposedStatistic)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported statistic!");
+    }
+
+}
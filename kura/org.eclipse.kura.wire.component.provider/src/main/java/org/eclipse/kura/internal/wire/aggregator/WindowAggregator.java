@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.kura.wire.WireComponent;
+import org.eclipse.kura.wire.WireEmitter;
+import org.eclipse.kura.wire.WireEnvelope;
+import org.eclipse.kura.wire.WireHelperService;
+import org.eclipse.kura.wire.WireReceiver;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.WireSupport;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.wireadmin.Wire;
+
+/**
+ * The Class {@link WindowAggregator} represents a {@link WireComponent} that computes statistics of the numeric
+ * properties of the received {@link WireRecord}s over tumbling or sliding windows, and emits a single
+ * {@link WireRecord} per window.
+ * <br>
+ * For every numeric property, the emitted record contains a {@code <property>_<statistic>} property for each configured
+ * statistic. Time based windows are aligned to multiples of the window slide and also contain the {@code windowStart}
+ * and {@code windowEnd} properties. Windows are closed when a record that falls after their end is received, records
+ * without numeric properties, like the ones emitted by a Timer, can be used to close the windows when the data rate
+ * is low. Windows without samples are not emitted.
+ */
+public final class WindowAggregator implements WireEmitter, WireReceiver, ConfigurableComponent {
+
+    private static final Logger logger = LogManager.getLogger(WindowAggregator.class);
+
+    private static final String TIMESTAMP_SUFFIX = "_timestamp";
+    private static final String ASSET_TIMESTAMP = "assetTimestamp";
+    private static final String WINDOW_START = "windowStart";
+    private static final String WINDOW_END = "windowEnd";
+
+    private final LongSupplier clock;
+
+    private WireSupport wireSupport;
+
+    private WindowBasis basis;
+    private long size;
+    private long slide;
+    private Set<Statistic> statistics;
+
+    private final Map<String, WindowStatistics> windows = new LinkedHashMap<>();
+    private long recordCount;
+    private long nextWindowEnd = Long.MIN_VALUE;
+
+    private volatile WireHelperService wireHelperService;
+
+    public WindowAggregator() {
+        this(System::currentTimeMillis);
+    }
+
+    WindowAggregator(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Bind the {@link WireHelperService}.
+     *
+     * @param wireHelperService
+     *            the new {@link WireHelperService}
+     */
+    protected synchronized void bindWireHelperService(final WireHelperService wireHelperService) {
+        if (isNull(this.wireHelperService)) {
+            this.wireHelperService = wireHelperService;
+        }
+    }
+
+    /**
+     * Unbind the {@link WireHelperService}
+     *
+     * @param wireHelperService
+     *            the new {@link WireHelperService}
+     */
+    protected synchronized void unbindWireHelperService(final WireHelperService wireHelperService) {
+        if (this.wireHelperService == wireHelperService) {
+            this.wireHelperService = null;
+        }
+    }
+
+    /**
+     * OSGi service component activation callback
+     *
+     * @param properties
+     *            the configured properties
+     * @param componentContext
+     */
+    @SuppressWarnings("unchecked")
+    protected synchronized void activate(final Map<String, Object> properties, ComponentContext componentContext) {
+        logger.debug("Activating Window Aggregator...");
+        this.wireSupport = this.wireHelperService.newWireSupport(this,
+                (ServiceReference<WireComponent>) componentContext.getServiceReference());
+        updated(properties);
+        logger.debug("Activating Window Aggregator... Done");
+    }
+
+    /**
+     * OSGi service component modification callback. The samples collected so far are retained if the window
+     * definition is not changed.
+     *
+     * @param properties
+     *            the updated properties
+     */
+    protected synchronized void updated(final Map<String, Object> properties) {
+        logger.debug("Updating Window Aggregator...");
+        final WindowAggregatorOptions options = new WindowAggregatorOptions(properties);
+
+        final WindowBasis newBasis = options.getWindowBasis();
+        final long newSize = options.getWindowSize();
+        final long newSlide = options.getWindowSlide();
+
+        if (newBasis != this.basis || newSize != this.size || newSlide != this.slide) {
+            this.basis = newBasis;
+            this.size = newSize;
+            this.slide = newSlide;
+            this.windows.clear();
+            this.recordCount = 0;
+            this.nextWindowEnd = Long.MIN_VALUE;
+        }
+
+        this.statistics = options.getStatistics();
+        logger.debug("Updating Window Aggregator... Done");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void consumersConnected(final Wire[] wires) {
+        this.wireSupport.consumersConnected(wires);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void producersConnected(final Wire[] wires) {
+        this.wireSupport.producersConnected(wires);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized Object polled(final Wire wire) {
+        return this.wireSupport.polled(wire);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void updated(final Wire wire, final Object value) {
+        this.wireSupport.updated(wire, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void onWireReceive(final Object wireEnvelope) {
+        if (!(wireEnvelope instanceof WireEnvelope)) {
+            logger.warn("receive object:{} is not WireEnvelope", wireEnvelope);
+            return;
+        }
+
+        final List<WireRecord> result = new ArrayList<>();
+
+        for (final WireRecord wireRecord : ((WireEnvelope) wireEnvelope).getRecords()) {
+            if (this.basis == WindowBasis.TIME) {
+                final long now = this.clock.getAsLong();
+                closeTimeWindows(now, result);
+                addSamples(now, wireRecord);
+            } else {
+                final long position = ++this.recordCount;
+                addSamples(position, wireRecord);
+                if (position % this.slide == 0) {
+                    closeWindow(position - this.size + 1, position, result);
+                }
+            }
+        }
+
+        if (!result.isEmpty()) {
+            this.wireSupport.emit(result);
+        }
+    }
+
+    private void closeTimeWindows(final long now, final List<WireRecord> result) {
+        if (this.nextWindowEnd == Long.MIN_VALUE) {
+            this.nextWindowEnd = nextAlignedWindowEnd(now);
+            return;
+        }
+
+        while (now >= this.nextWindowEnd) {
+            closeWindow(this.nextWindowEnd - this.size, this.nextWindowEnd, result);
+
+            if (this.windows.isEmpty()) {
+                this.nextWindowEnd = nextAlignedWindowEnd(now);
+            } else {
+                this.nextWindowEnd += this.slide;
+            }
+        }
+    }
+
+    private long nextAlignedWindowEnd(final long now) {
+        return Math.floorDiv(now, this.slide) * this.slide + this.slide;
+    }
+
+    private void addSamples(final long position, final WireRecord wireRecord) {
+        for (final Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
+            final String name = entry.getKey();
+            final TypedValue<?> value = entry.getValue();
+
+            if (isTimestamp(name) || !isNumeric(value)) {
+                continue;
+            }
+
+            this.windows.computeIfAbsent(name, k -> new WindowStatistics()).add(position,
+                    ((Number) value.getValue()).doubleValue());
+        }
+    }
+
+    private void closeWindow(final long start, final long end, final List<WireRecord> result) {
+        final Map<String, TypedValue<?>> properties = new HashMap<>();
+
+        final Iterator<Entry<String, WindowStatistics>> iterator = this.windows.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            final Entry<String, WindowStatistics> entry = iterator.next();
+            final WindowStatistics window = entry.getValue();
+
+            window.evictBefore(start);
+
+            if (window.isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+
+            for (final Statistic statistic : this.statistics) {
+                properties.put(entry.getKey() + "_" + statistic.getName(), statistic.getValue(window));
+            }
+        }
+
+        if (properties.isEmpty()) {
+            return;
+        }
+
+        if (this.basis == WindowBasis.TIME) {
+            properties.put(WINDOW_START, TypedValues.newLongValue(start));
+            properties.put(WINDOW_END, TypedValues.newLongValue(end));
+        }
+
+        result.add(new WireRecord(properties));
+    }
+
+    private static boolean isTimestamp(final String name) {
+        return name.endsWith(TIMESTAMP_SUFFIX) || ASSET_TIMESTAMP.equals(name);
+    }
+
+    private static boolean isNumeric(final TypedValue<?> value) {
+        if (isNull(value)) {
+            return false;
+        }
+
+        final DataType type = value.getType();
+
+        if (type == DataType.INTEGER || type == DataType.LONG) {
+            return true;
+        } else if (type == DataType.FLOAT || type == DataType.DOUBLE) {
+            return Double.isFinite(((Number) value.getValue()).doubleValue());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The Class WindowAggregatorOptions is responsible to contain all the Window Aggregator related configurable options
+ */
+final class WindowAggregatorOptions {
+
+    private static final Logger logger = LogManager.getLogger(WindowAggregatorOptions.class);
+
+    private static final String PROP_WINDOW_TYPE = "window.type";
+    private static final String PROP_WINDOW_BASIS = "window.basis";
+    private static final String PROP_WINDOW_SIZE = "window.size";
+    private static final String PROP_WINDOW_SLIDE = "window.slide";
+    private static final String PROP_STATISTICS = "statistics";
+
+    private static final String DEFAULT_WINDOW_TYPE = "tumbling";
+    private static final String DEFAULT_WINDOW_BASIS = "time";
+    private static final long DEFAULT_WINDOW_SIZE = 60000;
+    private static final long DEFAULT_WINDOW_SLIDE = 10000;
+    private static final String DEFAULT_STATISTICS = "min,max,mean,stddev,count,first,last";
+
+    private final Map<String, Object> properties;
+
+    /**
+     * Instantiates a new Window Aggregator options.
+     *
+     * @param properties
+     *            the provided properties
+     */
+    WindowAggregatorOptions(final Map<String, Object> properties) {
+        requireNonNull(properties, "Properties cannot be null");
+        this.properties = properties;
+    }
+
+    WindowType getWindowType() {
+        return WindowType.getType(getString(PROP_WINDOW_TYPE, DEFAULT_WINDOW_TYPE));
+    }
+
+    WindowBasis getWindowBasis() {
+        return WindowBasis.getBasis(getString(PROP_WINDOW_BASIS, DEFAULT_WINDOW_BASIS));
+    }
+
+    /**
+     * Returns the window size, as a number of records or in milliseconds depending on the window basis.
+     *
+     * @return the window size
+     */
+    long getWindowSize() {
+        return Math.max(1, getLong(PROP_WINDOW_SIZE, DEFAULT_WINDOW_SIZE));
+    }
+
+    /**
+     * Returns the distance between the end of two consecutive windows, that is equal to the window size for tumbling
+     * windows.
+     *
+     * @return the window slide
+     */
+    long getWindowSlide() {
+        if (getWindowType() == WindowType.TUMBLING) {
+            return getWindowSize();
+        }
+        return Math.max(1, getLong(PROP_WINDOW_SLIDE, DEFAULT_WINDOW_SLIDE));
+    }
+
+    /**
+     * Returns the statistics to be emitted, unknown entries are ignored.
+     *
+     * @return the statistics to be emitted
+     */
+    Set<Statistic> getStatistics() {
+        final Set<Statistic> result = EnumSet.noneOf(Statistic.class);
+
+        for (final String entry : getString(PROP_STATISTICS, DEFAULT_STATISTICS).split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(Statistic.getStatistic(entry.trim()));
+            } catch (final IllegalArgumentException e) {
+                logger.warn("Ignoring unknown statistic: {}", entry);
+            }
+        }
+
+        return result;
+    }
+
+    private String getString(final String propertyName, final String defaultValue) {
+        final Object value = this.properties.get(propertyName);
+        if (nonNull(value) && value instanceof String) {
+            return (String) value;
+        }
+        return defaultValue;
+    }
+
+    private long getLong(final String propertyName, final long defaultValue) {
+        final Object value = this.properties.get(propertyName);
+        if (nonNull(value) && value instanceof Long) {
+            return (Long) value;
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+/**
+ * This enum specifies how the size of the windows of the {@link WindowAggregator} component is measured.
+ *
+ */
+public enum WindowBasis {
+
+    /**
+     * The window size and slide are expressed as a number of received records.
+     */
+    COUNT("count"),
+    /**
+     * The window size and slide are expressed in milliseconds, measured on the record reception time.
+     */
+    TIME("time");
+
+    private final String basis;
+
+    private WindowBasis(String basis) {
+        this.basis = basis;
+    }
+
+    /**
+     * Allows to map a provided string with the corresponding {@link WindowBasis}
+     *
+     * @param proposedBasis
+     *            the String that has to be mapped to the corresponding {@link WindowBasis}
+     * @return {@link WindowBasis} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *             if the argument cannot be matched to a corresponding {@link WindowBasis} object.
+     */
+    public static WindowBasis getBasis(String proposedBasis) {
+        for (WindowBasis value : WindowBasis.values()) {
+            if (value.basis.equalsIgnoreCase(proposedBasis)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported window basis!");
+    }
+
+}
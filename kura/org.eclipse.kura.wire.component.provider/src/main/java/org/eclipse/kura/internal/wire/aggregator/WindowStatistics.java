@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+/**
+ * Keeps the statistics of the samples of a single property that fall in a window.
+ * <br>
+ * Samples are stored in primitive ring buffers, ordered by position. The minimum and the maximum are tracked with
+ * monotonic queues and the mean and the variance with the Welford algorithm, so that both adding a sample and
+ * evicting the oldest one take amortized constant time, and all statistics can be retrieved in constant time.
+ */
+final class WindowStatistics {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private long head;
+    private long tail;
+
+    private long[] minQueue = new long[INITIAL_CAPACITY];
+    private long minHead;
+    private long minTail;
+
+    private long[] maxQueue = new long[INITIAL_CAPACITY];
+    private long maxHead;
+    private long maxTail;
+
+    private double mean;
+    private double m2;
+
+    /**
+     * Adds a sample, positions must not be decreasing.
+     *
+     * @param position
+     *            the position of the sample, that is its timestamp or its sequence number
+     * @param value
+     *            the value of the sample
+     */
+    void add(final long position, final double value) {
+        if (getCount() == this.values.length) {
+            grow();
+        }
+
+        final int index = index(this.tail);
+        this.values[index] = value;
+        this.positions[index] = position;
+
+        while (this.minTail > this.minHead && this.values[index(this.minQueue[index(this.minTail - 1)])] >= value) {
+            this.minTail--;
+        }
+        this.minQueue[index(this.minTail++)] = this.tail;
+
+        while (this.maxTail > this.maxHead && this.values[index(this.maxQueue[index(this.maxTail - 1)])] <= value) {
+            this.maxTail--;
+        }
+        this.maxQueue[index(this.maxTail++)] = this.tail;
+
+        this.tail++;
+
+        final double delta = value - this.mean;
+        this.mean += delta / getCount();
+        this.m2 += delta * (value - this.mean);
+    }
+
+    /**
+     * Evicts all the samples whose position is lower than the provided one.
+     *
+     * @param position
+     *            the position of the first sample to be kept
+     */
+    void evictBefore(final long position) {
+        while (this.head < this.tail && this.positions[index(this.head)] < position) {
+            evictOldest();
+        }
+    }
+
+    boolean isEmpty() {
+        return this.head == this.tail;
+    }
+
+    long getCount() {
+        return this.tail - this.head;
+    }
+
+    double getMin() {
+        return this.values[index(this.minQueue[index(this.minHead)])];
+    }
+
+    double getMax() {
+        return this.values[index(this.maxQueue[index(this.maxHead)])];
+    }
+
+    double getMean() {
+        return this.mean;
+    }
+
+    double getStdDev() {
+        return Math.sqrt(Math.max(0, this.m2) / getCount());
+    }
+
+    double getFirst() {
+        return this.values[index(this.head)];
+    }
+
+    double getLast() {
+        return this.values[index(this.tail - 1)];
+    }
+
+    private void evictOldest() {
+        final double value = this.values[index(this.head)];
+
+        if (this.minQueue[index(this.minHead)] == this.head) {
+            this.minHead++;
+        }
+        if (this.maxQueue[index(this.maxHead)] == this.head) {
+            this.maxHead++;
+        }
+
+        this.head++;
+
+        final long count = getCount();
+
+        if (count == 0) {
+            this.mean = 0;
+            this.m2 = 0;
+        } else {
+            final double delta = value - this.mean;
+            this.mean -= delta / count;
+            this.m2 -= delta * (value - this.mean);
+        }
+    }
+
+    private int index(final long sequence) {
+        return (int) (sequence & (this.values.length - 1));
+    }
+
+    private void grow() {
+        final int mask = this.values.length - 1;
+        final int newCapacity = this.values.length * 2;
+        final int newMask = newCapacity - 1;
+
+        final double[] newValues = new double[newCapacity];
+        final long[] newPositions = new long[newCapacity];
+        for (long i = this.head; i < this.tail; i++) {
+            newValues[(int) (i & newMask)] = this.values[(int) (i & mask)];
+            newPositions[(int) (i & newMask)] = this.positions[(int) (i & mask)];
+        }
+
+        this.values = newValues;
+        this.positions = newPositions;
+        this.minQueue = grow(this.minQueue, this.minHead, this.minTail, mask, newMask);
+        this.maxQueue = grow(this.maxQueue, this.maxHead, this.maxTail, mask, newMask);
+    }
+
+    private static long[] grow(final long[] queue, final long head, final long tail, final int mask,
+            final int newMask) {
+        final long[] result = new long[newMask + 1];
+        for (long i = head; i < tail; i++) {
+            result[(int) (i & newMask)] = queue[(int) (i & mask)];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+/**
+ * This enum specifies how the windows of the {@link WindowAggregator} component advance.
+ *
+ */
+public enum WindowType {
+
+    /**
+     * Non overlapping windows, every sample belongs to exactly one window.
+     */
+    TUMBLING("tumbling"),
+    /**
+     * Overlapping windows that advance by a configurable slide, a sample can belong to multiple windows.
+     */
+    SLIDING("sliding");
+
+    private final String type;
+
+    private WindowType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Allows to map a provided string with the corresponding {@link WindowType}
+     *
+     * @param proposedType
+     *            the String that has to be mapped to the corresponding {@link WindowType}
+     * @return {@link WindowType} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *             if the argument cannot be matched to a corresponding {@link WindowType} object.
+     */
+    public static WindowType getType(String proposedType) {
+        for (WindowType value : WindowType.values()) {
+            if (value.type.equalsIgnoreCase(proposedType)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported window type!");
+    }
+
+}
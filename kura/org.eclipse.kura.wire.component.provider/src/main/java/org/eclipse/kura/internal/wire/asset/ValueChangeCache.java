@@ -1,30 +1,70 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
- * 
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
+ *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
  * which is available at https://www.eclipse.org/legal/epl-2.0/
- * 
+ *
  * SPDX-License-Identifier: EPL-2.0
- * 
+ *
  * Contributors:
  *  Eurotech
  *******************************************************************************/
 package org.eclipse.kura.internal.wire.asset;
 
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.DEADBAND_PERCENT_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.MAX_SILENCE_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.MIN_INTERVAL_PROP_NAME;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.channel.Channel;
 import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.type.TypedValue;
 
+/**
+ * Filters the channel records whose value did not change since the last emitted one.
+ * <br>
+ * By default, a value is considered as changed if it is not equal to the last emitted one. The following optional
+ * channel properties allow to tune the change detection:
+ * <ul>
+ * <li>{@code +emit.deadband.absolute}: numeric values are considered as changed only if the absolute difference from
+ * the last emitted value is greater than the configured amount</li>
+ * <li>{@code +emit.deadband.percent}: numeric values are considered as changed only if the absolute difference from
+ * the last emitted value is greater than the configured percentage of the last emitted value</li>
+ * <li>{@code +emit.min.interval}: minimum time in milliseconds between two emitted values</li>
+ * <li>{@code +emit.max.silence}: the value is emitted even if it is not changed if no value has been emitted for the
+ * configured time in milliseconds</li>
+ * </ul>
+ * Failures are always emitted.
+ */
 public class ValueChangeCache {
 
-    private final Map<String, TypedValue<?>> cache = new HashMap<>();
+    private static final Logger logger = LogManager.getLogger(ValueChangeCache.class);
+
+    private final Map<String, CacheEntry> cache = new HashMap<>();
+    private final Function<String, Channel> channelResolver;
+    private final LongSupplier clock;
+
+    public ValueChangeCache(final Function<String, Channel> channelResolver) {
+        this(channelResolver, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    ValueChangeCache(final Function<String, Channel> channelResolver, final LongSupplier clock) {
+        this.channelResolver = channelResolver;
+        this.clock = clock;
+    }
 
     private boolean update(final ChannelRecord channelRecord) {
 
@@ -38,12 +78,23 @@ public class ValueChangeCache {
         }
 
         final TypedValue<?> value = channelRecord.getValue();
+        final Channel channel = this.channelResolver.apply(key);
+        final long now = this.clock.getAsLong();
 
-        if (Objects.equals(cache.get(key), value)) {
+        final CacheEntry entry = cache.get(key);
+
+        if (entry == null || entry.channel != channel) {
+            // first value or channel configuration changed
+            cache.put(key, new CacheEntry(channel, ChangeDetection.fromChannel(channel), value, now));
+            return true;
+        }
+
+        if (!entry.changeDetection.shouldEmit(entry.lastValue, value, now - entry.lastEmitted)) {
             return false;
         }
 
-        cache.put(key, value);
+        entry.lastValue = value;
+        entry.lastEmitted = now;
 
         return true;
 
@@ -54,4 +105,134 @@ public class ValueChangeCache {
         return channelRecords.stream().filter(this::update).collect(Collectors.toList());
     }
 
+    private static final class CacheEntry {
+
+        private final Channel channel;
+        private final ChangeDetection changeDetection;
+        private TypedValue<?> lastValue;
+        private long lastEmitted;
+
+        CacheEntry(final Channel channel, final ChangeDetection changeDetection, final TypedValue<?> lastValue,
+                final long lastEmitted) {
+            this.channel = channel;
+            this.changeDetection = changeDetection;
+            this.lastValue = lastValue;
+            this.lastEmitted = lastEmitted;
+        }
+    }
+
+    private static final class ChangeDetection {
+
+        private static final ChangeDetection EXACT = new ChangeDetection(0, 0, 0, 0);
+
+        private final double deadbandAbsolute;
+        private final double deadbandPercent;
+        private final long minInterval;
+        private final long maxSilence;
+
+        private ChangeDetection(final double deadbandAbsolute, final double deadbandPercent, final long minInterval,
+                final long maxSilence) {
+            this.deadbandAbsolute = deadbandAbsolute;
+            this.deadbandPercent = deadbandPercent;
+            this.minInterval = minInterval;
+            this.maxSilence = maxSilence;
+        }
+
+        static ChangeDetection fromChannel(final Channel channel) {
+            if (channel == null) {
+                return EXACT;
+            }
+
+            final Map<String, Object> properties = channel.getConfiguration();
+
+            final double deadbandAbsolute = Math.max(0,
+                    getDouble(properties, DEADBAND_ABSOLUTE_PROP_NAME.value(), channel));
+            final double deadbandPercent = Math.max(0,
+                    getDouble(properties, DEADBAND_PERCENT_PROP_NAME.value(), channel));
+            final long minInterval = Math.max(0, getLong(properties, MIN_INTERVAL_PROP_NAME.value(), channel));
+            final long maxSilence = Math.max(0, getLong(properties, MAX_SILENCE_PROP_NAME.value(), channel));
+
+            if (deadbandAbsolute == 0 && deadbandPercent == 0 && minInterval == 0 && maxSilence == 0) {
+                return EXACT;
+            }
+
+            return new ChangeDetection(deadbandAbsolute, deadbandPercent, minInterval, maxSilence);
+        }
+
+        boolean shouldEmit(final TypedValue<?> lastValue, final TypedValue<?> value, final long elapsed) {
+            if (this.maxSilence > 0 && elapsed >= this.maxSilence) {
+                return true;
+            }
+
+            if (elapsed < this.minInterval) {
+                return false;
+            }
+
+            return isChanged(lastValue, value);
+        }
+
+        private boolean isChanged(final TypedValue<?> lastValue, final TypedValue<?> value) {
+            if (Objects.equals(lastValue, value)) {
+                return false;
+            }
+
+            if (this.deadbandAbsolute == 0 && this.deadbandPercent == 0) {
+                return true;
+            }
+
+            final Object last = lastValue != null ? lastValue.getValue() : null;
+            final Object current = value != null ? value.getValue() : null;
+
+            if (!(last instanceof Number) || !(current instanceof Number)) {
+                return true;
+            }
+
+            final double lastNumber = ((Number) last).doubleValue();
+            final double difference = Math.abs(((Number) current).doubleValue() - lastNumber);
+
+            if (Double.isNaN(difference)) {
+                return true;
+            }
+
+            if (this.deadbandAbsolute > 0 && difference <= this.deadbandAbsolute) {
+                return false;
+            }
+
+            return !(this.deadbandPercent > 0 && difference <= Math.abs(lastNumber) * this.deadbandPercent / 100);
+        }
+
+        private static double getDouble(final Map<String, Object> properties, final String key,
+                final Channel channel) {
+            final Object value = properties.get(key);
+
+            if (value == null || value.toString().trim().isEmpty()) {
+                return 0;
+            }
+
+            try {
+                return value instanceof Number ? ((Number) value).doubleValue()
+                        : Double.parseDouble(value.toString().trim());
+            } catch (final NumberFormatException e) {
+                logger.warn("Invalid value for property {} of channel {}: {}", key, channel.getName(), value);
+                return 0;
+            }
+        }
+
+        private static long getLong(final Map<String, Object> properties, final String key, final Channel channel) {
+            final Object value = properties.get(key);
+
+            if (value == null || value.toString().trim().isEmpty()) {
+                return 0;
+            }
+
+            try {
+                return value instanceof Number ? ((Number) value).longValue()
+                        : Long.parseLong(value.toString().trim());
+            } catch (final NumberFormatException e) {
+                logger.warn("Invalid value for property {} of channel {}: {}", key, channel.getName(), value);
+                return 0;
+            }
+        }
+    }
+
 }
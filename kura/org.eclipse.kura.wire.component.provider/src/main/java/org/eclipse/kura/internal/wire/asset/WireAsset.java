@@ -165,7 +165,8 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
         this.options = new WireAssetOptions(properties);
 
         if (this.options.emitOnChange()) {
-            this.valueChangeCache = Optional.of(new ValueChangeCache());
+            this.valueChangeCache = Optional
+                    .of(new ValueChangeCache(name -> getAssetConfiguration().getAssetChannels().get(name)));
         } else {
             this.valueChangeCache = Optional.empty();
         }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,11 @@
 
 package org.eclipse.kura.internal.wire.asset;
 
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.DEADBAND_PERCENT_PROP_NAME;
 import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.LISTEN_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.MAX_SILENCE_PROP_NAME;
+import static org.eclipse.kura.internal.wire.asset.WireAssetConstants.MIN_INTERVAL_PROP_NAME;
 
 import org.eclipse.kura.asset.provider.BaseChannelDescriptor;
 import org.eclipse.kura.core.configuration.metatype.Tad;
@@ -36,6 +40,50 @@ public class WireAssetChannelDescriptor extends BaseChannelDescriptor {
 
         this.defaultElements.add(listen);
 
+        final Tad deadbandAbsolute = new Tad();
+        deadbandAbsolute.setName("%" + DEADBAND_ABSOLUTE_PROP_NAME.value().substring(1));
+        deadbandAbsolute.setId(DEADBAND_ABSOLUTE_PROP_NAME.value());
+        deadbandAbsolute.setDescription("%" + DEADBAND_ABSOLUTE_PROP_NAME.value().substring(1) + "Desc");
+        deadbandAbsolute.setType(Tscalar.DOUBLE);
+        deadbandAbsolute.setRequired(false);
+        deadbandAbsolute.setDefault("0");
+        deadbandAbsolute.setMin("0");
+
+        this.defaultElements.add(deadbandAbsolute);
+
+        final Tad deadbandPercent = new Tad();
+        deadbandPercent.setName("%" + DEADBAND_PERCENT_PROP_NAME.value().substring(1));
+        deadbandPercent.setId(DEADBAND_PERCENT_PROP_NAME.value());
+        deadbandPercent.setDescription("%" + DEADBAND_PERCENT_PROP_NAME.value().substring(1) + "Desc");
+        deadbandPercent.setType(Tscalar.DOUBLE);
+        deadbandPercent.setRequired(false);
+        deadbandPercent.setDefault("0");
+        deadbandPercent.setMin("0");
+
+        this.defaultElements.add(deadbandPercent);
+
+        final Tad minInterval = new Tad();
+        minInterval.setName("%" + MIN_INTERVAL_PROP_NAME.value().substring(1));
+        minInterval.setId(MIN_INTERVAL_PROP_NAME.value());
+        minInterval.setDescription("%" + MIN_INTERVAL_PROP_NAME.value().substring(1) + "Desc");
+        minInterval.setType(Tscalar.LONG);
+        minInterval.setRequired(false);
+        minInterval.setDefault("0");
+        minInterval.setMin("0");
+
+        this.defaultElements.add(minInterval);
+
+        final Tad maxSilence = new Tad();
+        maxSilence.setName("%" + MAX_SILENCE_PROP_NAME.value().substring(1));
+        maxSilence.setId(MAX_SILENCE_PROP_NAME.value());
+        maxSilence.setDescription("%" + MAX_SILENCE_PROP_NAME.value().substring(1) + "Desc");
+        maxSilence.setType(Tscalar.LONG);
+        maxSilence.setRequired(false);
+        maxSilence.setDefault("0");
+        maxSilence.setMin("0");
+
+        this.defaultElements.add(maxSilence);
+
     }
 
     public static WireAssetChannelDescriptor get() {
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+/**
+ * This enum specifies the algorithms that can be used by the {@link TrendCompression} component.
+ *
+ */
+public enum CompressionAlgorithm {
+
+    /**
+     * The swinging door trending algorithm, see {@link SwingingDoorCompressor}.
+     */
+    SWINGING_DOOR("swinging.door") {
+
+        @Override
+        SeriesCompressor newCompressor(final double deviation, final long maxInterval) {
+            return new SwingingDoorCompressor(deviation, maxInterval);
+        }
+    },
+    /**
+     * A simple linear extrapolation algorithm, see {@link LinearExtrapolationCompressor}.
+     */
+    LINEAR_EXTRAPOLATION("linear.extrapolation") {
+
+        @Override
+        SeriesCompressor newCompressor(final double deviation, final long maxInterval) {
+            return new LinearExtrapolationCompressor(deviation, maxInterval);
+        }
+    };
+
+    private final String algorithm;
+
+    private CompressionAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    abstract SeriesCompressor newCompressor(final double deviation, final long maxInterval);
+
+    /**
+     * Allows to map a provided string with the corresponding {@link CompressionAlgorithm}
+     *
+     * @param proposedAlgorithm
+     *                              the String that has to be mapped to the corresponding {@link CompressionAlgorithm}
+     * @return {@link CompressionAlgorithm} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *                                      if the argument cannot be matched to a corresponding
+     *                                      {@link CompressionAlgorithm} object.
+     */
+    public static CompressionAlgorithm getAlgorithm(String proposedAlgorithm) {
+        for (CompressionAlgorithm value : CompressionAlgorithm.values()) {
+            if (value.algorithm.equalsIgnoreCase(proposedAlgorithm)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported compression algorithm!");
+    }
+
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+/**
+ * A simple compressor that archives a point if it deviates more than the configured deviation from the line passing
+ * through the last two archived points. Differently from the swinging door algorithm, a point is archived as soon as
+ * it is received.
+ */
+final class LinearExtrapolationCompressor implements SeriesCompressor {
+
+    private final double deviation;
+    private final long maxInterval;
+
+    private Point archived;
+    private double slope;
+    private long lastTimestamp;
+
+    LinearExtrapolationCompressor(final double deviation, final long maxInterval) {
+        this.deviation = deviation;
+        this.maxInterval = maxInterval;
+    }
+
+    @Override
+    public Point add(final Point point) {
+        if (this.archived == null) {
+            return archive(point);
+        }
+
+        if (point.getTimestamp() <= this.lastTimestamp) {
+            return null;
+        }
+
+        this.lastTimestamp = point.getTimestamp();
+
+        final long elapsed = point.getTimestamp() - this.archived.getTimestamp();
+        final double predicted = this.archived.getNumber() + this.slope * elapsed;
+
+        if (Math.abs(point.getNumber() - predicted) > this.deviation
+                || this.maxInterval > 0 && elapsed >= this.maxInterval) {
+            this.slope = (point.getNumber() - this.archived.getNumber()) / elapsed;
+            return archive(point);
+        }
+
+        return null;
+    }
+
+    private Point archive(final Point point) {
+        this.archived = point;
+        this.lastTimestamp = point.getTimestamp();
+        return point;
+    }
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+import org.eclipse.kura.type.TypedValue;
+
+/**
+ * A timestamped numeric value of a series.
+ */
+final class Point {
+
+    private final long timestamp;
+    private final TypedValue<?> value;
+    private final double number;
+
+    Point(final long timestamp, final TypedValue<?> value) {
+        this.timestamp = timestamp;
+        this.value = value;
+        this.number = ((Number) value.getValue()).doubleValue();
+    }
+
+    long getTimestamp() {
+        return this.timestamp;
+    }
+
+    TypedValue<?> getValue() {
+        return this.value;
+    }
+
+    double getNumber() {
+        return this.number;
+    }
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+/**
+ * Reduces the number of points of a single series, keeping the ones needed to reconstruct it by linear interpolation
+ * within the configured deviation.
+ */
+interface SeriesCompressor {
+
+    /**
+     * Adds a point to the series. Points whose timestamp is not greater than the one of the previously added point
+     * are ignored.
+     *
+     * @param point
+     *            the new point
+     * @return the point that must be archived as a result of the addition, that can be the provided point or a
+     *         previously added one, or {@code null} if no point must be archived
+     */
+    Point add(Point point);
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+/**
+ * Implementation of the swinging door trending algorithm.
+ * <br>
+ * Two doors pivot on the last archived point, shifted up and down by the deviation. Every new point narrows the range
+ * of the slopes of the lines starting from the archived point that stay within the deviation from all the points
+ * received since then. When the range becomes empty, the last point that kept it open is archived and becomes the
+ * new pivot. A point is therefore archived only when the following one is received, the maximum interval bounds
+ * this delay.
+ * <br>
+ * The state of the series is kept in constant memory.
+ */
+final class SwingingDoorCompressor implements SeriesCompressor {
+
+    private final double deviation;
+    private final long maxInterval;
+
+    private Point archived;
+    private Point last;
+    private double minSlope;
+    private double maxSlope;
+
+    SwingingDoorCompressor(final double deviation, final long maxInterval) {
+        this.deviation = deviation;
+        this.maxInterval = maxInterval;
+    }
+
+    @Override
+    public Point add(final Point point) {
+        if (this.archived == null) {
+            this.archived = point;
+            return point;
+        }
+
+        final Point previous = this.last != null ? this.last : this.archived;
+
+        if (point.getTimestamp() <= previous.getTimestamp()) {
+            return null;
+        }
+
+        if (this.last == null) {
+            openDoors(point);
+            this.last = point;
+            return null;
+        }
+
+        final long elapsed = point.getTimestamp() - this.archived.getTimestamp();
+        final double newMinSlope = Math.max(this.minSlope,
+                (point.getNumber() - this.archived.getNumber() - this.deviation) / elapsed);
+        final double newMaxSlope = Math.min(this.maxSlope,
+                (point.getNumber() - this.archived.getNumber() + this.deviation) / elapsed);
+
+        if (newMinSlope > newMaxSlope || this.maxInterval > 0 && elapsed > this.maxInterval) {
+            final Point result = this.last;
+
+            this.archived = result;
+            openDoors(point);
+            this.last = point;
+
+            return result;
+        }
+
+        this.minSlope = newMinSlope;
+        this.maxSlope = newMaxSlope;
+        this.last = point;
+
+        return null;
+    }
+
+    private void openDoors(final Point point) {
+        final long elapsed = point.getTimestamp() - this.archived.getTimestamp();
+
+        this.minSlope = (point.getNumber() - this.archived.getNumber() - this.deviation) / elapsed;
+        this.maxSlope = (point.getNumber() - this.archived.getNumber() + this.deviation) / elapsed;
+    }
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.LongValue;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireComponent;
+import org.eclipse.kura.wire.WireEmitter;
+import org.eclipse.kura.wire.WireEnvelope;
+import org.eclipse.kura.wire.WireHelperService;
+import org.eclipse.kura.wire.WireReceiver;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.WireSupport;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.wireadmin.Wire;
+
+/**
+ * The Class {@link TrendCompression} represents a {@link WireComponent} that reduces the number of samples of the
+ * numeric properties of the received {@link WireRecord}s, keeping only the ones needed to reconstruct each series by
+ * linear interpolation within a configurable deviation.
+ * <br>
+ * Every numeric property is treated as an independent series, the timestamp of a sample is taken from the
+ * {@code <property>_timestamp} property, from the {@code assetTimestamp} property or, if none of them is present, from
+ * the reception time. For every archived sample, the emitted record contains the archived value and its timestamp
+ * in the {@code <property>_timestamp} property. Since the swinging door algorithm archives a sample only when the
+ * following one is received, the archived value can belong to a previous record. Non numeric properties are
+ * forwarded as they are, records in which no sample has been archived are not emitted.
+ */
+public final class TrendCompression implements WireEmitter, WireReceiver, ConfigurableComponent {
+
+    private static final Logger logger = LogManager.getLogger(TrendCompression.class);
+
+    private static final String TIMESTAMP_SUFFIX = "_timestamp";
+    private static final String ASSET_TIMESTAMP = "assetTimestamp";
+
+    private WireSupport wireSupport;
+
+    private TrendCompressionOptions options;
+
+    private final Map<String, SeriesCompressor> series = new HashMap<>();
+
+    private volatile WireHelperService wireHelperService;
+
+    /**
+     * Bind the {@link WireHelperService}.
+     *
+     * @param wireHelperService
+     *            the new {@link WireHelperService}
+     */
+    protected synchronized void bindWireHelperService(final WireHelperService wireHelperService) {
+        if (isNull(this.wireHelperService)) {
+            this.wireHelperService = wireHelperService;
+        }
+    }
+
+    /**
+     * Unbind the {@link WireHelperService}
+     *
+     * @param wireHelperService
+     *            the new {@link WireHelperService}
+     */
+    protected synchronized void unbindWireHelperService(final WireHelperService wireHelperService) {
+        if (this.wireHelperService == wireHelperService) {
+            this.wireHelperService = null;
+        }
+    }
+
+    /**
+     * OSGi service component activation callback
+     *
+     * @param properties
+     *            the configured properties
+     * @param componentContext
+     */
+    @SuppressWarnings("unchecked")
+    protected synchronized void activate(final Map<String, Object> properties, ComponentContext componentContext) {
+        logger.debug("Activating Trend Compression...");
+        this.wireSupport = this.wireHelperService.newWireSupport(this,
+                (ServiceReference<WireComponent>) componentContext.getServiceReference());
+        updated(properties);
+        logger.debug("Activating Trend Compression... Done");
+    }
+
+    /**
+     * OSGi service component modification callback
+     *
+     * @param properties
+     *            the updated properties
+     */
+    protected synchronized void updated(final Map<String, Object> properties) {
+        logger.debug("Updating Trend Compression...");
+        this.options = new TrendCompressionOptions(properties);
+        this.series.clear();
+        logger.debug("Updating Trend Compression... Done");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void consumersConnected(final Wire[] wires) {
+        this.wireSupport.consumersConnected(wires);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void producersConnected(final Wire[] wires) {
+        this.wireSupport.producersConnected(wires);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized Object polled(final Wire wire) {
+        return this.wireSupport.polled(wire);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void updated(final Wire wire, final Object value) {
+        this.wireSupport.updated(wire, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void onWireReceive(final Object wireEnvelope) {
+        if (!(wireEnvelope instanceof WireEnvelope)) {
+            logger.warn("receive object:{} is not WireEnvelope", wireEnvelope);
+            return;
+        }
+
+        final List<WireRecord> result = new ArrayList<>();
+
+        for (final WireRecord wireRecord : ((WireEnvelope) wireEnvelope).getRecords()) {
+            final WireRecord compressed = compress(wireRecord);
+            if (compressed != null) {
+                result.add(compressed);
+            }
+        }
+
+        if (!result.isEmpty()) {
+            this.wireSupport.emit(result);
+        }
+    }
+
+    private WireRecord compress(final WireRecord wireRecord) {
+        final Map<String, TypedValue<?>> properties = wireRecord.getProperties();
+        final Map<String, TypedValue<?>> result = new HashMap<>(properties.size());
+        final long defaultTimestamp = getTimestamp(properties.get(ASSET_TIMESTAMP), System.currentTimeMillis());
+
+        boolean hasSeries = false;
+        boolean hasArchived = false;
+
+        for (final Entry<String, TypedValue<?>> entry : properties.entrySet()) {
+            final String name = entry.getKey();
+            final TypedValue<?> value = entry.getValue();
+
+            if (isTimestamp(name)) {
+                continue;
+            }
+
+            final double deviation = this.options.getDeviation(name);
+
+            if (deviation < 0 || !isCompressible(value)) {
+                result.put(name, value);
+                continue;
+            }
+
+            hasSeries = true;
+
+            final long timestamp = getTimestamp(properties.get(name + TIMESTAMP_SUFFIX), defaultTimestamp);
+            final Point archived = this.series
+                    .computeIfAbsent(name,
+                            k -> this.options.getAlgorithm().newCompressor(deviation, this.options.getMaxInterval()))
+                    .add(new Point(timestamp, value));
+
+            if (archived != null) {
+                result.put(name, archived.getValue());
+                result.put(name + TIMESTAMP_SUFFIX, new LongValue(archived.getTimestamp()));
+                hasArchived = true;
+            }
+        }
+
+        if (hasSeries && !hasArchived) {
+            return null;
+        }
+
+        for (final Entry<String, TypedValue<?>> entry : properties.entrySet()) {
+            final String name = entry.getKey();
+
+            if (isTimestamp(name) && !isSeriesTimestamp(name, properties)) {
+                result.put(name, entry.getValue());
+            }
+        }
+
+        return new WireRecord(result);
+    }
+
+    private boolean isSeriesTimestamp(final String name, final Map<String, TypedValue<?>> properties) {
+        if (!name.endsWith(TIMESTAMP_SUFFIX)) {
+            return false;
+        }
+
+        final String seriesName = name.substring(0, name.length() - TIMESTAMP_SUFFIX.length());
+
+        return this.options.getDeviation(seriesName) >= 0 && isCompressible(properties.get(seriesName));
+    }
+
+    private static boolean isTimestamp(final String name) {
+        return name.endsWith(TIMESTAMP_SUFFIX) || ASSET_TIMESTAMP.equals(name);
+    }
+
+    private static boolean isCompressible(final TypedValue<?> value) {
+        if (isNull(value)) {
+            return false;
+        }
+
+        final DataType type = value.getType();
+
+        if (type == DataType.INTEGER || type == DataType.LONG) {
+            return true;
+        } else if (type == DataType.FLOAT || type == DataType.DOUBLE) {
+            return Double.isFinite(((Number) value.getValue()).doubleValue());
+        }
+        return false;
+    }
+
+    private static long getTimestamp(final TypedValue<?> value, final long defaultValue) {
+        if (value instanceof LongValue) {
+            return ((LongValue) value).getValue();
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The Class TrendCompressionOptions is responsible to contain all the Trend Compression related configurable options
+ */
+final class TrendCompressionOptions {
+
+    private static final Logger logger = LogManager.getLogger(TrendCompressionOptions.class);
+
+    private static final String PROP_ALGORITHM = "algorithm";
+    private static final String PROP_DEVIATION = "deviation";
+    private static final String PROP_DEVIATIONS = "deviations";
+    private static final String PROP_MAX_INTERVAL = "max.interval";
+
+    private static final String DEFAULT_ALGORITHM = "swinging.door";
+    private static final double DEFAULT_DEVIATION = 0;
+    private static final long DEFAULT_MAX_INTERVAL = 0;
+
+    private final Map<String, Object> properties;
+    private final Map<String, Double> deviations;
+
+    /**
+     * Instantiates a new Trend Compression options.
+     *
+     * @param properties
+     *            the provided properties
+     */
+    TrendCompressionOptions(final Map<String, Object> properties) {
+        requireNonNull(properties, "Properties cannot be null");
+        this.properties = properties;
+        this.deviations = parseDeviations();
+    }
+
+    /**
+     * Returns the configured compression algorithm.
+     *
+     * @return the compression algorithm
+     */
+    CompressionAlgorithm getAlgorithm() {
+        String algorithm = DEFAULT_ALGORITHM;
+        final Object configuredAlgorithm = this.properties.get(PROP_ALGORITHM);
+        if (nonNull(configuredAlgorithm) && configuredAlgorithm instanceof String) {
+            algorithm = (String) configuredAlgorithm;
+        }
+        return CompressionAlgorithm.getAlgorithm(algorithm);
+    }
+
+    /**
+     * Returns the default deviation, used for the properties that do not have a specific deviation.
+     *
+     * @return the default deviation
+     */
+    double getDeviation() {
+        double deviation = DEFAULT_DEVIATION;
+        final Object configuredDeviation = this.properties.get(PROP_DEVIATION);
+        if (nonNull(configuredDeviation) && configuredDeviation instanceof Double) {
+            deviation = (Double) configuredDeviation;
+        }
+        return deviation;
+    }
+
+    /**
+     * Returns the deviation to be used for the given property, a negative value means that the property must not be
+     * compressed.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the deviation for the property
+     */
+    double getDeviation(final String propertyName) {
+        final Double deviation = this.deviations.get(propertyName);
+        return nonNull(deviation) ? deviation : getDeviation();
+    }
+
+    /**
+     * Returns the maximum time in milliseconds between two archived points of a series, 0 means no limit.
+     *
+     * @return the maximum interval
+     */
+    long getMaxInterval() {
+        long maxInterval = DEFAULT_MAX_INTERVAL;
+        final Object configuredMaxInterval = this.properties.get(PROP_MAX_INTERVAL);
+        if (nonNull(configuredMaxInterval) && configuredMaxInterval instanceof Long) {
+            maxInterval = (Long) configuredMaxInterval;
+        }
+        return Math.max(0, maxInterval);
+    }
+
+    private Map<String, Double> parseDeviations() {
+        final Object configuredDeviations = this.properties.get(PROP_DEVIATIONS);
+        if (!(configuredDeviations instanceof String)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Double> result = new HashMap<>();
+
+        for (final String entry : ((String) configuredDeviations).split("[,;\\n]")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+
+            final int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                logger.warn("Ignoring invalid deviation entry: {}", entry);
+                continue;
+            }
+
+            try {
+                result.put(entry.substring(0, separator).trim(),
+                        Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (final NumberFormatException e) {
+                logger.warn("Ignoring invalid deviation entry: {}", entry);
+            }
+        }
+
+        return result;
+    }
+}
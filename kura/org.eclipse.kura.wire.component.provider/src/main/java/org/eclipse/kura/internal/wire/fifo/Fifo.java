@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,12 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
@@ -28,8 +31,10 @@ import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.wire.WireComponent;
 import org.eclipse.kura.wire.WireEmitter;
+import org.eclipse.kura.wire.WireEnvelope;
 import org.eclipse.kura.wire.WireHelperService;
 import org.eclipse.kura.wire.WireReceiver;
+import org.eclipse.kura.wire.WireRecord;
 import org.eclipse.kura.wire.WireSupport;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
@@ -39,6 +44,7 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
 
     private static final String DISCARD_ENVELOPES_PROP_NAME = "discard.envelopes";
     private static final String QUEUE_CAPACITY_PROP_NAME = "queue.capacity";
+    private static final String BATCH_SIZE_PROP_NAME = "batch.size";
 
     private static final Logger logger = LogManager.getLogger(Fifo.class);
 
@@ -81,8 +87,9 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
                 + "-EmitterThread";
         int queueCapacity = (Integer) properties.getOrDefault(QUEUE_CAPACITY_PROP_NAME, 50);
         boolean discardEnvelopes = (Boolean) properties.getOrDefault(DISCARD_ENVELOPES_PROP_NAME, false);
+        int batchSize = (Integer) properties.getOrDefault(BATCH_SIZE_PROP_NAME, 1);
 
-        restartEmitterThread(threadName, queueCapacity, discardEnvelopes);
+        restartEmitterThread(threadName, queueCapacity, discardEnvelopes, batchSize);
 
         logger.info("Updating Fifo... Done");
     }
@@ -94,12 +101,13 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
         }
     }
 
-    private synchronized void restartEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes) {
+    private synchronized void restartEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes,
+            int batchSize) {
         stopEmitterThread();
 
-        logger.debug("Creating new emitter thread: {}, queue capacity: {}, discard envelopes: {}", threadName,
-                queueCapacity, discardEnvelopes);
-        this.emitterThread = new FifoEmitterThread(threadName, queueCapacity, discardEnvelopes);
+        logger.debug("Creating new emitter thread: {}, queue capacity: {}, discard envelopes: {}, batch size: {}",
+                threadName, queueCapacity, discardEnvelopes, batchSize);
+        this.emitterThread = new FifoEmitterThread(threadName, queueCapacity, discardEnvelopes, batchSize);
         this.emitterThread.start();
     }
 
@@ -133,20 +141,23 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
 
     private class FifoEmitterThread extends Thread {
 
-        private final Lock lock = new ReentrantLock();
+        private final RingBuffer<Object> queue;
+        private final int batchSize;
+        private final List<Object> batch;
 
-        private final Condition producer = this.lock.newCondition();
-        private final Condition consumer = this.lock.newCondition();
+        private final Lock lock = new ReentrantLock();
+        private final Condition notFull = this.lock.newCondition();
+        private final AtomicInteger waitingProducers = new AtomicInteger();
 
-        private boolean run = true;
-        private final ArrayList<Object> queue;
-        private final int queueCapacity;
+        private volatile boolean run = true;
+        private volatile boolean consumerWaiting;
 
         private Consumer<Object> submitter;
 
-        public FifoEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes) {
-            this.queue = new ArrayList<>();
-            this.queueCapacity = queueCapacity;
+        public FifoEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes, int batchSize) {
+            this.queue = new RingBuffer<>(queueCapacity);
+            this.batchSize = Math.max(1, batchSize);
+            this.batch = new ArrayList<>(Math.min(this.batchSize, this.queue.capacity()));
             setName(threadName);
             if (discardEnvelopes) {
                 this.submitter = getEnvelopeDiscardingSubmitter();
@@ -157,50 +168,81 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
 
         private Consumer<Object> getEnvelopeDiscardingSubmitter() {
             return envelope -> {
-                try {
-                    this.lock.lock();
-                    if (!this.run || this.queue.size() >= this.queueCapacity) {
-                        logger.debug("envelope discarded");
-                        return;
-                    } else {
-                        this.queue.add(envelope);
-                        this.producer.signal();
-                        logger.debug("envelope submitted");
-                    }
-                } finally {
-                    this.lock.unlock();
+                if (this.run && this.queue.offer(envelope)) {
+                    signalConsumer();
+                    logger.debug("envelope submitted");
+                } else {
+                    logger.debug("envelope discarded");
                 }
             };
         }
 
         private Consumer<Object> getEmitterBlockingSubmitter() {
             return envelope -> {
-                try {
-                    this.lock.lock();
-                    while (this.run && this.queue.size() >= this.queueCapacity) {
-                        this.consumer.await();
+                while (this.run) {
+                    if (this.queue.offer(envelope)) {
+                        signalConsumer();
+                        logger.debug("envelope submitted");
+                        return;
                     }
-                    if (!this.run) {
+                    try {
+                        awaitNotFull();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        logger.warn("Interrupted while adding new envelope to queue", e);
                         return;
                     }
-                    this.queue.add(envelope);
-                    this.producer.signal();
-                    logger.debug("envelope submitted");
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.warn("Interrupted while adding new envelope to queue", e);
+                }
+            };
+        }
+
+        private void signalConsumer() {
+            if (this.consumerWaiting) {
+                this.consumerWaiting = false;
+                LockSupport.unpark(this);
+            }
+        }
+
+        private void awaitNotFull() throws InterruptedException {
+            this.waitingProducers.incrementAndGet();
+            try {
+                this.lock.lock();
+                while (this.run && this.queue.isFull()) {
+                    this.notFull.await();
+                }
+            } finally {
+                this.lock.unlock();
+                this.waitingProducers.decrementAndGet();
+            }
+        }
+
+        private void signalProducers() {
+            if (this.waitingProducers.get() > 0) {
+                try {
+                    this.lock.lock();
+                    this.notFull.signalAll();
                 } finally {
                     this.lock.unlock();
                 }
-            };
+            }
+        }
+
+        private void awaitNotEmpty() {
+            this.consumerWaiting = true;
+            while (this.run && this.queue.isEmpty()) {
+                LockSupport.park(this);
+                Thread.interrupted();
+                this.consumerWaiting = true;
+            }
+            this.consumerWaiting = false;
         }
 
         public void shutdown() {
+            this.run = false;
+            LockSupport.unpark(this);
             try {
                 this.lock.lock();
-                this.run = false;
-                this.producer.signalAll();
-                this.consumer.signalAll();
+                this.notFull.signalAll();
             } finally {
                 this.lock.unlock();
             }
@@ -214,26 +256,55 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
         public void run() {
             while (this.run) {
                 try {
-                    Object next = null;
-                    try {
-                        this.lock.lock();
-                        while (this.run && this.queue.isEmpty()) {
-                            this.producer.await();
-                        }
-                        if (!this.run) {
-                            break;
-                        }
-                        next = this.queue.remove(0);
-                        this.consumer.signal();
-                    } finally {
-                        this.lock.unlock();
+                    if (this.queue.drain(this.batch::add, this.batchSize) == 0) {
+                        awaitNotEmpty();
+                        continue;
                     }
-                    Fifo.this.wireSupport.emit(next);
+                    signalProducers();
+                    emitBatch();
                 } catch (Exception e) {
                     logger.warn("Unexpected exception while dispatching envelope", e);
+                } finally {
+                    this.batch.clear();
                 }
             }
             logger.debug("exiting");
         }
+
+        private void emitBatch() {
+            List<WireRecord> records = null;
+            WireEnvelope lastEnvelope = null;
+
+            for (final Object next : this.batch) {
+                if (!this.run) {
+                    return;
+                }
+                if (this.batchSize == 1 || !(next instanceof WireEnvelope)) {
+                    records = flush(records, lastEnvelope);
+                    Fifo.this.wireSupport.emit(next);
+                } else {
+                    if (records == null) {
+                        records = new ArrayList<>();
+                    }
+                    lastEnvelope = (WireEnvelope) next;
+                    records.addAll(lastEnvelope.getRecords());
+                }
+            }
+
+            flush(records, lastEnvelope);
+        }
+
+        private List<WireRecord> flush(final List<WireRecord> records, final WireEnvelope lastEnvelope) {
+            if (records == null) {
+                return null;
+            }
+            if (records.isEmpty()) {
+                // the merged envelopes are all empty, forward one of them instead of an empty list
+                Fifo.this.wireSupport.emit(lastEnvelope);
+            } else {
+                Fifo.this.wireSupport.emit(records);
+            }
+            return null;
+        }
     }
 }
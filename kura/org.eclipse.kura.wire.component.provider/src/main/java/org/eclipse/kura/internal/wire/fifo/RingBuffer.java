@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded lock-free queue that supports multiple producers and a single consumer.
+ * <br>
+ * Every slot has a sequence number that tells whether it can be written by the producer that claimed a given position
+ * or read by the consumer. Producers claim a position with a single compare and set, that never fails when there is
+ * only one producer, and the consumer does not use any atomic read-modify-write operation. Both adding and removing an
+ * element take constant time.
+ *
+ * @param <E>
+ *            the type of the elements
+ */
+final class RingBuffer<E> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param capacity
+     *            the maximum number of elements, values lower than 2 are rounded up to 2 since the slot sequence
+     *            numbers cannot distinguish a full slot from a free one otherwise
+     */
+    RingBuffer(final int capacity) {
+        this.capacity = Math.max(2, capacity);
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+
+        for (int i = 0; i < this.capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if the buffer is not full. Can be called concurrently by multiple threads.
+     *
+     * @param element
+     *            the element to be added
+     * @return {@code true} if the element has been added, {@code false} if the buffer is full
+     */
+    boolean offer(final E element) {
+        requireNonNull(element, "Element cannot be null");
+
+        long position = this.producerPosition.get();
+
+        while (true) {
+            final int index = index(position);
+            final long available = this.sequences.get(index) - position;
+
+            if (available == 0) {
+                if (this.producerPosition.compareAndSet(position, position + 1)) {
+                    this.elements.lazySet(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.producerPosition.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = this.producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element. Must be called by the consumer thread only.
+     *
+     * @return the removed element, or {@code null} if the buffer is empty
+     */
+    E poll() {
+        final long position = this.consumerPosition.get();
+        final int index = index(position);
+
+        if (this.sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        final E element = this.elements.get(index);
+        this.elements.lazySet(index, null);
+        this.sequences.set(index, position + this.capacity);
+        this.consumerPosition.lazySet(position + 1);
+
+        return element;
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements, passing them to the provided consumer in insertion order. Must be
+     * called by the consumer thread only.
+     *
+     * @param consumer
+     *            the consumer of the removed elements
+     * @param maxElements
+     *            the maximum number of elements to be removed
+     * @return the number of removed elements
+     */
+    int drain(final Consumer<E> consumer, final int maxElements) {
+        int count = 0;
+
+        while (count < maxElements) {
+            final E element = poll();
+            if (element == null) {
+                break;
+            }
+            consumer.accept(element);
+            count++;
+        }
+
+        return count;
+    }
+
+    boolean isEmpty() {
+        final long position = this.consumerPosition.get();
+        return this.sequences.get(index(position)) != position + 1;
+    }
+
+    boolean isFull() {
+        final long position = this.producerPosition.get();
+        return this.sequences.get(index(position)) < position;
+    }
+
+    int size() {
+        final long size = this.producerPosition.get() - this.consumerPosition.get();
+        return (int) Math.max(0, Math.min(size, this.capacity));
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    private int index(final long position) {
+        return (int) (position % this.capacity);
+    }
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.publisher;
+
+/**
+ * This enum specifies how the cloud publisher packs multiple wire records in a single message when batching is
+ * enabled.
+ *
+ */
+public enum BatchLayout {
+
+    /**
+     * Every property of the i-th record of the batch is published as a metric named {@code <i>.<property name>}.
+     */
+    INDEXED("indexed"),
+    /**
+     * The records are published in the message body as a JSON object containing one array per property name, the
+     * i-th element of each array is the value of the property in the i-th record, or null if the record does not
+     * contain it.
+     */
+    COLUMNAR("columnar");
+
+    private final String layout;
+
+    private BatchLayout(String layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Allows to map a provided string with the corresponding {@link BatchLayout}
+     *
+     * @param proposedLayout
+     *                           the String that has to be mapped to the corresponding {@link BatchLayout}
+     * @return {@link BatchLayout} if the matching between passed string and enum values succeeds
+     * @throws IllegalArgumentException
+     *                                      if the argument cannot be matched to a corresponding {@link BatchLayout}
+     *                                      object.
+     */
+    public static BatchLayout getLayout(String proposedLayout) {
+        for (BatchLayout value : BatchLayout.values()) {
+            if (value.layout.equalsIgnoreCase(proposedLayout)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported batch layout!");
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.kura.cloudconnection.message.KuraMessage;
 import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.message.KuraPayload;
 import org.eclipse.kura.message.KuraPosition;
 import org.eclipse.kura.position.NmeaPosition;
@@ -54,7 +55,12 @@ import org.osgi.service.wireadmin.Wire;
  * <br/>
  *
  * For every {@link WireRecord} as found in {@link WireEnvelope} will be wrapped inside a Kura
- * Payload and will be sent to the Cloud Platform.
+ * Payload and will be sent to the Cloud Platform.<br/>
+ * <br/>
+ *
+ * If batching is enabled, multiple {@link WireRecord}s are packed in a single Kura Payload according to the
+ * configured {@link BatchLayout}, the message properties used for topic placeholder resolution are taken from the
+ * first record of the batch.
  */
 public final class CloudPublisher implements WireReceiver, ConfigurableComponent {
 
@@ -69,6 +75,8 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
 
     private org.eclipse.kura.cloudconnection.publisher.CloudPublisher cloudConnectionPublisher;
 
+    private volatile RecordBatcher recordBatcher;
+
     // ----------------------------------------------------------------
     //
     // Dependencies
@@ -123,6 +131,7 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
 
         // Update properties
         this.cloudPublisherOptions = new CloudPublisherOptions(properties);
+        this.recordBatcher = createRecordBatcher(properties);
 
         logger.debug("Activating Cloud Publisher Wire Component... Done");
     }
@@ -135,8 +144,11 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
      */
     public void updated(final Map<String, Object> properties) {
         logger.debug("Updating Cloud Publisher Wire Component...");
+        shutdownRecordBatcher();
+
         // Update properties
         this.cloudPublisherOptions = new CloudPublisherOptions(properties);
+        this.recordBatcher = createRecordBatcher(properties);
 
         logger.debug("Updating Cloud Publisher Wire Component... Done");
     }
@@ -149,6 +161,7 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
      */
     protected void deactivate(final ComponentContext componentContext) {
         logger.debug("Deactivating Cloud Publisher Wire Component...");
+        shutdownRecordBatcher();
 
         logger.debug("Deactivating Cloud Publisher Wire Component... Done");
     }
@@ -161,7 +174,13 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
         if (nonNull(this.cloudConnectionPublisher)) {
             if (wireEnvelope instanceof WireEnvelope) {
                 final List<WireRecord> records = ((WireEnvelope) wireEnvelope).getRecords();
-                publish(records);
+                final RecordBatcher batcher = this.recordBatcher;
+
+                if (nonNull(batcher)) {
+                    batcher.add(records);
+                } else {
+                    publish(records);
+                }
             } else {
                 logger.warn("receive object:{} is not WireEnvelope", wireEnvelope);
             }
@@ -221,6 +240,36 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
         return kuraPayload;
     }
 
+    /**
+     * Builds a single Kura payload from the provided batch of {@link WireRecord}s.
+     *
+     * @param wireRecords
+     *            the batch of {@link WireRecord}s
+     * @return the Kura payload
+     */
+    private KuraPayload buildKuraPayload(final List<WireRecord> wireRecords) {
+        final KuraPayload kuraPayload = new KuraPayload();
+
+        kuraPayload.setTimestamp(new Date());
+
+        if (this.cloudPublisherOptions.getPositionType() != PositionType.NONE) {
+            KuraPosition kuraPosition = getPosition();
+            kuraPayload.setPosition(kuraPosition);
+        }
+
+        if (this.cloudPublisherOptions.getBatchLayout() == BatchLayout.COLUMNAR) {
+            kuraPayload.setBody(ColumnarBody.encode(wireRecords));
+        } else {
+            for (int i = 0; i < wireRecords.size(); i++) {
+                for (final Entry<String, TypedValue<?>> entry : wireRecords.get(i).getProperties().entrySet()) {
+                    kuraPayload.addMetric(i + "." + entry.getKey(), entry.getValue().getValue());
+                }
+            }
+        }
+
+        return kuraPayload;
+    }
+
     private void publishBody(final KuraPayload kuraPayload, final Map<String, TypedValue<?>> wireRecordProperties,
             final String bodyProperty) {
         try {
@@ -287,6 +336,45 @@ public final class CloudPublisher implements WireReceiver, ConfigurableComponent
         }
     }
 
+    /**
+     * Publishes the provided batch of {@link WireRecord}s as a single message
+     *
+     * @param wireRecords
+     *            the batch of {@link WireRecord}s
+     */
+    private void publishBatch(final List<WireRecord> wireRecords) {
+        final org.eclipse.kura.cloudconnection.publisher.CloudPublisher publisher = this.cloudConnectionPublisher;
+
+        if (isNull(publisher)) {
+            logger.warn("Cloud publisher not available, dropping a batch of {} wire records", wireRecords.size());
+            return;
+        }
+
+        try {
+            final Map<String, Object> properties = buildKuraMessageProperties(wireRecords.get(0));
+            final KuraPayload kuraPayload = buildKuraPayload(wireRecords);
+            publisher.publish(new KuraMessage(kuraPayload, properties));
+        } catch (final Exception e) {
+            logger.error("Error in publishing wire records using cloud publisher..", e);
+        }
+    }
+
+    private RecordBatcher createRecordBatcher(final Map<String, Object> properties) {
+        if (!this.cloudPublisherOptions.isBatchingEnabled()) {
+            return null;
+        }
+
+        final String ownPid = String.valueOf(properties.get(ConfigurationService.KURA_SERVICE_PID));
+        return new RecordBatcher(this.cloudPublisherOptions, ownPid, this::publishBatch);
+    }
+
+    private void shutdownRecordBatcher() {
+        if (nonNull(this.recordBatcher)) {
+            this.recordBatcher.shutdown();
+            this.recordBatcher = null;
+        }
+    }
+
     private Map<String, Object> buildKuraMessageProperties(final WireRecord wireRecord) {
         Map<String, TypedValue<?>> wireRecordProps = wireRecord.getProperties();
 
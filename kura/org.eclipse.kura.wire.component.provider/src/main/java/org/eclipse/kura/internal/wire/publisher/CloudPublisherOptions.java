@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -33,6 +33,14 @@ final class CloudPublisherOptions {
     private static final String CONF_POSITION = "publish.position";
     private static final String CONF_BODY_PROPERTY = "set.body.from.property";
     private static final String CONF_REMOVE_BODY_PROPERTY = "remove.body.from.metrics";
+    private static final String CONF_BATCH_SIZE = "batch.size";
+    private static final String CONF_BATCH_WINDOW = "batch.window";
+    private static final String CONF_BATCH_MAX_PAYLOAD_SIZE = "batch.max.payload.size";
+    private static final String CONF_BATCH_LAYOUT = "batch.layout";
+
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    private static final long DEFAULT_BATCH_WINDOW = 0;
+    private static final int DEFAULT_BATCH_MAX_PAYLOAD_SIZE = 262144;
 
     private final Map<String, Object> properties;
 
@@ -87,4 +95,64 @@ final class CloudPublisherOptions {
     boolean getRemoveBodyPropertyFromMetrics() {
         return (boolean) this.properties.getOrDefault(CONF_REMOVE_BODY_PROPERTY, false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the maximum number of wire records packed in a single message, batching is disabled if the returned
+     * value is not greater than 1.
+     *
+     * @return the maximum number of records per message
+     */
+    int getBatchSize() {
+        final Object batchSize = this.properties.get(CONF_BATCH_SIZE);
+        if (batchSize instanceof Integer) {
+            return (Integer) batchSize;
+        }
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    boolean isBatchingEnabled() {
+        return getBatchSize() > 1;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds for which records received in different wire envelopes are
+     * accumulated before being published. If 0, only records belonging to the same wire envelope are packed
+     * together.
+     *
+     * @return the batch window in milliseconds
+     */
+    long getBatchWindow() {
+        final Object batchWindow = this.properties.get(CONF_BATCH_WINDOW);
+        if (batchWindow instanceof Long) {
+            return Math.max(0, (Long) batchWindow);
+        }
+        return DEFAULT_BATCH_WINDOW;
+    }
+
+    /**
+     * Returns the maximum estimated size in bytes of the records packed in a single message.
+     *
+     * @return the maximum payload size in bytes
+     */
+    int getBatchMaxPayloadSize() {
+        final Object maxPayloadSize = this.properties.get(CONF_BATCH_MAX_PAYLOAD_SIZE);
+        if (maxPayloadSize instanceof Integer) {
+            return (Integer) maxPayloadSize;
+        }
+        return DEFAULT_BATCH_MAX_PAYLOAD_SIZE;
+    }
+
+    BatchLayout getBatchLayout() {
+        final Object layout = this.properties.get(CONF_BATCH_LAYOUT);
+
+        BatchLayout result = BatchLayout.INDEXED;
+        if (layout instanceof String) {
+            try {
+                result = BatchLayout.getLayout((String) layout);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Cannot parse the provided batch layout.", e);
+            }
+        }
+        return result;
+    }
+}
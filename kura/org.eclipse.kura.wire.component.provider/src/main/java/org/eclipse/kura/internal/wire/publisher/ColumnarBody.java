@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.publisher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireRecord;
+
+/**
+ * Encodes a list of {@link WireRecord}s as a JSON object with the following structure:
+ *
+ * <pre>
+ * {"count":2,"columns":{"temperature":[20.5,21.0],"status":["ok",null]}}
+ * </pre>
+ *
+ * Columns are sorted by first appearance, byte array values are encoded in Base64, non finite floating point
+ * values are encoded as strings.
+ */
+final class ColumnarBody {
+
+    private ColumnarBody() {
+    }
+
+    static byte[] encode(final List<WireRecord> wireRecords) {
+        final int count = wireRecords.size();
+        final Map<String, Object[]> columns = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            for (final Entry<String, TypedValue<?>> entry : wireRecords.get(i).getProperties().entrySet()) {
+                columns.computeIfAbsent(entry.getKey(), k -> new Object[count])[i] = entry.getValue().getValue();
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append("{\"count\":").append(count).append(",\"columns\":{");
+
+        boolean firstColumn = true;
+        for (final Entry<String, Object[]> column : columns.entrySet()) {
+            if (!firstColumn) {
+                builder.append(',');
+            }
+            firstColumn = false;
+
+            appendString(builder, column.getKey());
+            builder.append(":[");
+
+            final Object[] values = column.getValue();
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendValue(builder, values[i]);
+            }
+
+            builder.append(']');
+        }
+
+        builder.append("}}");
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendValue(final StringBuilder builder, final Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof String) {
+            appendString(builder, (String) value);
+        } else if (value instanceof byte[]) {
+            appendString(builder, Base64.getEncoder().encodeToString((byte[]) value));
+        } else if (value instanceof Double && !Double.isFinite((Double) value)
+                || value instanceof Float && !Float.isFinite((Float) value)) {
+            appendString(builder, value.toString());
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private static void appendString(final StringBuilder builder, final String value) {
+        builder.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+
+        builder.append('"');
+    }
+}
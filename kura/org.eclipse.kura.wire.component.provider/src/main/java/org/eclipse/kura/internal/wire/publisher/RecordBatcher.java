@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.publisher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireRecord;
+
+/**
+ * Accumulates {@link WireRecord}s and hands them over to a consumer in batches.
+ * <br>
+ * A batch is flushed as soon as it contains the configured number of records or as soon as adding another record
+ * would make its estimated size exceed the configured maximum payload size. If a batch window is configured, a
+ * partial batch is flushed when the window elapses, otherwise it is flushed at the end of every {@link #add} call.
+ */
+final class RecordBatcher {
+
+    private static final Logger logger = LogManager.getLogger(RecordBatcher.class);
+
+    // rough estimate of the per metric encoding overhead (field tags, lengths, type)
+    private static final int METRIC_OVERHEAD = 8;
+
+    private final int batchSize;
+    private final long batchWindow;
+    private final long maxPayloadSize;
+    private final Consumer<List<WireRecord>> sink;
+    private final ScheduledExecutorService executor;
+
+    private List<WireRecord> pending = new ArrayList<>();
+    private long pendingSize;
+    private ScheduledFuture<?> windowFuture;
+
+    RecordBatcher(final CloudPublisherOptions options, final String ownPid, final Consumer<List<WireRecord>> sink) {
+        this.batchSize = options.getBatchSize();
+        this.batchWindow = options.getBatchWindow();
+        this.maxPayloadSize = options.getBatchMaxPayloadSize();
+        this.sink = sink;
+
+        if (this.batchWindow > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(getThreadFactory(ownPid));
+        } else {
+            this.executor = null;
+        }
+    }
+
+    synchronized void add(final List<WireRecord> records) {
+        for (final WireRecord wireRecord : records) {
+            final long recordSize = estimateSize(wireRecord);
+
+            if (!this.pending.isEmpty() && this.pendingSize + recordSize > this.maxPayloadSize) {
+                flush();
+            }
+
+            if (recordSize > this.maxPayloadSize) {
+                logger.warn("The estimated size of a wire record ({} bytes) exceeds the batch maximum payload size",
+                        recordSize);
+            }
+
+            this.pending.add(wireRecord);
+            this.pendingSize += recordSize;
+
+            if (this.pending.size() >= this.batchSize) {
+                flush();
+            }
+        }
+
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        if (this.executor == null) {
+            flush();
+        } else if (this.windowFuture == null) {
+            this.windowFuture = this.executor.schedule(this::flush, this.batchWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void flush() {
+        if (this.windowFuture != null) {
+            this.windowFuture.cancel(false);
+            this.windowFuture = null;
+        }
+
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        final List<WireRecord> batch = this.pending;
+        this.pending = new ArrayList<>();
+        this.pendingSize = 0;
+
+        this.sink.accept(batch);
+    }
+
+    /**
+     * Flushes the pending records, if any, and releases the resources allocated by this instance.
+     */
+    synchronized void shutdown() {
+        flush();
+
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    static long estimateSize(final WireRecord wireRecord) {
+        long result = 0;
+
+        for (final Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
+            result += METRIC_OVERHEAD + entry.getKey().length() + estimateSize(entry.getValue().getValue());
+        }
+
+        return result;
+    }
+
+    private static long estimateSize(final Object value) {
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8).length;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Boolean) {
+            return 1;
+        } else {
+            return Long.BYTES;
+        }
+    }
+
+    private static ThreadFactory getThreadFactory(final String pid) {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+        return runnable -> {
+            final Thread result = defaultFactory.newThread(runnable);
+            result.setName("WiresCloudPublisherBatch_" + pid);
+            result.setDaemon(true);
+            return result;
+        };
+    }
+}
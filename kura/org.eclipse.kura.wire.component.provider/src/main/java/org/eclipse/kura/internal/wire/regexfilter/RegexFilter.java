@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Amit Kumar Mondal and others
+ * Copyright (c) 2017, 2024 Amit Kumar Mondal and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,23 +16,19 @@ package org.eclipse.kura.internal.wire.regexfilter;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toMap;
 import static org.eclipse.kura.configuration.ConfigurationService.KURA_SERVICE_PID;
 import static org.eclipse.kura.internal.wire.regexfilter.FilterType.REMOVE;
 import static org.eclipse.kura.internal.wire.regexfilter.FilterType.RETAIN;
-import static org.eclipse.kura.util.collection.CollectionUtil.newArrayList;
-import static org.eclipse.kura.util.collection.CollectionUtil.newHashMap;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -65,6 +61,9 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
     /** Filter Type Attribute Definition Property Key */
     private static final String REGEX_TYPE_PROP = "filter.type";
 
+    /** Maximum number of memoized key matches, the memo is cleared when this size is reached */
+    private static final int MAX_MEMOIZED_KEYS = 4096;
+
     /** Emit and Receive support operation adapter */
     private WireSupport wireSupport;
 
@@ -74,6 +73,12 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
     /** Associated Filter Type available in the component properties */
     private FilterType filterType;
 
+    /** Associated Filter compiled at activation or update time, null if the filter is empty or invalid */
+    private Pattern pattern;
+
+    /** Memoized results of the filter for the already seen keys */
+    private final Map<String, Boolean> keyMatches = new HashMap<>();
+
     /** Wire Component PID */
     private String componentPid;
 
@@ -117,6 +122,7 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
         this.filter = String.valueOf(properties.getOrDefault(REGEX_PROP, ""));
         this.componentPid = String.valueOf(properties.get(KURA_SERVICE_PID));
         this.filterType = getType(properties);
+        compileFilter();
         this.wireSupport = this.wireHelperService.newWireSupport(this,
                 (ServiceReference<WireComponent>) componentContext.getServiceReference());
         logger.debug("Activating Regex Filter... Done");
@@ -132,6 +138,7 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
         logger.debug("Updating Regex Filter...");
         this.filter = String.valueOf(properties.getOrDefault(REGEX_PROP, ""));
         this.filterType = getType(properties);
+        compileFilter();
         logger.debug("Updating Regex Filter... Done");
     }
 
@@ -164,73 +171,54 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
     public synchronized void onWireReceive(final Object wireEnvelope) {
         if (wireEnvelope instanceof WireEnvelope) {
             final List<WireRecord> receivedRecords = ((WireEnvelope) wireEnvelope).getRecords();
-            if (isNull(this.filter) || this.filter.trim().isEmpty()) {
-                // no filter has been associated
+            if (isNull(this.pattern)) {
+                // no valid filter has been associated
                 this.wireSupport.emit(receivedRecords);
                 return;
             }
 
-            final WireEnvelope filteredWireEnvelope = getFilteredWireEnvelope(receivedRecords,
-                    ((WireEnvelope) wireEnvelope));
-            this.wireSupport.emit(filteredWireEnvelope.getRecords());
+            this.wireSupport.emit(filter(receivedRecords));
         } else {
             logger.warn("receive object:{} is not WireEnvelope", wireEnvelope);
         }
     }
 
     /**
-     * Tries to filter the provided list of {@link WireRecord}s that matches the provided filter.
-     * In case of exceptional conditions, it returns the provided non-filtered {@link WireEnvelope}
-     * instance
-     *
-     * @param wireRecords
-     *            list of non-filtered {@link WireRecord}s
-     * @param nonFilteredWireEnvelope
-     *            non-filtered {@link WireEnvelope} instance
-     * @return returns A {@link WireEnvelope} instance associating the list of filtered
-     *         {@link WireRecord}s in case of success, otherwise the provided non-filtered
-     *         {@link WireEnvelope} instance
+     * Compiles the configured filter, in case of an empty or invalid filter the received {@link WireRecord}s will be
+     * emitted without being filtered
      */
-    private WireEnvelope getFilteredWireEnvelope(final List<WireRecord> wireRecords,
-            final WireEnvelope nonFilteredWireEnvelope) {
-        WireEnvelope filteredWireEnvelope;
+    private void compileFilter() {
+        this.pattern = null;
+        this.keyMatches.clear();
+
+        if (isNull(this.filter) || this.filter.trim().isEmpty()) {
+            return;
+        }
+
         try {
-            filteredWireEnvelope = new WireEnvelope(this.componentPid,
-                    filter(wireRecords, this.filter, this.filterType));
-        } catch (final Exception ex) {
-            // if any exception occurs while filtering, just emit the not filtered
-            // Wire Records
-            logger.warn("Error while filtering using provided Regular Expression...", ex);
-            filteredWireEnvelope = nonFilteredWireEnvelope;
+            this.pattern = Pattern.compile(this.filter);
+        } catch (final PatternSyntaxException ex) {
+            logger.warn("Invalid Regular Expression, Wire Records will not be filtered...", ex);
         }
-        return filteredWireEnvelope;
     }
 
     /**
      * Filters out the keys from the associated properties of provided {@link WireRecord}s
-     * that matches the provided filter
+     * that matches the configured filter
      *
      * @param wireRecords
      *            the list of {@link WireRecord}s
-     * @param filter
-     *            the filter to match
-     * @param type
-     *            the associated type that signifies either to retain matched keys or remove
      * @return the list of {@link WireRecord}s containing the filtered properties
      * @throws NullPointerException
-     *             if any of the arguments is null
-     * @throws java.util.regex.PatternSyntaxException
-     *             If the filter's syntax is invalid
+     *             if the argument is null
      */
-    private static List<WireRecord> filter(final List<WireRecord> wireRecords, final String filter,
-            final FilterType type) {
+    private List<WireRecord> filter(final List<WireRecord> wireRecords) {
         requireNonNull(wireRecords, "Wire Records cannot be null");
-        requireNonNull(filter, "Filter cannot be null");
 
-        final List<WireRecord> filteredWireRecords = newArrayList();
+        final List<WireRecord> filteredWireRecords = new ArrayList<>(wireRecords.size());
         for (final WireRecord wireRecord : wireRecords) {
             final Map<String, TypedValue<?>> previousProperties = wireRecord.getProperties();
-            final Map<String, TypedValue<?>> filteredProperties = match(filter, previousProperties, type);
+            final Map<String, TypedValue<?>> filteredProperties = filter(previousProperties);
 
             // If both the maps' references refer to the same map instance, there is no need
             // to create a new Wire Record. This is an optimization functionality, in which
@@ -247,50 +235,70 @@ public final class RegexFilter implements WireEmitter, WireReceiver, Configurabl
     }
 
     /**
-     * Filters out the keys from the provided {@link Map} instance
+     * Filters out the keys from the provided {@link Map} instance in a single pass. The result map is allocated only
+     * when the first key that must be filtered out is found.
      *
-     * @param regularExpression
-     *            the regular expression to match
      * @param map
      *            the {@link Map} instance to filter
-     * @param type
-     *            the associated type that signifies either to retain matched keys or remove
-     * @return the {@link Map} instance comprising the keys
-     *         that match the provided regular expression
-     * @throws java.util.regex.PatternSyntaxException
-     *             If the regular expression's syntax is invalid
+     * @return the provided {@link Map} instance if all keys must be kept, otherwise a new {@link Map} instance
+     *         comprising only the keys that must be kept
      */
-    private static <V> Map<String, V> match(final String regularExpression, final Map<String, V> map,
-            final FilterType type) {
-        // if the properties map is empty, no need to invoke filter mechanism
-        if (map.isEmpty()) {
+    private <V> Map<String, V> filter(final Map<String, V> map) {
+        Map<String, V> result = null;
+        int kept = 0;
+
+        for (final Entry<String, V> entry : map.entrySet()) {
+            final boolean keep = isKept(entry.getKey());
+
+            if (result == null) {
+                if (keep) {
+                    kept++;
+                    continue;
+                }
+                result = new HashMap<>();
+                copyFirstEntries(map, result, kept);
+            } else if (keep) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (result == null) {
             return map;
         }
-        final Pattern pattern = Pattern.compile(regularExpression);
-        final Set<Entry<String, V>> entrySet = map.entrySet();
-        final Supplier<Stream<Entry<String, V>>> streamSupplier = entrySet::stream;
-        // If the provided regular expression matches all the keys of the provided map,
-        // there is no need to create a new map instance (in case of RETAIN type)
-        final boolean allMatch = streamSupplier.get().allMatch(matches(pattern, type));
-        if (allMatch) {
-            return type == RETAIN ? map : unmodifiableMap(newHashMap());
+        return result.isEmpty() ? Collections.emptyMap() : unmodifiableMap(result);
+    }
+
+    private static <V> void copyFirstEntries(final Map<String, V> source, final Map<String, V> target,
+            final int count) {
+        final Iterator<Entry<String, V>> iterator = source.entrySet().iterator();
+        for (int i = 0; i < count; i++) {
+            final Entry<String, V> entry = iterator.next();
+            target.put(entry.getKey(), entry.getValue());
         }
-        return streamSupplier.get().filter(matches(pattern, type))
-                .collect(collectingAndThen(toMap(Entry::getKey, Entry::getValue), Collections::unmodifiableMap));
     }
 
     /**
-     * The {@link Predicate} instance denoting the provided {@link Pattern} instance to match
+     * Tells whether the provided key must be kept, according to the configured filter and filter type. The result is
+     * memoized since the same keys are usually found in all the received {@link WireRecord}s.
      *
-     * @param pattern
-     *            the {@link Pattern} instance to match
-     * @param type
-     *            the type that signifies either to match entries or not
-     * @return a {@link Predicate} instance
+     * @param key
+     *            the key to check
+     * @return {@code true} if the key must be kept
      */
-    private static <V> Predicate<Entry<String, V>> matches(final Pattern pattern, final FilterType type) {
-        final Predicate<Entry<String, V>> predicate = entry -> pattern.matcher(entry.getKey()).matches();
-        return type == RETAIN ? predicate : predicate.negate();
+    private boolean isKept(final String key) {
+        Boolean keep = this.keyMatches.get(key);
+
+        if (keep == null) {
+            final boolean matches = this.pattern.matcher(key).matches();
+            keep = this.filterType == RETAIN ? matches : !matches;
+
+            if (this.keyMatches.size() >= MAX_MEMOIZED_KEYS) {
+                this.keyMatches.clear();
+            }
+            this.keyMatches.put(key, keep);
+        }
+
+        return keep;
     }
 
     /**
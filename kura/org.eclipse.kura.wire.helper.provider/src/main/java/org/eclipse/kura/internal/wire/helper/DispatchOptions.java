@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.helper;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.kura.internal.wire.helper.WireMailbox.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Defines how the envelopes received by a Wire Component are dispatched. The options are read from the properties of
+ * the Wire Component service, so they apply to any Wire Component that includes them in its configuration, and are
+ * applied again when the service properties are modified.
+ */
+final class DispatchOptions {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchOptions.class);
+
+    static final String DISPATCH_MODE_PROP_NAME = "receiver.dispatch.mode";
+    static final String QUEUE_CAPACITY_PROP_NAME = "receiver.queue.capacity";
+    static final String OVERFLOW_POLICY_PROP_NAME = "receiver.queue.overflow.policy";
+
+    static final int QUEUE_CAPACITY_DEFAULT = 1024;
+
+    enum DispatchMode {
+
+        /**
+         * Envelopes are dispatched concurrently by a pool of threads dedicated to the component, the delivery order
+         * is not guaranteed.
+         */
+        POOL("pool"),
+        /**
+         * Envelopes are dispatched one at a time, in the order they have been received, using a bounded mailbox
+         * served by the executor shared by the wire graph. While a component processes an envelope it holds one of
+         * the threads of the shared executor, so this mode is meant for components that do not block for long in
+         * {@code onWireReceive}.
+         */
+        ORDERED("ordered");
+
+        private final String value;
+
+        private DispatchMode(final String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return this.value;
+        }
+
+        static DispatchMode fromValue(final String value) {
+            for (final DispatchMode mode : DispatchMode.values()) {
+                if (mode.value.equals(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported dispatch mode: " + value);
+        }
+    }
+
+    private final DispatchMode dispatchMode;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+
+    DispatchOptions(final DispatchMode dispatchMode, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+        this.dispatchMode = dispatchMode;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // The pool mode is the default because many receivers block in onWireReceive, for example while reading from a
+    // driver, inserting into a database or publishing. On JVMs without virtual threads the shared executor is a fork
+    // join pool sized on the available processors, and a few of these receivers would stall all the ordered
+    // components of the graph. The pool mode also preserves the concurrent delivery the existing components rely on.
+    static DispatchOptions defaults() {
+        return new DispatchOptions(DispatchMode.POOL, QUEUE_CAPACITY_DEFAULT, OverflowPolicy.BLOCK);
+    }
+
+    static DispatchOptions fromProperties(final Function<String, Object> properties) {
+        DispatchMode dispatchMode = DispatchMode.POOL;
+        int queueCapacity = QUEUE_CAPACITY_DEFAULT;
+        OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        try {
+            final Object mode = properties.apply(DISPATCH_MODE_PROP_NAME);
+            if (mode != null) {
+                dispatchMode = DispatchMode.fromValue(mode.toString());
+            }
+
+            final Object capacity = properties.apply(QUEUE_CAPACITY_PROP_NAME);
+            if (capacity != null) {
+                queueCapacity = Integer.parseInt(capacity.toString());
+                if (queueCapacity <= 0) {
+                    throw new IllegalArgumentException(QUEUE_CAPACITY_PROP_NAME + " must be greater than zero");
+                }
+            }
+
+            final Object policy = properties.apply(OVERFLOW_POLICY_PROP_NAME);
+            if (policy != null) {
+                overflowPolicy = OverflowPolicy.fromValue(policy.toString());
+            }
+        } catch (final Exception e) {
+            logger.warn("Invalid dispatch options, using defaults", e);
+            return defaults();
+        }
+
+        return new DispatchOptions(dispatchMode, queueCapacity, overflowPolicy);
+    }
+
+    DispatchMode getDispatchMode() {
+        return this.dispatchMode;
+    }
+
+    int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.dispatchMode, this.overflowPolicy, this.queueCapacity);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final DispatchOptions other = (DispatchOptions) obj;
+        return this.dispatchMode == other.dispatchMode && this.overflowPolicy == other.overflowPolicy
+                && this.queueCapacity == other.queueCapacity;
+    }
+}
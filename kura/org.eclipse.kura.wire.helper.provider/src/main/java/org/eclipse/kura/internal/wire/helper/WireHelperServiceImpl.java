@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,8 +20,15 @@ import static org.eclipse.kura.wire.graph.Constants.RECEIVER_PORT_COUNT_PROP_NAM
 import static org.eclipse.kura.wire.graph.Constants.WIRE_EMITTER_NULL_AS_WIRE_ENVELOPE;
 import static org.osgi.framework.Constants.SERVICE_PID;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
 import org.eclipse.kura.util.service.ServiceUtil;
 import org.eclipse.kura.wire.WireComponent;
+import org.eclipse.kura.wire.WireDispatchStatistics;
 import org.eclipse.kura.wire.WireEmitter;
 import org.eclipse.kura.wire.WireHelperService;
 import org.eclipse.kura.wire.WireReceiver;
@@ -29,6 +36,8 @@ import org.eclipse.kura.wire.WireSupport;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
 
 /**
  * The Class WireHelperServiceImpl is the implementation of
@@ -36,6 +45,37 @@ import org.osgi.framework.ServiceReference;
  */
 public final class WireHelperServiceImpl implements WireHelperService {
 
+    private volatile Executor wireGraphExecutor;
+
+    // The Wire Supports are owned by the Wire Components, they are tracked with weak references so that the ones
+    // of the deactivated components can be garbage collected.
+    private final Map<String, WeakReference<WireSupportImpl>> wireSupports = new ConcurrentHashMap<>();
+
+    private ServiceTracker<WireComponent, ServiceReference<WireComponent>> wireComponentTracker;
+
+    public void activate(final BundleContext context) {
+        this.wireComponentTracker = new ServiceTracker<>(context, WireComponent.class,
+                new WireComponentPropertiesTracker());
+        this.wireComponentTracker.open();
+    }
+
+    public void deactivate() {
+        if (this.wireComponentTracker != null) {
+            this.wireComponentTracker.close();
+            this.wireComponentTracker = null;
+        }
+    }
+
+    public void setWireGraphExecutor(final Executor wireGraphExecutor) {
+        this.wireGraphExecutor = wireGraphExecutor;
+    }
+
+    public void unsetWireGraphExecutor(final Executor wireGraphExecutor) {
+        if (this.wireGraphExecutor == wireGraphExecutor) {
+            this.wireGraphExecutor = null;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getPid(final WireComponent wireComponent) {
@@ -173,7 +213,70 @@ public final class WireHelperServiceImpl implements WireHelperService {
         int emitterPortCount = getIntOrDefault(wireComponentRef.getProperty(EMITTER_PORT_COUNT_PROP_NAME.value()),
                 wireComponent instanceof WireEmitter ? 1 : 0);
 
-        return new WireSupportImpl(wireComponent, servicePid, kuraServicePid, receiverPortCount, emitterPortCount,
-                isNulltoEnvenlope);
+        final DispatchOptions dispatchOptions = DispatchOptions.fromProperties(wireComponentRef::getProperty);
+
+        final WireSupportImpl wireSupport = new WireSupportImpl(wireComponent, servicePid, kuraServicePid,
+                receiverPortCount, emitterPortCount, isNulltoEnvenlope, dispatchOptions, () -> this.wireGraphExecutor);
+
+        this.wireSupports.values().removeIf(ref -> ref.get() == null);
+        this.wireSupports.put(kuraServicePid, new WeakReference<>(wireSupport));
+
+        return wireSupport;
+    }
+
+    /**
+     * Applies the dispatch options contained in the current properties of a Wire Component service to the
+     * {@link WireSupport} created for it, if any.
+     *
+     * @param wireComponentRef
+     *            the Wire Component service reference
+     */
+    void updateDispatchOptions(final ServiceReference<?> wireComponentRef) {
+        final Object kuraServicePid = wireComponentRef.getProperty(KURA_SERVICE_PID);
+
+        if (!(kuraServicePid instanceof String)) {
+            return;
+        }
+
+        final WeakReference<WireSupportImpl> ref = this.wireSupports.get(kuraServicePid);
+        final WireSupportImpl wireSupport = ref != null ? ref.get() : null;
+
+        if (wireSupport != null) {
+            wireSupport.updateDispatchOptions(DispatchOptions.fromProperties(wireComponentRef::getProperty));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<WireDispatchStatistics> getDispatchStatistics(final String wireComponentPid) {
+        requireNonNull(wireComponentPid, "Wire Component PID cannot be null");
+
+        final WeakReference<WireSupportImpl> ref = this.wireSupports.get(wireComponentPid);
+
+        return Optional.ofNullable(ref != null ? ref.get() : null).map(WireSupportImpl::getDispatchStatistics);
+    }
+
+    // The Wire Components usually do not recreate their WireSupport when their configuration is modified, the
+    // dispatch options are applied again when the properties of the Wire Component service change. The services are
+    // not retrieved, in order to not activate the lazy components.
+    private final class WireComponentPropertiesTracker
+            implements ServiceTrackerCustomizer<WireComponent, ServiceReference<WireComponent>> {
+
+        @Override
+        public ServiceReference<WireComponent> addingService(final ServiceReference<WireComponent> reference) {
+            return reference;
+        }
+
+        @Override
+        public void modifiedService(final ServiceReference<WireComponent> reference,
+                final ServiceReference<WireComponent> service) {
+            updateDispatchOptions(reference);
+        }
+
+        @Override
+        public void removedService(final ServiceReference<WireComponent> reference,
+                final ServiceReference<WireComponent> service) {
+            // nothing to do, the WireSupport is stopped by its component
+        }
     }
 }
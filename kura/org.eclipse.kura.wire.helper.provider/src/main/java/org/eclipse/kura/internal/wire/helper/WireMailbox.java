@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.helper;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded mailbox that runs the submitted tasks one at a time, in submission order, on the provided
+ * {@link Executor}. The tasks are stored in a ring buffer, the behavior when the buffer is full is defined by the
+ * configured {@link OverflowPolicy}.
+ */
+final class WireMailbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireMailbox.class);
+
+    private static final int DRAIN_BATCH_SIZE = 64;
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    enum OverflowPolicy {
+
+        /**
+         * The submitting thread waits until there is room in the mailbox.
+         */
+        BLOCK("block"),
+        /**
+         * The submitted task is discarded.
+         */
+        DROP_NEWEST("drop-newest"),
+        /**
+         * The oldest task in the mailbox is discarded to make room for the submitted one.
+         */
+        DROP_OLDEST("drop-oldest");
+
+        private final String value;
+
+        private OverflowPolicy(final String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return this.value;
+        }
+
+        static OverflowPolicy fromValue(final String value) {
+            for (final OverflowPolicy policy : OverflowPolicy.values()) {
+                if (policy.value.equals(value)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported overflow policy: " + value);
+        }
+    }
+
+    private final String name;
+    private final Runnable[] buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = this.lock.newCondition();
+
+    private int head;
+    private int count;
+    private boolean scheduled;
+    private boolean closed;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    WireMailbox(final String name, final int capacity, final OverflowPolicy overflowPolicy, final Executor executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity must be greater than zero");
+        }
+        this.name = requireNonNull(name, "name cannot be null");
+        this.buffer = new Runnable[capacity];
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflow policy cannot be null");
+        this.executor = requireNonNull(executor, "executor cannot be null");
+    }
+
+    /**
+     * Submits a task for execution.
+     *
+     * @param task
+     *            the task
+     * @return {@code true} if the task has been accepted, {@code false} if it has been discarded
+     */
+    boolean submit(final Runnable task) {
+        requireNonNull(task, "task cannot be null");
+
+        final boolean mustSchedule;
+
+        this.lock.lock();
+        try {
+            while (this.count == this.buffer.length) {
+                if (this.closed) {
+                    return false;
+                }
+
+                if (this.overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    onDropped();
+                    return false;
+                } else if (this.overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                    poll();
+                    onDropped();
+                } else {
+                    try {
+                        awaitNotFull();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        onDropped();
+                        return false;
+                    }
+                }
+            }
+
+            if (this.closed) {
+                return false;
+            }
+
+            this.buffer[(this.head + this.count) % this.buffer.length] = task;
+            this.count++;
+
+            mustSchedule = !this.scheduled;
+            this.scheduled = true;
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (mustSchedule) {
+            schedule();
+        }
+
+        return true;
+    }
+
+    /**
+     * Discards the pending tasks and rejects any further submission.
+     */
+    void close() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            while (this.count > 0) {
+                poll();
+            }
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Rejects any further submission, the pending tasks are still run.
+     */
+    void shutdown() {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    boolean isClosed() {
+        this.lock.lock();
+        try {
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    int getPendingCount() {
+        this.lock.lock();
+        try {
+            return this.count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void schedule() {
+        try {
+            this.executor.execute(this::drain);
+        } catch (final RejectedExecutionException e) {
+            logger.warn("Cannot schedule dispatch for {}, discarding pending envelopes", this.name);
+            this.lock.lock();
+            try {
+                this.scheduled = false;
+                while (this.count > 0) {
+                    poll();
+                    onDropped();
+                }
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    // Runs at most DRAIN_BATCH_SIZE tasks and then yields the thread by rescheduling itself, so that a busy mailbox
+    // does not monopolize an executor shared with other mailboxes.
+    private void drain() {
+        for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+            final Runnable task;
+
+            this.lock.lock();
+            try {
+                if (this.count == 0) {
+                    this.scheduled = false;
+                    return;
+                }
+                task = poll();
+                this.notFull.signal();
+            } finally {
+                this.lock.unlock();
+            }
+
+            try {
+                task.run();
+            } catch (final Exception e) {
+                logger.error("Failed to dispatch envelope to {}", this.name, e);
+            }
+        }
+
+        schedule();
+    }
+
+    // This is the only place where a mailbox blocks a thread. If the caller is a fork join pool worker (e.g. the drain
+    // task of an upstream component running on the shared executor), the pool is notified so that it can activate a
+    // spare thread to drain this mailbox while the caller is blocked. The deliveries are not run as managed blockers,
+    // otherwise the pool would create a compensation thread for each of them.
+    private void awaitNotFull() throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (!isReleasable()) {
+                    WireMailbox.this.notFull.await();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return WireMailbox.this.closed || WireMailbox.this.count < WireMailbox.this.buffer.length;
+            }
+        });
+    }
+
+    private Runnable poll() {
+        final Runnable result = this.buffer[this.head];
+        this.buffer[this.head] = null;
+        this.head = (this.head + 1) % this.buffer.length;
+        this.count--;
+        return result;
+    }
+
+    private void onDropped() {
+        final long dropped = this.droppedCount.incrementAndGet();
+
+        if (dropped == 1 || dropped % DROP_LOG_INTERVAL == 0) {
+            logger.warn("Mailbox of {} is full, {} envelopes dropped so far (overflow policy: {})", this.name, dropped,
+                    this.overflowPolicy.getValue());
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -23,15 +23,21 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import org.eclipse.kura.internal.wire.helper.DispatchOptions.DispatchMode;
 import org.eclipse.kura.wire.WireComponent;
+import org.eclipse.kura.wire.WireDispatchStatistics;
 import org.eclipse.kura.wire.WireEnvelope;
 import org.eclipse.kura.wire.WireReceiver;
 import org.eclipse.kura.wire.WireRecord;
@@ -62,19 +68,34 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
 
     private final boolean isNulltoEnvenlope;
 
-    private ExecutorService receiverExecutor;
+    private volatile DispatchOptions dispatchOptions;
+
+    private final Supplier<Executor> sharedExecutor;
+
+    private volatile Dispatcher dispatcher;
 
     private final Map<Wire, ReceiverPortImpl> receiverPortByWire;
 
     WireSupportImpl(final WireComponent wireComponent, final String servicePid, final String kuraServicePid,
             int inputPortCount, int outputPortCount, boolean isNulltoEnvenlope) {
+        this(wireComponent, servicePid, kuraServicePid, inputPortCount, outputPortCount, isNulltoEnvenlope,
+                DispatchOptions.defaults(), () -> null);
+    }
+
+    WireSupportImpl(final WireComponent wireComponent, final String servicePid, final String kuraServicePid,
+            int inputPortCount, int outputPortCount, boolean isNulltoEnvenlope, final DispatchOptions dispatchOptions,
+            final Supplier<Executor> sharedExecutor) {
         requireNonNull(wireComponent, "Wire component cannot be null");
         requireNonNull(servicePid, "service pid cannot be null");
         requireNonNull(kuraServicePid, "kura service pid cannot be null");
+        requireNonNull(dispatchOptions, "dispatch options cannot be null");
+        requireNonNull(sharedExecutor, "shared executor supplier cannot be null");
         this.servicePid = servicePid;
         this.kuraServicePid = kuraServicePid;
         this.wireComponent = wireComponent;
-        receiverExecutor = createExecutorService(kuraServicePid);
+        this.dispatchOptions = dispatchOptions;
+        this.sharedExecutor = sharedExecutor;
+        this.dispatcher = createDispatcher(dispatchOptions);
         if (inputPortCount < 0) {
             throw new IllegalArgumentException("Input port count must be greater or equal than zero");
         }
@@ -98,7 +119,121 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
     private ExecutorService createExecutorService(String kuraServicePid) {
         int cores = Runtime.getRuntime().availableProcessors();
         return new ThreadPoolExecutor(1, cores * 2, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
-                new WireDefaultThreadFactory(kuraServicePid), new ThreadPoolExecutor.DiscardOldestPolicy());
+                new WireDefaultThreadFactory(kuraServicePid), new ThreadPoolExecutor.DiscardOldestPolicy() {
+
+                    @Override
+                    public void rejectedExecution(final Runnable r, final ThreadPoolExecutor e) {
+                        if (e.isShutdown()) {
+                            throw new RejectedExecutionException("Dispatcher of " + kuraServicePid + " stopped");
+                        }
+                        super.rejectedExecution(r, e);
+                    }
+                });
+    }
+
+    private ExecutorService createOrderedExecutorService(String kuraServicePid) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new WireDefaultThreadFactory(kuraServicePid));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // In ordered mode the mailbox runs on the executor shared by the whole wire graph, the mailbox guarantees that
+    // the envelopes for this component are processed one at a time. The dedicated single thread executor is used
+    // only if the shared executor is not available, its thread is created lazily and stopped when idle.
+    private void executeOrdered(final ExecutorService dedicatedExecutor, final Runnable task) {
+        final Executor executor = this.sharedExecutor.get();
+
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (final RejectedExecutionException e) {
+                logger.debug("Shared wire graph executor not available, using dedicated thread", e);
+            }
+        }
+
+        dedicatedExecutor.execute(task);
+    }
+
+    private Dispatcher createDispatcher(final DispatchOptions options) {
+        if (options.getDispatchMode() == DispatchMode.ORDERED) {
+            final ExecutorService executor = createOrderedExecutorService(this.kuraServicePid);
+            final WireMailbox mailbox = new WireMailbox(this.kuraServicePid, options.getQueueCapacity(),
+                    options.getOverflowPolicy(), task -> executeOrdered(executor, task));
+            return new Dispatcher(options, executor, mailbox);
+        } else {
+            return new Dispatcher(options, createExecutorService(this.kuraServicePid), null);
+        }
+    }
+
+    private void startReceiverDispatch() {
+        this.dispatcher = createDispatcher(this.dispatchOptions);
+    }
+
+    private void stopReceiverDispatch() {
+        this.dispatcher.stop();
+    }
+
+    /**
+     * Applies new dispatch options. If the component is connected, a new dispatcher is started and used for the
+     * envelopes received from now on, while the previous one completes the delivery of the envelopes it has already
+     * accepted. The delivery order of the envelopes received around the change is therefore not guaranteed.
+     *
+     * @param dispatchOptions
+     *            the new dispatch options
+     */
+    synchronized void updateDispatchOptions(final DispatchOptions dispatchOptions) {
+        requireNonNull(dispatchOptions, "dispatch options cannot be null");
+
+        if (dispatchOptions.equals(this.dispatchOptions)) {
+            return;
+        }
+
+        this.dispatchOptions = dispatchOptions;
+
+        final Dispatcher previous = this.dispatcher;
+
+        if (previous.isStopped()) {
+            return;
+        }
+
+        logger.info("Updating dispatch mode of {} to {}", this.kuraServicePid,
+                dispatchOptions.getDispatchMode().getValue());
+
+        this.dispatcher = createDispatcher(dispatchOptions);
+        previous.shutdown();
+    }
+
+    // A dispatcher can be stopped by a concurrent reconfiguration between the read of the field and the submission,
+    // in this case the task is handed over to the dispatcher that replaced it.
+    private void dispatch(final Runnable task) {
+        Dispatcher current = this.dispatcher;
+
+        while (!current.submit(task)) {
+            final Dispatcher next = this.dispatcher;
+            if (next == current) {
+                return;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Returns the statistics about the dispatch of the received envelopes. The pending and dropped envelope counts
+     * are always zero if the component does not use the ordered dispatch mode.
+     *
+     * @return the dispatch statistics
+     */
+    WireDispatchStatistics getDispatchStatistics() {
+        final Dispatcher current = this.dispatcher;
+        final String dispatchMode = current.options.getDispatchMode().getValue();
+
+        if (current.mailbox == null) {
+            return new WireDispatchStatistics(dispatchMode, 0, 0);
+        }
+        return new WireDispatchStatistics(dispatchMode, current.mailbox.getPendingCount(),
+                current.mailbox.getDroppedCount());
     }
 
     private void clearReceiverPorts() {
@@ -172,11 +307,11 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
     public synchronized void producersConnected(final Wire[] wires) {
         clearReceiverPorts();
         if (wires == null) {
-            receiverExecutor.shutdownNow();
+            stopReceiverDispatch();
             return;
         }
-        if (receiverExecutor.isShutdown()) {
-            receiverExecutor = createExecutorService(this.kuraServicePid);
+        if (this.dispatcher.isStopped()) {
+            startReceiverDispatch();
         }
         for (Wire w : wires) {
             try {
@@ -199,7 +334,7 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
         }
         final Object envelopeValue = value;
         if (wireComponent instanceof WireReceiver) {
-            receiverExecutor.execute(() -> {
+            dispatch(() -> {
                 try {
                     ((WireReceiver) WireSupportImpl.this.wireComponent).onWireReceive(envelopeValue);
                 } catch (Exception e) {
@@ -207,7 +342,7 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
                 }
             });
         } else {
-            receiverExecutor.execute(() -> {
+            dispatch(() -> {
                 try {
                     final ReceiverPortImpl receiverPort = WireSupportImpl.this.receiverPortByWire.get(wire);
                     receiverPort.consumer.accept(envelopeValue);
@@ -261,6 +396,69 @@ final class WireSupportImpl implements WireSupport, MultiportWireSupport {
         }
     }
 
+    /**
+     * The executor and the optional mailbox used for delivering the received envelopes with a given set of
+     * {@link DispatchOptions}.
+     */
+    private static final class Dispatcher {
+
+        private final DispatchOptions options;
+        private final ExecutorService executor;
+        private final WireMailbox mailbox;
+
+        Dispatcher(final DispatchOptions options, final ExecutorService executor, final WireMailbox mailbox) {
+            this.options = options;
+            this.executor = executor;
+            this.mailbox = mailbox;
+        }
+
+        /**
+         * Submits a task for execution.
+         *
+         * @param task
+         *            the task
+         * @return {@code false} if the task has been rejected because the dispatcher has been stopped
+         */
+        boolean submit(final Runnable task) {
+            if (this.mailbox != null) {
+                return this.mailbox.submit(task) || !this.mailbox.isClosed();
+            }
+
+            try {
+                this.executor.execute(task);
+                return true;
+            } catch (final RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Rejects new tasks and lets the accepted ones complete. In ordered mode the thread of the dedicated
+         * executor, if started, stops when idle.
+         */
+        void shutdown() {
+            if (this.mailbox != null) {
+                this.mailbox.shutdown();
+            } else {
+                this.executor.shutdown();
+            }
+        }
+
+        /**
+         * Rejects new tasks, discards the pending ones and interrupts the running ones.
+         */
+        void stop() {
+            if (this.mailbox != null) {
+                this.mailbox.close();
+            }
+            this.executor.shutdownNow();
+        }
+
+        boolean isStopped() {
+            return this.executor.isShutdown();
+        }
+    }
+
     private WireEnvelope createWireEnvelope(List<WireRecord> records) {
         return new WireEnvelope(servicePid, records);
     }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the executor shared by all the Wire Components of the graph for dispatching the received envelopes.
+ * A virtual thread per task executor is used if supported by the running JVM, otherwise a {@link ForkJoinPool} with
+ * a parallelism equal to the number of available processors is used.
+ */
+final class WireGraphExecutorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireGraphExecutorFactory.class);
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+    private WireGraphExecutorFactory() {
+    }
+
+    static ExecutorService create() {
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            final ExecutorService result = (ExecutorService) method.invoke(null);
+
+            logger.info("Using virtual threads for dispatching wire envelopes");
+            return result;
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Virtual threads not available", e);
+        }
+
+        final int parallelism = Runtime.getRuntime().availableProcessors();
+
+        logger.info("Using a fork join pool with parallelism {} for dispatching wire envelopes", parallelism);
+
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("WireGraph-Dispatcher-" + THREAD_NUMBER.getAndIncrement());
+            return thread;
+        }, (thread, e) -> logger.error("Unexpected exception in {}", thread.getName(), e), true);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -34,6 +34,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -58,6 +61,7 @@ import org.osgi.framework.Filter;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.wireadmin.Wire;
 import org.osgi.service.wireadmin.WireAdmin;
@@ -78,6 +82,11 @@ public class WireGraphServiceImpl implements ConfigurableComponent, WireGraphSer
 
     private static final String NEW_WIRE_GRAPH_PROPERTY = "WireGraph";
 
+    /**
+     * Service property identifying the {@link Executor} shared by the Wire Components for dispatching envelopes.
+     */
+    private static final String WIRE_GRAPH_EXECUTOR_PROP_NAME = "kura.wire.graph.executor";
+
     /** Configuration PID Property */
     private static final String CONF_PID = "org.eclipse.kura.wire.graph.WireGraphService";
 
@@ -92,6 +101,9 @@ public class WireGraphServiceImpl implements ConfigurableComponent, WireGraphSer
 
     private WireGraphConfiguration currentConfiguration;
 
+    private ExecutorService wireGraphExecutor;
+    private ServiceRegistration<Executor> wireGraphExecutorRegistration;
+
     private static final Filter WIRE_COMPONENT_FILTER = getWireComponentConfigurationFilter();
 
     private static final Map<String, Object> DEFAULT_RENDERING_PROPERTIES = buildDefaultRenderingProperties();
@@ -132,6 +144,8 @@ public class WireGraphServiceImpl implements ConfigurableComponent, WireGraphSer
         logger.info("Activating Wire Service...");
         this.bundleContext = componentContext.getBundleContext();
 
+        registerWireGraphExecutor();
+
         updated(properties);
 
         logger.info("Activating Wire Service...Done");
@@ -176,9 +190,48 @@ public class WireGraphServiceImpl implements ConfigurableComponent, WireGraphSer
 
         deleteAllWires();
 
+        unregisterWireGraphExecutor();
+
         logger.info("Deactivating Wire Service Component...Done");
     }
 
+    private void registerWireGraphExecutor() {
+        this.wireGraphExecutor = WireGraphExecutorFactory.create();
+
+        final Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(WIRE_GRAPH_EXECUTOR_PROP_NAME, true);
+
+        // Only the execute method is exposed, so that the other bundles cannot shut the executor down.
+        final Executor executor = this.wireGraphExecutor;
+
+        this.wireGraphExecutorRegistration = this.bundleContext.registerService(Executor.class, executor::execute,
+                properties);
+    }
+
+    private void unregisterWireGraphExecutor() {
+        if (this.wireGraphExecutorRegistration != null) {
+            try {
+                this.wireGraphExecutorRegistration.unregister();
+            } catch (final IllegalStateException e) {
+                logger.debug("Wire graph executor already unregistered", e);
+            }
+            this.wireGraphExecutorRegistration = null;
+        }
+
+        if (this.wireGraphExecutor != null) {
+            this.wireGraphExecutor.shutdown();
+            try {
+                if (!this.wireGraphExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    this.wireGraphExecutor.shutdownNow();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.wireGraphExecutor.shutdownNow();
+            }
+            this.wireGraphExecutor = null;
+        }
+    }
+
     private boolean checkWireExistence(final String emitterServicePid, final String receiverServicePid,
             final int emitterPort, final int receiverPort) throws InvalidSyntaxException {
         requireNonNull(emitterServicePid, "Emitter Service PID cannot be null");
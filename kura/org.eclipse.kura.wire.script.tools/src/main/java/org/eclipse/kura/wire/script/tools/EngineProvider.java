@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,7 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kura.wire.script.tools;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,6 +23,7 @@ import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.type.TypedValues;
 import org.eclipse.kura.wire.WireRecord;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
@@ -30,32 +31,66 @@ import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Base class for the components that run user provided scripts.
+ * <br>
+ * Every provider owns a {@link Context}, so that the script global state is isolated, but all contexts are created on
+ * a single {@link Engine} shared by all the providers. This allows the parsed code and the optimizations performed by
+ * the engine to be reused by all the components running the same script. The shared engine is closed when the last
+ * context is closed.
+ * <br>
+ * The script is parsed once for every configuration and every context, and the received objects are exposed to the
+ * script as host objects, without any conversion.
+ */
 public abstract class EngineProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(EngineProvider.class);
     public static final String LANGUAGE_ID = "js";
+    private static final String SOURCE_NAME = "script";
+
+    private static Engine sharedEngine;
+    private static int sharedEngineUsers;
 
     private Optional<Context> engine = Optional.empty();
     private Value bindings;
-    private Optional<Value> currentResult;
+    private Optional<Value> currentResult = Optional.empty();
+
+    private Optional<String> sourceCode = Optional.empty();
+    private Optional<Source> source = Optional.empty();
+    private Optional<Value> parsedSource = Optional.empty();
 
     public void initEngine() {
+        final Engine newEngine;
+
+        try {
+            newEngine = acquireSharedEngine();
+        } catch (Exception e) {
+            logger.error("Failed to initialize engine for language '" + LANGUAGE_ID + "'.", e);
+            closeEngine();
+            return;
+        }
+
         closeEngine();
 
         try {
-            this.engine = Optional.of(Context.newBuilder(LANGUAGE_ID).option("engine.WarnInterpreterOnly", "false")
-                    .allowHostAccess(HostAccess.ALL).build());
+            this.engine = Optional
+                    .of(Context.newBuilder(LANGUAGE_ID).engine(newEngine).allowHostAccess(HostAccess.ALL).build());
             createDefaultBindings();
         } catch (Exception e) {
             logger.error("Failed to initialize engine for language '" + LANGUAGE_ID + "'.", e);
+            this.engine.ifPresent(context -> context.close(true));
             this.engine = Optional.empty();
+            releaseSharedEngine();
         }
     }
 
     public void closeEngine() {
+        this.parsedSource = Optional.empty();
+
         if (this.engine.isPresent()) {
             this.engine.get().close(true);
             this.engine = Optional.empty();
+            releaseSharedEngine();
         }
     }
 
@@ -78,14 +113,49 @@ public abstract class EngineProvider {
         }
     }
 
+    /**
+     * Sets the script executed by {@link #evaluate()}. The script is parsed immediately if the engine is initialized,
+     * so that syntax errors are reported when the component is configured, or when it is first evaluated otherwise.
+     *
+     * @param sourceCode
+     *            the script source code
+     */
+    public void setSource(String sourceCode) {
+        this.sourceCode = Optional.of(sourceCode);
+        this.source = Optional.of(Source.newBuilder(LANGUAGE_ID, sourceCode, SOURCE_NAME).cached(true).buildLiteral());
+        this.parsedSource = Optional.empty();
+
+        if (this.engine.isPresent()) {
+            parse();
+        }
+    }
+
+    /**
+     * Evaluates the provided script, the parsed script is reused if the source code is the same as the one of the
+     * previous call.
+     *
+     * @param sourceCode
+     *            the script source code
+     */
     public void evaluate(String sourceCode) {
+        if (!this.sourceCode.isPresent() || !this.sourceCode.get().equals(sourceCode)) {
+            setSource(sourceCode);
+        }
+        evaluate();
+    }
+
+    /**
+     * Evaluates the script provided with {@link #setSource(String)}.
+     */
+    public void evaluate() {
         this.currentResult = Optional.empty();
         try {
-            if (this.engine.isPresent()) {
-                Source source = Source.newBuilder(LANGUAGE_ID, sourceCode, null).build();
-                this.currentResult = Optional.of(this.engine.get().eval(source));
-            } else {
+            if (!this.engine.isPresent()) {
                 logger.warn("Engine is not loaded!");
+            } else if (!this.source.isPresent()) {
+                logger.warn("No source specified!");
+            } else if (parse()) {
+                this.currentResult = Optional.of(this.parsedSource.get().execute());
             }
         } catch (PolyglotException pe) {
             logPolyglotException(pe);
@@ -95,23 +165,64 @@ public abstract class EngineProvider {
     }
 
     public Optional<TypedValue<Boolean>> getResultAsBoolean() {
-        if (currentResult.isPresent() && this.currentResult.get().isBoolean()) {
+        if (this.currentResult.isPresent() && this.currentResult.get().isBoolean()) {
             return Optional.of(TypedValues.newBooleanValue(this.currentResult.get().asBoolean()));
         }
         return Optional.empty();
 
     }
 
+    private boolean parse() {
+        if (this.parsedSource.isPresent()) {
+            return true;
+        }
+
+        try {
+            this.parsedSource = Optional.of(this.engine.get().parse(this.source.get()));
+            return true;
+        } catch (PolyglotException pe) {
+            logPolyglotException(pe);
+        } catch (Exception e) {
+            logger.warn("Failed to parse script.", e);
+        }
+        return false;
+    }
+
     private List<WireRecord> valueToWireRecordList(Value value) {
-        List<WireRecord> records = new LinkedList<>();
+        final int size = (int) value.getArraySize();
+        List<WireRecord> records = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            final Value element = value.getArrayElement(i);
 
-        for (int i = 0; i < value.getArraySize(); i++) {
-            records.add(value.getArrayElement(i).as(WireRecord.class));
+            if (element.isHostObject()) {
+                records.add(element.asHostObject());
+            } else {
+                records.add(element.as(WireRecord.class));
+            }
         }
 
         return records;
     }
 
+    private static synchronized Engine acquireSharedEngine() {
+        if (sharedEngine == null) {
+            sharedEngine = Engine.newBuilder().option("engine.WarnInterpreterOnly", "false").build();
+        }
+        sharedEngineUsers++;
+        return sharedEngine;
+    }
+
+    private static synchronized void releaseSharedEngine() {
+        sharedEngineUsers--;
+
+        if (sharedEngineUsers <= 0 && sharedEngine != null) {
+            sharedEngineUsers = 0;
+            sharedEngine.close();
+            sharedEngine = null;
+        }
+    }
+
     private void createDefaultBindings() {
         this.bindings = this.engine.get().getBindings(LANGUAGE_ID);
 
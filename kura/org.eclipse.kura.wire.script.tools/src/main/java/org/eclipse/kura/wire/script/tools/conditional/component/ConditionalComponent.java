@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others 
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others 
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -87,6 +87,7 @@ public final class ConditionalComponent extends EngineProvider
         initEngine();
 
         this.booleanExpression = this.conditionalOptions.getBooleanExpression();
+        this.booleanExpression.ifPresent(this::setSource);
 
         logger.info("Updating Conditional Component... Done");
     }
@@ -115,7 +116,7 @@ public final class ConditionalComponent extends EngineProvider
 
         addBinding("input", wireEnvelope);
 
-        evaluate(this.booleanExpression.get());
+        evaluate();
 
         Optional<TypedValue<Boolean>> result = getResultAsBoolean();
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -74,12 +74,13 @@ public class FilterComponent extends EngineProvider implements WireEmitter, Wire
 
         FilterComponentOptions options = new FilterComponentOptions(properties);
 
-        this.sourceScript = options.getScriptSource();
-
         if (options.isScriptContextDrop() || !isEngineInit()) {
             initEngine();
         }
 
+        this.sourceScript = options.getScriptSource();
+        this.sourceScript.ifPresent(this::setSource);
+
         logger.info("Updating Filter Component... Done");
     }
 
@@ -91,7 +92,7 @@ public class FilterComponent extends EngineProvider implements WireEmitter, Wire
         }
 
         addBinding("input", wireEnvelope);
-        evaluate(this.sourceScript.get());
+        evaluate();
         Optional<List<WireRecord>> recordsToEmit = getBindingAsWireRecordList("output");
 
         if (recordsToEmit.isPresent()) {
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a bit stream written by {@link BitOutput} from a region of a {@link ByteBuffer}.
+ */
+final class BitInput {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final long bitLimit;
+    private long position;
+
+    BitInput(final ByteBuffer buffer, final int offset, final int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.bitLimit = (long) length << 3;
+    }
+
+    boolean readBit() {
+        checkAvailable(1);
+
+        final int b = this.buffer.get(this.offset + (int) (this.position >>> 3));
+        final boolean result = (b & (0x80 >>> (this.position & 7))) != 0;
+        this.position++;
+        return result;
+    }
+
+    long readBits(final int count) {
+        checkAvailable(count);
+
+        long result = 0;
+
+        for (int i = 0; i < count; i++) {
+            final int b = this.buffer.get(this.offset + (int) (this.position >>> 3));
+            result = (result << 1) | ((b >>> (7 - (this.position & 7))) & 1);
+            this.position++;
+        }
+
+        return result;
+    }
+
+    int readVarInt() {
+        int result = 0;
+        int shift = 0;
+
+        while (true) {
+            final int b = (int) readBits(8);
+            result |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+
+            shift += 7;
+
+            if (shift > 28) {
+                throw new IllegalStateException("Malformed variable length integer");
+            }
+        }
+    }
+
+    byte[] readBytes() {
+        final int length = readVarInt();
+
+        if (length < 0 || (long) length << 3 > this.bitLimit - this.position) {
+            throw new IllegalStateException("Malformed byte array length: " + length);
+        }
+
+        final byte[] result = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) readBits(8);
+        }
+
+        return result;
+    }
+
+    private void checkAvailable(final int bits) {
+        if (this.position + bits > this.bitLimit) {
+            throw new IllegalStateException("Unexpected end of bit stream");
+        }
+    }
+}
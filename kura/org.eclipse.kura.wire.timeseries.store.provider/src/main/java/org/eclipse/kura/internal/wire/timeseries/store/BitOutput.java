@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.util.Arrays;
+
+/**
+ * A growable bit stream, bits are written most significant first.
+ */
+final class BitOutput {
+
+    private byte[] buffer;
+    private long bitLength;
+
+    BitOutput(final int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void writeBit(final boolean bit) {
+        ensureCapacity(1);
+
+        if (bit) {
+            this.buffer[(int) (this.bitLength >>> 3)] |= (byte) (0x80 >>> (this.bitLength & 7));
+        }
+        this.bitLength++;
+    }
+
+    /**
+     * Writes the {@code count} least significant bits of {@code value}.
+     */
+    void writeBits(final long value, final int count) {
+        ensureCapacity(count);
+
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                this.buffer[(int) (this.bitLength >>> 3)] |= (byte) (0x80 >>> (this.bitLength & 7));
+            }
+            this.bitLength++;
+        }
+    }
+
+    void writeVarInt(final int value) {
+        int remaining = value;
+
+        while ((remaining & ~0x7F) != 0) {
+            writeBits((remaining & 0x7F) | 0x80, 8);
+            remaining >>>= 7;
+        }
+        writeBits(remaining, 8);
+    }
+
+    void writeBytes(final byte[] bytes) {
+        writeVarInt(bytes.length);
+
+        for (final byte b : bytes) {
+            writeBits(b & 0xFF, 8);
+        }
+    }
+
+    int byteLength() {
+        return (int) ((this.bitLength + 7) >>> 3);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, byteLength());
+    }
+
+    private void ensureCapacity(final int bits) {
+        final long required = (this.bitLength + bits + 7) >>> 3;
+
+        if (required > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, (int) Math.max(required, this.buffer.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,426 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+
+/**
+ * Encodes a list of {@link Row}s in a self contained columnar block. The block layout is the following:
+ *
+ * <pre>
+ * int    magic
+ * int    block length, including the header and the checksum
+ * int    row count
+ * long   min timestamp
+ * long   max timestamp
+ * int    timestamps length
+ * bytes  timestamps, delta-of-delta encoded
+ * int    column count
+ * column:
+ *   short  name length
+ *   bytes  name, UTF-8
+ *   byte   value type code
+ *   int    presence bitmap length, zero if the column has a value in every row
+ *   bytes  presence bitmap
+ *   int    values length
+ *   bytes  values, encoded according to the value type
+ * int    CRC32 of all the preceding bytes
+ * </pre>
+ *
+ * The fixed size header allows to skip a block without decoding it, a column that is not needed by a query can be
+ * skipped without decoding its values.
+ */
+final class BlockCodec {
+
+    static final int MAGIC = 0x54534231;
+    static final int HEADER_SIZE = 28;
+
+    private static final int CHECKSUM_SIZE = 4;
+
+    private BlockCodec() {
+    }
+
+    static final class Header {
+
+        private final long offset;
+        private final int length;
+        private final int rowCount;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+
+        Header(final long offset, final int length, final int rowCount, final long minTimestamp,
+                final long maxTimestamp) {
+            this.offset = offset;
+            this.length = length;
+            this.rowCount = rowCount;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+
+        long getOffset() {
+            return this.offset;
+        }
+
+        int getLength() {
+            return this.length;
+        }
+
+        int getRowCount() {
+            return this.rowCount;
+        }
+
+        long getMinTimestamp() {
+            return this.minTimestamp;
+        }
+
+        long getMaxTimestamp() {
+            return this.maxTimestamp;
+        }
+
+        boolean overlaps(final long fromTimestamp, final long toTimestamp) {
+            return this.maxTimestamp >= fromTimestamp && this.minTimestamp <= toTimestamp;
+        }
+    }
+
+    static byte[] encode(final List<Row> rows) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Cannot encode an empty block");
+        }
+
+        final int rowCount = rows.size();
+        final BitOutput timestamps = new BitOutput(rowCount);
+        final DeltaOfDeltaCodec.Encoder timestampEncoder = new DeltaOfDeltaCodec.Encoder(timestamps);
+        final Map<ColumnKey, ColumnWriter> columns = new LinkedHashMap<>();
+
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+
+        for (int i = 0; i < rowCount; i++) {
+            final Row row = rows.get(i);
+            final long timestamp = row.getTimestamp();
+
+            timestampEncoder.write(timestamp);
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+
+            for (final Entry<String, TypedValue<?>> entry : row.getValues().entrySet()) {
+                final ValueType type = ValueType.fromDataType(entry.getValue().getType())
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported value: " + entry.getValue()));
+
+                columns.computeIfAbsent(new ColumnKey(entry.getKey(), type), k -> new ColumnWriter(type, rowCount))
+                        .write(i, entry.getValue());
+            }
+        }
+
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + timestamps.byteLength() + rowCount * 4);
+            final DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(MAGIC);
+            out.writeInt(0);
+            out.writeInt(rowCount);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+
+            writeByteArray(out, timestamps.toByteArray());
+
+            out.writeInt(columns.size());
+
+            for (final Entry<ColumnKey, ColumnWriter> entry : columns.entrySet()) {
+                final byte[] name = entry.getKey().name.getBytes(StandardCharsets.UTF_8);
+                final ColumnWriter column = entry.getValue();
+
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeByte(column.type.getCode());
+
+                if (column.presentCount == rowCount) {
+                    out.writeInt(0);
+                } else {
+                    writeByteArray(out, column.presence.toByteArray());
+                }
+
+                writeByteArray(out, column.values.toByteArray());
+            }
+
+            out.flush();
+
+            final byte[] result = new byte[bytes.size() + CHECKSUM_SIZE];
+            final ByteBuffer buffer = ByteBuffer.wrap(result);
+
+            buffer.put(bytes.toByteArray());
+            buffer.putInt(4, result.length);
+
+            final CRC32 crc = new CRC32();
+            crc.update(result, 0, result.length - CHECKSUM_SIZE);
+            buffer.putInt(result.length - CHECKSUM_SIZE, (int) crc.getValue());
+
+            return result;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the header of the block starting at the given position of the buffer.
+     *
+     * @return the block header, or {@code null} if the buffer does not contain a valid block at the given position
+     */
+    static Header readHeader(final ByteBuffer buffer, final int position, final long fileOffset,
+            final boolean verifyChecksum) {
+        if (buffer.limit() - position < HEADER_SIZE + CHECKSUM_SIZE || buffer.getInt(position) != MAGIC) {
+            return null;
+        }
+
+        final int length = buffer.getInt(position + 4);
+
+        if (length < HEADER_SIZE + CHECKSUM_SIZE || length > buffer.limit() - position) {
+            return null;
+        }
+
+        if (verifyChecksum) {
+            final ByteBuffer content = buffer.duplicate();
+            content.position(position);
+            content.limit(position + length - CHECKSUM_SIZE);
+
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+
+            if ((int) crc.getValue() != buffer.getInt(position + length - CHECKSUM_SIZE)) {
+                return null;
+            }
+        }
+
+        return new Header(fileOffset, length, buffer.getInt(position + 8), buffer.getLong(position + 12),
+                buffer.getLong(position + 20));
+    }
+
+    /**
+     * Decodes the block starting at the given position of the buffer.
+     *
+     * @param columnFilter
+     *            selects the columns to be decoded, the other columns are skipped
+     * @return the rows of the block, each row contains only the selected columns
+     */
+    static List<Row> decode(final ByteBuffer buffer, final int position, final Predicate<String> columnFilter) {
+        final int rowCount = buffer.getInt(position + 8);
+
+        int offset = position + HEADER_SIZE;
+
+        final int timestampsLength = buffer.getInt(offset);
+        offset += 4;
+
+        final DeltaOfDeltaCodec.Decoder timestampDecoder = new DeltaOfDeltaCodec.Decoder(
+                new BitInput(buffer, offset, timestampsLength));
+        offset += timestampsLength;
+
+        final List<Map<String, TypedValue<?>>> values = new ArrayList<>(rowCount);
+        final long[] timestamps = new long[rowCount];
+
+        for (int i = 0; i < rowCount; i++) {
+            timestamps[i] = timestampDecoder.read();
+            values.add(new HashMap<>());
+        }
+
+        final int columnCount = buffer.getInt(offset);
+        offset += 4;
+
+        for (int c = 0; c < columnCount; c++) {
+            final int nameLength = buffer.getShort(offset) & 0xFFFF;
+            offset += 2;
+
+            final byte[] nameBytes = new byte[nameLength];
+            for (int i = 0; i < nameLength; i++) {
+                nameBytes[i] = buffer.get(offset + i);
+            }
+            offset += nameLength;
+
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+            final ValueType type = ValueType.fromCode(buffer.get(offset));
+            offset += 1;
+
+            final int presenceLength = buffer.getInt(offset);
+            offset += 4;
+            final int presenceOffset = offset;
+            offset += presenceLength;
+
+            final int valuesLength = buffer.getInt(offset);
+            offset += 4;
+            final int valuesOffset = offset;
+            offset += valuesLength;
+
+            if (!columnFilter.test(name)) {
+                continue;
+            }
+
+            final BitSet presence = presenceLength == 0 ? null
+                    : BitSet.valueOf(slice(buffer, presenceOffset, presenceLength));
+            final ColumnReader reader = new ColumnReader(type, new BitInput(buffer, valuesOffset, valuesLength));
+
+            for (int i = 0; i < rowCount; i++) {
+                if (presence == null || presence.get(i)) {
+                    values.get(i).put(name, reader.read());
+                }
+            }
+        }
+
+        final List<Row> result = new ArrayList<>(rowCount);
+
+        for (int i = 0; i < rowCount; i++) {
+            result.add(new Row(timestamps[i], values.get(i)));
+        }
+
+        return result;
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer result = buffer.duplicate();
+        result.position(offset);
+        result.limit(offset + length);
+        return result.slice();
+    }
+
+    private static void writeByteArray(final DataOutputStream out, final byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static final class ColumnKey {
+
+        private final String name;
+        private final ValueType type;
+
+        ColumnKey(final String name, final ValueType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.name, this.type);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ColumnKey)) {
+                return false;
+            }
+            final ColumnKey other = (ColumnKey) obj;
+            return this.name.equals(other.name) && this.type == other.type;
+        }
+    }
+
+    private static final class ColumnWriter {
+
+        private final ValueType type;
+        private final BitSet presence;
+        private final BitOutput values;
+        private final DeltaOfDeltaCodec.Encoder integralEncoder;
+        private final XorFloatCodec.Encoder floatEncoder;
+        private int presentCount;
+
+        ColumnWriter(final ValueType type, final int rowCount) {
+            this.type = type;
+            this.presence = new BitSet(rowCount);
+            this.values = new BitOutput(rowCount);
+            this.integralEncoder = new DeltaOfDeltaCodec.Encoder(this.values);
+            this.floatEncoder = new XorFloatCodec.Encoder(this.values);
+        }
+
+        void write(final int row, final TypedValue<?> value) {
+            this.presence.set(row);
+            this.presentCount++;
+
+            final Object v = value.getValue();
+
+            switch (this.type) {
+            case BOOLEAN:
+                this.values.writeBit((Boolean) v);
+                break;
+            case BYTE_ARRAY:
+                this.values.writeBytes((byte[]) v);
+                break;
+            case DOUBLE:
+                this.floatEncoder.write((Double) v);
+                break;
+            case FLOAT:
+                this.floatEncoder.write((Float) v);
+                break;
+            case INTEGER:
+                this.integralEncoder.write((Integer) v);
+                break;
+            case LONG:
+                this.integralEncoder.write((Long) v);
+                break;
+            default:
+                this.values.writeBytes(((String) v).getBytes(StandardCharsets.UTF_8));
+                break;
+            }
+        }
+    }
+
+    private static final class ColumnReader {
+
+        private final ValueType type;
+        private final BitInput input;
+        private final DeltaOfDeltaCodec.Decoder integralDecoder;
+        private final XorFloatCodec.Decoder floatDecoder;
+
+        ColumnReader(final ValueType type, final BitInput input) {
+            this.type = type;
+            this.input = input;
+            this.integralDecoder = new DeltaOfDeltaCodec.Decoder(input);
+            this.floatDecoder = new XorFloatCodec.Decoder(input);
+        }
+
+        TypedValue<?> read() {
+            switch (this.type) {
+            case BOOLEAN:
+                return TypedValues.newBooleanValue(this.input.readBit());
+            case BYTE_ARRAY:
+                return TypedValues.newByteArrayValue(this.input.readBytes());
+            case DOUBLE:
+                return TypedValues.newDoubleValue(this.floatDecoder.read());
+            case FLOAT:
+                return TypedValues.newFloatValue((float) this.floatDecoder.read());
+            case INTEGER:
+                return TypedValues.newIntegerValue((int) this.integralDecoder.read());
+            case LONG:
+                return TypedValues.newLongValue(this.integralDecoder.read());
+            default:
+                return TypedValues.newStringValue(new String(this.input.readBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
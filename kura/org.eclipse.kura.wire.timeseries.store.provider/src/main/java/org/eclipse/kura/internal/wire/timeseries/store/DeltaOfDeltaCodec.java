@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+/**
+ * Delta-of-delta encoding for sequences of integral values, as described in the Gorilla paper. The first value is
+ * stored verbatim, each following value is stored as the difference between its delta and the previous delta using a
+ * variable length code:
+ *
+ * <pre>
+ * 0                  delta of delta is zero
+ * 10    + 7 bits     delta of delta in [-64, 63]
+ * 110   + 9 bits     delta of delta in [-256, 255]
+ * 1110  + 12 bits    delta of delta in [-2048, 2047]
+ * 11110 + 32 bits    delta of delta fits in an int
+ * 11111 + 64 bits    any other value
+ * </pre>
+ *
+ * Regularly sampled timestamps and slowly changing counters are usually stored in one or two bits per value.
+ */
+final class DeltaOfDeltaCodec {
+
+    private static final int[] BUCKET_BITS = { 7, 9, 12, 32 };
+
+    private DeltaOfDeltaCodec() {
+    }
+
+    static final class Encoder {
+
+        private final BitOutput output;
+        private boolean first = true;
+        private long previousValue;
+        private long previousDelta;
+
+        Encoder(final BitOutput output) {
+            this.output = output;
+        }
+
+        void write(final long value) {
+            if (this.first) {
+                this.output.writeBits(value, 64);
+                this.first = false;
+                this.previousValue = value;
+                return;
+            }
+
+            final long delta = value - this.previousValue;
+            final long deltaOfDelta = delta - this.previousDelta;
+
+            this.previousValue = value;
+            this.previousDelta = delta;
+
+            if (deltaOfDelta == 0) {
+                this.output.writeBit(false);
+                return;
+            }
+
+            for (int i = 0; i < BUCKET_BITS.length; i++) {
+                final int bits = BUCKET_BITS[i];
+
+                if (fits(deltaOfDelta, bits)) {
+                    writePrefix(i + 1);
+                    this.output.writeBits(deltaOfDelta, bits);
+                    return;
+                }
+            }
+
+            writePrefix(BUCKET_BITS.length + 1);
+            this.output.writeBits(deltaOfDelta, 64);
+        }
+
+        private void writePrefix(final int ones) {
+            for (int i = 0; i < ones; i++) {
+                this.output.writeBit(true);
+            }
+            if (ones <= BUCKET_BITS.length) {
+                this.output.writeBit(false);
+            }
+        }
+
+        private static boolean fits(final long value, final int bits) {
+            final long limit = 1L << (bits - 1);
+            return value >= -limit && value < limit;
+        }
+    }
+
+    static final class Decoder {
+
+        private final BitInput input;
+        private boolean first = true;
+        private long previousValue;
+        private long previousDelta;
+
+        Decoder(final BitInput input) {
+            this.input = input;
+        }
+
+        long read() {
+            if (this.first) {
+                this.first = false;
+                this.previousValue = this.input.readBits(64);
+                return this.previousValue;
+            }
+
+            int ones = 0;
+
+            while (ones <= BUCKET_BITS.length && this.input.readBit()) {
+                ones++;
+            }
+
+            final long deltaOfDelta;
+
+            if (ones == 0) {
+                deltaOfDelta = 0;
+            } else if (ones <= BUCKET_BITS.length) {
+                final int bits = BUCKET_BITS[ones - 1];
+                deltaOfDelta = signExtend(this.input.readBits(bits), bits);
+            } else {
+                deltaOfDelta = this.input.readBits(64);
+            }
+
+            this.previousDelta += deltaOfDelta;
+            this.previousValue += this.previousDelta;
+
+            return this.previousValue;
+        }
+
+        private static long signExtend(final long value, final int bits) {
+            final int shift = 64 - bits;
+            return (value << shift) >> shift;
+        }
+    }
+}
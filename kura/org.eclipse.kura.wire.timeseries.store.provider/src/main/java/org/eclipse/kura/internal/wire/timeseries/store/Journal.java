@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+
+import org.eclipse.kura.type.TypedValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the rows that have not been sealed in a block yet, so that they can be recovered after a restart.
+ * The journal header contains the sequence number and the size of the last segment at the time the journal has been
+ * started, this allows to detect rows that have already been sealed if the process has been terminated after
+ * appending a block but before resetting the journal.
+ */
+final class Journal {
+
+    private static final Logger logger = LoggerFactory.getLogger(Journal.class);
+
+    private static final int MAGIC = 0x54534A31;
+    private static final int HEADER_SIZE = 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean sync;
+
+    private long baseSequence = -1;
+    private long baseSize = -1;
+    private long size;
+
+    private Journal(final Path path, final FileChannel channel, final boolean sync) {
+        this.path = path;
+        this.channel = channel;
+        this.sync = sync;
+    }
+
+    static Journal open(final Path path, final boolean sync) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        final Journal result = new Journal(path, channel, sync);
+
+        result.size = channel.size();
+
+        if (result.size >= HEADER_SIZE) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+
+            if (header.getInt(0) == MAGIC) {
+                result.baseSequence = header.getLong(4);
+                result.baseSize = header.getLong(12);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if the journal rows have been started after the given segment state, i.e. if they are not
+     * contained in any segment yet.
+     */
+    boolean isAfter(final long lastSegmentSequence, final long lastSegmentSize) {
+        return this.baseSequence == lastSegmentSequence && this.baseSize == lastSegmentSize;
+    }
+
+    /**
+     * Reads the journal rows, the journal is truncated after the last valid row.
+     */
+    List<Row> readRows() throws IOException {
+        final List<Row> result = new ArrayList<>();
+
+        if (this.baseSequence < 0) {
+            return result;
+        }
+
+        final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        long position = HEADER_SIZE;
+
+        while (position + 8 <= this.size) {
+            lengthBuffer.clear();
+            readFully(this.channel, lengthBuffer, position);
+
+            final int length = lengthBuffer.getInt(0);
+
+            if (length <= 0 || position + 8 + length > this.size) {
+                break;
+            }
+
+            final ByteBuffer record = ByteBuffer.allocate(length + 4);
+            readFully(this.channel, record, position + 4);
+
+            final CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, length);
+
+            if ((int) crc.getValue() != record.getInt(length)) {
+                break;
+            }
+
+            result.add(decodeRow(record.array(), length));
+            position += 8 + length;
+        }
+
+        if (position < this.size) {
+            logger.warn("Discarding {} bytes after the last valid row of journal {}", this.size - position,
+                    this.path);
+            this.channel.truncate(position);
+            this.size = position;
+        }
+
+        return result;
+    }
+
+    /**
+     * Discards the current content of the journal and starts a new one.
+     */
+    void reset(final long lastSegmentSequence, final long lastSegmentSize, final List<Row> rows) throws IOException {
+        this.channel.truncate(0);
+        this.size = 0;
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putLong(lastSegmentSequence);
+        header.putLong(lastSegmentSize);
+        header.flip();
+
+        write(header);
+
+        this.baseSequence = lastSegmentSequence;
+        this.baseSize = lastSegmentSize;
+
+        append(rows);
+    }
+
+    void append(final List<Row> rows) throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        for (final Row row : rows) {
+            final byte[] record = encodeRow(row);
+
+            final CRC32 crc = new CRC32();
+            crc.update(record);
+
+            out.writeInt(record.length);
+            out.write(record);
+            out.writeInt((int) crc.getValue());
+        }
+
+        out.flush();
+        write(ByteBuffer.wrap(bytes.toByteArray()));
+
+        if (this.sync) {
+            this.channel.force(false);
+        }
+    }
+
+    void close() {
+        try {
+            this.channel.close();
+        } catch (final IOException e) {
+            logger.warn("Failed to close journal {}", this.path, e);
+        }
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.size += this.channel.write(buffer, this.size);
+        }
+    }
+
+    private static byte[] encodeRow(final Row row) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeLong(row.getTimestamp());
+        out.writeInt(row.getValues().size());
+
+        for (final Entry<String, TypedValue<?>> entry : row.getValues().entrySet()) {
+            final ValueType type = ValueType.fromDataType(entry.getValue().getType())
+                    .orElseThrow(() -> new IOException("Unsupported value: " + entry.getValue()));
+            final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeByte(type.getCode());
+            type.writeValue(out, entry.getValue());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Row decodeRow(final byte[] record, final int length) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+
+        final long timestamp = in.readLong();
+        final int count = in.readInt();
+        final Map<String, TypedValue<?>> values = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            final byte[] name = new byte[in.readInt()];
+            in.readFully(name);
+
+            final ValueType type = ValueType.fromCode(in.readByte());
+            values.put(new String(name, StandardCharsets.UTF_8), type.readValue(in));
+        }
+
+        return new Row(timestamp, values);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long current = position;
+
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, current);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            current += read;
+        }
+    }
+}
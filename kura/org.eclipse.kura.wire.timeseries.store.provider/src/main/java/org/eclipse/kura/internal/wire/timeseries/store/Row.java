@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.util.Map;
+
+import org.eclipse.kura.type.TypedValue;
+
+/**
+ * A stored record, consisting in the insertion timestamp and in the record properties.
+ */
+final class Row {
+
+    private final long timestamp;
+    private final Map<String, TypedValue<?>> values;
+
+    Row(final long timestamp, final Map<String, TypedValue<?>> values) {
+        this.timestamp = timestamp;
+        this.values = values;
+    }
+
+    long getTimestamp() {
+        return this.timestamp;
+    }
+
+    Map<String, TypedValue<?>> getValues() {
+        return this.values;
+    }
+}
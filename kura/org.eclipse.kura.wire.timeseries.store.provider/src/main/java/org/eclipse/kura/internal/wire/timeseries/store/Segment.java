@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.kura.internal.wire.timeseries.store.BlockCodec.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append only file containing a sequence of blocks encoded by {@link BlockCodec}. Blocks are appended using
+ * regular writes and are mostly read through a read only memory mapping of the file.
+ */
+final class Segment {
+
+    private static final Logger logger = LoggerFactory.getLogger(Segment.class);
+
+    static final String FILE_EXTENSION = ".seg";
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final List<Header> blocks = new ArrayList<>();
+
+    private long size;
+    private ByteBuffer mapped;
+
+    private Segment(final long sequence, final Path path, final FileChannel channel) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static Path getPath(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, FILE_EXTENSION));
+    }
+
+    static Segment create(final Path directory, final long sequence) throws IOException {
+        final Path path = getPath(directory, sequence);
+
+        return new Segment(sequence, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Opens an existing segment and builds the block index.
+     *
+     * @param recover
+     *            if {@code true}, the checksum of each block is verified and the file is truncated after the last
+     *            valid block. This should be done for the last segment of a store, that could contain a partially
+     *            written block if the process has been terminated while appending to it.
+     */
+    static Segment open(final Path path, final long sequence, final boolean recover) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final Segment result = new Segment(sequence, path, channel);
+
+        try {
+            result.scan(recover);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        return result;
+    }
+
+    long getSequence() {
+        return this.sequence;
+    }
+
+    long getSize() {
+        return this.size;
+    }
+
+    List<Header> getBlocks() {
+        return Collections.unmodifiableList(this.blocks);
+    }
+
+    Header append(final byte[] block, final boolean sync) throws IOException {
+        final ByteBuffer source = ByteBuffer.wrap(block);
+        long position = this.size;
+
+        while (source.hasRemaining()) {
+            position += this.channel.write(source, position);
+        }
+
+        if (sync) {
+            this.channel.force(false);
+        }
+
+        final Header header = BlockCodec.readHeader(ByteBuffer.wrap(block), 0, this.size, false);
+
+        this.size = position;
+        this.blocks.add(header);
+
+        return header;
+    }
+
+    /**
+     * Returns a buffer containing the given block, starting at position 0.
+     * <br>
+     * A mapping cannot grow together with the file, so the segment is mapped again only when the block is not
+     * covered by the current mapping and the segment has at least doubled in size since it has been mapped. The blocks
+     * appended in the meantime are read from the file.
+     */
+    ByteBuffer getBlock(final Header header) throws IOException {
+        final long end = header.getOffset() + header.getLength();
+
+        if (this.mapped == null || end > this.mapped.capacity() && this.size >= 2L * this.mapped.capacity()) {
+            map();
+        }
+
+        if (end <= this.mapped.capacity()) {
+            final ByteBuffer result = this.mapped.duplicate();
+            result.position((int) header.getOffset());
+            result.limit((int) end);
+            return result.slice();
+        }
+
+        final ByteBuffer result = ByteBuffer.allocate(header.getLength());
+        long position = header.getOffset();
+
+        while (result.hasRemaining()) {
+            final int read = this.channel.read(result, position);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment " + this.path);
+            }
+            position += read;
+        }
+
+        result.flip();
+        return result;
+    }
+
+    void close() {
+        this.mapped = null;
+
+        try {
+            this.channel.close();
+        } catch (final IOException e) {
+            logger.warn("Failed to close segment {}", this.path, e);
+        }
+    }
+
+    void delete() {
+        close();
+
+        try {
+            Files.deleteIfExists(this.path);
+        } catch (final IOException e) {
+            logger.warn("Failed to delete segment {}", this.path, e);
+        }
+    }
+
+    private void scan(final boolean recover) throws IOException {
+        final long fileSize = this.channel.size();
+
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Segment too large: " + this.path);
+        }
+
+        this.size = fileSize;
+
+        final ByteBuffer buffer = map();
+        int position = 0;
+
+        while (position < fileSize) {
+            final Header header = BlockCodec.readHeader(buffer, position, position, recover);
+
+            if (header == null) {
+                break;
+            }
+
+            this.blocks.add(header);
+            position += header.getLength();
+        }
+
+        if (position < fileSize) {
+            if (!recover) {
+                logger.warn("Corrupted block found in segment {} at offset {}, ignoring the rest of the segment",
+                        this.path, position);
+                return;
+            }
+
+            logger.warn("Discarding {} bytes after the last valid block of segment {}", fileSize - position,
+                    this.path);
+            this.mapped = null;
+            this.channel.truncate(position);
+            this.size = position;
+        }
+    }
+
+    private ByteBuffer map() throws IOException {
+        this.mapped = this.channel.map(MapMode.READ_ONLY, 0, this.size);
+
+        return this.mapped.duplicate();
+    }
+}
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * A query on a time series store. Queries are expressed using the following subset of SQL, keywords are case
+ * insensitive and identifiers can be quoted using double quotes:
+ *
+ * <pre>
+ * SELECT ( * | column [, column]* ) FROM store
+ *     [WHERE TIMESTAMP op time [AND TIMESTAMP op time]*]
+ *     [ORDER BY TIMESTAMP [ASC | DESC]]
+ *     [LIMIT count] [;]
+ *
+ * op   := &gt; | &gt;= | &lt; | &lt;= | =
+ * time := epoch milliseconds | NOW() | NOW() - milliseconds
+ * </pre>
+ *
+ * The {@code TIMESTAMP} column contains the time at which each record has been inserted in the store.
+ */
+final class TimeSeriesQuery {
+
+    static final String TIMESTAMP_COLUMN = "TIMESTAMP";
+
+    private final String storeName;
+    private final Optional<Set<String>> columns;
+    private final long fromTimestamp;
+    private final long toTimestamp;
+    private final boolean descending;
+    private final int limit;
+
+    private TimeSeriesQuery(final String storeName, final Optional<Set<String>> columns, final long fromTimestamp,
+            final long toTimestamp, final boolean descending, final int limit) {
+        this.storeName = storeName;
+        this.columns = columns;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    String getStoreName() {
+        return this.storeName;
+    }
+
+    /**
+     * Returns the selected columns, or an empty optional if all columns are selected.
+     */
+    Optional<Set<String>> getColumns() {
+        return this.columns;
+    }
+
+    boolean isColumnSelected(final String column) {
+        return !this.columns.isPresent() || this.columns.get().contains(column);
+    }
+
+    long getFromTimestamp() {
+        return this.fromTimestamp;
+    }
+
+    long getToTimestamp() {
+        return this.toTimestamp;
+    }
+
+    boolean isDescending() {
+        return this.descending;
+    }
+
+    int getLimit() {
+        return this.limit;
+    }
+
+    static TimeSeriesQuery parse(final String query, final LongSupplier clock) {
+        return new Parser(tokenize(query), clock).parse();
+    }
+
+    private static List<String> tokenize(final String query) {
+        final List<String> result = new ArrayList<>();
+        int i = 0;
+
+        while (i < query.length()) {
+            final char c = query.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                final StringBuilder builder = new StringBuilder("\"");
+                i++;
+                while (true) {
+                    if (i >= query.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted identifier");
+                    }
+                    final char q = query.charAt(i++);
+                    if (q == '"') {
+                        if (i < query.length() && query.charAt(i) == '"') {
+                            builder.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        builder.append(q);
+                    }
+                }
+                result.add(builder.toString());
+            } else if (c == '>' || c == '<') {
+                if (i + 1 < query.length() && query.charAt(i + 1) == '=') {
+                    result.add(query.substring(i, i + 2));
+                    i += 2;
+                } else {
+                    result.add(String.valueOf(c));
+                    i++;
+                }
+            } else if ("*,;()-=".indexOf(c) >= 0) {
+                result.add(String.valueOf(c));
+                i++;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                final int start = i;
+                while (i < query.length() && (Character.isLetterOrDigit(query.charAt(i))
+                        || query.charAt(i) == '_' || query.charAt(i) == '.')) {
+                    i++;
+                }
+                result.add(query.substring(start, i));
+            } else {
+                throw new IllegalArgumentException("Unexpected character: " + c);
+            }
+        }
+
+        return result;
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private final LongSupplier clock;
+        private int position;
+
+        Parser(final List<String> tokens, final LongSupplier clock) {
+            this.tokens = tokens;
+            this.clock = clock;
+        }
+
+        TimeSeriesQuery parse() {
+            expectKeyword("SELECT");
+
+            final Optional<Set<String>> columns;
+
+            if (accept("*")) {
+                columns = Optional.empty();
+            } else {
+                final Set<String> names = new LinkedHashSet<>();
+                do {
+                    names.add(identifier());
+                } while (accept(","));
+                columns = Optional.of(Collections.unmodifiableSet(names));
+            }
+
+            expectKeyword("FROM");
+            final String storeName = identifier();
+
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+            boolean descending = false;
+            int limit = Integer.MAX_VALUE;
+
+            if (acceptKeyword("WHERE")) {
+                do {
+                    if (!TIMESTAMP_COLUMN.equalsIgnoreCase(identifier())) {
+                        throw new IllegalArgumentException("Only conditions on the TIMESTAMP column are supported");
+                    }
+
+                    final String op = next();
+                    final long time = time();
+
+                    switch (op) {
+                    case ">":
+                        from = Math.max(from, time == Long.MAX_VALUE ? time : time + 1);
+                        break;
+                    case ">=":
+                        from = Math.max(from, time);
+                        break;
+                    case "<":
+                        to = Math.min(to, time == Long.MIN_VALUE ? time : time - 1);
+                        break;
+                    case "<=":
+                        to = Math.min(to, time);
+                        break;
+                    case "=":
+                        from = Math.max(from, time);
+                        to = Math.min(to, time);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported operator: " + op);
+                    }
+                } while (acceptKeyword("AND"));
+            }
+
+            if (acceptKeyword("ORDER")) {
+                expectKeyword("BY");
+
+                if (!TIMESTAMP_COLUMN.equalsIgnoreCase(identifier())) {
+                    throw new IllegalArgumentException("Only ordering by TIMESTAMP is supported");
+                }
+
+                if (acceptKeyword("DESC")) {
+                    descending = true;
+                } else {
+                    acceptKeyword("ASC");
+                }
+            }
+
+            if (acceptKeyword("LIMIT")) {
+                limit = Integer.parseInt(next());
+
+                if (limit < 0) {
+                    throw new IllegalArgumentException("LIMIT must not be negative");
+                }
+            }
+
+            accept(";");
+
+            if (this.position < this.tokens.size()) {
+                throw new IllegalArgumentException("Unexpected token: " + this.tokens.get(this.position));
+            }
+
+            return new TimeSeriesQuery(storeName, columns, from, to, descending, limit);
+        }
+
+        private long time() {
+            if (acceptKeyword("NOW")) {
+                expect("(");
+                expect(")");
+
+                final long now = this.clock.getAsLong();
+
+                if (accept("-")) {
+                    return now - Long.parseLong(next());
+                }
+
+                return now;
+            }
+
+            if (accept("-")) {
+                return -Long.parseLong(next());
+            }
+
+            return Long.parseLong(next());
+        }
+
+        private String identifier() {
+            final String token = next();
+
+            if (token.startsWith("\"")) {
+                return token.substring(1);
+            }
+
+            if (!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_') {
+                throw new IllegalArgumentException("Expected identifier but found: " + token);
+            }
+
+            return token;
+        }
+
+        private String next() {
+            if (this.position >= this.tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of query");
+            }
+
+            return this.tokens.get(this.position++);
+        }
+
+        private boolean accept(final String token) {
+            if (this.position < this.tokens.size() && this.tokens.get(this.position).equals(token)) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(final String keyword) {
+            if (this.position < this.tokens.size()
+                    && this.tokens.get(this.position).toUpperCase(Locale.ROOT).equals(keyword)) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(final String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected " + token);
+            }
+        }
+
+        private void expectKeyword(final String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw new IllegalArgumentException("Expected " + keyword);
+            }
+        }
+    }
+}
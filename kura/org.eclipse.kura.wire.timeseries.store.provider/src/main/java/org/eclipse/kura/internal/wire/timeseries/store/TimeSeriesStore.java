@@ -0,0 +1,468 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.internal.wire.timeseries.store.BlockCodec.Header;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.kura.wire.WireRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A time series store persisted in a directory.
+ * <p>
+ * Inserted records are first appended to a {@link Journal}, once the configured number of records is reached they are
+ * encoded in a columnar block and appended to the last {@link Segment}. A new segment is started after the block that
+ * makes the last one reach the configured maximum size has been appended. Truncation removes whole segments when
+ * possible, the position of the first live row is persisted in a separate head file.
+ */
+final class TimeSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesStore.class);
+
+    private static final String JOURNAL_FILE_NAME = "journal";
+    private static final String HEAD_FILE_NAME = "head";
+
+    private final String name;
+    private final Path directory;
+    private final TimeSeriesStoreServiceOptions options;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Deque<BlockRef> blocks = new ArrayDeque<>();
+    private final List<Row> openRows = new ArrayList<>();
+    private final Set<String> unsupportedColumns = new HashSet<>();
+
+    private Segment lastSegment;
+    private Journal journal;
+    private boolean closed;
+
+    TimeSeriesStore(final String name, final Path directory, final TimeSeriesStoreServiceOptions options)
+            throws KuraStoreException {
+        this.name = name;
+        this.directory = directory;
+        this.options = options;
+
+        try {
+            open();
+        } catch (final IOException | RuntimeException e) {
+            close();
+            throw new KuraStoreException(e, "Failed to open time series store " + name);
+        }
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    synchronized void insertRecords(final List<WireRecord> records) throws KuraStoreException {
+        checkOpen();
+
+        final List<Row> rows = new ArrayList<>(records.size());
+
+        for (final WireRecord wireRecord : records) {
+            rows.add(toRow(wireRecord));
+        }
+
+        try {
+            this.journal.append(rows);
+            this.openRows.addAll(rows);
+
+            if (this.openRows.size() >= this.options.getBlockMaxRecords()) {
+                seal();
+            }
+        } catch (final IOException | RuntimeException e) {
+            throw new KuraStoreException(e, "Failed to insert records in time series store " + this.name);
+        }
+    }
+
+    synchronized int getSize() throws KuraStoreException {
+        checkOpen();
+
+        return (int) Math.min(Integer.MAX_VALUE, countRows());
+    }
+
+    synchronized void truncate(final int noOfRecordsToKeep) throws KuraStoreException {
+        checkOpen();
+
+        try {
+            if (noOfRecordsToKeep <= 0) {
+                logger.info("Truncating time series store {}...", this.name);
+                clear();
+                return;
+            }
+
+            long toRemove = countRows() - noOfRecordsToKeep;
+
+            if (toRemove <= 0) {
+                return;
+            }
+
+            logger.info("Partially emptying time series store {}", this.name);
+
+            while (toRemove > 0 && !this.blocks.isEmpty()) {
+                final BlockRef first = this.blocks.peekFirst();
+                final int live = first.getLiveRowCount();
+
+                if (live <= toRemove) {
+                    this.blocks.removeFirst();
+                    toRemove -= live;
+                    deleteUnreferencedSegments();
+                } else {
+                    first.skippedRows += (int) toRemove;
+                    toRemove = 0;
+                }
+            }
+
+            writeHead();
+
+            if (toRemove > 0) {
+                this.openRows.subList(0, (int) toRemove).clear();
+                this.journal.reset(this.lastSegment.getSequence(), this.lastSegment.getSize(), this.openRows);
+            }
+        } catch (final IOException | RuntimeException e) {
+            throw new KuraStoreException(e, "Failed to truncate time series store " + this.name);
+        }
+    }
+
+    synchronized List<WireRecord> performQuery(final TimeSeriesQuery query) throws KuraStoreException {
+        checkOpen();
+
+        final List<WireRecord> result = new ArrayList<>();
+
+        try {
+            if (query.isDescending()) {
+                collect(reversed(this.openRows), query, result);
+
+                final Iterator<BlockRef> iterator = this.blocks.descendingIterator();
+                while (iterator.hasNext() && result.size() < query.getLimit()) {
+                    final BlockRef block = iterator.next();
+                    if (block.header.overlaps(query.getFromTimestamp(), query.getToTimestamp())) {
+                        collect(reversed(decode(block, query)), query, result);
+                    }
+                }
+            } else {
+                final Iterator<BlockRef> iterator = this.blocks.iterator();
+                while (iterator.hasNext() && result.size() < query.getLimit()) {
+                    final BlockRef block = iterator.next();
+                    if (block.header.overlaps(query.getFromTimestamp(), query.getToTimestamp())) {
+                        collect(decode(block, query), query, result);
+                    }
+                }
+
+                collect(this.openRows, query, result);
+            }
+        } catch (final IOException | RuntimeException e) {
+            throw new KuraStoreException(e, "Failed to query time series store " + this.name);
+        }
+
+        return result;
+    }
+
+    synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        if (this.journal != null) {
+            this.journal.close();
+        }
+
+        for (final Segment segment : this.segments.values()) {
+            if (segment != null) {
+                segment.close();
+            }
+        }
+
+        this.segments.clear();
+        this.blocks.clear();
+        this.openRows.clear();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(this.directory);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + Segment.FILE_EXTENSION)) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+
+                try {
+                    final long sequence = Long
+                            .parseLong(fileName.substring(0, fileName.length() - Segment.FILE_EXTENSION.length()));
+                    this.segments.put(sequence, null);
+                } catch (final NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file {}", file);
+                }
+            }
+        }
+
+        final long[] head = readHead();
+        final long headSequence = head[0];
+
+        final Iterator<Entry<Long, Segment>> iterator = this.segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final long sequence = iterator.next().getKey();
+
+            if (sequence < headSequence) {
+                Files.deleteIfExists(Segment.getPath(this.directory, sequence));
+                iterator.remove();
+            }
+        }
+
+        for (final Entry<Long, Segment> entry : this.segments.entrySet()) {
+            final long sequence = entry.getKey();
+            final boolean isLast = sequence == this.segments.lastKey();
+            final Segment segment = Segment.open(Segment.getPath(this.directory, sequence), sequence, isLast);
+
+            entry.setValue(segment);
+
+            for (final Header header : segment.getBlocks()) {
+                if (sequence == headSequence && header.getOffset() < head[1]) {
+                    continue;
+                }
+
+                final BlockRef block = new BlockRef(segment, header);
+
+                if (sequence == headSequence && header.getOffset() == head[1]) {
+                    block.skippedRows = (int) Math.min(head[2], header.getRowCount());
+                }
+
+                this.blocks.addLast(block);
+            }
+        }
+
+        if (this.segments.isEmpty()) {
+            final long sequence = Math.max(0, headSequence);
+            this.segments.put(sequence, Segment.create(this.directory, sequence));
+        }
+
+        this.lastSegment = this.segments.lastEntry().getValue();
+        this.journal = Journal.open(this.directory.resolve(JOURNAL_FILE_NAME), this.options.isSyncEnabled());
+
+        if (this.journal.isAfter(this.lastSegment.getSequence(), this.lastSegment.getSize())) {
+            this.openRows.addAll(this.journal.readRows());
+        } else {
+            this.journal.reset(this.lastSegment.getSequence(), this.lastSegment.getSize(),
+                    Collections.emptyList());
+        }
+
+        logger.info("Opened time series store {}, {} segments, {} records", this.name, this.segments.size(),
+                countRows());
+    }
+
+    private long countRows() {
+        long result = this.openRows.size();
+
+        for (final BlockRef block : this.blocks) {
+            result += block.getLiveRowCount();
+        }
+
+        return result;
+    }
+
+    private void seal() throws IOException {
+        final byte[] block = BlockCodec.encode(this.openRows);
+
+        final Header header = this.lastSegment.append(block, this.options.isSyncEnabled());
+        this.blocks.addLast(new BlockRef(this.lastSegment, header));
+
+        this.openRows.clear();
+        this.journal.reset(this.lastSegment.getSequence(), this.lastSegment.getSize(), Collections.emptyList());
+
+        // the new segment is created only after the journal has been reset, if the process is terminated in between
+        // the journal refers to the previous segment but it does not contain any row
+        if (this.lastSegment.getSize() >= this.options.getSegmentMaxSizeBytes()) {
+            final long sequence = this.lastSegment.getSequence() + 1;
+            this.lastSegment = Segment.create(this.directory, sequence);
+            this.segments.put(sequence, this.lastSegment);
+            this.journal.reset(this.lastSegment.getSequence(), this.lastSegment.getSize(), Collections.emptyList());
+        }
+    }
+
+    private void clear() throws IOException {
+        final long sequence = this.lastSegment.getSequence() + 1;
+
+        for (final Segment segment : this.segments.values()) {
+            segment.delete();
+        }
+
+        this.segments.clear();
+        this.blocks.clear();
+        this.openRows.clear();
+
+        this.lastSegment = Segment.create(this.directory, sequence);
+        this.segments.put(sequence, this.lastSegment);
+
+        writeHead();
+        this.journal.reset(this.lastSegment.getSequence(), this.lastSegment.getSize(), Collections.emptyList());
+    }
+
+    private void deleteUnreferencedSegments() {
+        final long firstReferenced = this.blocks.isEmpty() ? this.lastSegment.getSequence()
+                : this.blocks.peekFirst().segment.getSequence();
+
+        final Iterator<Segment> iterator = this.segments.values().iterator();
+        while (iterator.hasNext()) {
+            final Segment segment = iterator.next();
+
+            if (segment.getSequence() >= firstReferenced || segment == this.lastSegment) {
+                break;
+            }
+
+            segment.delete();
+            iterator.remove();
+        }
+    }
+
+    // the head file contains the sequence number of the first live segment, the offset of the first live block in it
+    // and the number of rows to be skipped in that block
+    private long[] readHead() {
+        final Path path = this.directory.resolve(HEAD_FILE_NAME);
+
+        try {
+            if (Files.exists(path)) {
+                final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+                return new long[] { buffer.getLong(), buffer.getLong(), buffer.getLong() };
+            }
+        } catch (final IOException | RuntimeException e) {
+            logger.warn("Failed to read head of time series store {}", this.name, e);
+        }
+
+        return new long[] { -1, 0, 0 };
+    }
+
+    private void writeHead() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(24);
+
+        if (this.blocks.isEmpty()) {
+            buffer.putLong(this.lastSegment.getSequence()).putLong(this.lastSegment.getSize()).putLong(0);
+        } else {
+            final BlockRef first = this.blocks.peekFirst();
+            buffer.putLong(first.segment.getSequence()).putLong(first.header.getOffset()).putLong(first.skippedRows);
+        }
+
+        final Path path = this.directory.resolve(HEAD_FILE_NAME);
+        final Path tmp = this.directory.resolve(HEAD_FILE_NAME + ".tmp");
+
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Row> decode(final BlockRef block, final TimeSeriesQuery query) throws IOException {
+        final ByteBuffer buffer = block.segment.getBlock(block.header);
+        final List<Row> rows = BlockCodec.decode(buffer, 0, query::isColumnSelected);
+
+        return rows.subList(block.skippedRows, rows.size());
+    }
+
+    private static void collect(final List<Row> rows, final TimeSeriesQuery query, final List<WireRecord> result) {
+        final boolean includeTimestamp = query.isColumnSelected(TimeSeriesQuery.TIMESTAMP_COLUMN);
+
+        for (final Row row : rows) {
+            if (result.size() >= query.getLimit()) {
+                return;
+            }
+
+            final long timestamp = row.getTimestamp();
+
+            if (timestamp < query.getFromTimestamp() || timestamp > query.getToTimestamp()) {
+                continue;
+            }
+
+            final Map<String, TypedValue<?>> properties = new HashMap<>();
+
+            if (includeTimestamp) {
+                properties.put(TimeSeriesQuery.TIMESTAMP_COLUMN, TypedValues.newLongValue(timestamp));
+            }
+
+            for (final Entry<String, TypedValue<?>> entry : row.getValues().entrySet()) {
+                if (query.isColumnSelected(entry.getKey())) {
+                    properties.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            result.add(new WireRecord(properties));
+        }
+    }
+
+    private static List<Row> reversed(final List<Row> rows) {
+        final List<Row> result = new ArrayList<>(rows);
+        Collections.reverse(result);
+        return result;
+    }
+
+    private Row toRow(final WireRecord wireRecord) {
+        final Map<String, TypedValue<?>> values = new HashMap<>();
+
+        for (final Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
+            final TypedValue<?> value = entry.getValue();
+
+            if (value == null || value.getValue() == null) {
+                continue;
+            }
+
+            if (ValueType.fromDataType(value.getType()).isPresent()) {
+                values.put(entry.getKey(), value);
+            } else if (this.unsupportedColumns.add(entry.getKey())) {
+                logger.warn("Unsupported typed value for {}: {}, the value will not be stored", entry.getKey(),
+                        value);
+            }
+        }
+
+        return new Row(System.currentTimeMillis(), values);
+    }
+
+    private void checkOpen() throws KuraStoreException {
+        if (this.closed) {
+            throw new KuraStoreException("Time series store " + this.name + " is closed");
+        }
+    }
+
+    private static final class BlockRef {
+
+        private final Segment segment;
+        private final Header header;
+        private int skippedRows;
+
+        BlockRef(final Segment segment, final Header header) {
+            this.segment = segment;
+            this.header = header;
+        }
+
+        int getLiveRowCount() {
+            return this.header.getRowCount() - this.skippedRows;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.connection.listener.ConnectionListener;
+import org.eclipse.kura.util.store.listener.ConnectionListenerManager;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.store.provider.QueryableWireRecordStoreProvider;
+import org.eclipse.kura.wire.store.provider.WireRecordStore;
+import org.eclipse.kura.wire.store.provider.WireRecordStoreProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link WireRecordStoreProvider} that persists each store in a directory using a columnar, append only format
+ * optimized for numeric time series, see {@link TimeSeriesStore}. Queries are expressed using the SQL subset described
+ * in {@link TimeSeriesQuery}.
+ */
+public class TimeSeriesStoreServiceImpl
+        implements ConfigurableComponent, WireRecordStoreProvider, QueryableWireRecordStoreProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesStoreServiceImpl.class);
+
+    private final ConnectionListenerManager listenerManager = new ConnectionListenerManager();
+    private final Map<String, OpenStore> openStores = new HashMap<>();
+
+    private Optional<TimeSeriesStoreServiceOptions> options = Optional.empty();
+
+    public void activate(final Map<String, Object> properties) {
+        logger.info("activating...");
+
+        updated(properties);
+
+        logger.info("activating...done");
+    }
+
+    public synchronized void updated(final Map<String, Object> properties) {
+        logger.info("updating...");
+
+        final TimeSeriesStoreServiceOptions newOptions = new TimeSeriesStoreServiceOptions(properties);
+
+        if (!this.options.equals(Optional.of(newOptions))) {
+            shutdown();
+            this.options = Optional.of(newOptions);
+        }
+
+        logger.info("updating...done");
+    }
+
+    public synchronized void deactivate() {
+        logger.info("deactivating...");
+
+        shutdown();
+        this.options = Optional.empty();
+        this.listenerManager.shutdown();
+
+        logger.info("deactivating...done");
+    }
+
+    @Override
+    public synchronized WireRecordStore openWireRecordStore(final String name) throws KuraStoreException {
+        final OpenStore openStore = getOrOpenStore(name);
+        openStore.handles++;
+
+        return new TimeSeriesWireRecordStore(openStore.store, this::release);
+    }
+
+    @Override
+    public List<WireRecord> performQuery(final String query) throws KuraStoreException {
+        final TimeSeriesQuery parsedQuery;
+
+        try {
+            parsedQuery = TimeSeriesQuery.parse(query, System::currentTimeMillis);
+        } catch (final RuntimeException e) {
+            throw new KuraStoreException(e, "Invalid query: " + query);
+        }
+
+        final TimeSeriesStore store;
+
+        synchronized (this) {
+            final OpenStore openStore = getOrOpenStore(parsedQuery.getStoreName());
+            openStore.handles++;
+            store = openStore.store;
+        }
+
+        try {
+            return store.performQuery(parsedQuery);
+        } finally {
+            release(store);
+        }
+    }
+
+    @Override
+    public void addListener(final ConnectionListener listener) {
+        this.listenerManager.add(listener);
+    }
+
+    @Override
+    public void removeListener(final ConnectionListener listener) {
+        this.listenerManager.remove(listener);
+    }
+
+    private OpenStore getOrOpenStore(final String name) throws KuraStoreException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new KuraStoreException("Store name cannot be null or empty");
+        }
+
+        final OpenStore existing = this.openStores.get(name);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        if (!this.options.isPresent()) {
+            throw new KuraStoreException("Time series store service is not configured");
+        }
+
+        final Path directory = Paths.get(this.options.get().getStoreDirectory(), encodeStoreName(name));
+        final OpenStore result = new OpenStore(new TimeSeriesStore(name, directory, this.options.get()));
+
+        this.openStores.put(name, result);
+
+        return result;
+    }
+
+    private synchronized void release(final TimeSeriesStore store) {
+        final OpenStore openStore = this.openStores.get(store.getName());
+
+        if (openStore == null || openStore.store != store) {
+            return;
+        }
+
+        openStore.handles--;
+
+        if (openStore.handles <= 0) {
+            this.openStores.remove(store.getName());
+            store.close();
+        }
+    }
+
+    private void shutdown() {
+        if (this.openStores.isEmpty()) {
+            return;
+        }
+
+        for (final OpenStore openStore : this.openStores.values()) {
+            openStore.store.close();
+        }
+
+        this.openStores.clear();
+        this.listenerManager.dispatchDisconnected();
+    }
+
+    // store names are used as directory names, characters that could be unsafe in a file name are percent encoded
+    static String encodeStoreName(final String name) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (final byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            final char c = (char) (b & 0xFF);
+
+            if (c < 0x80 && (Character.isLetterOrDigit(c) || c == '_' || c == '-')) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static final class OpenStore {
+
+        private final TimeSeriesStore store;
+        private int handles;
+
+        OpenStore(final TimeSeriesStore store) {
+            this.store = store;
+        }
+    }
+}
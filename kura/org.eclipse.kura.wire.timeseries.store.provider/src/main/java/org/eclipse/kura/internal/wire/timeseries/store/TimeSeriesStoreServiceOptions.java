@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.kura.util.configuration.Property;
+
+class TimeSeriesStoreServiceOptions {
+
+    static final String STORE_DIRECTORY_PROP_NAME = "store.directory";
+    static final String BLOCK_MAX_RECORDS_PROP_NAME = "block.max.records";
+    static final String SEGMENT_MAX_SIZE_PROP_NAME = "segment.max.size.kb";
+    static final String SYNC_ENABLED_PROP_NAME = "sync.enabled";
+
+    private static final Property<String> STORE_DIRECTORY_PROPERTY = new Property<>(STORE_DIRECTORY_PROP_NAME,
+            "/opt/eclipse/kura/data/timeseries");
+    private static final Property<Integer> BLOCK_MAX_RECORDS_PROPERTY = new Property<>(BLOCK_MAX_RECORDS_PROP_NAME,
+            1024);
+    private static final Property<Integer> SEGMENT_MAX_SIZE_PROPERTY = new Property<>(SEGMENT_MAX_SIZE_PROP_NAME,
+            4096);
+    private static final Property<Boolean> SYNC_ENABLED_PROPERTY = new Property<>(SYNC_ENABLED_PROP_NAME, false);
+
+    private static final int SEGMENT_MAX_SIZE_LIMIT_KB = 1024 * 1024;
+
+    private final String storeDirectory;
+    private final int blockMaxRecords;
+    private final int segmentMaxSizeKb;
+    private final boolean syncEnabled;
+
+    TimeSeriesStoreServiceOptions(final Map<String, Object> properties) {
+        this.storeDirectory = STORE_DIRECTORY_PROPERTY.get(properties).trim();
+        this.blockMaxRecords = Math.max(1, BLOCK_MAX_RECORDS_PROPERTY.get(properties));
+        this.segmentMaxSizeKb = Math.min(SEGMENT_MAX_SIZE_LIMIT_KB,
+                Math.max(1, SEGMENT_MAX_SIZE_PROPERTY.get(properties)));
+        this.syncEnabled = SYNC_ENABLED_PROPERTY.get(properties);
+    }
+
+    String getStoreDirectory() {
+        return this.storeDirectory;
+    }
+
+    int getBlockMaxRecords() {
+        return this.blockMaxRecords;
+    }
+
+    long getSegmentMaxSizeBytes() {
+        return this.segmentMaxSizeKb * 1024L;
+    }
+
+    boolean isSyncEnabled() {
+        return this.syncEnabled;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.blockMaxRecords, this.segmentMaxSizeKb, this.storeDirectory, this.syncEnabled);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TimeSeriesStoreServiceOptions)) {
+            return false;
+        }
+        final TimeSeriesStoreServiceOptions other = (TimeSeriesStoreServiceOptions) obj;
+        return this.blockMaxRecords == other.blockMaxRecords && this.segmentMaxSizeKb == other.segmentMaxSizeKb
+                && Objects.equals(this.storeDirectory, other.storeDirectory) && this.syncEnabled == other.syncEnabled;
+    }
+}
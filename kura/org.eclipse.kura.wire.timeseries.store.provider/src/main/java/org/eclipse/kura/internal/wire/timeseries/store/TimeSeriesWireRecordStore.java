@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.store.provider.WireRecordStore;
+
+/**
+ * A {@link WireRecordStore} handle returned to the clients of the provider. Multiple handles can refer to the same
+ * {@link TimeSeriesStore}, the store is closed by the provider when all the handles have been closed.
+ */
+class TimeSeriesWireRecordStore implements WireRecordStore {
+
+    private final TimeSeriesStore store;
+    private final Consumer<TimeSeriesStore> onClose;
+    private boolean closed;
+
+    TimeSeriesWireRecordStore(final TimeSeriesStore store, final Consumer<TimeSeriesStore> onClose) {
+        this.store = store;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public void truncate(final int noOfRecordsToKeep) throws KuraStoreException {
+        checkOpen();
+        this.store.truncate(noOfRecordsToKeep);
+    }
+
+    @Override
+    public int getSize() throws KuraStoreException {
+        checkOpen();
+        return this.store.getSize();
+    }
+
+    @Override
+    public void insertRecords(final List<WireRecord> records) throws KuraStoreException {
+        checkOpen();
+        this.store.insertRecords(records);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.onClose.accept(this.store);
+        }
+    }
+
+    private synchronized void checkOpen() throws KuraStoreException {
+        if (this.closed) {
+            throw new KuraStoreException("Wire record store " + this.store.getName() + " is closed");
+        }
+    }
+}
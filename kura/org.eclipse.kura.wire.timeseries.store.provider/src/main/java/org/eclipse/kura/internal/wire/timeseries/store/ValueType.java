@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+
+/**
+ * The value types supported by the store, the code of each type is persisted and must not be changed.
+ */
+enum ValueType {
+
+    BOOLEAN(0, DataType.BOOLEAN),
+    BYTE_ARRAY(1, DataType.BYTE_ARRAY),
+    DOUBLE(2, DataType.DOUBLE),
+    FLOAT(3, DataType.FLOAT),
+    INTEGER(4, DataType.INTEGER),
+    LONG(5, DataType.LONG),
+    STRING(6, DataType.STRING);
+
+    private final int code;
+    private final DataType dataType;
+
+    private ValueType(final int code, final DataType dataType) {
+        this.code = code;
+        this.dataType = dataType;
+    }
+
+    int getCode() {
+        return this.code;
+    }
+
+    static ValueType fromCode(final int code) {
+        for (final ValueType type : ValueType.values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Unknown value type code: " + code);
+    }
+
+    static Optional<ValueType> fromDataType(final DataType dataType) {
+        for (final ValueType type : ValueType.values()) {
+            if (type.dataType == dataType) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    void writeValue(final DataOutput out, final TypedValue<?> value) throws IOException {
+        final Object v = value.getValue();
+
+        switch (this) {
+        case BOOLEAN:
+            out.writeBoolean((Boolean) v);
+            break;
+        case BYTE_ARRAY:
+            final byte[] bytes = (byte[]) v;
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            break;
+        case DOUBLE:
+            out.writeDouble((Double) v);
+            break;
+        case FLOAT:
+            out.writeFloat((Float) v);
+            break;
+        case INTEGER:
+            out.writeInt((Integer) v);
+            break;
+        case LONG:
+            out.writeLong((Long) v);
+            break;
+        default:
+            final byte[] utf8 = ((String) v).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+            break;
+        }
+    }
+
+    TypedValue<?> readValue(final DataInput in) throws IOException {
+        switch (this) {
+        case BOOLEAN:
+            return TypedValues.newBooleanValue(in.readBoolean());
+        case BYTE_ARRAY:
+            return TypedValues.newByteArrayValue(readByteArray(in));
+        case DOUBLE:
+            return TypedValues.newDoubleValue(in.readDouble());
+        case FLOAT:
+            return TypedValues.newFloatValue(in.readFloat());
+        case INTEGER:
+            return TypedValues.newIntegerValue(in.readInt());
+        case LONG:
+            return TypedValues.newLongValue(in.readLong());
+        default:
+            return TypedValues.newStringValue(new String(readByteArray(in), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] readByteArray(final DataInput in) throws IOException {
+        final int length = in.readInt();
+
+        if (length < 0) {
+            throw new IOException("Invalid length: " + length);
+        }
+
+        final byte[] result = new byte[length];
+        in.readFully(result);
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+/**
+ * Gorilla style compression for floating point values. Each value is XORed with the previous one and only the
+ * meaningful bits of the result are stored:
+ *
+ * <pre>
+ * 0                                          same value as the previous one
+ * 10 + meaningful bits                       meaningful bits fit in the previous window
+ * 11 + 6 bits leading zeros + 6 bits length  new window
+ *    + meaningful bits
+ * </pre>
+ *
+ * Float values are widened to double before being encoded, the conversion is lossless and the zero low order mantissa
+ * bits are absorbed by the trailing zeros of the window.
+ */
+final class XorFloatCodec {
+
+    private XorFloatCodec() {
+    }
+
+    static final class Encoder {
+
+        private final BitOutput output;
+        private boolean first = true;
+        private long previousBits;
+        private int previousLeadingZeros = -1;
+        private int previousTrailingZeros;
+
+        Encoder(final BitOutput output) {
+            this.output = output;
+        }
+
+        void write(final double value) {
+            final long bits = Double.doubleToRawLongBits(value);
+
+            if (this.first) {
+                this.output.writeBits(bits, 64);
+                this.first = false;
+                this.previousBits = bits;
+                return;
+            }
+
+            final long xor = bits ^ this.previousBits;
+            this.previousBits = bits;
+
+            if (xor == 0) {
+                this.output.writeBit(false);
+                return;
+            }
+
+            this.output.writeBit(true);
+
+            final int leadingZeros = Long.numberOfLeadingZeros(xor);
+            final int trailingZeros = Long.numberOfTrailingZeros(xor);
+
+            if (this.previousLeadingZeros != -1 && leadingZeros >= this.previousLeadingZeros
+                    && trailingZeros >= this.previousTrailingZeros) {
+                this.output.writeBit(false);
+                this.output.writeBits(xor >>> this.previousTrailingZeros,
+                        64 - this.previousLeadingZeros - this.previousTrailingZeros);
+                return;
+            }
+
+            final int meaningfulBits = 64 - leadingZeros - trailingZeros;
+
+            this.output.writeBit(true);
+            this.output.writeBits(leadingZeros, 6);
+            this.output.writeBits(meaningfulBits - 1L, 6);
+            this.output.writeBits(xor >>> trailingZeros, meaningfulBits);
+
+            this.previousLeadingZeros = leadingZeros;
+            this.previousTrailingZeros = trailingZeros;
+        }
+    }
+
+    static final class Decoder {
+
+        private final BitInput input;
+        private boolean first = true;
+        private long previousBits;
+        private int leadingZeros;
+        private int trailingZeros;
+
+        Decoder(final BitInput input) {
+            this.input = input;
+        }
+
+        double read() {
+            if (this.first) {
+                this.first = false;
+                this.previousBits = this.input.readBits(64);
+                return Double.longBitsToDouble(this.previousBits);
+            }
+
+            if (!this.input.readBit()) {
+                return Double.longBitsToDouble(this.previousBits);
+            }
+
+            if (this.input.readBit()) {
+                this.leadingZeros = (int) this.input.readBits(6);
+                final int meaningfulBits = (int) this.input.readBits(6) + 1;
+                this.trailingZeros = 64 - this.leadingZeros - meaningfulBits;
+            }
+
+            final int meaningfulBits = 64 - this.leadingZeros - this.trailingZeros;
+            final long xor = this.input.readBits(meaningfulBits) << this.trailingZeros;
+
+            this.previousBits ^= xor;
+
+            return Double.longBitsToDouble(this.previousBits);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.asset.provider.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.internal.asset.provider.ChannelReadCoalescer;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValues;
+import org.junit.Test;
+
+public class ChannelReadCoalescerTest {
+
+    private ChannelReadCoalescer coalescer;
+    private final List<List<String>> driverReads = new ArrayList<>();
+    private final CountDownLatch firstReadStarted = new CountDownLatch(1);
+    private final CountDownLatch firstReadReleased = new CountDownLatch(1);
+    private boolean blockFirstRead;
+    private boolean failReads;
+    private int nextValue;
+
+    @Test
+    public void shouldReadFromDriverWhenDisabled() throws KuraException {
+        givenCoalescer(0, false);
+
+        final List<ChannelRecord> first = whenChannelsAreRead("a");
+        final List<ChannelRecord> second = whenChannelsAreRead("a");
+
+        thenDriverReadsAre(Arrays.asList("a"), Arrays.asList("a"));
+        thenValuesAre(first, 0);
+        thenValuesAre(second, 1);
+    }
+
+    @Test
+    public void shouldServeCachedValues() throws KuraException {
+        givenCoalescer(60000, false);
+        givenChannelsRead("a", "b");
+
+        final List<ChannelRecord> records = whenChannelsAreRead("b", "c");
+
+        thenDriverReadsAre(Arrays.asList("a", "b"), Arrays.asList("c"));
+        thenValuesAre(records, 1, 2);
+    }
+
+    @Test
+    public void shouldNotCacheFailedReads() throws KuraException {
+        givenCoalescer(60000, false);
+        givenFailingReads();
+        givenChannelsRead("a");
+
+        whenChannelsAreRead("a");
+
+        thenDriverReadsAre(Arrays.asList("a"), Arrays.asList("a"));
+    }
+
+    @Test
+    public void shouldReadFromDriverAfterInvalidation() throws KuraException {
+        givenCoalescer(60000, false);
+        givenChannelsRead("a");
+
+        whenCacheIsInvalidated();
+        final List<ChannelRecord> records = whenChannelsAreRead("a");
+
+        thenDriverReadsAre(Arrays.asList("a"), Arrays.asList("a"));
+        thenValuesAre(records, 1);
+    }
+
+    @Test
+    public void shouldCacheValuesReadByReadAll() throws KuraException {
+        givenCoalescer(60000, false);
+        givenAllChannelsRead("a", "b");
+
+        final List<ChannelRecord> records = whenChannelsAreRead("a", "b");
+
+        thenDriverReadsAre(Arrays.asList("a", "b"));
+        thenValuesAre(records, 0, 1);
+    }
+
+    @Test
+    public void shouldMergeConcurrentReadsOfTheSameChannels() throws Exception {
+        givenCoalescer(0, true);
+        givenBlockingFirstRead();
+
+        final List<List<ChannelRecord>> results = whenChannelsAreReadConcurrently(Arrays.asList("a", "b"),
+                Arrays.asList("b", "c"));
+
+        thenDriverReadsAre(Arrays.asList("a", "b"), Arrays.asList("c"));
+        thenValuesAre(results.get(0), 1, 2);
+        thenValuesAre(results.get(1), 2, 0);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenCoalescer(final long cacheTtl, final boolean coalescing) {
+        this.coalescer = new ChannelReadCoalescer(cacheTtl, coalescing);
+    }
+
+    private void givenFailingReads() {
+        this.failReads = true;
+    }
+
+    private void givenBlockingFirstRead() {
+        this.blockFirstRead = true;
+    }
+
+    private void givenChannelsRead(final String... channelNames) throws KuraException {
+        whenChannelsAreRead(channelNames);
+    }
+
+    private void givenAllChannelsRead(final String... channelNames) throws KuraException {
+        final List<ChannelRecord> records = createRecords(channelNames);
+
+        this.coalescer.readAll(Arrays.asList(channelNames), () -> {
+            driverRead(records);
+            return records;
+        });
+    }
+
+    /*
+     * When
+     */
+
+    private List<ChannelRecord> whenChannelsAreRead(final String... channelNames) throws KuraException {
+        final List<ChannelRecord> records = createRecords(channelNames);
+        this.coalescer.read(records, this::driverRead);
+        return records;
+    }
+
+    private void whenCacheIsInvalidated() {
+        this.coalescer.invalidate();
+    }
+
+    private List<List<ChannelRecord>> whenChannelsAreReadConcurrently(final List<String> first,
+            final List<String> second) throws Exception {
+        final List<ChannelRecord> firstRecords = createRecords(first.toArray(new String[0]));
+        final List<ChannelRecord> secondRecords = createRecords(second.toArray(new String[0]));
+
+        final Thread firstThread = startRead(firstRecords);
+        assertTrue(this.firstReadStarted.await(10, TimeUnit.SECONDS));
+
+        final Thread secondThread = startRead(secondRecords);
+        waitUntilWaiting(secondThread);
+
+        this.firstReadReleased.countDown();
+
+        firstThread.join(10000);
+        secondThread.join(10000);
+
+        return Arrays.asList(firstRecords, secondRecords);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenDriverReadsAre(final List<?>... reads) {
+        synchronized (this.driverReads) {
+            assertEquals(Arrays.asList(reads), this.driverReads);
+        }
+    }
+
+    private void thenValuesAre(final List<ChannelRecord> records, final Integer... values) {
+        assertEquals(Arrays.asList(values), records.stream().map(r -> {
+            assertEquals(ChannelFlag.SUCCESS, r.getChannelStatus().getChannelFlag());
+            return (Integer) r.getValue().getValue();
+        }).collect(Collectors.toList()));
+    }
+
+    /*
+     * Utilities
+     */
+
+    private static List<ChannelRecord> createRecords(final String... channelNames) {
+        return Arrays.stream(channelNames).map(name -> ChannelRecord.createReadRecord(name, DataType.INTEGER))
+                .collect(Collectors.toList());
+    }
+
+    private void driverRead(final List<ChannelRecord> records) {
+        final boolean isFirst;
+
+        synchronized (this.driverReads) {
+            isFirst = this.driverReads.isEmpty();
+            this.driverReads.add(records.stream().map(ChannelRecord::getChannelName).collect(Collectors.toList()));
+        }
+
+        if (isFirst && this.blockFirstRead) {
+            this.firstReadStarted.countDown();
+            try {
+                this.firstReadReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this.driverReads) {
+            for (final ChannelRecord channelRecord : records) {
+                if (this.failReads) {
+                    channelRecord.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE));
+                } else {
+                    channelRecord.setValue(TypedValues.newIntegerValue(this.nextValue++));
+                    channelRecord.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+                }
+                channelRecord.setTimestamp(System.currentTimeMillis());
+            }
+        }
+    }
+
+    private Thread startRead(final List<ChannelRecord> records) {
+        final Thread thread = new Thread(() -> {
+            try {
+                this.coalescer.read(records, this::driverRead);
+            } catch (KuraException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void waitUntilWaiting(final Thread thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -18,7 +18,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -32,6 +35,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +45,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.kura.KuraConnectException;
+import org.eclipse.kura.KuraException;
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.data.DataTransportService;
@@ -187,6 +192,35 @@ public class DataServiceImplTest {
         thenExceptionMessageContains("size exceeds");
     }
 
+    @Test
+    public void shouldConfirmMessagesAcknowledgedWhilePublishing() throws KuraException {
+        givenDataService();
+        givenMessageStoreProvider();
+        givenDataTrasportServiceConnected();
+        givenStoredMessagesToPublish(1, 2);
+        givenTransportConfirmingMessagesWhilePublishing();
+
+        whenIsActive();
+
+        thenMessageIsConfirmed(1);
+        thenMessageIsConfirmed(2);
+    }
+
+    @Test
+    public void shouldConfirmBatchPublishedMessagesAcknowledgedWhilePublishing() throws KuraException {
+        givenDataService();
+        givenMessageStoreProvider();
+        givenDataTrasportServiceConnected();
+        givenConfigurationProperty("store.publish-batch-size", 10);
+        givenStoredMessagesToPublish(1, 2);
+        givenTransportConfirmingMessagesWhilePublishing();
+
+        whenIsActive();
+
+        thenMessageIsConfirmed(1);
+        thenMessageIsConfirmed(2);
+    }
+
     private void givenConfigurationProperty(final String key, final Object value) {
         this.properties.put(key, value);
     }
@@ -208,6 +242,35 @@ public class DataServiceImplTest {
         this.dataServiceImpl.setMessageStoreProvider(messageStoreProvider);
     }
 
+    private void givenStoredMessagesToPublish(final int... ids) throws KuraStoreException {
+        final List<StoredMessage> messages = new ArrayList<>();
+
+        for (final int id : ids) {
+            messages.add(new StoredMessage.Builder(id).withTopic("foo").withPayload(new byte[1]).withQos(1)
+                    .withPriority(4).build());
+        }
+
+        final Iterator<StoredMessage> next = messages.iterator();
+        when(this.messageStore.getNextMessage())
+                .thenAnswer(i -> next.hasNext() ? Optional.of(next.next()) : Optional.empty());
+        when(this.messageStore.getNextMessages(anyInt())).thenReturn(messages, Collections.emptyList());
+    }
+
+    private void givenTransportConfirmingMessagesWhilePublishing() throws KuraException {
+        final AtomicInteger mqttMessageId = new AtomicInteger();
+
+        when(this.dataTransportServiceMock.publish(anyString(), any(), anyInt(), anyBoolean())).thenAnswer(i -> {
+            final DataTransportToken token = new DataTransportToken(mqttMessageId.incrementAndGet(), "session");
+
+            // simulates an acknowledgement delivered by the transport before publish returns
+            final Thread confirmation = new Thread(() -> this.dataServiceImpl.onMessageConfirmed(token));
+            confirmation.start();
+            confirmation.join(200);
+
+            return token;
+        });
+    }
+
     private void givenIsActive() {
         ComponentContext ctxMock = mock(ComponentContext.class);
         when(ctxMock.getBundleContext()).thenReturn(mock(BundleContext.class));
@@ -259,6 +322,10 @@ public class DataServiceImplTest {
 
     }
     
+    private void whenIsActive() {
+        givenIsActive();
+    }
+
     private void whenConfigurationIsChanged(final String key, final Object value) {
         this.properties.put(key, value);
         this.dataServiceImpl.updated(properties);
@@ -281,6 +348,10 @@ public class DataServiceImplTest {
         this.dataServiceImpl.connected();
     }
 
+    private void thenMessageIsConfirmed(final int id) throws KuraStoreException {
+        verify(this.messageStore, timeout(5000)).markAsConfirmed(id);
+    }
+
     private void thenDataTrasportIsDisconnected() {
         verify(this.dataTransportServiceMock, times(1)).disconnect(anyLong());
     }
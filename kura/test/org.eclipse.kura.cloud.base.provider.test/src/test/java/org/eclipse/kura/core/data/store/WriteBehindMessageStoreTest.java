@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.data.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.junit.After;
+import org.junit.Test;
+
+public class WriteBehindMessageStoreTest {
+
+    private final MessageStore wrapped = mock(MessageStore.class);
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<CompletableFuture<Integer>> results = new ArrayList<>();
+    private WriteBehindMessageStore store;
+
+    @Test
+    public void shouldStoreConcurrentMessagesInSingleBatch() throws Exception {
+        givenWrappedStoreReturningIncreasingIds();
+        givenWriteBehindStore(200, 256);
+
+        whenMessagesAreStoredConcurrently(5, 7);
+
+        thenStoredIdsAre(1, 2, 3, 4, 5);
+        thenBatchSizesAre(5);
+    }
+
+    @Test
+    public void shouldFlushWhenMaxBatchSizeIsReached() throws Exception {
+        givenWrappedStoreReturningIncreasingIds();
+        givenWriteBehindStore(60000, 2);
+
+        whenMessagesAreStoredConcurrently(2, 7);
+
+        thenStoredIdsAre(1, 2);
+        thenBatchSizesAre(2);
+    }
+
+    @Test
+    public void shouldStoreHighPriorityMessagesImmediately() throws Exception {
+        givenWrappedStoreReturningIncreasingIds();
+        givenWriteBehindStore(60000, 256);
+
+        whenMessagesAreStoredConcurrently(1, 0);
+
+        thenStoredIdsAre(1);
+        thenBatchSizesAre();
+        verify(this.wrapped, times(1)).store(eq("topic"), any(), eq(0), eq(false), eq(0));
+    }
+
+    @Test
+    public void shouldReportBatchFailureToAllPublishers() throws Exception {
+        givenWrappedStoreFailing();
+        givenWriteBehindStore(50, 256);
+
+        whenMessagesAreStoredConcurrently(3, 7);
+
+        thenAllStoresFailWith(KuraStoreException.class);
+    }
+
+    @Test
+    public void shouldIncludeUnflushedMessagesInCachedCount() throws Exception {
+        givenWrappedStoreReturningIncreasingIds();
+        givenWriteBehindStore(60000, 256);
+
+        whenMessagesAreStoredConcurrently(3, 7);
+
+        thenCachedMessageCountEventuallyIs(3);
+        verify(this.wrapped, never()).store(anyList());
+    }
+
+    @After
+    public void cleanUp() {
+        if (this.store != null) {
+            this.store.close();
+        }
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenWrappedStoreReturningIncreasingIds() throws KuraStoreException {
+        when(this.wrapped.store(anyList())).thenAnswer(i -> {
+            final List<StoredMessage> messages = i.getArgument(0);
+            final List<Integer> ids = new ArrayList<>();
+
+            for (int j = 0; j < messages.size(); j++) {
+                ids.add(this.nextId.incrementAndGet());
+            }
+
+            synchronized (this.batchSizes) {
+                this.batchSizes.add(messages.size());
+            }
+
+            return ids;
+        });
+        when(this.wrapped.store(any(), any(), anyInt(), anyBoolean(), anyInt()))
+                .thenAnswer(i -> this.nextId.incrementAndGet());
+    }
+
+    private void givenWrappedStoreFailing() throws KuraStoreException {
+        when(this.wrapped.store(anyList())).thenThrow(new KuraStoreException("failure"));
+    }
+
+    private void givenWriteBehindStore(final long windowMs, final int maxBatchSize) {
+        this.store = new WriteBehindMessageStore(this.wrapped, windowMs, maxBatchSize);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenMessagesAreStoredConcurrently(final int count, final int priority) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+            final Thread thread = new Thread(() -> {
+                try {
+                    result.complete(this.store.store("topic", new byte[] { 1 }, 0, false, priority));
+                } catch (final Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+
+            this.results.add(result);
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenStoredIdsAre(final Integer... expectedIds)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        final List<Integer> ids = new ArrayList<>();
+
+        for (final CompletableFuture<Integer> result : this.results) {
+            ids.add(result.get(30, TimeUnit.SECONDS));
+        }
+
+        ids.sort(Integer::compare);
+
+        assertEquals(Arrays.asList(expectedIds), ids);
+    }
+
+    private void thenBatchSizesAre(final Integer... expectedSizes) {
+        synchronized (this.batchSizes) {
+            assertEquals(Arrays.asList(expectedSizes), this.batchSizes);
+        }
+    }
+
+    private void thenAllStoresFailWith(final Class<? extends Exception> expectedException)
+            throws InterruptedException, TimeoutException {
+        for (final CompletableFuture<Integer> result : this.results) {
+            Optional<Throwable> cause = Optional.empty();
+
+            try {
+                result.get(30, TimeUnit.SECONDS);
+            } catch (final ExecutionException e) {
+                cause = Optional.ofNullable(e.getCause());
+            }
+
+            assertEquals(Optional.of(expectedException), cause.map(Object::getClass));
+        }
+    }
+
+    private void thenCachedMessageCountEventuallyIs(final int expectedCount)
+            throws KuraStoreException, InterruptedException {
+        final long deadline = System.currentTimeMillis() + 30000;
+
+        while (this.store.getCachedMessageCount() != expectedCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(expectedCount, this.store.getCachedMessageCount());
+    }
+}
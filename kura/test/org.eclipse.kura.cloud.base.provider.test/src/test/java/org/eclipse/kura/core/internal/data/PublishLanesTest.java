@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.internal.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.kura.core.internal.data.PublishLanes.Lane;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.junit.Test;
+
+public class PublishLanesTest {
+
+    private final PublishLanes lanes = new PublishLanes();
+
+    @Test
+    public void shouldMapPrioritiesToLanes() {
+        assertEquals(Lane.CONTROL, Lane.forPriority(0));
+        assertEquals(Lane.CONTROL, Lane.forPriority(1));
+        assertEquals(Lane.NORMAL, Lane.forPriority(2));
+        assertEquals(Lane.NORMAL, Lane.forPriority(4));
+        assertEquals(Lane.BULK, Lane.forPriority(5));
+        assertEquals(Lane.BULK, Lane.forPriority(9));
+    }
+
+    @Test
+    public void shouldTrackQueuedMessages() {
+        givenQueuedMessages(0, 3, 7, 7);
+
+        whenMessageIsPublished(7);
+
+        thenLaneCountsAre(Lane.CONTROL, 1, 0);
+        thenLaneCountsAre(Lane.NORMAL, 1, 0);
+        thenLaneCountsAre(Lane.BULK, 1, 0);
+    }
+
+    @Test
+    public void shouldTrackInFlightMessages() {
+        givenQueuedMessages(1, 7);
+
+        whenMessageIsPublishedInFlight(1, token(1));
+        whenMessageIsPublishedInFlight(7, token(2));
+
+        thenLaneCountsAre(Lane.CONTROL, 0, 1);
+        thenLaneCountsAre(Lane.BULK, 0, 1);
+
+        whenMessageIsConfirmed(token(2));
+
+        thenLaneCountsAre(Lane.BULK, 0, 0);
+    }
+
+    @Test
+    public void shouldRequeueUnpublishedInFlightMessages() {
+        givenQueuedMessages(7);
+        whenMessageIsPublishedInFlight(7, token(1));
+
+        this.lanes.inFlightMessagesUnpublished();
+
+        thenLaneCountsAre(Lane.BULK, 1, 0);
+    }
+
+    @Test
+    public void shouldResetFromStoredMessages() {
+        givenQueuedMessages(7, 7, 7);
+
+        final Map<Integer, Integer> unpublishedCounts = new HashMap<>();
+        unpublishedCounts.put(3, 1);
+        unpublishedCounts.put(4, 2);
+
+        this.lanes.reset(unpublishedCounts, Collections.singletonList(message(0, token(5))));
+
+        thenLaneCountsAre(Lane.BULK, 0, 0);
+        thenLaneCountsAre(Lane.NORMAL, 3, 0);
+        thenLaneCountsAre(Lane.CONTROL, 0, 1);
+    }
+
+    private void givenQueuedMessages(final int... priorities) {
+        for (final int priority : priorities) {
+            this.lanes.messageQueued(priority);
+        }
+    }
+
+    private void whenMessageIsPublished(final int priority) {
+        this.lanes.messagePublished(priority);
+    }
+
+    private void whenMessageIsPublishedInFlight(final int priority, final DataTransportToken token) {
+        this.lanes.messagePublished(priority);
+        this.lanes.messageInFlight(token, priority);
+    }
+
+    private void whenMessageIsConfirmed(final DataTransportToken token) {
+        this.lanes.messageConfirmed(token);
+    }
+
+    private void thenLaneCountsAre(final Lane lane, final long queued, final int inFlight) {
+        assertEquals(queued, this.lanes.getQueuedCount(lane));
+        assertEquals(inFlight, this.lanes.getInFlightCount(lane));
+    }
+
+    private static DataTransportToken token(final int messageId) {
+        return new DataTransportToken(messageId, "session");
+    }
+
+    private static StoredMessage message(final int priority, final DataTransportToken token) {
+        return new StoredMessage.Builder(0).withPriority(priority).withDataTransportToken(token).build();
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.Inflater;
+
+import org.eclipse.kura.core.util.GZipUtil;
+import org.junit.Test;
+
+public class CloudPayloadCompressionEncoderTest {
+
+    private static final String METRIC_NAMES = "temperature,humidity,pressure,assetName";
+
+    private byte[] source;
+    private CloudPayloadCodec codec;
+    private byte[] dictionary;
+    private int threshold;
+    private byte[] encoded;
+    private int compressCalls;
+
+    @Test
+    public void shouldCompressWithGzip() throws Exception {
+        givenRepetitiveSource(1000);
+        givenCodec(CloudPayloadCompression.GZIP, null);
+
+        whenPayloadIsEncoded();
+
+        thenPayloadIsGzipCompressed();
+    }
+
+    @Test
+    public void shouldCompressWithDeflate() throws Exception {
+        givenRepetitiveSource(1000);
+        givenCodec(CloudPayloadCompression.DEFLATE, new byte[0]);
+
+        whenPayloadIsEncoded();
+
+        thenPayloadIsZlibCompressed(false);
+        thenDecompressedPayloadIsSource();
+    }
+
+    @Test
+    public void shouldCompressWithDeflateAndDictionary() throws Exception {
+        givenRepetitiveSource(100);
+        givenCodec(CloudPayloadCompression.DEFLATE, METRIC_NAMES.getBytes(StandardCharsets.UTF_8));
+
+        whenPayloadIsEncoded();
+
+        thenPayloadIsZlibCompressed(true);
+        thenDictionaryIdIsIncluded();
+        thenDecompressedPayloadIsSource();
+    }
+
+    @Test
+    public void shouldNotCompressPayloadBelowThreshold() throws Exception {
+        givenRepetitiveSource(1000);
+        givenCodec(CloudPayloadCompression.GZIP, null);
+        givenThreshold(1000000);
+
+        whenPayloadIsEncoded();
+
+        thenPayloadIsNotCompressed();
+        thenCodecIsNotInvoked();
+    }
+
+    @Test
+    public void shouldNotReturnCompressedPayloadIfLonger() throws Exception {
+        givenSource(new byte[] { 1, 2, 3 });
+        givenCodec(CloudPayloadCompression.GZIP, null);
+
+        whenPayloadIsEncoded();
+
+        thenPayloadIsNotCompressed();
+    }
+
+    @Test
+    public void shouldParseCompression() {
+        assertEquals(CloudPayloadCompression.GZIP, CloudPayloadCompression.getCompression("gzip"));
+        assertEquals(CloudPayloadCompression.DEFLATE, CloudPayloadCompression.getCompression("DEFLATE"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownCompression() {
+        CloudPayloadCompression.getCompression("lz4");
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenSource(byte[] source) {
+        this.source = source;
+    }
+
+    private void givenRepetitiveSource(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append("temperature").append(i % 10).append("humidity").append(i % 7).append("pressure");
+        }
+        this.source = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void givenCodec(CloudPayloadCompression compression, byte[] dictionary) {
+        this.dictionary = dictionary;
+        CloudPayloadCodec created = compression.createCodec(dictionary);
+        this.codec = src -> {
+            this.compressCalls++;
+            return created.compress(src);
+        };
+    }
+
+    private void givenThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /*
+     * When
+     */
+
+    private void whenPayloadIsEncoded() throws Exception {
+        this.encoded = new CloudPayloadCompressionEncoder(() -> this.source, this.codec, this.threshold).getBytes();
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenPayloadIsGzipCompressed() throws Exception {
+        assertTrue(GZipUtil.isCompressed(this.encoded));
+        assertTrue(this.encoded.length < this.source.length);
+        assertArrayEquals(this.source, GZipUtil.decompress(this.encoded));
+    }
+
+    private void thenPayloadIsZlibCompressed(boolean hasDictionary) {
+        assertTrue(this.encoded.length < this.source.length);
+        assertEquals(0x78, this.encoded[0] & 0xff);
+        assertEquals(0, ((this.encoded[0] & 0xff) << 8 | this.encoded[1] & 0xff) % 31);
+        assertEquals(hasDictionary, (this.encoded[1] & 0x20) != 0);
+    }
+
+    private void thenDictionaryIdIsIncluded() {
+        Adler32 adler = new Adler32();
+        adler.update(this.dictionary);
+
+        assertEquals((int) adler.getValue(), ByteBuffer.wrap(this.encoded, 2, 4).getInt());
+    }
+
+    private void thenDecompressedPayloadIsSource() throws Exception {
+        Inflater inflater = new Inflater();
+        inflater.setInput(this.encoded);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[256];
+        while (!inflater.finished()) {
+            int n = inflater.inflate(buf);
+            if (n == 0 && inflater.needsDictionary()) {
+                inflater.setDictionary(this.dictionary);
+            }
+            out.write(buf, 0, n);
+        }
+        inflater.end();
+
+        assertArrayEquals(this.source, out.toByteArray());
+    }
+
+    private void thenPayloadIsNotCompressed() {
+        assertFalse(GZipUtil.isCompressed(this.encoded));
+        assertArrayEquals(this.source, this.encoded);
+    }
+
+    private void thenCodecIsNotInvoked() {
+        assertEquals(0, this.compressCalls);
+    }
+}
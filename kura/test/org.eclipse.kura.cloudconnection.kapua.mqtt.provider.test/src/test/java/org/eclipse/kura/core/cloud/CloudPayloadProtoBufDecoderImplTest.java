@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.eclipse.kura.KuraInvalidMessageException;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric.ValueType;
+import org.eclipse.kura.core.util.GZipUtil;
+import org.eclipse.kura.message.KuraPayload;
+import org.junit.Test;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+
+public class CloudPayloadProtoBufDecoderImplTest {
+
+    private final KuraPayloadProto.KuraPayload.Builder builder = KuraPayloadProto.KuraPayload.newBuilder();
+    private byte[] encoded;
+    private KuraPayload decoded;
+    private Exception occurredException;
+
+    @Test
+    public void shouldDecodeAllMetricTypes() {
+        givenMetric(KuraMetric.newBuilder().setName("double").setType(ValueType.DOUBLE).setDoubleValue(1.5));
+        givenMetric(KuraMetric.newBuilder().setName("float").setType(ValueType.FLOAT).setFloatValue(2.5f));
+        givenMetric(KuraMetric.newBuilder().setName("long").setType(ValueType.INT64).setLongValue(-4L));
+        givenMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(3));
+        givenMetric(KuraMetric.newBuilder().setName("bool").setType(ValueType.BOOL).setBoolValue(true));
+        givenMetric(KuraMetric.newBuilder().setName("string").setType(ValueType.STRING)
+                .setStringValue("value \u00e8\u4e91"));
+        givenMetric(KuraMetric.newBuilder().setName("bytes").setType(ValueType.BYTES)
+                .setBytesValue(ByteString.copyFrom(new byte[] { 1, 2 })));
+        givenEncodedPayload();
+
+        whenPayloadIsDecoded();
+
+        thenMetricCountIs(7);
+        thenMetricIs("double", 1.5d);
+        thenMetricIs("float", 2.5f);
+        thenMetricIs("long", -4L);
+        thenMetricIs("int", 3);
+        thenMetricIs("bool", true);
+        thenMetricIs("string", "value \u00e8\u4e91");
+        thenBytesMetricIs("bytes", new byte[] { 1, 2 });
+    }
+
+    @Test
+    public void shouldUseDefaultValueForMissingMetricValue() {
+        givenMetric(KuraMetric.newBuilder().setName("double").setType(ValueType.DOUBLE));
+        givenMetric(KuraMetric.newBuilder().setName("string").setType(ValueType.STRING));
+        givenMetric(KuraMetric.newBuilder().setName("bytes").setType(ValueType.BYTES));
+        givenEncodedPayload();
+
+        whenPayloadIsDecoded();
+
+        thenMetricIs("double", 0.0d);
+        thenMetricIs("string", "");
+        thenBytesMetricIs("bytes", new byte[0]);
+    }
+
+    @Test
+    public void shouldDecodeTimestampPositionAndBody() {
+        givenTimestamp(1700000000000L);
+        givenPosition(KuraPayloadProto.KuraPayload.KuraPosition.newBuilder().setLatitude(45.5).setLongitude(12.3)
+                .setSatellites(7).setTimestamp(1700000000001L));
+        givenBody(new byte[] { 3, 4 });
+        givenEncodedPayload();
+
+        whenPayloadIsDecoded();
+
+        thenTimestampIs(1700000000000L);
+        thenPositionIs(45.5, 12.3, 7, 1700000000001L);
+        thenBodyIs(new byte[] { 3, 4 });
+        thenMetricCountIs(0);
+    }
+
+    @Test
+    public void shouldIgnoreUnknownFields() {
+        givenMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(3));
+        givenUnknownField(4000, 12L);
+        givenEncodedPayload();
+
+        whenPayloadIsDecoded();
+
+        thenMetricCountIs(1);
+        thenMetricIs("int", 3);
+    }
+
+    @Test
+    public void shouldDecodeCompressedPayload() throws Exception {
+        givenMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(3));
+        givenEncodedPayload();
+        givenCompressedPayload();
+
+        whenPayloadIsDecoded();
+
+        thenMetricIs("int", 3);
+    }
+
+    @Test
+    public void shouldRejectMetricWithoutName() {
+        givenEncodedPayload(new byte[] { (byte) 0xc2, (byte) 0xb8, 0x02, 0x02, 0x10, 0x03 });
+
+        whenPayloadIsDecoded();
+
+        thenExceptionOccurred(KuraInvalidMessageException.class);
+    }
+
+    @Test
+    public void shouldRejectTruncatedPayload() {
+        givenMetric(KuraMetric.newBuilder().setName("string").setType(ValueType.STRING).setStringValue("value"));
+        givenEncodedPayload();
+        givenTruncatedPayload(3);
+
+        whenPayloadIsDecoded();
+
+        thenExceptionOccurred(KuraInvalidMessageException.class);
+    }
+
+    @Test
+    public void shouldDecodeMetricsLazily() {
+        givenMetric(KuraMetric.newBuilder().setName("int").setType(ValueType.INT32).setIntValue(3));
+        givenEncodedPayload();
+
+        whenPayloadIsDecoded();
+        whenMetricIsAdded("other", 4);
+
+        thenMetricCountIs(2);
+        thenMetricIs("int", 3);
+        thenMetricIs("other", 4);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenMetric(KuraMetric.Builder metric) {
+        this.builder.addMetric(metric);
+    }
+
+    private void givenTimestamp(long timestamp) {
+        this.builder.setTimestamp(timestamp);
+    }
+
+    private void givenPosition(KuraPayloadProto.KuraPayload.KuraPosition.Builder position) {
+        this.builder.setPosition(position);
+    }
+
+    private void givenBody(byte[] body) {
+        this.builder.setBody(ByteString.copyFrom(body));
+    }
+
+    private void givenUnknownField(int fieldNumber, long value) {
+        this.builder.setUnknownFields(UnknownFieldSet.newBuilder()
+                .addField(fieldNumber, UnknownFieldSet.Field.newBuilder().addVarint(value).build()).build());
+    }
+
+    private void givenEncodedPayload() {
+        this.encoded = this.builder.build().toByteArray();
+    }
+
+    private void givenEncodedPayload(byte[] encoded) {
+        this.encoded = encoded;
+    }
+
+    private void givenCompressedPayload() throws Exception {
+        this.encoded = GZipUtil.compress(this.encoded);
+    }
+
+    private void givenTruncatedPayload(int removedBytes) {
+        byte[] truncated = new byte[this.encoded.length - removedBytes];
+        System.arraycopy(this.encoded, 0, truncated, 0, truncated.length);
+        this.encoded = truncated;
+    }
+
+    /*
+     * When
+     */
+
+    private void whenPayloadIsDecoded() {
+        try {
+            this.decoded = new CloudPayloadProtoBufDecoderImpl(this.encoded).buildFromByteArray();
+        } catch (Exception e) {
+            this.occurredException = e;
+        }
+    }
+
+    private void whenMetricIsAdded(String name, Object value) {
+        this.decoded.addMetric(name, value);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenMetricCountIs(int count) {
+        assertNull(this.occurredException);
+        assertEquals(count, this.decoded.metrics().size());
+    }
+
+    private void thenMetricIs(String name, Object value) {
+        assertEquals(value, this.decoded.getMetric(name));
+    }
+
+    private void thenBytesMetricIs(String name, byte[] value) {
+        assertArrayEquals(value, (byte[]) this.decoded.getMetric(name));
+    }
+
+    private void thenTimestampIs(long timestamp) {
+        assertEquals(new Date(timestamp), this.decoded.getTimestamp());
+    }
+
+    private void thenPositionIs(double latitude, double longitude, int satellites, long timestamp) {
+        assertNotNull(this.decoded.getPosition());
+        assertEquals(latitude, this.decoded.getPosition().getLatitude(), 0.0);
+        assertEquals(longitude, this.decoded.getPosition().getLongitude(), 0.0);
+        assertEquals(satellites, (int) this.decoded.getPosition().getSatellites());
+        assertEquals(new Date(timestamp), this.decoded.getPosition().getTimestamp());
+        assertNull(this.decoded.getPosition().getAltitude());
+    }
+
+    private void thenBodyIs(byte[] body) {
+        assertArrayEquals(body, this.decoded.getBody());
+    }
+
+    private void thenExceptionOccurred(Class<? extends Exception> clazz) {
+        assertNotNull(this.occurredException);
+        assertTrue(clazz.isInstance(this.occurredException));
+    }
+}
@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric.ValueType;
+import org.eclipse.kura.message.KuraPayload;
+import org.eclipse.kura.message.KuraPosition;
+import org.junit.Test;
+
+import com.google.protobuf.ByteString;
+
+public class CloudPayloadProtoBufEncoderImplTest {
+
+    private final KuraPayload kuraPayload = new KuraPayload();
+    private byte[] encoded;
+    private Exception occurredException;
+
+    @Test
+    public void shouldEncodeEmptyPayload() {
+        whenPayloadIsEncoded();
+
+        thenEncodedPayloadIsSameAsGeneratedCode();
+        thenEncodedPayloadLengthIs(0);
+    }
+
+    @Test
+    public void shouldEncodeAllMetricTypes() {
+        givenTimestamp(1700000000000L);
+        givenMetric("string", "value \u00e8\u4e91");
+        givenMetric("double", 1.5d);
+        givenMetric("float", 2.5f);
+        givenMetric("int", -3);
+        givenMetric("long", Long.MAX_VALUE);
+        givenMetric("bool", true);
+        givenMetric("bytes", new byte[] { 1, 2, 3 });
+        givenMetric("emptyString", "");
+        givenMetric("emptyBytes", new byte[0]);
+
+        whenPayloadIsEncoded();
+
+        thenEncodedPayloadIsSameAsGeneratedCode();
+    }
+
+    @Test
+    public void shouldEncodePositionAndBody() {
+        givenTimestamp(1700000000000L);
+        givenFullPosition();
+        givenMetric("temperature", 20.5d);
+        givenBody("body".getBytes(StandardCharsets.UTF_8));
+
+        whenPayloadIsEncoded();
+
+        thenEncodedPayloadIsSameAsGeneratedCode();
+    }
+
+    @Test
+    public void shouldSkipNullMetrics() {
+        givenMetric("null", null);
+        givenMetric("notNull", 1);
+
+        whenPayloadIsEncoded();
+
+        thenEncodedPayloadIsSameAsGeneratedCode();
+        thenEncodedMetricCountIs(1);
+    }
+
+    @Test
+    public void shouldRejectUnsupportedMetricTypes() {
+        givenMetric("unsupported", new Date());
+
+        whenPayloadIsEncoded();
+
+        thenExceptionOccurred(RuntimeException.class);
+    }
+
+    @Test
+    public void shouldRejectPositionWithoutCoordinates() {
+        givenPosition(new KuraPosition());
+
+        whenPayloadIsEncoded();
+
+        thenExceptionOccurred(IOException.class);
+    }
+
+    @Test
+    public void shouldBeDecodedBackByTheDecoder() throws Exception {
+        givenTimestamp(1700000000000L);
+        givenFullPosition();
+        givenMetric("string", "value");
+        givenMetric("bytes", new byte[] { 1, 2, 3 });
+        givenMetric("long", 42L);
+        givenBody(new byte[] { 4, 5 });
+
+        whenPayloadIsEncoded();
+
+        thenDecodedPayloadIsEqualToOriginal();
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenTimestamp(long timestamp) {
+        this.kuraPayload.setTimestamp(new Date(timestamp));
+    }
+
+    private void givenMetric(String name, Object value) {
+        this.kuraPayload.addMetric(name, value);
+    }
+
+    private void givenBody(byte[] body) {
+        this.kuraPayload.setBody(body);
+    }
+
+    private void givenPosition(KuraPosition position) {
+        this.kuraPayload.setPosition(position);
+    }
+
+    private void givenFullPosition() {
+        KuraPosition position = new KuraPosition();
+        position.setLatitude(45.5);
+        position.setLongitude(12.3);
+        position.setAltitude(10.0);
+        position.setPrecision(1.0);
+        position.setHeading(90.0);
+        position.setSpeed(3.5);
+        position.setTimestamp(new Date(1700000000001L));
+        position.setSatellites(8);
+        position.setStatus(4);
+        givenPosition(position);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenPayloadIsEncoded() {
+        try {
+            this.encoded = new CloudPayloadProtoBufEncoderImpl(this.kuraPayload).getBytes();
+        } catch (Exception e) {
+            this.occurredException = e;
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenEncodedPayloadIsSameAsGeneratedCode() {
+        assertNotNull(this.encoded);
+        assertArrayEquals(encodeWithGeneratedCode(this.kuraPayload), this.encoded);
+    }
+
+    private void thenEncodedPayloadLengthIs(int length) {
+        assertEquals(length, this.encoded.length);
+    }
+
+    private void thenEncodedMetricCountIs(int count) {
+        try {
+            assertEquals(count, KuraPayloadProto.KuraPayload.parseFrom(this.encoded).getMetricCount());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void thenExceptionOccurred(Class<? extends Exception> clazz) {
+        assertNotNull(this.occurredException);
+        assertTrue(clazz.isInstance(this.occurredException));
+    }
+
+    private void thenDecodedPayloadIsEqualToOriginal() throws Exception {
+        KuraPayload decoded = new CloudPayloadProtoBufDecoderImpl(this.encoded).buildFromByteArray();
+
+        assertEquals(this.kuraPayload.getTimestamp(), decoded.getTimestamp());
+        assertEquals(this.kuraPayload.getPosition().getLatitude(), decoded.getPosition().getLatitude());
+        assertEquals(this.kuraPayload.getPosition().getTimestamp(), decoded.getPosition().getTimestamp());
+        assertEquals(this.kuraPayload.getPosition().getStatus(), decoded.getPosition().getStatus());
+        assertArrayEquals(this.kuraPayload.getBody(), decoded.getBody());
+        assertEquals(this.kuraPayload.metrics().size(), decoded.metrics().size());
+
+        for (Map.Entry<String, Object> entry : this.kuraPayload.metrics().entrySet()) {
+            Object value = decoded.getMetric(entry.getKey());
+            if (entry.getValue() instanceof byte[]) {
+                assertArrayEquals((byte[]) entry.getValue(), (byte[]) value);
+            } else {
+                assertEquals(entry.getValue(), value);
+            }
+        }
+        assertFalse(decoded.metricNames().isEmpty());
+    }
+
+    /*
+     * Utilities
+     */
+
+    // the builder based encoding used by previous versions
+    private static byte[] encodeWithGeneratedCode(KuraPayload kuraPayload) {
+        KuraPayloadProto.KuraPayload.Builder protoMsg = KuraPayloadProto.KuraPayload.newBuilder();
+
+        if (kuraPayload.getTimestamp() != null) {
+            protoMsg.setTimestamp(kuraPayload.getTimestamp().getTime());
+        }
+
+        KuraPosition position = kuraPayload.getPosition();
+        if (position != null) {
+            KuraPayloadProto.KuraPayload.KuraPosition.Builder protoPos = KuraPayloadProto.KuraPayload.KuraPosition
+                    .newBuilder();
+            protoPos.setLatitude(position.getLatitude());
+            protoPos.setLongitude(position.getLongitude());
+            protoPos.setAltitude(position.getAltitude());
+            protoPos.setPrecision(position.getPrecision());
+            protoPos.setHeading(position.getHeading());
+            protoPos.setSpeed(position.getSpeed());
+            protoPos.setTimestamp(position.getTimestamp().getTime());
+            protoPos.setSatellites(position.getSatellites());
+            protoPos.setStatus(position.getStatus());
+            protoMsg.setPosition(protoPos);
+        }
+
+        for (Map.Entry<String, Object> entry : kuraPayload.metrics().entrySet()) {
+            Object o = entry.getValue();
+            KuraMetric.Builder metric = KuraMetric.newBuilder().setName(entry.getKey());
+
+            if (o instanceof String) {
+                metric.setType(ValueType.STRING).setStringValue((String) o);
+            } else if (o instanceof Double) {
+                metric.setType(ValueType.DOUBLE).setDoubleValue((Double) o);
+            } else if (o instanceof Integer) {
+                metric.setType(ValueType.INT32).setIntValue((Integer) o);
+            } else if (o instanceof Float) {
+                metric.setType(ValueType.FLOAT).setFloatValue((Float) o);
+            } else if (o instanceof Long) {
+                metric.setType(ValueType.INT64).setLongValue((Long) o);
+            } else if (o instanceof Boolean) {
+                metric.setType(ValueType.BOOL).setBoolValue((Boolean) o);
+            } else if (o instanceof byte[]) {
+                metric.setType(ValueType.BYTES).setBytesValue(ByteString.copyFrom((byte[]) o));
+            } else {
+                continue;
+            }
+            protoMsg.addMetric(metric);
+        }
+
+        if (kuraPayload.getBody() != null) {
+            protoMsg.setBody(ByteString.copyFrom(kuraPayload.getBody()));
+        }
+
+        return protoMsg.build().toByteArray();
+    }
+}
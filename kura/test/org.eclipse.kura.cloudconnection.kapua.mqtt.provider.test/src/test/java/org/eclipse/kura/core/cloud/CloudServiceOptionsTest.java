@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kura.core.cloud;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -19,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,6 +38,9 @@ public class CloudServiceOptionsTest {
     private static final String DEVICE_DISPLAY_NAME = "device.display-name";
     private static final String DEVICE_CUSTOM_NAME = "device.custom-name";
     private static final String ENCODE_GZIP = "encode.gzip";
+    private static final String ENCODE_COMPRESSION = "encode.compression";
+    private static final String ENCODE_COMPRESSION_THRESHOLD = "encode.compression.threshold";
+    private static final String ENCODE_COMPRESSION_DICTIONARY = "encode.compression.dictionary";
     private static final String REPUB_BIRTH_ON_GPS_LOCK = "republish.mqtt.birth.cert.on.gps.lock";
     private static final String ENABLE_DFLT_SUBSCRIPTIONS = "enable.default.subscriptions";
     private static final String PAYLOAD_ENCODING = "payload.encoding";
@@ -206,6 +211,41 @@ public class CloudServiceOptionsTest {
         assertTrue(gzip);
     }
 
+    @Test
+    public void testGetCompressionNullProps() {
+        CloudServiceOptions options = new CloudServiceOptions(null, systemService);
+
+        assertEquals(CloudPayloadCompression.GZIP, options.getCompression());
+        assertEquals(0, options.getCompressionThreshold());
+        assertEquals(0, options.getCompressionDictionary().length);
+    }
+
+    @Test
+    public void testGetCompressionInvalid() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ENCODE_COMPRESSION, "invalid");
+        properties.put(ENCODE_COMPRESSION_THRESHOLD, -10);
+
+        CloudServiceOptions options = new CloudServiceOptions(properties, systemService);
+
+        assertEquals(CloudPayloadCompression.GZIP, options.getCompression());
+        assertEquals(0, options.getCompressionThreshold());
+    }
+
+    @Test
+    public void testGetCompression() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ENCODE_COMPRESSION, "deflate");
+        properties.put(ENCODE_COMPRESSION_THRESHOLD, 256);
+        properties.put(ENCODE_COMPRESSION_DICTIONARY, "temperature");
+
+        CloudServiceOptions options = new CloudServiceOptions(properties, systemService);
+
+        assertEquals(CloudPayloadCompression.DEFLATE, options.getCompression());
+        assertEquals(256, options.getCompressionThreshold());
+        assertArrayEquals("temperature".getBytes(StandardCharsets.UTF_8), options.getCompressionDictionary());
+    }
+
     @Test
     public void testGetRepubBirthCertOnGpsLockNullProps() {
         CloudServiceOptions options = new CloudServiceOptions(null, systemService);
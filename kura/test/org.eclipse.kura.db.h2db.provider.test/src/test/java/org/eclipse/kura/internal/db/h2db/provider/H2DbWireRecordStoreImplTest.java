@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.db.h2db.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.kura.util.jdbc.ConnectionProvider;
+import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.wire.WireRecord;
+import org.junit.After;
+import org.junit.Test;
+
+public class H2DbWireRecordStoreImplTest {
+
+    private static final String TABLE_NAME = "wire-records";
+    private static final int MAX_STRING_LENGTH = 102400;
+
+    private static int dbCount = 0;
+
+    private Connection connection;
+    private H2DbWireRecordStoreImpl store;
+    private Exception occurredException;
+
+    /*
+     * Scenarios
+     */
+
+    @Test
+    public void shouldStoreRecordsWithDifferentKeysInTheSameEnvelope() {
+        givenWireRecordStore();
+
+        whenRecordsAreInserted(record("A", TypedValues.newIntegerValue(1)),
+                record("A", TypedValues.newIntegerValue(2)), record("B", TypedValues.newStringValue("foo")),
+                record("A", TypedValues.newIntegerValue(3), "B", TypedValues.newStringValue("bar")),
+                record("A", TypedValues.newIntegerValue(4)));
+
+        thenNoExceptionOccurred();
+        thenColumnValuesAre("A", 1, 2, null, 3, 4);
+        thenColumnValuesAre("B", null, null, "foo", "bar", null);
+    }
+
+    @Test
+    public void shouldChangeColumnTypeWhenValueTypeChanges() {
+        givenWireRecordStore();
+        givenInsertedRecords(record("A", TypedValues.newIntegerValue(1)));
+
+        whenRecordsAreInserted(record("A", TypedValues.newStringValue("foo")));
+
+        thenNoExceptionOccurred();
+        thenColumnTypeIs("A", "CHARACTER VARYING");
+        thenColumnValuesAre("A", null, "foo");
+    }
+
+    @Test
+    public void shouldProbeColumnsAgainForCachedColumnSetsAfterColumnTypeChange() {
+        givenWireRecordStore();
+        givenInsertedRecords(record("A", TypedValues.newIntegerValue(1)));
+        givenInsertedRecords(record("A", TypedValues.newStringValue("foo")));
+
+        whenRecordsAreInserted(record("A", TypedValues.newIntegerValue(2)));
+
+        thenNoExceptionOccurred();
+        thenColumnTypeIs("A", "INTEGER");
+        thenColumnValuesAre("A", null, null, 2);
+    }
+
+    @Test
+    public void shouldReconcileColumnsOfCachedColumnSetChangedExternally() {
+        givenWireRecordStore();
+        givenInsertedRecords(record("A", TypedValues.newIntegerValue(1)));
+        givenExecuted("ALTER TABLE \"" + TABLE_NAME + "\" DROP COLUMN \"A\"");
+
+        whenRecordsAreInserted(record("A", TypedValues.newIntegerValue(2)),
+                record("A", TypedValues.newIntegerValue(3)));
+
+        thenNoExceptionOccurred();
+        thenColumnTypeIs("A", "INTEGER");
+        thenColumnValuesAre("A", null, 2, 3);
+    }
+
+    @Test
+    public void shouldRollbackAllRecordsIfABatchFails() {
+        givenWireRecordStore();
+
+        whenRecordsAreInserted(record("A", TypedValues.newStringValue("foo")),
+                record("A", TypedValues.newStringValue("bar")),
+                record("A", TypedValues.newStringValue(tooLongString())));
+
+        thenExceptionOccurred();
+        thenRecordCountIs(0);
+    }
+
+    @Test
+    public void shouldRollbackPreviousBatchesIfALaterBatchFails() {
+        givenWireRecordStore();
+        givenInsertedRecords(record("A", TypedValues.newIntegerValue(1)),
+                record("B", TypedValues.newStringValue("foo")));
+
+        whenRecordsAreInserted(record("A", TypedValues.newIntegerValue(2)),
+                record("A", TypedValues.newIntegerValue(3)),
+                record("B", TypedValues.newStringValue(tooLongString())),
+                record("A", TypedValues.newIntegerValue(4)));
+
+        thenExceptionOccurred();
+        thenColumnValuesAre("A", 1, null);
+        thenColumnValuesAre("B", null, "foo");
+    }
+
+    /*
+     * Steps
+     */
+
+    /*
+     * Given
+     */
+
+    private void givenWireRecordStore() {
+        try {
+            this.connection = DriverManager.getConnection("jdbc:h2:mem:wirerecordstoretest" + dbCount++, "sa", "");
+
+            this.store = new H2DbWireRecordStoreImpl(new ConnectionProvider() {
+
+                @Override
+                public <T> T withConnection(final SQLFunction<Connection, T> task) throws SQLException {
+                    return task.call(H2DbWireRecordStoreImplTest.this.connection);
+                }
+            }, TABLE_NAME);
+        } catch (SQLException | KuraStoreException e) {
+            fail("failed to create wire record store: " + e);
+        }
+    }
+
+    private void givenInsertedRecords(final WireRecord... records) {
+        try {
+            this.store.insertRecords(Arrays.asList(records));
+        } catch (KuraStoreException e) {
+            fail("failed to insert records: " + e);
+        }
+    }
+
+    private void givenExecuted(final String sql) {
+        try (final Statement stmt = this.connection.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            fail("failed to execute statement: " + e);
+        }
+    }
+
+    /*
+     * When
+     */
+
+    private void whenRecordsAreInserted(final WireRecord... records) {
+        try {
+            this.store.insertRecords(Arrays.asList(records));
+        } catch (KuraStoreException e) {
+            this.occurredException = e;
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenNoExceptionOccurred() {
+        assertNull(this.occurredException);
+    }
+
+    private void thenExceptionOccurred() {
+        assertTrue(this.occurredException instanceof KuraStoreException);
+    }
+
+    private void thenColumnValuesAre(final String column, final Object... expectedValues) {
+        final List<Object> values = new ArrayList<>();
+
+        try (final Statement stmt = this.connection.createStatement();
+                final ResultSet rs = stmt
+                        .executeQuery("SELECT \"" + column + "\" FROM \"" + TABLE_NAME + "\" ORDER BY ID ASC")) {
+            while (rs.next()) {
+                values.add(rs.getObject(1));
+            }
+        } catch (SQLException e) {
+            fail("failed to read column values: " + e);
+        }
+
+        assertEquals(Arrays.asList(expectedValues), values);
+    }
+
+    private void thenColumnTypeIs(final String column, final String expectedType) {
+        try (final ResultSet rs = this.connection.getMetaData().getColumns(null, null, TABLE_NAME, column)) {
+            assertTrue(rs.next());
+            assertEquals(expectedType, rs.getString("TYPE_NAME"));
+        } catch (SQLException e) {
+            fail("failed to read column type: " + e);
+        }
+    }
+
+    private void thenRecordCountIs(final int expectedCount) {
+        try {
+            assertEquals(expectedCount, this.store.getSize());
+        } catch (KuraStoreException e) {
+            fail("failed to get store size: " + e);
+        }
+    }
+
+    /*
+     * Utilities
+     */
+
+    private static WireRecord record(final String key, final TypedValue<?> value) {
+        final Map<String, TypedValue<?>> properties = new HashMap<>();
+        properties.put(key, value);
+        return new WireRecord(properties);
+    }
+
+    private static WireRecord record(final String key1, final TypedValue<?> value1, final String key2,
+            final TypedValue<?> value2) {
+        final Map<String, TypedValue<?>> properties = new HashMap<>();
+        properties.put(key1, value1);
+        properties.put(key2, value2);
+        return new WireRecord(properties);
+    }
+
+    private static String tooLongString() {
+        final char[] chars = new char[MAX_STRING_LENGTH + 1];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    @After
+    public void closeConnection() throws SQLException {
+        if (this.connection != null) {
+            this.connection.close();
+        }
+    }
+}
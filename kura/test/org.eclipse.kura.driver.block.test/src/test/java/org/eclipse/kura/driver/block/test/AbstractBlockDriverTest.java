@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -19,7 +19,14 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -30,6 +37,7 @@ import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.driver.ChannelDescriptor;
 import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.eclipse.kura.driver.PreparedRead;
 import org.eclipse.kura.driver.binary.Buffer;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.ProhibitedBlock;
@@ -37,6 +45,7 @@ import org.eclipse.kura.driver.block.task.AbstractBlockDriver;
 import org.eclipse.kura.driver.block.task.AbstractBlockDriver.Pair;
 import org.eclipse.kura.driver.block.task.BlockTask;
 import org.eclipse.kura.driver.block.task.BlockTaskAggregator;
+import org.eclipse.kura.driver.block.task.ChannelBlockTask;
 import org.eclipse.kura.driver.block.task.Mode;
 import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
 import org.eclipse.kura.driver.block.task.UpdateBlockTask;
@@ -187,6 +196,185 @@ public class AbstractBlockDriverTest {
         }
     }
 
+    @Test
+    public void shouldMergeReadsRequestedWhileDriverIsBusy() throws Exception {
+        RecordDriver driver = new RecordDriver(100);
+        List<ChannelRecord> busyRecords = recordsFor(2, 100, 110);
+        List<ChannelRecord> firstRecords = recordsFor(1, 0, 5);
+        List<ChannelRecord> secondRecords = recordsFor(1, 5, 10);
+
+        Thread busy = startThread(() -> driver.read(busyRecords));
+        assertTrue(driver.entered.await(5, TimeUnit.SECONDS));
+
+        Thread first = startThread(() -> driver.read(firstRecords));
+        waitUntilWaiting(first);
+        Thread second = startThread(() -> driver.read(secondRecords));
+        waitUntilWaiting(second);
+
+        driver.release.countDown();
+        joinAll(busy, first, second);
+
+        assertEquals(Arrays.asList("2:100-110", "1:0-10"), driver.transfers);
+        for (List<ChannelRecord> records : Arrays.asList(busyRecords, firstRecords, secondRecords)) {
+            for (ChannelRecord record : records) {
+                assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+                assertEquals(true, record.getValue().getValue());
+            }
+        }
+    }
+
+    @Test
+    public void shouldServeFrequentPreparedReadsFirst() throws Exception {
+        RecordDriver driver = new RecordDriver(100);
+        List<ChannelRecord> slowRecords = recordsFor(1, 0, 5);
+        List<ChannelRecord> fastRecords = recordsFor(2, 0, 5);
+        PreparedRead slow = driver.prepareRead(slowRecords);
+        PreparedRead fast = driver.prepareRead(fastRecords);
+
+        slow.execute();
+        fast.execute();
+        fast.execute();
+        Thread.sleep(50);
+        slow.execute();
+        driver.transfers.clear();
+
+        Thread busy = startThread(() -> driver.read(recordsFor(3, 100, 110)));
+        assertTrue(driver.entered.await(5, TimeUnit.SECONDS));
+
+        Thread slowThread = startThread(slow::execute);
+        waitUntilWaiting(slowThread);
+        Thread fastThread = startThread(fast::execute);
+        waitUntilWaiting(fastThread);
+
+        driver.release.countDown();
+        joinAll(busy, slowThread, fastThread);
+
+        assertEquals(Arrays.asList("3:100-110", "2:0-5", "1:0-5"), driver.transfers);
+        for (ChannelRecord record : slowRecords) {
+            assertEquals(true, record.getValue().getValue());
+        }
+        for (ChannelRecord record : fastRecords) {
+            assertEquals(true, record.getValue().getValue());
+        }
+    }
+
+    @Test
+    public void shouldReportConnectionFailureToQueuedReads() throws Exception {
+        RecordDriver driver = new RecordDriver(100);
+        List<ConnectionException> failures = Collections.synchronizedList(new ArrayList<>());
+
+        Thread busy = startThread(() -> driver.read(recordsFor(2, 100, 110)));
+        assertTrue(driver.entered.await(5, TimeUnit.SECONDS));
+
+        Thread first = startThread(() -> {
+            try {
+                driver.read(recordsFor(1, 0, 5));
+            } catch (ConnectionException e) {
+                failures.add(e);
+            }
+        });
+        waitUntilWaiting(first);
+        Thread second = startThread(() -> {
+            try {
+                driver.read(recordsFor(1, 5, 10));
+            } catch (ConnectionException e) {
+                failures.add(e);
+            }
+        });
+        waitUntilWaiting(second);
+
+        driver.connected = false;
+        driver.release.countDown();
+        joinAll(busy, first, second);
+
+        assertEquals(2, failures.size());
+        assertEquals(Collections.singletonList("2:100-110"), driver.transfers);
+    }
+
+    @Test
+    public void shouldWaitForRunningBatchIfQueuedReadIsInterrupted() throws Exception {
+        RecordDriver driver = new RecordDriver(100);
+        driver.pausingStart = 200;
+        List<ChannelRecord> firstRecords = recordsFor(3, 200, 210);
+        List<ChannelRecord> secondRecords = recordsFor(1, 0, 5);
+        Map<Thread, Boolean> interruptFlags = new ConcurrentHashMap<>();
+
+        Thread busy = startThread(() -> driver.read(recordsFor(2, 100, 110)));
+        assertTrue(driver.entered.await(5, TimeUnit.SECONDS));
+
+        Thread first = startThread(() -> {
+            driver.read(firstRecords);
+            interruptFlags.put(Thread.currentThread(), Thread.currentThread().isInterrupted());
+        });
+        waitUntilWaiting(first);
+        Thread second = startThread(() -> {
+            driver.read(secondRecords);
+            interruptFlags.put(Thread.currentThread(), Thread.currentThread().isInterrupted());
+        });
+        waitUntilWaiting(second);
+
+        driver.release.countDown();
+        assertTrue(driver.paused.await(5, TimeUnit.SECONDS));
+
+        Thread queued = driver.pausedThread == first ? second : first;
+        queued.interrupt();
+        queued.join(100);
+        assertTrue(queued.isAlive());
+
+        driver.resume.countDown();
+        joinAll(busy, first, second);
+
+        assertEquals(true, interruptFlags.get(queued));
+        for (List<ChannelRecord> records : Arrays.asList(firstRecords, secondRecords)) {
+            for (ChannelRecord record : records) {
+                assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+                assertEquals(true, record.getValue().getValue());
+            }
+        }
+    }
+
+    private List<ChannelRecord> recordsFor(int domain, int start, int end) {
+        ChannelRecord record = ChannelRecord.createReadRecord(domain + ":" + start, DataType.BOOLEAN);
+        Map<String, Object> config = new HashMap<>();
+        config.put("domain", domain);
+        config.put("start", start);
+        config.put("end", end);
+        record.setChannelConfig(config);
+        return Collections.singletonList(record);
+    }
+
+    private Thread startThread(IORunnable runnable) {
+        Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void waitUntilWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private void joinAll(Thread... threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertTrue(!thread.isAlive());
+        }
+    }
+
+    private interface IORunnable {
+
+        void run() throws Exception;
+    }
+
     private List<Pair<Integer, BlockTask>> testTasks(int domain, Mode mode, int... ranges) {
         assertTrue(ranges.length % 2 == 0);
         List<Pair<Integer, BlockTask>> result = new ArrayList<>(ranges.length / 2);
@@ -352,4 +540,91 @@ public class AbstractBlockDriverTest {
         }
 
     }
+
+    private class RecordTask extends ChannelBlockTask {
+
+        public RecordTask(ChannelRecord record, int start, int end) {
+            super(record, start, end, Mode.READ);
+        }
+
+        @Override
+        public void run() throws IOException {
+            this.record.setValue(TypedValues.newBooleanValue(true));
+            onSuccess();
+        }
+    }
+
+    private class RecordDriver extends AbstractBlockDriver<Integer> {
+
+        private final int blockingStart;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch paused = new CountDownLatch(1);
+        private final CountDownLatch resume = new CountDownLatch(1);
+        private final List<String> transfers = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean connected = true;
+        private volatile int pausingStart = -1;
+        private volatile Thread pausedThread;
+
+        public RecordDriver(int blockingStart) {
+            this.blockingStart = blockingStart;
+        }
+
+        @Override
+        public void connect() throws ConnectionException {
+            if (!this.connected) {
+                throw new ConnectionException("not connected");
+            }
+        }
+
+        @Override
+        public void disconnect() throws ConnectionException {
+        }
+
+        @Override
+        public ChannelDescriptor getChannelDescriptor() {
+            return null;
+        }
+
+        @Override
+        protected BlockFactory<ToplevelBlockTask> getTaskFactoryForDomain(Integer domain, Mode mode) {
+            return (start, end) -> new ToplevelBlockTask(start, end, mode) {
+
+                @Override
+                public void processBuffer() throws IOException {
+                    RecordDriver.this.transfers.add(domain + ":" + getStart() + "-" + getEnd());
+                    if (getStart() == RecordDriver.this.blockingStart) {
+                        RecordDriver.this.entered.countDown();
+                        try {
+                            assertTrue(RecordDriver.this.release.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    } else if (getStart() == RecordDriver.this.pausingStart) {
+                        RecordDriver.this.pausedThread = Thread.currentThread();
+                        RecordDriver.this.paused.countDown();
+                        try {
+                            assertTrue(RecordDriver.this.resume.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+
+                @Override
+                public Buffer getBuffer() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        protected Stream<Pair<Integer, BlockTask>> toTasks(List<ChannelRecord> records, Mode mode) {
+            return records.stream().map(record -> {
+                Map<String, Object> config = record.getChannelConfig();
+                return new Pair<>((Integer) config.get("domain"),
+                        new RecordTask(record, (Integer) config.get("start"), (Integer) config.get("end")));
+            });
+        }
+    }
 }
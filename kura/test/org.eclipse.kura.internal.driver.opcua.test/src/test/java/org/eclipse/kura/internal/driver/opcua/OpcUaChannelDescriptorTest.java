@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,8 @@ import org.eclipse.kura.core.configuration.metatype.Tad;
 import org.eclipse.milo.opcua.stack.core.types.builtin.ByteString;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DataChangeTrigger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.DeadbandType;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
 import org.junit.Test;
 
@@ -35,6 +37,9 @@ public class OpcUaChannelDescriptorTest {
     private static final String NODE_ID_TYPE = "node.id.type";
     private static final String NODE_NAMESPACE_INDEX = "node.namespace.index";
     private static final String VARIABLE_TYPE = "opcua.type";
+    private static final String DATA_CHANGE_TRIGGER = "listen.data.change.trigger";
+    private static final String DEADBAND_TYPE = "listen.deadband.type";
+    private static final String DEADBAND_VALUE = "listen.deadband.value";
 
     @Test
     public void testGetDescriptor() {
@@ -43,7 +48,7 @@ public class OpcUaChannelDescriptorTest {
         List<Tad> description = (List<Tad>) descriptor.getDescriptor();
 
         assertNotNull(description);
-        assertEquals(9, description.size());
+        assertEquals(12, description.size());
 
         assertEquals("%" + NODE_ID, description.get(0).getName());
         assertEquals("%" + NODE_NAMESPACE_INDEX, description.get(1).getName());
@@ -146,4 +151,32 @@ public class OpcUaChannelDescriptorTest {
             // OK
         }
     }
+
+    @Test
+    public void testGetDataChangeFilterParameters() {
+        Map<String, Object> properties = new HashMap<>();
+
+        // defaults for configurations created before the parameters were introduced
+        assertEquals(DataChangeTrigger.StatusValue, OpcUaChannelDescriptor.getDataChangeTrigger(properties));
+        assertEquals(DeadbandType.None, OpcUaChannelDescriptor.getDeadbandType(properties));
+        assertEquals(0.0, OpcUaChannelDescriptor.getDeadbandValue(properties), 0.0);
+
+        properties.put(DATA_CHANGE_TRIGGER, "StatusValueTimestamp");
+        properties.put(DEADBAND_TYPE, "Percent");
+        properties.put(DEADBAND_VALUE, 2.5);
+
+        assertEquals(DataChangeTrigger.StatusValueTimestamp, OpcUaChannelDescriptor.getDataChangeTrigger(properties));
+        assertEquals(DeadbandType.Percent, OpcUaChannelDescriptor.getDeadbandType(properties));
+        assertEquals(2.5, OpcUaChannelDescriptor.getDeadbandValue(properties), 0.0);
+
+        // exception case
+        properties.put(DEADBAND_TYPE, "Relative");
+
+        try {
+            OpcUaChannelDescriptor.getDeadbandType(properties);
+            fail("Exception was expected.");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.channel.ChannelFlag;
@@ -321,4 +323,70 @@ public class OpcUaDriverTest {
         assertEquals(123, record.getValue().getValue());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReadConcurrentChunks() throws ConnectionException, NoSuchFieldException, InterruptedException,
+            ExecutionException, TimeoutException {
+        // test that chunks are sent without waiting for the previous responses and results are filled in order
+
+        OpcUaDriver svc = new OpcUaDriver();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("request.timeout", 1);
+        properties.put("max.request.items", 1);
+        properties.put("max.concurrent.requests", 2);
+        CryptoService csMock = mock(CryptoService.class);
+        OpcUaOptions options = new OpcUaOptions(properties, csMock);
+
+        TestUtil.setFieldValue(svc, "options", options);
+
+        OpcUaClient clientMock = createClientMock();
+
+        ConnectionManager manager = new ConnectionManager(clientMock, options, (a, b) -> {
+        }, new ListenerRegistrationRegistry(), new ListenerRegistrationRegistry());
+
+        TestUtil.setFieldValue(svc, "connectionManager", Optional.of(manager));
+
+        AtomicInteger sentRequests = new AtomicInteger();
+        List<Integer> sentRequestsOnResponse = new ArrayList<>();
+        List<CompletableFuture<ReadResponse>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            ReadResponse response = mock(ReadResponse.class);
+            when(response.getResults())
+                    .thenReturn(new DataValue[] { new DataValue(new Variant(Integer.toString(i)), StatusCode.GOOD) });
+
+            CompletableFuture<ReadResponse> future = mock(CompletableFuture.class);
+            when(future.get(1000, TimeUnit.MILLISECONDS)).thenAnswer(invocation -> {
+                sentRequestsOnResponse.add(sentRequests.get());
+                return response;
+            });
+            futures.add(future);
+        }
+
+        when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), any()))
+                .thenAnswer(invocation -> futures.get(sentRequests.getAndIncrement()));
+
+        List<ChannelRecord> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ChannelRecord record = ChannelRecord.createReadRecord("ch" + i, DataType.INTEGER);
+            Map<String, Object> channelConfig = new HashMap<>();
+            channelConfig.put("node.namespace.index", "1");
+            channelConfig.put("node.id.type", "NUMERIC");
+            channelConfig.put("opcua.type", "DEFINED_BY_JAVA_TYPE");
+            channelConfig.put("node.id", Integer.toString(i));
+            channelConfig.put("attribute", "Value");
+            record.setChannelConfig(channelConfig);
+            records.add(record);
+        }
+
+        svc.read(records);
+
+        assertEquals(Arrays.asList(2, 3, 3), sentRequestsOnResponse);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ChannelFlag.SUCCESS, records.get(i).getChannelStatus().getChannelFlag());
+            assertEquals(i, records.get(i).getValue().getValue());
+        }
+    }
+
 }
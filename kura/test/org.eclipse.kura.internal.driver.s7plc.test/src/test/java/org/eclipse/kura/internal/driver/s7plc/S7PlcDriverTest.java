@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,35 +12,49 @@
  ******************************************************************************/
 package org.eclipse.kura.internal.driver.s7plc;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.driver.ChannelDescriptor;
 import org.eclipse.kura.driver.Driver.ConnectionException;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.task.BlockTask;
+import org.eclipse.kura.driver.block.task.ByteArrayTask;
 import org.eclipse.kura.driver.block.task.Mode;
 import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
+import org.eclipse.kura.internal.driver.s7plc.task.S7PlcToplevelBlockTask;
+import org.eclipse.kura.type.TypedValues;
 import org.junit.Test;
 
 import Moka7.S7;
 import Moka7.S7Client;
+import Moka7.S7DataItem;
 
 public class S7PlcDriverTest {
 
@@ -335,4 +349,137 @@ public class S7PlcDriverTest {
 
         verify(s7Mock, times(1)).WriteArea(S7.S7AreaDB, db, offset, data.length, data);
     }
+
+    @Test
+    public void testRunTasksWithMultiVarRead() throws ConnectionException {
+        // blocks are read with a single request, the ones that fail are read again with a dedicated request
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+        svc.activate(Collections.emptyMap());
+        svc.connect();
+        s7Mock.Connected = true;
+
+        when(s7Mock.PDULength()).thenReturn(480);
+        when(s7Mock.ReadMultiVars(any(), eq(3))).thenAnswer(invocation -> {
+            S7DataItem[] items = invocation.getArgument(0);
+            for (S7DataItem item : items) {
+                Arrays.fill(item.Data, 0, item.Amount, (byte) item.DBNumber);
+            }
+            items[2].Result = S7Client.errS7DataRead;
+            return 0;
+        });
+
+        S7PlcToplevelBlockTask first = new S7PlcToplevelBlockTask(svc, Mode.READ, S7.S7AreaDB, 1, 0, 4);
+        S7PlcToplevelBlockTask second = new S7PlcToplevelBlockTask(svc, Mode.READ, S7.S7AreaDB, 2, 10, 13);
+        S7PlcToplevelBlockTask third = new S7PlcToplevelBlockTask(svc, Mode.READ, S7.S7AreaDB, 3, 0, 2);
+        List<BlockTask> tasks = Arrays.asList(first, second, third);
+
+        svc.runTasks(tasks);
+
+        verify(s7Mock, times(1)).ReadMultiVars(any(), eq(3));
+        verify(s7Mock, never()).ReadArea(eq(S7.S7AreaDB), eq(1), anyInt(), anyInt(), any());
+        verify(s7Mock, never()).ReadArea(eq(S7.S7AreaDB), eq(2), anyInt(), anyInt(), any());
+        verify(s7Mock, times(1)).ReadArea(eq(S7.S7AreaDB), eq(3), eq(0), eq(2), any());
+        assertArrayEquals(new byte[] { 1, 1, 1, 1 }, first.toDataItem().Data);
+        assertArrayEquals(new byte[] { 2, 2, 2 }, second.toDataItem().Data);
+
+        // the transferred state is reset once the buffer has been processed
+        svc.runTasks(Collections.singletonList(first));
+
+        verify(s7Mock, times(1)).ReadArea(eq(S7.S7AreaDB), eq(1), eq(0), eq(4), any());
+    }
+
+    @Test
+    public void testRunTasksWithMultiVarReadDisabled() throws ConnectionException {
+        // each block is read with a dedicated request if multi-variable reads are disabled
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("read.multi.var", false);
+        svc.activate(properties);
+        svc.connect();
+        s7Mock.Connected = true;
+
+        when(s7Mock.PDULength()).thenReturn(480);
+
+        svc.runTasks(Arrays.asList(new S7PlcToplevelBlockTask(svc, Mode.READ, S7.S7AreaDB, 1, 0, 4),
+                new S7PlcToplevelBlockTask(svc, Mode.READ, S7.S7AreaDB, 2, 0, 4)));
+
+        verify(s7Mock, never()).ReadMultiVars(any(), anyInt());
+        verify(s7Mock, times(2)).ReadArea(eq(S7.S7AreaDB), anyInt(), eq(0), eq(4), any());
+    }
+
+    @Test
+    public void testRunTasksWithMultiVarWrite() throws ConnectionException {
+        // buffers are filled by the children before being written with a single request, the blocks that fail are
+        // written again with a dedicated request
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+        svc.activate(Collections.emptyMap());
+        svc.connect();
+        s7Mock.Connected = true;
+
+        List<byte[]> writtenData = new ArrayList<>();
+
+        when(s7Mock.PDULength()).thenReturn(480);
+        when(s7Mock.WriteMultiVars(any(), eq(3))).thenAnswer(invocation -> {
+            S7DataItem[] items = invocation.getArgument(0);
+            for (S7DataItem item : items) {
+                writtenData.add(Arrays.copyOf(item.Data, item.Amount));
+            }
+            items[2].Result = S7Client.errS7DataWrite;
+            return 0;
+        });
+
+        ChannelRecord firstRecord = ChannelRecord.createWriteRecord("first",
+                TypedValues.newByteArrayValue(new byte[] { 1, 2 }));
+        ChannelRecord secondRecord = ChannelRecord.createWriteRecord("second",
+                TypedValues.newByteArrayValue(new byte[] { 3, 4, 5 }));
+        ChannelRecord thirdRecord = ChannelRecord.createWriteRecord("third",
+                TypedValues.newByteArrayValue(new byte[] { 6 }));
+
+        S7PlcToplevelBlockTask first = new S7PlcToplevelBlockTask(svc, Mode.WRITE, S7.S7AreaDB, 1, 0, 2);
+        first.addChild(new ByteArrayTask(firstRecord, 0, 2, Mode.WRITE));
+        S7PlcToplevelBlockTask second = new S7PlcToplevelBlockTask(svc, Mode.WRITE, S7.S7AreaDB, 2, 10, 13);
+        second.addChild(new ByteArrayTask(secondRecord, 10, 13, Mode.WRITE));
+        S7PlcToplevelBlockTask third = new S7PlcToplevelBlockTask(svc, Mode.WRITE, S7.S7AreaDB, 3, 0, 1);
+        third.addChild(new ByteArrayTask(thirdRecord, 0, 1, Mode.WRITE));
+
+        svc.runTasks(Arrays.asList(first, second, third));
+
+        verify(s7Mock, times(1)).WriteMultiVars(any(), eq(3));
+        assertArrayEquals(new byte[] { 1, 2 }, writtenData.get(0));
+        assertArrayEquals(new byte[] { 3, 4, 5 }, writtenData.get(1));
+        assertArrayEquals(new byte[] { 6 }, writtenData.get(2));
+        verify(s7Mock, never()).WriteArea(eq(S7.S7AreaDB), eq(1), anyInt(), anyInt(), any());
+        verify(s7Mock, never()).WriteArea(eq(S7.S7AreaDB), eq(2), anyInt(), anyInt(), any());
+        verify(s7Mock, times(1)).WriteArea(eq(S7.S7AreaDB), eq(3), eq(0), eq(1), any());
+        assertEquals(ChannelFlag.SUCCESS, firstRecord.getChannelStatus().getChannelFlag());
+        assertEquals(ChannelFlag.SUCCESS, secondRecord.getChannelStatus().getChannelFlag());
+        assertEquals(ChannelFlag.SUCCESS, thirdRecord.getChannelStatus().getChannelFlag());
+    }
+
+    @Test
+    public void testRunTasksWithMultiVarWriteDisabled() throws ConnectionException {
+        // each block is written with a dedicated request if multi-variable writes are disabled
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("write.multi.var", false);
+        svc.activate(properties);
+        svc.connect();
+        s7Mock.Connected = true;
+
+        when(s7Mock.PDULength()).thenReturn(480);
+
+        svc.runTasks(Arrays.asList(new S7PlcToplevelBlockTask(svc, Mode.WRITE, S7.S7AreaDB, 1, 0, 4),
+                new S7PlcToplevelBlockTask(svc, Mode.WRITE, S7.S7AreaDB, 2, 0, 4)));
+
+        verify(s7Mock, never()).WriteMultiVars(any(), anyInt());
+        verify(s7Mock, times(2)).WriteArea(eq(S7.S7AreaDB), anyInt(), eq(0), eq(4), any());
+    }
 }
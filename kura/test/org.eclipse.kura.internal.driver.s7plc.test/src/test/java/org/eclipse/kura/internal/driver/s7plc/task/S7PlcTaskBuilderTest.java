@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,8 +41,68 @@ import org.eclipse.kura.internal.driver.s7plc.S7PlcDomain;
 import org.eclipse.kura.type.DataType;
 import org.junit.Test;
 
+import Moka7.S7;
+
 public class S7PlcTaskBuilderTest {
 
+    @Test
+    public void testPack() {
+        // blocks are added to the first group with enough room, oversized and timer blocks are not packed
+
+        List<S7PlcToplevelBlockTask> tasks = Arrays.asList(createReadTask(S7.S7AreaDB, 1, 100), // 0
+                createReadTask(S7.S7AreaDB, 2, 120), // 1
+                createReadTask(S7.S7AreaDB, 3, 250), // 2, does not fit the first group
+                createReadTask(S7.S7AreaDB, 4, 40), // 3, fits the first group
+                createReadTask(S7.S7AreaMK, 0, 9), // 4, fits the first group with padding
+                createReadTask(S7.S7AreaDB, 5, 500), // 5, exceeds the PDU
+                createReadTask(S7.S7AreaTM, 0, 2), // 6, not byte addressed
+                createReadTask(S7.S7AreaDB, 6, 180)); // 7, fits the second group only
+
+        List<List<S7PlcToplevelBlockTask>> groups = S7PlcTaskBuilder.pack(tasks, 480);
+
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList(tasks.get(0), tasks.get(1), tasks.get(3), tasks.get(4)), groups.get(0));
+        assertEquals(Arrays.asList(tasks.get(2), tasks.get(7)), groups.get(1));
+    }
+
+    @Test
+    public void testPackMaxVars() {
+        // groups never exceed the maximum number of items of a request
+
+        List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            tasks.add(createReadTask(S7.S7AreaDB, i, 2));
+        }
+
+        List<List<S7PlcToplevelBlockTask>> groups = S7PlcTaskBuilder.pack(tasks, 960);
+
+        assertEquals(2, groups.size());
+        assertEquals(20, groups.get(0).size());
+        assertEquals(5, groups.get(1).size());
+    }
+
+    @Test
+    public void testPackWrite() {
+        // write requests carry the data of each item, fewer blocks fit a PDU than with read requests
+
+        List<S7PlcToplevelBlockTask> readTasks = Arrays.asList(createReadTask(S7.S7AreaDB, 1, 100),
+                createReadTask(S7.S7AreaDB, 2, 100));
+        List<S7PlcToplevelBlockTask> writeTasks = Arrays.asList(createWriteTask(S7.S7AreaDB, 1, 100),
+                createWriteTask(S7.S7AreaDB, 2, 100));
+
+        assertEquals(Collections.singletonList(readTasks), S7PlcTaskBuilder.pack(readTasks, 240));
+        assertTrue(S7PlcTaskBuilder.pack(writeTasks, 240).isEmpty());
+        assertEquals(Collections.singletonList(writeTasks), S7PlcTaskBuilder.pack(writeTasks, 250));
+    }
+
+    private static S7PlcToplevelBlockTask createReadTask(int dbType, int db, int length) {
+        return new S7PlcToplevelBlockTask(null, Mode.READ, dbType, db, 0, length);
+    }
+
+    private static S7PlcToplevelBlockTask createWriteTask(int dbType, int db, int length) {
+        return new S7PlcToplevelBlockTask(null, Mode.WRITE, dbType, db, 0, length);
+    }
+
     @Test
     public void testBuildTypes() {
         List<ChannelRecord> records = new ArrayList<>();
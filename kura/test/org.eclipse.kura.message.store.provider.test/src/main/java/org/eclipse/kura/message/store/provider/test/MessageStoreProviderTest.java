@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,12 +20,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.configuration.ConfigurationService;
@@ -77,6 +80,73 @@ public class MessageStoreProviderTest {
         thenMessageCountIs(2);
     }
 
+    @Test
+    public void shouldTrackCachedMessageCount() throws KuraStoreException {
+        givenMessageStore();
+
+        whenMessageIsStored("testTopic", byteArray(1, 2, 3, 4), 1, true, 7);
+        whenMessageIsStored("testTopic", byteArray(1, 2, 3, 4), 1, true, 7);
+
+        thenCachedMessageCountIs(2);
+    }
+
+    @Test
+    public void shouldUpdateCachedMessageCountOnStaleMessageDeletion() throws KuraStoreException, InterruptedException {
+        givenMessageStore();
+        givenStoredMessage("foo", byteArray(1, 2, 3, 4), 0, true, 7);
+        givenStoredMessage("foo", byteArray(1, 2, 3, 4), 0, true, 7);
+
+        whenMessageIsMarkedAsPublished(0);
+        whenTimePasses(2, TimeUnit.SECONDS);
+        whenStaleMessagesAreDeleted(1);
+
+        thenCachedMessageCountIs(1);
+        thenMessageCountIs(1);
+    }
+
+    @Test
+    public void shouldStoreMessageBatch() throws KuraStoreException {
+        givenMessageStore();
+
+        whenMessagesAreStored(message("foo", byteArray(1, 2), 1, true, 7), message("bar", byteArray(3, 4), 0, false, 5));
+
+        thenMessageTopicIs(0, "foo");
+        thenMessagePayloadIs(0, byteArray(1, 2));
+        thenMessageQoSIs(0, 1);
+        thenMessageRetainIs(0, true);
+        thenMessagePriorityIs(0, 7);
+        thenMessageTopicIs(1, "bar");
+        thenMessagePayloadIs(1, byteArray(3, 4));
+        thenMessageQoSIs(1, 0);
+        thenMessageRetainIs(1, false);
+        thenMessagePriorityIs(1, 5);
+        thenMessageCountIs(2);
+        thenCachedMessageCountIs(2);
+    }
+
+    @Test
+    public void shouldReturnIncreasingIdsForMessageBatch() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("foo", byteArray(1), 0, false, 7);
+
+        whenMessagesAreStored(message("foo", byteArray(2), 0, false, 7), message("foo", byteArray(3), 0, false, 7),
+                message("foo", byteArray(4), 0, false, 7));
+        whenNextMessagesAreRetrieved(10);
+
+        thenRetrievedMessageIdListIs(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldNotAllowNullTopicInMessageBatch() throws KuraStoreException {
+        givenMessageStore();
+
+        whenMessagesAreStored(message("foo", byteArray(1), 0, false, 7), message(null, byteArray(2), 0, false, 7));
+
+        thenKuraStoreExceptionIsThrown();
+        thenMessageCountIs(0);
+        thenCachedMessageCountIs(0);
+    }
+
     @Test
     public void shouldStoreNullPayload() throws KuraStoreException {
         givenMessageStore();
@@ -276,6 +346,97 @@ public class MessageStoreProviderTest {
         thenNextMessageDataTransportTokenIsNotSet();
     }
 
+    @Test
+    public void shouldGetNextMessagesInPublishOrder() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 2, false, 2);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 0, true, 2);
+        givenStoredMessage("4", byteArray(4, 2, 3, 4), 1, false, 1);
+        givenStoredMessage("5", byteArray(5, 2, 3, 4), 0, true, 3);
+
+        whenMessageIsMarkedAsPublished(1);
+        whenNextMessagesAreRetrieved(10);
+
+        thenRetrievedMessageIdListIs(3, 2, 4, 0);
+        thenRetrievedMessagePayloadIs(0, byteArray(4, 2, 3, 4));
+    }
+
+    @Test
+    public void shouldLimitNextMessages() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 2, false, 7);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 0, true, 7);
+
+        whenNextMessagesAreRetrieved(2);
+
+        thenRetrievedMessageIdListIs(0, 1);
+    }
+
+    @Test
+    public void shouldCountUnpublishedMessagesByPriority() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 2, false, 2);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 0, true, 2);
+        givenStoredMessage("4", byteArray(4, 2, 3, 4), 1, false, 7);
+
+        whenMessageIsMarkedAsPublished(3);
+
+        thenUnpublishedMessageCountIs(7, 1);
+        thenUnpublishedMessageCountIs(2, 2);
+        thenUnpublishedMessageCountIs(1, 0);
+    }
+
+    @Test
+    public void shouldMarkMultipleMessagesAsPublished() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 0, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 0, false, 7);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 0, true, 7);
+
+        whenMessagesAreMarkedAsPublished(0, 2);
+        whenUnpublishedMessagesAreRertieved();
+
+        thenMessagePublishedOnIsInThePast(0);
+        thenMessagePublishedOnIsInThePast(2);
+        thenMessagePublishedOnIsNotSet(1);
+        thenDataTransportTokenIsNotSet(0);
+        thenRetrievedMessageIdSetIs(1);
+    }
+
+    @Test
+    public void shouldMarkMultipleMessagesAsPublishedWithDataTransportToken() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 1, false, 7);
+
+        whenMessagesAreMarkedAsPublished(0, new DataTransportToken(23, "foo"), 1, new DataTransportToken(24, "foo"));
+        whenInFlightMessagesAreRertieved();
+
+        thenMessagePublishedOnIsInThePast(0);
+        thenMessagePublishedOnIsInThePast(1);
+        thenDataTransportTokenIs(0, new DataTransportToken(23, "foo"));
+        thenDataTransportTokenIs(1, new DataTransportToken(24, "foo"));
+        thenRetrievedMessageIdSetIs(0, 1);
+    }
+
+    @Test
+    public void shouldMarkMultipleMessagesAsConfirmed() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 1, false, 7);
+
+        whenMessagesAreMarkedAsPublished(0, new DataTransportToken(23, "foo"), 1, new DataTransportToken(24, "foo"));
+        whenMessagesAreMarkedAsConfirmed(0, 1);
+        whenInFlightMessagesAreRertieved();
+
+        thenMessageConfirmedOnIsInThePast(0);
+        thenMessageConfirmedOnIsInThePast(1);
+        thenRetrievedMessageIdSetIs();
+    }
+
     @Test
     public void shouldRetireveUnpublishedMessageList() throws KuraStoreException {
         givenMessageStore();
@@ -468,7 +629,7 @@ public class MessageStoreProviderTest {
 
     @Parameters(name = "{0}")
     public static Collection<TestTarget> targets() {
-        return Arrays.asList(TestTarget.H2, TestTarget.SQLITE);
+        return Arrays.asList(TestTarget.H2, TestTarget.SQLITE, TestTarget.JOURNAL);
     }
 
     public MessageStoreProviderTest(final TestTarget target)
@@ -508,6 +669,14 @@ public class MessageStoreProviderTest {
         }
     }
 
+    private void whenMessagesAreStored(final StoredMessage... messages) {
+        try {
+            this.messageIds.addAll(this.messageStore.store(Arrays.asList(messages)));
+        } catch (final Exception e) {
+            this.exception = Optional.of(e);
+        }
+    }
+
     private void whenMessageIsMarkedAsPublished(final int messageIndex) throws KuraStoreException {
         this.messageStore.markAsPublished(this.messageIds.get(messageIndex));
     }
@@ -521,6 +690,27 @@ public class MessageStoreProviderTest {
         this.messageStore.markAsConfirmed(this.messageIds.get(messageIndex));
     }
 
+    private void whenMessagesAreMarkedAsPublished(final int... messageIndexes) throws KuraStoreException {
+        this.messageStore.markAsPublished(toMessageIds(messageIndexes));
+    }
+
+    private void whenMessagesAreMarkedAsPublished(final int firstIndex, final DataTransportToken firstToken,
+            final int secondIndex, final DataTransportToken secondToken) throws KuraStoreException {
+        final Map<Integer, DataTransportToken> tokens = new HashMap<>();
+        tokens.put(this.messageIds.get(firstIndex), firstToken);
+        tokens.put(this.messageIds.get(secondIndex), secondToken);
+
+        this.messageStore.markAsPublished(tokens);
+    }
+
+    private void whenMessagesAreMarkedAsConfirmed(final int... messageIndexes) throws KuraStoreException {
+        this.messageStore.markAsConfirmed(toMessageIds(messageIndexes));
+    }
+
+    private void whenNextMessagesAreRetrieved(final int maxCount) throws KuraStoreException {
+        this.retrievedMessages = Optional.of(this.messageStore.getNextMessages(maxCount));
+    }
+
     private void whenInFlightMessagesAreDropped() throws KuraStoreException {
         this.messageStore.dropAllInFlightMessages();
     }
@@ -548,8 +738,22 @@ public class MessageStoreProviderTest {
         }
     }
 
+    private void thenRetrievedMessageIdListIs(final int... ids) {
+        final List<StoredMessage> messages = this.retrievedMessages
+                .orElseThrow(() -> new IllegalStateException("no messages have been retrieved"));
+
+        assertEquals(toMessageIds(ids), messages.stream().map(StoredMessage::getId).collect(Collectors.toList()));
+    }
+
+    private void thenRetrievedMessagePayloadIs(final int position, final byte[] payload) {
+        final List<StoredMessage> messages = this.retrievedMessages
+                .orElseThrow(() -> new IllegalStateException("no messages have been retrieved"));
+
+        assertArrayEquals(payload, messages.get(position).getPayload());
+    }
+
     private void thenMessageTopicIs(final int messageIndex, final String topic) throws KuraStoreException {
-        assertEquals(topic, getStoredMessage(0).getTopic());
+        assertEquals(topic, getStoredMessage(messageIndex).getTopic());
     }
 
     private void thenMessagePayloadIs(final int messageIndex, final byte[] payload) throws KuraStoreException {
@@ -677,6 +881,16 @@ public class MessageStoreProviderTest {
         assertEquals(expectedCount, this.messageStore.getMessageCount());
     }
 
+    private void thenUnpublishedMessageCountIs(final int priority, final int expectedCount)
+            throws KuraStoreException {
+        assertEquals(expectedCount,
+                (int) this.messageStore.getUnpublishedMessageCountByPriority().getOrDefault(priority, 0));
+    }
+
+    private void thenCachedMessageCountIs(final int expectedCount) throws KuraStoreException {
+        assertEquals(expectedCount, this.messageStore.getCachedMessageCount());
+    }
+
     private void thenNoExceptionIsThrown() {
         if (this.exception.isPresent()) {
             this.exception.get().printStackTrace();
@@ -707,6 +921,22 @@ public class MessageStoreProviderTest {
                 .orElseThrow(() -> new IllegalStateException("no next message returned"));
     }
 
+    private List<Integer> toMessageIds(final int... messageIndexes) {
+        final List<Integer> result = new ArrayList<>(messageIndexes.length);
+
+        for (final int index : messageIndexes) {
+            result.add(this.messageIds.get(index));
+        }
+
+        return result;
+    }
+
+    private StoredMessage message(final String topic, final byte[] payload, final int qos, final boolean retain,
+            final int priority) {
+        return new StoredMessage.Builder(0).withTopic(topic).withPayload(payload).withQos(qos).withRetain(retain)
+                .withPriority(priority).build();
+    }
+
     private byte[] byteArray(final int... values) {
         final byte[] result = new byte[values.length];
 
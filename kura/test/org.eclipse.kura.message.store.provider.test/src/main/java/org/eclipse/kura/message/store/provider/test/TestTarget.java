@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package org.eclipse.kura.message.store.provider.test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.util.Collections;
@@ -19,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.core.testutil.service.ServiceUtil;
 import org.eclipse.kura.db.BaseDbService;
 import org.eclipse.kura.db.H2DbService;
@@ -28,6 +32,7 @@ public interface TestTarget {
 
     public static final TestTarget H2 = new H2();
     public static final TestTarget SQLITE = new Sqlite();
+    public static final TestTarget JOURNAL = new Journal();
 
     public String storeFactoryPid();
 
@@ -113,4 +118,45 @@ public interface TestTarget {
         }
 
     }
+
+    public class Journal implements TestTarget {
+
+        @Override
+        public String storeFactoryPid() {
+
+            return "org.eclipse.kura.message.store.journal.JournalMessageStoreProvider";
+        }
+
+        @Override
+        public Map<String, Object> getConfigurationForPid(String pid) {
+
+            try {
+                return Collections.singletonMap("store.directory",
+                        Files.createTempDirectory("journal-" + pid).toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void setMessageId(final String pid, final String collection, final int value) {
+            try {
+                final MessageStoreProvider provider = ServiceUtil
+                        .trackService(MessageStoreProvider.class, Optional.of("(kura.service.pid=" + pid + ")"))
+                        .get(30, TimeUnit.SECONDS);
+
+                final Object journal = TestUtil.getFieldValue(provider.openMessageStore(collection), "journal");
+
+                TestUtil.setFieldValue(journal, "lastId", value);
+            } catch (Exception e) {
+                throw new IllegalStateException("cannot set next message id", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Journal";
+        }
+
+    }
 }
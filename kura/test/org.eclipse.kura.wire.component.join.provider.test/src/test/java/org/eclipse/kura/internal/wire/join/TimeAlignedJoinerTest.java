@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.join;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.type.LongValue;
+import org.eclipse.kura.type.StringValue;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireRecord;
+import org.junit.Test;
+
+public class TimeAlignedJoinerTest {
+
+    private static final String TIMESTAMP_PROPERTY = "assetTimestamp";
+    private static final String UNMATCHED = "-";
+
+    private TimeAlignedJoiner joiner;
+    private final List<String> released = new ArrayList<>();
+
+    @Test
+    public void shouldMatchNearestAtToleranceEdge() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 0);
+        givenSecondRecords(100);
+
+        whenFirstRecordsAreReceived(110);
+        whenSecondRecordsAreReceived(200);
+
+        thenReleasedAre("110:100");
+    }
+
+    @Test
+    public void shouldNotMatchNearestBeyondTolerance() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 0);
+        givenSecondRecords(100);
+
+        whenFirstRecordsAreReceived(111);
+        whenSecondRecordsAreReceived(200);
+
+        thenReleasedAre("111:" + UNMATCHED);
+    }
+
+    @Test
+    public void shouldWaitUntilNearestMatchIsKnown() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 0);
+        givenSecondRecords(95);
+
+        whenFirstRecordsAreReceived(100);
+        whenSecondRecordsAreReceived(109);
+
+        thenReleasedAre();
+
+        whenSecondRecordsAreReceived(110);
+
+        thenReleasedAre("100:95");
+    }
+
+    @Test
+    public void shouldMatchAsOfAtToleranceEdge() {
+        givenJoiner(JoinMode.AS_OF, 10, 100, 0);
+        givenSecondRecords(90);
+
+        whenFirstRecordsAreReceived(100);
+        whenSecondRecordsAreReceived(105);
+
+        thenReleasedAre("100:90");
+    }
+
+    @Test
+    public void shouldNotMatchAsOfBeyondTolerance() {
+        givenJoiner(JoinMode.AS_OF, 10, 100, 0);
+        givenSecondRecords(89);
+
+        whenFirstRecordsAreReceived(100);
+        whenSecondRecordsAreReceived(105);
+
+        thenReleasedAre("100:" + UNMATCHED);
+    }
+
+    @Test
+    public void shouldNotMatchAsOfWithLaterRecord() {
+        givenJoiner(JoinMode.AS_OF, 10, 100, 0);
+
+        whenFirstRecordsAreReceived(100);
+        whenSecondRecordsAreReceived(101);
+
+        thenReleasedAre("100:" + UNMATCHED);
+    }
+
+    @Test
+    public void shouldMatchOutOfOrderSecondRecords() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 0);
+        givenSecondRecords(120, 100);
+
+        whenFirstRecordsAreReceived(105);
+
+        thenReleasedAre("105:100");
+    }
+
+    @Test
+    public void shouldMatchOutOfOrderFirstRecords() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 0);
+        givenSecondRecords(100, 150, 200);
+
+        whenFirstRecordsAreReceived(150, 100);
+
+        thenReleasedAre("150:150", "100:100");
+    }
+
+    @Test
+    public void shouldReleaseFirstRecordsExceedingBufferSize() {
+        givenJoiner(JoinMode.NEAREST, 10, 2, 0);
+
+        whenFirstRecordsAreReceived(100, 101, 102);
+
+        thenReleasedAre("100:" + UNMATCHED);
+    }
+
+    @Test
+    public void shouldDropSecondRecordsExceedingBufferSize() {
+        givenJoiner(JoinMode.AS_OF, 10, 2, 0);
+        givenSecondRecords(100, 101, 102);
+
+        whenFirstRecordsAreReceived(100);
+
+        thenReleasedAre("100:" + UNMATCHED);
+    }
+
+    @Test
+    public void shouldReleaseFirstRecordsExceedingMaxAge() {
+        givenJoiner(JoinMode.NEAREST, 10, 100, 50);
+
+        whenFirstRecordsAreReceived(100);
+
+        thenReleasedAre();
+
+        whenFirstRecordsAreReceived(150);
+
+        thenReleasedAre();
+
+        whenFirstRecordsAreReceived(151);
+
+        thenReleasedAre("100:" + UNMATCHED);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenJoiner(final JoinMode mode, final long tolerance, final int bufferSize, final long maxAge) {
+        this.joiner = new TimeAlignedJoiner(mode, tolerance, bufferSize, maxAge, TIMESTAMP_PROPERTY,
+                TimeAlignedJoinerTest::join);
+    }
+
+    private void givenSecondRecords(final long... timestamps) {
+        whenSecondRecordsAreReceived(timestamps);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenFirstRecordsAreReceived(final long... timestamps) {
+        collect(this.joiner.onFirstReceive(records(timestamps), 0));
+    }
+
+    private void whenSecondRecordsAreReceived(final long... timestamps) {
+        collect(this.joiner.onSecondReceive(records(timestamps), 0));
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenReleasedAre(final String... expected) {
+        assertEquals(Arrays.asList(expected), this.released);
+    }
+
+    /*
+     * Utilities
+     */
+
+    private void collect(final List<WireRecord> records) {
+        for (final WireRecord wireRecord : records) {
+            this.released.add(wireRecord.getProperties().get("result").getValue().toString());
+        }
+    }
+
+    private static List<WireRecord> records(final long... timestamps) {
+        final List<WireRecord> result = new ArrayList<>();
+
+        for (final long timestamp : timestamps) {
+            final Map<String, TypedValue<?>> properties = new HashMap<>();
+            properties.put(TIMESTAMP_PROPERTY, new LongValue(timestamp));
+            result.add(new WireRecord(properties));
+        }
+
+        return result;
+    }
+
+    private static WireRecord join(final WireRecord first, final WireRecord second) {
+        final String result = first.getProperties().get(TIMESTAMP_PROPERTY).getValue() + ":"
+                + (second != null ? second.getProperties().get(TIMESTAMP_PROPERTY).getValue() : UNMATCHED);
+
+        final Map<String, TypedValue<?>> properties = new HashMap<>();
+        properties.put("result", new StringValue(result));
+        return new WireRecord(properties);
+    }
+}
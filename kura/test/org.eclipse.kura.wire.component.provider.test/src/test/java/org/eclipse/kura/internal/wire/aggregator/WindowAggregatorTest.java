@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.aggregator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.kura.wire.WireEnvelope;
+import org.eclipse.kura.wire.WireHelperService;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.WireSupport;
+import org.junit.Test;
+import org.osgi.service.component.ComponentContext;
+
+public class WindowAggregatorTest {
+
+    private static final double DELTA = 1e-9;
+
+    private long now = 0;
+    private final WindowAggregator aggregator = new WindowAggregator(() -> this.now);
+    private final List<WireRecord> emitted = new ArrayList<>();
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Test
+    public void shouldComputeStatisticsOnCountTumblingWindow() {
+        givenWindow("tumbling", "count", 4, 1);
+        givenActivatedComponent();
+
+        whenValuesAreReceived(2.0, 4.0, 4.0, 6.0);
+
+        thenEmittedRecordCountIs(1);
+        thenStatisticIs(0, "temp_min", 2.0);
+        thenStatisticIs(0, "temp_max", 6.0);
+        thenStatisticIs(0, "temp_mean", 4.0);
+        thenStatisticIs(0, "temp_stddev", Math.sqrt(2.0));
+        thenStatisticIs(0, "temp_first", 2.0);
+        thenStatisticIs(0, "temp_last", 6.0);
+        thenCountIs(0, "temp_count", 4);
+    }
+
+    @Test
+    public void shouldNotOverlapTumblingWindows() {
+        givenWindow("tumbling", "count", 2, 1);
+        givenActivatedComponent();
+
+        whenValuesAreReceived(1.0, 2.0, 3.0, 4.0, 5.0);
+
+        thenEmittedRecordCountIs(2);
+        thenStatisticIs(0, "temp_mean", 1.5);
+        thenStatisticIs(1, "temp_mean", 3.5);
+    }
+
+    @Test
+    public void shouldEvictSamplesFromSlidingWindow() {
+        givenWindow("sliding", "count", 3, 1);
+        givenActivatedComponent();
+
+        whenValuesAreReceived(5.0, 1.0, 3.0, 2.0, 4.0);
+
+        thenEmittedRecordCountIs(5);
+        thenStatisticIs(2, "temp_min", 1.0);
+        thenStatisticIs(2, "temp_max", 5.0);
+        thenStatisticIs(3, "temp_max", 3.0);
+        thenStatisticIs(4, "temp_min", 2.0);
+        thenStatisticIs(4, "temp_max", 4.0);
+        thenStatisticIs(4, "temp_mean", 3.0);
+        thenStatisticIs(4, "temp_first", 3.0);
+        thenCountIs(4, "temp_count", 3);
+    }
+
+    @Test
+    public void shouldMatchBruteForceStatisticsOnSlidingWindow() {
+        givenWindow("sliding", "count", 50, 7);
+        givenActivatedComponent();
+
+        final List<Double> values = new ArrayList<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 700; i++) {
+            values.add(random.nextGaussian() * 100);
+        }
+
+        whenValuesAreReceived(values.toArray(new Double[0]));
+
+        thenEmittedRecordCountIs(100);
+        for (int i = 0; i < 100; i++) {
+            final int end = (i + 1) * 7;
+            thenStatisticsMatch(i, values.subList(Math.max(0, end - 50), end));
+        }
+    }
+
+    @Test
+    public void shouldCloseTimeWindowOnNextRecord() {
+        givenWindow("tumbling", "time", 1000, 1);
+        givenActivatedComponent();
+
+        whenValueIsReceivedAt(100, 1.0);
+        whenValueIsReceivedAt(900, 3.0);
+        whenValueIsReceivedAt(1100, 10.0);
+
+        thenEmittedRecordCountIs(1);
+        thenStatisticIs(0, "temp_mean", 2.0);
+        thenLongIs(0, "windowStart", 0);
+        thenLongIs(0, "windowEnd", 1000);
+    }
+
+    @Test
+    public void shouldSkipEmptyTimeWindows() {
+        givenWindow("tumbling", "time", 1000, 1);
+        givenActivatedComponent();
+
+        whenValueIsReceivedAt(100, 1.0);
+        whenValueIsReceivedAt(10500, 3.0);
+        whenValueIsReceivedAt(11000, 5.0);
+
+        thenEmittedRecordCountIs(2);
+        thenLongIs(0, "windowEnd", 1000);
+        thenLongIs(1, "windowStart", 10000);
+        thenStatisticIs(1, "temp_mean", 3.0);
+    }
+
+    @Test
+    public void shouldEmitOnlyConfiguredStatistics() {
+        givenWindow("tumbling", "count", 2, 1);
+        givenStatistics("min, max");
+        givenActivatedComponent();
+
+        whenValuesAreReceived(1.0, 2.0);
+
+        thenEmittedRecordCountIs(1);
+        thenPropertyCountIs(0, 2);
+    }
+
+    @Test
+    public void shouldRetainSamplesIfWindowIsNotChanged() {
+        givenWindow("tumbling", "count", 2, 1);
+        givenActivatedComponent();
+        givenValuesReceived(1.0);
+
+        whenStatisticsAreUpdated("mean");
+        whenValuesAreReceived(3.0);
+
+        thenEmittedRecordCountIs(1);
+        thenStatisticIs(0, "temp_mean", 2.0);
+    }
+
+    @Test
+    public void shouldIgnoreTimestamps() {
+        givenWindow("tumbling", "count", 1, 1);
+        givenActivatedComponent();
+
+        whenRecordIsReceived("temp_timestamp", TypedValues.newLongValue(1000L));
+
+        thenEmittedRecordCountIs(0);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenWindow(final String type, final String basis, final long size, final long slide) {
+        this.properties.put("window.type", type);
+        this.properties.put("window.basis", basis);
+        this.properties.put("window.size", size);
+        this.properties.put("window.slide", slide);
+    }
+
+    private void givenStatistics(final String statistics) {
+        this.properties.put("statistics", statistics);
+    }
+
+    private void givenActivatedComponent() {
+        final WireHelperService wireHelperService = mock(WireHelperService.class);
+        final WireSupport wireSupport = mock(WireSupport.class);
+
+        when(wireHelperService.newWireSupport(this.aggregator, null)).thenReturn(wireSupport);
+        doAnswer(invocation -> {
+            final List<WireRecord> records = invocation.getArgument(0);
+            this.emitted.addAll(records);
+            return null;
+        }).when(wireSupport).emit(any());
+
+        this.aggregator.bindWireHelperService(wireHelperService);
+        this.aggregator.activate(this.properties, mock(ComponentContext.class));
+    }
+
+    private void givenValuesReceived(final Double... values) {
+        whenValuesAreReceived(values);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenValuesAreReceived(final Double... values) {
+        for (final Double value : values) {
+            whenRecordIsReceived("temp", TypedValues.newDoubleValue(value));
+        }
+    }
+
+    private void whenValueIsReceivedAt(final long time, final double value) {
+        this.now = time;
+        whenRecordIsReceived("temp", TypedValues.newDoubleValue(value));
+    }
+
+    private void whenRecordIsReceived(final String name, final TypedValue<?> value) {
+        final Map<String, TypedValue<?>> recordProperties = new HashMap<>();
+        recordProperties.put(name, value);
+
+        final List<WireRecord> records = new ArrayList<>();
+        records.add(new WireRecord(recordProperties));
+        this.aggregator.onWireReceive(new WireEnvelope("emitter", records));
+    }
+
+    private void whenStatisticsAreUpdated(final String statistics) {
+        givenStatistics(statistics);
+        this.aggregator.updated(this.properties);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenEmittedRecordCountIs(final int count) {
+        assertEquals(count, this.emitted.size());
+    }
+
+    private void thenStatisticIs(final int index, final String name, final double expected) {
+        assertEquals(expected, (Double) getProperty(index, name), DELTA);
+    }
+
+    private void thenCountIs(final int index, final String name, final long expected) {
+        assertEquals(expected, (long) (Long) getProperty(index, name));
+    }
+
+    private void thenLongIs(final int index, final String name, final long expected) {
+        assertEquals(expected, (long) (Long) getProperty(index, name));
+    }
+
+    private void thenPropertyCountIs(final int index, final int count) {
+        assertEquals(count, this.emitted.get(index).getProperties().size());
+    }
+
+    private void thenStatisticsMatch(final int index, final List<Double> window) {
+        final double mean = window.stream().mapToDouble(Double::doubleValue).average().getAsDouble();
+        final double variance = window.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum() / window.size();
+
+        assertEquals(window.stream().mapToDouble(Double::doubleValue).min().getAsDouble(),
+                (Double) getProperty(index, "temp_min"), DELTA);
+        assertEquals(window.stream().mapToDouble(Double::doubleValue).max().getAsDouble(),
+                (Double) getProperty(index, "temp_max"), DELTA);
+        assertEquals(mean, (Double) getProperty(index, "temp_mean"), 1e-6);
+        assertEquals(Math.sqrt(variance), (Double) getProperty(index, "temp_stddev"), 1e-6);
+        assertEquals(window.get(0), (Double) getProperty(index, "temp_first"), DELTA);
+        assertEquals(window.get(window.size() - 1), (Double) getProperty(index, "temp_last"), DELTA);
+    }
+
+    private Object getProperty(final int index, final String name) {
+        assertTrue(index < this.emitted.size());
+        final TypedValue<?> value = this.emitted.get(index).getProperties().get(name);
+        assertFalse("missing property " + name, value == null);
+        return value.getValue();
+    }
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.asset;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.channel.Channel;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.channel.ChannelType;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.junit.Test;
+
+public class ValueChangeCacheTest {
+
+    private static final String CHANNEL_NAME = "temperature";
+
+    private final Map<String, Object> channelProperties = new HashMap<>();
+    private final List<Integer> emittedCounts = new ArrayList<>();
+    private Channel channel = newChannel();
+    private long now = 0;
+    private final ValueChangeCache cache = new ValueChangeCache(name -> this.channel, () -> this.now);
+
+    @Test
+    public void shouldEmitOnlyChangedValuesByDefault() {
+        whenValuesAreRead(1.0, 1.0, 1.01, 1.01);
+
+        thenEmittedCountsAre(1, 0, 1, 0);
+    }
+
+    @Test
+    public void shouldApplyAbsoluteDeadband() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME, 0.5);
+
+        whenValuesAreRead(10.0, 10.2, 10.5, 10.6, 10.7, 11.2);
+
+        thenEmittedCountsAre(1, 0, 0, 1, 0, 1);
+    }
+
+    @Test
+    public void shouldApplyPercentDeadband() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_PERCENT_PROP_NAME, "10");
+
+        whenValuesAreRead(100.0, 109.0, 111.0, 100.0, 99.0);
+
+        thenEmittedCountsAre(1, 0, 1, 0, 1);
+    }
+
+    @Test
+    public void shouldNotApplyDeadbandToNonNumericValues() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME, 10.0);
+
+        whenStringValuesAreRead("a", "a", "b");
+
+        thenEmittedCountsAre(1, 0, 1);
+    }
+
+    @Test
+    public void shouldApplyMinInterval() {
+        givenChannelProperty(WireAssetConstants.MIN_INTERVAL_PROP_NAME, 1000L);
+
+        whenValueIsReadAt(0, 1.0);
+        whenValueIsReadAt(500, 2.0);
+        whenValueIsReadAt(1000, 3.0);
+        whenValueIsReadAt(1500, 4.0);
+
+        thenEmittedCountsAre(1, 0, 1, 0);
+    }
+
+    @Test
+    public void shouldEmitHeartbeatAfterMaxSilence() {
+        givenChannelProperty(WireAssetConstants.MAX_SILENCE_PROP_NAME, "1000");
+
+        whenValueIsReadAt(0, 1.0);
+        whenValueIsReadAt(500, 1.0);
+        whenValueIsReadAt(1000, 1.0);
+        whenValueIsReadAt(1500, 1.0);
+        whenValueIsReadAt(2000, 1.0);
+
+        thenEmittedCountsAre(1, 0, 1, 0, 1);
+    }
+
+    @Test
+    public void shouldAlwaysEmitFailures() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME, 10.0);
+
+        whenValuesAreRead(1.0);
+        whenFailureIsRead();
+        whenValuesAreRead(1.0);
+
+        thenEmittedCountsAre(1, 1, 1);
+    }
+
+    @Test
+    public void shouldResetStateWhenChannelIsReconfigured() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME, 10.0);
+
+        whenValuesAreRead(1.0, 2.0);
+        whenChannelIsReconfigured();
+        whenValuesAreRead(2.0, 3.0);
+
+        thenEmittedCountsAre(1, 0, 1, 0);
+    }
+
+    @Test
+    public void shouldIgnoreInvalidProperties() {
+        givenChannelProperty(WireAssetConstants.DEADBAND_ABSOLUTE_PROP_NAME, "invalid");
+        givenChannelProperty(WireAssetConstants.MIN_INTERVAL_PROP_NAME, "");
+
+        whenValuesAreRead(1.0, 1.0, 1.1);
+
+        thenEmittedCountsAre(1, 0, 1);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenChannelProperty(final WireAssetConstants property, final Object value) {
+        this.channelProperties.put(property.value(), value);
+        this.channel = newChannel();
+    }
+
+    /*
+     * When
+     */
+
+    private void whenValuesAreRead(final double... values) {
+        for (final double value : values) {
+            read(TypedValues.newDoubleValue(value));
+        }
+    }
+
+    private void whenStringValuesAreRead(final String... values) {
+        for (final String value : values) {
+            read(TypedValues.newStringValue(value));
+        }
+    }
+
+    private void whenValueIsReadAt(final long time, final double value) {
+        this.now = time;
+        read(TypedValues.newDoubleValue(value));
+    }
+
+    private void whenFailureIsRead() {
+        final ChannelRecord record = ChannelRecord.createStatusRecord(CHANNEL_NAME,
+                new ChannelStatus(ChannelFlag.FAILURE));
+        this.emittedCounts.add(this.cache.filterRecords(Collections.singletonList(record)).size());
+    }
+
+    private void whenChannelIsReconfigured() {
+        this.channel = newChannel();
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenEmittedCountsAre(final Integer... counts) {
+        assertEquals(Arrays.asList(counts), this.emittedCounts);
+    }
+
+    /*
+     * Utilities
+     */
+
+    private Channel newChannel() {
+        return new Channel(CHANNEL_NAME, ChannelType.READ, DataType.DOUBLE, new HashMap<>(this.channelProperties));
+    }
+
+    private void read(final TypedValue<?> value) {
+        final ChannelRecord record = ChannelRecord.createReadRecord(CHANNEL_NAME, value.getType());
+        record.setValue(value);
+        record.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+        this.emittedCounts.add(this.cache.filterRecords(Collections.singletonList(record)).size());
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.compression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.type.DoubleValue;
+import org.eclipse.kura.type.LongValue;
+import org.eclipse.kura.type.StringValue;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.wire.WireEnvelope;
+import org.eclipse.kura.wire.WireHelperService;
+import org.eclipse.kura.wire.WireRecord;
+import org.eclipse.kura.wire.WireSupport;
+import org.junit.Test;
+import org.osgi.service.component.ComponentContext;
+
+public class TrendCompressionTest {
+
+    private final TrendCompression trendCompression = new TrendCompression();
+    private final List<WireRecord> emitted = new ArrayList<>();
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Test
+    public void shouldForwardFirstSample() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(1.0);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 10.0, 0);
+
+        thenEmittedSamplesAre("temp", 0L);
+        thenEmittedValuesAre("temp", 10.0);
+    }
+
+    @Test
+    public void shouldDropSamplesOnLineWithSwingingDoor() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 1.0, 1000, 2.0, 2000, 3.0, 3000, 4.0, 4000);
+
+        thenEmittedSamplesAre("temp", 0L);
+    }
+
+    @Test
+    public void shouldForwardTrendChangeWithSwingingDoor() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 1.0, 1000, 2.0, 2000, 1.0, 3000, 0.0, 4000, -1.0, 5000);
+
+        thenEmittedSamplesAre("temp", 0L, 2000L);
+        thenEmittedValuesAre("temp", 0.0, 2.0);
+    }
+
+    @Test
+    public void shouldKeepDeviationWithSwingingDoor() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 0.4, 1000, 0.0, 2000, 0.4, 3000, 0.0, 4000, 0.45, 5000);
+
+        thenEmittedSamplesAre("temp", 0L);
+    }
+
+    @Test
+    public void shouldForwardSampleOnMaxInterval() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenMaxInterval(2500);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 0.0, 1000, 0.0, 2000, 0.0, 3000, 0.0, 4000);
+
+        thenEmittedSamplesAre("temp", 0L, 2000L);
+    }
+
+    @Test
+    public void shouldForwardDeviatingSampleWithLinearExtrapolation() {
+        givenAlgorithm("linear.extrapolation");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 0.2, 1000, 1.0, 2000, 1.4, 3000, 2.0, 4000, 1.0, 5000);
+
+        thenEmittedSamplesAre("temp", 0L, 2000L, 5000L);
+    }
+
+    @Test
+    public void shouldUsePropertyDeviation() {
+        givenAlgorithm("linear.extrapolation");
+        givenDeviation(0.5);
+        givenDeviations("temp=5; other=1");
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 2.0, 1000, 6.0, 2000);
+
+        thenEmittedSamplesAre("temp", 0L, 2000L);
+    }
+
+    @Test
+    public void shouldNotCompressPropertyWithNegativeDeviation() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenDeviations("temp=-1");
+        givenActivatedComponent();
+
+        whenSamplesAreReceived("temp", 0.0, 0, 0.0, 1000, 0.0, 2000);
+
+        thenEmittedSamplesAre("temp", 0L, 1000L, 2000L);
+    }
+
+    @Test
+    public void shouldForwardNonNumericProperties() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenRecordIsReceived(record("temp", 1.0, 0, "assetName", new StringValue("asset")));
+
+        thenEmittedRecordCountIs(1);
+        thenEmittedPropertyIs(0, "assetName", new StringValue("asset"));
+    }
+
+    @Test
+    public void shouldNotEmitRecordsWithoutArchivedSamples() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+
+        whenRecordIsReceived(record("temp", 1.0, 0, "assetName", new StringValue("asset")));
+        whenRecordIsReceived(record("temp", 1.0, 1000, "assetName", new StringValue("asset")));
+
+        thenEmittedRecordCountIs(1);
+    }
+
+    @Test
+    public void shouldResetSeriesOnUpdate() {
+        givenAlgorithm("swinging.door");
+        givenDeviation(0.5);
+        givenActivatedComponent();
+        givenSamplesReceived("temp", 0.0, 0, 0.0, 1000);
+
+        whenComponentIsUpdated();
+        whenSamplesAreReceived("temp", 0.0, 2000);
+
+        thenEmittedSamplesAre("temp", 0L, 2000L);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenAlgorithm(final String algorithm) {
+        this.properties.put("algorithm", algorithm);
+    }
+
+    private void givenDeviation(final double deviation) {
+        this.properties.put("deviation", deviation);
+    }
+
+    private void givenDeviations(final String deviations) {
+        this.properties.put("deviations", deviations);
+    }
+
+    private void givenMaxInterval(final long maxInterval) {
+        this.properties.put("max.interval", maxInterval);
+    }
+
+    private void givenActivatedComponent() {
+        final WireHelperService wireHelperService = mock(WireHelperService.class);
+        final WireSupport wireSupport = mock(WireSupport.class);
+
+        when(wireHelperService.newWireSupport(this.trendCompression, null)).thenReturn(wireSupport);
+        doAnswer(invocation -> {
+            final List<WireRecord> records = invocation.getArgument(0);
+            this.emitted.addAll(records);
+            return null;
+        }).when(wireSupport).emit(any());
+
+        this.trendCompression.bindWireHelperService(wireHelperService);
+        this.trendCompression.activate(this.properties, mock(ComponentContext.class));
+    }
+
+    private void givenSamplesReceived(final String name, final Object... samples) {
+        whenSamplesAreReceived(name, samples);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenSamplesAreReceived(final String name, final Object... samples) {
+        for (int i = 0; i < samples.length; i += 2) {
+            whenRecordIsReceived(record(name, (Double) samples[i], ((Integer) samples[i + 1]).longValue()));
+        }
+    }
+
+    private void whenRecordIsReceived(final WireRecord wireRecord) {
+        final List<WireRecord> records = new ArrayList<>();
+        records.add(wireRecord);
+        this.trendCompression.onWireReceive(new WireEnvelope("emitter", records));
+    }
+
+    private void whenComponentIsUpdated() {
+        this.trendCompression.updated(this.properties);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenEmittedSamplesAre(final String name, final Long... timestamps) {
+        final List<Long> actual = new ArrayList<>();
+        for (final WireRecord wireRecord : this.emitted) {
+            final TypedValue<?> timestamp = wireRecord.getProperties().get(name + "_timestamp");
+            if (timestamp != null) {
+                actual.add((Long) timestamp.getValue());
+            }
+        }
+        assertEquals(Arrays.asList(timestamps), actual);
+    }
+
+    private void thenEmittedValuesAre(final String name, final Double... values) {
+        final List<Double> actual = new ArrayList<>();
+        for (final WireRecord wireRecord : this.emitted) {
+            final TypedValue<?> value = wireRecord.getProperties().get(name);
+            if (value != null) {
+                actual.add((Double) value.getValue());
+            }
+        }
+        assertEquals(Arrays.asList(values), actual);
+    }
+
+    private void thenEmittedRecordCountIs(final int count) {
+        assertEquals(count, this.emitted.size());
+    }
+
+    private void thenEmittedPropertyIs(final int index, final String name, final TypedValue<?> value) {
+        assertFalse(this.emitted.size() <= index);
+        assertEquals(value, this.emitted.get(index).getProperties().get(name));
+    }
+
+    private static WireRecord record(final String name, final double value, final long timestamp,
+            final Object... other) {
+        final Map<String, TypedValue<?>> recordProperties = new HashMap<>();
+        recordProperties.put(name, new DoubleValue(value));
+        recordProperties.put(name + "_timestamp", new LongValue(timestamp));
+        for (int i = 0; i < other.length; i += 2) {
+            recordProperties.put((String) other[i], (TypedValue<?>) other[i + 1]);
+        }
+        return new WireRecord(recordProperties);
+    }
+}
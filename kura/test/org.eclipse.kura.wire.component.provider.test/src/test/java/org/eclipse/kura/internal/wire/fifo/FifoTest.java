@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -14,11 +14,16 @@ package org.eclipse.kura.internal.wire.fifo;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +85,9 @@ public class FifoTest {
 
             @Override
             public void emit(Object wireRecords) {
+                if (wireRecords instanceof WireEnvelope) {
+                    wireRecords = ((WireEnvelope) wireRecords).getRecords();
+                }
                 if (List.class.isAssignableFrom(wireRecords.getClass()) && ((List<?>) wireRecords).size() > 0
                         && ((List<?>) wireRecords).get(0) instanceof WireRecord) {
                     @SuppressWarnings("unchecked")
@@ -158,6 +166,9 @@ public class FifoTest {
 
             @Override
             public void emit(Object wireRecords) {
+                if (wireRecords instanceof WireEnvelope) {
+                    wireRecords = ((WireEnvelope) wireRecords).getRecords();
+                }
                 if (List.class.isAssignableFrom(wireRecords.getClass()) && ((List<?>) wireRecords).size() > 0
                         && ((List<?>) wireRecords).get(0) instanceof WireRecord) {
                     WireRecord wireRecord = ((List<WireRecord>) wireRecords).get(0);
@@ -195,6 +206,130 @@ public class FifoTest {
         assertEquals(1, wiresLatch.getCount());
     }
 
+    @Test
+    public void testBatchMergesQueuedEnvelopes() throws InterruptedException {
+        CountDownLatch firstEmitStarted = new CountDownLatch(1);
+        CountDownLatch firstEmitReleased = new CountDownLatch(1);
+        CountDownLatch recordsLatch = new CountDownLatch(6);
+        List<Integer> emittedSizes = Collections.synchronizedList(new ArrayList<>());
+
+        Fifo fifo = new Fifo();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        fifo.bindWireHelperService(wireHelperServiceMock);
+
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        doAnswer(invocation -> {
+            List<?> records = invocation.getArgument(0);
+            emittedSizes.add(records.size());
+            firstEmitStarted.countDown();
+            // hold the first emit, so that the following envelopes are queued
+            assertTrue(firstEmitReleased.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < records.size(); i++) {
+                recordsLatch.countDown();
+            }
+            return null;
+        }).when(wireSupportMock).emit(any());
+        when(wireHelperServiceMock.newWireSupport(fifo, null)).thenReturn(wireSupportMock);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("discard.envelopes", false);
+        properties.put("queue.capacity", 10);
+        properties.put("batch.size", 10);
+
+        fifo.activate(properties, mock(ComponentContext.class));
+
+        fifo.onWireReceive(createWireEnvelope());
+        assertTrue("Expected the first envelope to be emitted", firstEmitStarted.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            fifo.onWireReceive(createWireEnvelope());
+        }
+        firstEmitReleased.countDown();
+
+        assertTrue("Expected all records to be processed", recordsLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 5), emittedSizes);
+
+        fifo.deactivate();
+    }
+
+    @Test
+    public void testEnvelopesForwardedUnchangedWithBatchSizeOne() throws InterruptedException {
+        CountDownLatch emitLatch = new CountDownLatch(2);
+        List<Object> emitted = Collections.synchronizedList(new ArrayList<>());
+
+        Fifo fifo = new Fifo();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        fifo.bindWireHelperService(wireHelperServiceMock);
+
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        doAnswer(invocation -> {
+            emitted.add(invocation.getArgument(0));
+            emitLatch.countDown();
+            return null;
+        }).when(wireSupportMock).emit(any());
+        when(wireHelperServiceMock.newWireSupport(fifo, null)).thenReturn(wireSupportMock);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("discard.envelopes", false);
+        properties.put("queue.capacity", 10);
+        properties.put("batch.size", 1);
+
+        fifo.activate(properties, mock(ComponentContext.class));
+
+        WireEnvelope emptyEnvelope = new WireEnvelope("emitter", Collections.emptyList());
+        WireEnvelope wireEnvelope = createWireEnvelope();
+        fifo.onWireReceive(emptyEnvelope);
+        fifo.onWireReceive(wireEnvelope);
+
+        assertTrue("Expected all envelopes to be processed", emitLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, emitted.size());
+        assertSame(emptyEnvelope, emitted.get(0));
+        assertSame(wireEnvelope, emitted.get(1));
+
+        fifo.deactivate();
+    }
+
+    @Test
+    public void testBatchOfEmptyEnvelopesForwardedAsEnvelope() throws InterruptedException {
+        CountDownLatch emitLatch = new CountDownLatch(1);
+        List<Object> emitted = Collections.synchronizedList(new ArrayList<>());
+
+        Fifo fifo = new Fifo();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        fifo.bindWireHelperService(wireHelperServiceMock);
+
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        doAnswer(invocation -> {
+            emitted.add(invocation.getArgument(0));
+            emitLatch.countDown();
+            return null;
+        }).when(wireSupportMock).emit(any());
+        when(wireHelperServiceMock.newWireSupport(fifo, null)).thenReturn(wireSupportMock);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("discard.envelopes", false);
+        properties.put("queue.capacity", 10);
+        properties.put("batch.size", 10);
+
+        fifo.activate(properties, mock(ComponentContext.class));
+
+        fifo.onWireReceive(new WireEnvelope("emitter", Collections.emptyList()));
+        fifo.onWireReceive(new WireEnvelope("emitter", Collections.emptyList()));
+
+        assertTrue("Expected the envelopes to be processed", emitLatch.await(10, TimeUnit.SECONDS));
+        fifo.deactivate();
+
+        synchronized (emitted) {
+            for (Object next : emitted) {
+                assertTrue("Expected an envelope to be emitted", next instanceof WireEnvelope);
+                assertTrue(((WireEnvelope) next).getRecords().isEmpty());
+            }
+        }
+    }
+
     private WireEnvelope createWireEnvelope() {
         String emitterPid = "emitter";
         List<WireRecord> wireRecords = new ArrayList<WireRecord>();
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    private RingBuffer<Integer> ringBuffer;
+    private final List<Integer> drained = new ArrayList<>();
+
+    @Test
+    public void shouldRejectElementsWhenFull() {
+        givenRingBuffer(3);
+
+        whenElementsAreOffered(1, 2, 3);
+
+        thenOfferIsRejected(4);
+        thenSizeIs(3);
+    }
+
+    @Test
+    public void shouldReturnElementsInInsertionOrder() {
+        givenRingBuffer(3);
+        givenElementsOffered(1, 2, 3);
+
+        whenElementsAreDrained(10);
+
+        thenDrainedElementsAre(1, 2, 3);
+        thenIsEmpty();
+    }
+
+    @Test
+    public void shouldDrainAtMostMaxElements() {
+        givenRingBuffer(4);
+        givenElementsOffered(1, 2, 3, 4);
+
+        whenElementsAreDrained(3);
+
+        thenDrainedElementsAre(1, 2, 3);
+        thenSizeIs(1);
+    }
+
+    @Test
+    public void shouldReuseSlotsAfterWrapAround() {
+        givenRingBuffer(3);
+
+        for (int i = 0; i < 10; i++) {
+            whenElementsAreOffered(i);
+            whenElementsAreDrained(1);
+        }
+
+        thenDrainedElementsAre(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        thenIsEmpty();
+    }
+
+    @Test
+    public void shouldHoldAtLeastTwoElements() {
+        givenRingBuffer(1);
+
+        whenElementsAreOffered(1, 2);
+
+        thenOfferIsRejected(3);
+        thenSizeIs(2);
+    }
+
+    @Test
+    public void shouldPreserveOrderOfEachProducer() throws InterruptedException {
+        givenRingBuffer(64);
+
+        whenProducersRunConcurrently(4, 20000);
+
+        thenEachProducerOrderIsPreserved(4, 20000);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenRingBuffer(final int capacity) {
+        this.ringBuffer = new RingBuffer<>(capacity);
+    }
+
+    private void givenElementsOffered(final Integer... elements) {
+        whenElementsAreOffered(elements);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenElementsAreOffered(final Integer... elements) {
+        for (final Integer element : elements) {
+            assertTrue(this.ringBuffer.offer(element));
+        }
+    }
+
+    private void whenElementsAreDrained(final int maxElements) {
+        this.ringBuffer.drain(this.drained::add, maxElements);
+    }
+
+    private void whenProducersRunConcurrently(final int producers, final int elementsPerProducer)
+            throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            new Thread(() -> {
+                for (int i = 0; i < elementsPerProducer; i++) {
+                    final Integer element = producer * elementsPerProducer + i;
+                    while (!this.ringBuffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (this.drained.size() < producers * elementsPerProducer && System.nanoTime() < deadline) {
+            if (this.ringBuffer.drain(this.drained::add, 16) == 0) {
+                Thread.yield();
+            }
+        }
+
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenOfferIsRejected(final Integer element) {
+        assertFalse(this.ringBuffer.offer(element));
+    }
+
+    private void thenSizeIs(final int size) {
+        assertEquals(size, this.ringBuffer.size());
+    }
+
+    private void thenIsEmpty() {
+        assertTrue(this.ringBuffer.isEmpty());
+        assertNull(this.ringBuffer.poll());
+    }
+
+    private void thenDrainedElementsAre(final Integer... elements) {
+        assertEquals(Arrays.asList(elements), this.drained);
+    }
+
+    private void thenEachProducerOrderIsPreserved(final int producers, final int elementsPerProducer) {
+        assertEquals(producers * elementsPerProducer, this.drained.size());
+
+        final int[] next = new int[producers];
+        for (final Integer element : this.drained) {
+            final int producer = element / elementsPerProducer;
+            assertEquals(producer * elementsPerProducer + next[producer], (int) element);
+            next[producer]++;
+        }
+    }
+}
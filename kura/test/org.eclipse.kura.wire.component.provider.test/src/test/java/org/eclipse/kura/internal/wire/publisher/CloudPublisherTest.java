@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,14 +15,17 @@ package org.eclipse.kura.internal.wire.publisher;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,6 +65,7 @@ public class CloudPublisherTest {
     private KuraPosition position;
     private KuraMessage kuraMessage;
     private Map<String, Object> kuraMessageProps;
+    private final List<Map<String, TypedValue<?>>> envelopeRecords = new ArrayList<>();
 
     @Test
     public void testOnWireReceive() throws InvalidSyntaxException, NoSuchFieldException, KuraException {
@@ -195,6 +199,90 @@ public class CloudPublisherTest {
         thenCheckDefaultKuraMessageProps();
     }
 
+    @Test
+    public void shouldPackRecordsOfAnEnvelopeWithIndexedLayout() throws InvalidSyntaxException {
+        givenCloudPublisher();
+        givenDefaultProperties();
+        givenProperty("batch.size", 2);
+        givenActivatedComponentProperties();
+        givenEnvelopeRecord("key", "val0");
+        givenEnvelopeRecord("key", "val1");
+        givenEnvelopeRecord("key", "val2");
+
+        whenOnWireReceiveEnvelopeRecords();
+
+        thenPublishedMessageCountIs(2);
+        thenPublishedMessageMetricsAre(0, "0.key", "val0", "1.key", "val1");
+        thenPublishedMessageMetricsAre(1, "0.key", "val2");
+        thenPublishedMessagePropertyIs(1, "key", "val2");
+    }
+
+    @Test
+    public void shouldPackRecordsOfAnEnvelopeWithColumnarLayout() throws InvalidSyntaxException {
+        givenCloudPublisher();
+        givenDefaultProperties();
+        givenProperty("batch.size", 10);
+        givenProperty("batch.layout", "columnar");
+        givenActivatedComponentProperties();
+        givenEnvelopeRecord("key", "val0");
+        givenEnvelopeRecord("other", "a \"quoted\" value");
+
+        whenOnWireReceiveEnvelopeRecords();
+
+        thenPublishedMessageCountIs(1);
+        thenPublishedMessageBodyIs(0,
+                "{\"count\":2,\"columns\":{\"key\":[\"val0\",null],\"other\":[null,\"a \\\"quoted\\\" value\"]}}");
+    }
+
+    @Test
+    public void shouldNotExceedBatchMaxPayloadSize() throws InvalidSyntaxException {
+        givenCloudPublisher();
+        givenDefaultProperties();
+        givenProperty("batch.size", 10);
+        givenProperty("batch.max.payload.size", 20);
+        givenActivatedComponentProperties();
+        givenEnvelopeRecord("key", "val0");
+        givenEnvelopeRecord("key", "val1");
+        givenEnvelopeRecord("key", "val2");
+
+        whenOnWireReceiveEnvelopeRecords();
+
+        thenPublishedMessageCountIs(3);
+        thenPublishedMessageMetricsAre(2, "0.key", "val2");
+    }
+
+    @Test
+    public void shouldPackRecordsOfDifferentEnvelopesWithinBatchWindow() throws InvalidSyntaxException {
+        givenCloudPublisher();
+        givenDefaultProperties();
+        givenProperty("batch.size", 10);
+        givenProperty("batch.window", 200L);
+        givenActivatedComponentProperties();
+        givenEnvelopeRecord("key", "val0");
+
+        whenOnWireReceiveEnvelopeRecords();
+        whenOnWireReceiveEnvelopeRecords();
+
+        thenPublishedMessageCountIs(0);
+        thenEventuallyPublishedMessageCountIs(1);
+        thenPublishedMessageMetricsAre(0, "0.key", "val0", "1.key", "val0");
+    }
+
+    @Test
+    public void shouldFlushPendingRecordsOnDeactivation() throws InvalidSyntaxException {
+        givenCloudPublisher();
+        givenDefaultProperties();
+        givenProperty("batch.size", 10);
+        givenProperty("batch.window", 60000L);
+        givenActivatedComponentProperties();
+        givenEnvelopeRecord("key", "val0");
+
+        whenOnWireReceiveEnvelopeRecords();
+        whenDeactivated();
+
+        thenPublishedMessageCountIs(1);
+    }
+
     /*
      * Steps
      */
@@ -210,10 +298,12 @@ public class CloudPublisherTest {
         this.fakeCloudPublisher = new FakeCloudPublisher() {
 
             private KuraMessage kmessage = new KuraMessage(null);
+            private final List<KuraMessage> kmessages = new CopyOnWriteArrayList<>();
 
             @Override
             public String publish(KuraMessage message) throws KuraException {
                 kmessage = message;
+                kmessages.add(message);
                 return null;
             }
 
@@ -245,6 +335,11 @@ public class CloudPublisherTest {
             public KuraMessage getMessage() {
                 return kmessage;
             }
+
+            @Override
+            public List<KuraMessage> getMessages() {
+                return kmessages;
+            }
         };
     }
 
@@ -257,6 +352,10 @@ public class CloudPublisherTest {
         this.properties.put(key, value);
     }
 
+    private void givenProperty(String key, Object value) {
+        this.properties.put(key, value);
+    }
+
     private void givenBodyProperties(String setBodyFromProperty, Boolean removeBodyFromMetrics) {
         this.properties.put("set.body.from.property", setBodyFromProperty);
         this.properties.put("remove.body.from.metrics", removeBodyFromMetrics);
@@ -294,10 +393,30 @@ public class CloudPublisherTest {
         this.recordProps.put(key, new StringValue(stringValue));
     }
 
+    private void givenEnvelopeRecord(String key, String value) {
+        Map<String, TypedValue<?>> props = new HashMap<>();
+        props.put(key, new StringValue(value));
+        this.envelopeRecords.add(props);
+    }
+
     /*
      * When
      */
 
+    private void whenOnWireReceiveEnvelopeRecords() {
+        List<WireRecord> wireRecords = new ArrayList<>();
+
+        for (Map<String, TypedValue<?>> props : this.envelopeRecords) {
+            wireRecords.add(new WireRecord(props));
+        }
+
+        this.cp.onWireReceive(new WireEnvelope("emitter", wireRecords));
+    }
+
+    private void whenDeactivated() {
+        this.cp.deactivate(mock(ComponentContext.class));
+    }
+
     private void whenOnWireReceive() {
         List<WireRecord> wireRecords = new ArrayList<>();
 
@@ -375,6 +494,45 @@ public class CloudPublisherTest {
         assertEquals("testAsset/replaceTest", appTopic);
     }
 
+    private void thenPublishedMessageCountIs(int count) {
+        assertEquals(count, this.fakeCloudPublisher.getMessages().size());
+    }
+
+    private void thenEventuallyPublishedMessageCountIs(int count) {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (this.fakeCloudPublisher.getMessages().size() < count && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        thenPublishedMessageCountIs(count);
+    }
+
+    private void thenPublishedMessageMetricsAre(int index, Object... metrics) {
+        KuraPayload kuraPayload = this.fakeCloudPublisher.getMessages().get(index).getPayload();
+
+        assertEquals(metrics.length / 2, kuraPayload.metrics().size());
+        for (int i = 0; i < metrics.length; i += 2) {
+            assertEquals(metrics[i + 1], kuraPayload.getMetric((String) metrics[i]));
+        }
+    }
+
+    private void thenPublishedMessagePropertyIs(int index, String key, Object value) {
+        assertEquals(value, this.fakeCloudPublisher.getMessages().get(index).getProperties().get(key));
+    }
+
+    private void thenPublishedMessageBodyIs(int index, String body) {
+        KuraPayload kuraPayload = this.fakeCloudPublisher.getMessages().get(index).getPayload();
+
+        assertTrue(kuraPayload.metrics().isEmpty());
+        assertEquals(body, new String(kuraPayload.getBody(), StandardCharsets.UTF_8));
+    }
+
     private void thenCheckBasicPosition() {
         assertNotNull(this.position);
         assertNotNull(this.position.getAltitude());
@@ -399,6 +557,8 @@ public class CloudPublisherTest {
     public interface FakeCloudPublisher extends org.eclipse.kura.cloudconnection.publisher.CloudPublisher {
 
         public KuraMessage getMessage();
+
+        public List<KuraMessage> getMessages();
     }
 
     private String fillAppTopicPlaceholders(String appTopic, KuraMessage message) {
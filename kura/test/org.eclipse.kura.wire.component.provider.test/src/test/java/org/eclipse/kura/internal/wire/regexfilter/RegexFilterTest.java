@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -413,4 +413,81 @@ public class RegexFilterTest {
         verify(wsMock, times(1)).emit(any());
     }
 
+    @Test
+    public void testOnWireReceiveRemoveAfterUpdate() throws InvalidSyntaxException, NoSuchFieldException {
+        // the filter is recompiled on update, previously seen keys are evaluated against the new filter
+
+        RegexFilter rf = new RegexFilter();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        rf.bindWireHelperService(wireHelperServiceMock);
+
+        WireSupport wsMock = mock(WireSupport.class);
+        when(wireHelperServiceMock.newWireSupport(rf, null)).thenReturn(wsMock);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("kura.service.pid", "spid");
+        properties.put("regex.filter", "key");
+        properties.put("filter.type", 1);
+
+        rf.activate(properties, mock(ComponentContext.class));
+
+        List<WireRecord> wireRecords = new ArrayList<WireRecord>();
+        Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("key", new StringValue("val"));
+        recordProps.put("topic", new StringValue("topic"));
+        wireRecords.add(new WireRecord(recordProps));
+        WireEnvelope wireEnvelope = new WireEnvelope("emitter", wireRecords);
+
+        List<Map<String, TypedValue<?>>> emitted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<WireRecord> records = invocation.getArgument(0, List.class);
+            emitted.add(records.get(0).getProperties());
+            return null;
+        }).when(wsMock).emit(any());
+
+        rf.onWireReceive(wireEnvelope);
+
+        properties.put("filter.type", 2);
+        rf.updated(properties);
+
+        rf.onWireReceive(wireEnvelope);
+
+        assertEquals(2, emitted.size());
+        assertEquals(1, emitted.get(0).size());
+        assertTrue(emitted.get(0).containsKey("key"));
+        assertEquals(1, emitted.get(1).size());
+        assertTrue(emitted.get(1).containsKey("topic"));
+    }
+
+    @Test
+    public void testOnWireReceiveInvalidFilter() throws InvalidSyntaxException, NoSuchFieldException {
+        // an invalid filter means all records get returned
+
+        RegexFilter rf = new RegexFilter();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        rf.bindWireHelperService(wireHelperServiceMock);
+
+        WireSupport wsMock = mock(WireSupport.class);
+        when(wireHelperServiceMock.newWireSupport(rf, null)).thenReturn(wsMock);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("kura.service.pid", "spid");
+        properties.put("regex.filter", "[key");
+        properties.put("filter.type", 1);
+
+        rf.activate(properties, mock(ComponentContext.class));
+
+        List<WireRecord> wireRecords = new ArrayList<WireRecord>();
+        Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("key", new StringValue("val"));
+        wireRecords.add(new WireRecord(recordProps));
+        WireEnvelope wireEnvelope = new WireEnvelope("emitter", wireRecords);
+
+        rf.onWireReceive(wireEnvelope);
+
+        verify(wsMock, times(1)).emit(wireRecords);
+    }
+
 }
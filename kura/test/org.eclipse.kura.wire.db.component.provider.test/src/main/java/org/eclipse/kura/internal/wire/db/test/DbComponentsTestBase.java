@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -35,7 +35,6 @@ import java.util.stream.Collectors;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ConfigurationService;
-import org.eclipse.kura.db.BaseDbService;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.type.TypedValues;
 import org.eclipse.kura.util.wire.test.GraphBuilder;
@@ -91,7 +90,7 @@ public class DbComponentsTestBase {
         this.configurationService = WireTestUtil.trackService(ConfigurationService.class, Optional.empty()).get(30,
                 TimeUnit.SECONDS);
 
-        WireTestUtil.createFactoryConfiguration(configurationService, BaseDbService.class, dbServicePid,
+        WireTestUtil.createFactoryConfiguration(configurationService, this.storeTestTarget.serviceClass(), dbServicePid,
                 this.storeTestTarget.factoryPid(), this.storeTestTarget.getConfigurationForDatabase(dbServicePid));
 
         final WireGraphService wireGraphService = WireTestUtil.trackService(WireGraphService.class, Optional.empty())
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,13 +20,19 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.eclipse.kura.db.BaseDbService;
+import org.eclipse.kura.wire.store.provider.WireRecordStoreProvider;
+
 public interface StoreTestTarget {
 
     public static final StoreTestTarget H2 = new H2();
     public static final StoreTestTarget SQLITE = new Sqlite();
+    public static final StoreTestTarget TIME_SERIES = new TimeSeries();
 
     public String factoryPid();
 
+    public Class<?> serviceClass();
+
     public Map<String, Object> getConfigurationForDatabase(final String name);
 
     public class H2 implements StoreTestTarget {
@@ -36,6 +42,11 @@ public interface StoreTestTarget {
             return "org.eclipse.kura.core.db.H2DbService";
         }
 
+        @Override
+        public Class<?> serviceClass() {
+            return BaseDbService.class;
+        }
+
         @Override
         public Map<String, Object> getConfigurationForDatabase(String name) {
 
@@ -55,6 +66,11 @@ public interface StoreTestTarget {
             return "org.eclipse.kura.db.SQLiteDbService";
         }
 
+        @Override
+        public Class<?> serviceClass() {
+            return BaseDbService.class;
+        }
+
         @Override
         public String toString() {
             return "SQLite";
@@ -74,4 +90,36 @@ public interface StoreTestTarget {
             return properties;
         }
     }
+
+    public class TimeSeries implements StoreTestTarget {
+
+        @Override
+        public String factoryPid() {
+            return "org.eclipse.kura.wire.timeseries.store.TimeSeriesStoreService";
+        }
+
+        @Override
+        public Class<?> serviceClass() {
+            return WireRecordStoreProvider.class;
+        }
+
+        @Override
+        public String toString() {
+            return "Time Series";
+        }
+
+        @Override
+        public Map<String, Object> getConfigurationForDatabase(String name) {
+            final Map<String, Object> properties = new HashMap<>();
+
+            properties.put("block.max.records", 4);
+            try {
+                properties.put("store.directory", Files.createTempDirectory(null).toFile().getPath() + "/" + name);
+            } catch (IOException e) {
+                fail("unable to create temporary directory");
+            }
+
+            return properties;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.kura.internal.wire.helper.DispatchOptions.DispatchMode;
+import org.eclipse.kura.internal.wire.helper.WireMailbox.OverflowPolicy;
+import org.junit.Test;
+
+public class DispatchOptionsTest {
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private DispatchOptions options;
+
+    @Test
+    public void shouldUsePoolModeByDefault() {
+        whenOptionsAreParsed();
+
+        thenDispatchModeIs(DispatchMode.POOL);
+        thenQueueCapacityIs(DispatchOptions.QUEUE_CAPACITY_DEFAULT);
+        thenOverflowPolicyIs(OverflowPolicy.BLOCK);
+    }
+
+    @Test
+    public void shouldParseOrderedMode() {
+        givenProperty(DispatchOptions.DISPATCH_MODE_PROP_NAME, "ordered");
+        givenProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME, 16);
+        givenProperty(DispatchOptions.OVERFLOW_POLICY_PROP_NAME, "drop-oldest");
+
+        whenOptionsAreParsed();
+
+        thenDispatchModeIs(DispatchMode.ORDERED);
+        thenQueueCapacityIs(16);
+        thenOverflowPolicyIs(OverflowPolicy.DROP_OLDEST);
+    }
+
+    @Test
+    public void shouldParseQueueCapacityString() {
+        givenProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME, "32");
+
+        whenOptionsAreParsed();
+
+        thenQueueCapacityIs(32);
+    }
+
+    @Test
+    public void shouldParseDropNewestPolicy() {
+        givenProperty(DispatchOptions.OVERFLOW_POLICY_PROP_NAME, "drop-newest");
+
+        whenOptionsAreParsed();
+
+        thenOverflowPolicyIs(OverflowPolicy.DROP_NEWEST);
+    }
+
+    @Test
+    public void shouldUseDefaultsForUnsupportedMode() {
+        givenProperty(DispatchOptions.DISPATCH_MODE_PROP_NAME, "foo");
+        givenProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME, 16);
+
+        whenOptionsAreParsed();
+
+        thenDispatchModeIs(DispatchMode.POOL);
+        thenQueueCapacityIs(DispatchOptions.QUEUE_CAPACITY_DEFAULT);
+    }
+
+    @Test
+    public void shouldUseDefaultsForNonPositiveCapacity() {
+        givenProperty(DispatchOptions.DISPATCH_MODE_PROP_NAME, "ordered");
+        givenProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME, 0);
+
+        whenOptionsAreParsed();
+
+        thenDispatchModeIs(DispatchMode.POOL);
+        thenQueueCapacityIs(DispatchOptions.QUEUE_CAPACITY_DEFAULT);
+    }
+
+    @Test
+    public void shouldUseDefaultsForUnsupportedOverflowPolicy() {
+        givenProperty(DispatchOptions.OVERFLOW_POLICY_PROP_NAME, "foo");
+
+        whenOptionsAreParsed();
+
+        thenOverflowPolicyIs(OverflowPolicy.BLOCK);
+    }
+
+    @Test
+    public void shouldBeEqualToDefaultsIfNoPropertyIsSet() {
+        whenOptionsAreParsed();
+
+        assertEquals(DispatchOptions.defaults(), this.options);
+        assertEquals(DispatchOptions.defaults().hashCode(), this.options.hashCode());
+    }
+
+    @Test
+    public void shouldNotBeEqualIfCapacityDiffers() {
+        givenProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME, 16);
+
+        whenOptionsAreParsed();
+
+        assertNotEquals(DispatchOptions.defaults(), this.options);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenProperty(final String key, final Object value) {
+        this.properties.put(key, value);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenOptionsAreParsed() {
+        this.options = DispatchOptions.fromProperties(this.properties::get);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenDispatchModeIs(final DispatchMode expected) {
+        assertEquals(expected, this.options.getDispatchMode());
+    }
+
+    private void thenQueueCapacityIs(final int expected) {
+        assertEquals(expected, this.options.getQueueCapacity());
+    }
+
+    private void thenOverflowPolicyIs(final OverflowPolicy expected) {
+        assertEquals(expected, this.options.getOverflowPolicy());
+    }
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.eclipse.kura.wire.WireComponent;
+import org.eclipse.kura.wire.WireDispatchStatistics;
+import org.eclipse.kura.wire.WireReceiver;
+import org.eclipse.kura.wire.WireSupport;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.wireadmin.Wire;
+
+public class WireHelperServiceImplTest {
+
+    private final WireHelperServiceImpl wireHelperService = new WireHelperServiceImpl();
+    private final CountDownLatch receiveStarted = new CountDownLatch(1);
+    private final CountDownLatch receiveReleased = new CountDownLatch(1);
+    private final CountDownLatch threeEnvelopesReceived = new CountDownLatch(3);
+    private final Wire wire = mock(Wire.class);
+    private ServiceReference<WireComponent> wireComponentRef;
+    private WireSupport wireSupport;
+
+    @After
+    public void cleanup() {
+        this.receiveReleased.countDown();
+        if (this.wireSupport != null) {
+            this.wireSupport.producersConnected(null);
+        }
+    }
+
+    @Test
+    public void shouldReportPoolDispatchStatistics() throws InterruptedException {
+        givenWireSupport("foo", null);
+
+        final Optional<WireDispatchStatistics> statistics = whenDispatchStatisticsAreRequested("foo");
+
+        thenStatisticsAre(statistics, "pool", 0, 0);
+    }
+
+    @Test
+    public void shouldReportOrderedDispatchStatistics() throws InterruptedException {
+        givenWireSupport("foo", "ordered");
+        givenEnvelopeBeingReceived();
+        givenEnvelopesSent(2);
+
+        final Optional<WireDispatchStatistics> statistics = whenDispatchStatisticsAreRequested("foo");
+
+        thenStatisticsAre(statistics, "ordered", 1, 1);
+    }
+
+    @Test
+    public void shouldNotReportStatisticsForUnknownComponent() throws InterruptedException {
+        givenWireSupport("foo", null);
+
+        final Optional<WireDispatchStatistics> statistics = whenDispatchStatisticsAreRequested("bar");
+
+        assertFalse(statistics.isPresent());
+    }
+
+    @Test
+    public void shouldApplyModifiedDispatchOptions() throws InterruptedException {
+        givenWireSupport("foo", null);
+
+        whenServicePropertiesAreModified("ordered");
+
+        thenStatisticsAre(whenDispatchStatisticsAreRequested("foo"), "ordered", 0, 0);
+    }
+
+    @Test
+    public void shouldRevertToPoolDispatchWhenPropertiesAreModified() throws InterruptedException {
+        givenWireSupport("foo", "ordered");
+
+        whenServicePropertiesAreModified(null);
+
+        thenStatisticsAre(whenDispatchStatisticsAreRequested("foo"), "pool", 0, 0);
+    }
+
+    @Test
+    public void shouldDeliverEnvelopesAcceptedBeforeReconfiguration() throws InterruptedException {
+        givenWireSupport("foo", "ordered");
+        givenEnvelopeBeingReceived();
+        givenEnvelopesSent(1);
+
+        whenServicePropertiesAreModified(null);
+        givenEnvelopesSent(1);
+        this.receiveReleased.countDown();
+
+        assertTrue(this.threeEnvelopesReceived.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldIgnoreModificationsOfUnknownComponents() throws InterruptedException {
+        givenWireSupport("foo", null);
+
+        when(this.wireComponentRef.getProperty(ConfigurationService.KURA_SERVICE_PID)).thenReturn("bar");
+        whenServicePropertiesAreModified("ordered");
+
+        thenStatisticsAre(whenDispatchStatisticsAreRequested("foo"), "pool", 0, 0);
+    }
+
+    /*
+     * Given
+     */
+
+    @SuppressWarnings("unchecked")
+    private void givenWireSupport(final String kuraServicePid, final String dispatchMode) throws InterruptedException {
+        final WireReceiver wireComponent = mock(WireReceiver.class);
+        doAnswer(i -> {
+            this.receiveStarted.countDown();
+            this.receiveReleased.await(10, TimeUnit.SECONDS);
+            this.threeEnvelopesReceived.countDown();
+            return null;
+        }).when(wireComponent).onWireReceive(any());
+
+        final ServiceReference<WireComponent> ref = mock(ServiceReference.class);
+        when(ref.getProperty(Constants.SERVICE_PID)).thenReturn(kuraServicePid + "-svc");
+        when(ref.getProperty(ConfigurationService.KURA_SERVICE_PID)).thenReturn(kuraServicePid);
+        when(ref.getProperty(DispatchOptions.DISPATCH_MODE_PROP_NAME)).thenReturn(dispatchMode);
+        when(ref.getProperty(DispatchOptions.QUEUE_CAPACITY_PROP_NAME)).thenReturn(1);
+        when(ref.getProperty(DispatchOptions.OVERFLOW_POLICY_PROP_NAME)).thenReturn("drop-newest");
+
+        this.wireComponentRef = ref;
+        this.wireSupport = this.wireHelperService.newWireSupport(wireComponent, ref);
+    }
+
+    private void givenEnvelopeBeingReceived() throws InterruptedException {
+        this.wireSupport.updated(this.wire, new Object());
+        assertTrue(this.receiveStarted.await(10, TimeUnit.SECONDS));
+    }
+
+    private void givenEnvelopesSent(final int count) {
+        for (int i = 0; i < count; i++) {
+            this.wireSupport.updated(this.wire, new Object());
+        }
+    }
+
+    /*
+     * When
+     */
+
+    private void whenServicePropertiesAreModified(final String dispatchMode) {
+        when(this.wireComponentRef.getProperty(DispatchOptions.DISPATCH_MODE_PROP_NAME)).thenReturn(dispatchMode);
+        this.wireHelperService.updateDispatchOptions(this.wireComponentRef);
+    }
+
+    private Optional<WireDispatchStatistics> whenDispatchStatisticsAreRequested(final String kuraServicePid) {
+        return this.wireHelperService.getDispatchStatistics(kuraServicePid);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenStatisticsAre(final Optional<WireDispatchStatistics> statistics, final String dispatchMode,
+            final int pendingEnvelopeCount, final long droppedEnvelopeCount) {
+        assertTrue(statistics.isPresent());
+        assertEquals(dispatchMode, statistics.get().getDispatchMode());
+        assertEquals(pendingEnvelopeCount, statistics.get().getPendingEnvelopeCount());
+        assertEquals(droppedEnvelopeCount, statistics.get().getDroppedEnvelopeCount());
+    }
+}
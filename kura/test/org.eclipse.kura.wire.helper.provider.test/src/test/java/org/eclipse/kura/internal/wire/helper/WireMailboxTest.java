@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.internal.wire.helper.WireMailbox.OverflowPolicy;
+import org.junit.Test;
+
+public class WireMailboxTest {
+
+    private WireMailbox mailbox;
+    private final Deque<Runnable> scheduledDrains = new ArrayDeque<>();
+    private final List<Integer> executed = new ArrayList<>();
+    private final List<Boolean> accepted = new ArrayList<>();
+    private boolean rejectExecution;
+
+    @Test
+    public void shouldRunTasksInSubmissionOrder() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+
+        whenTasksAreSubmitted(1, 2, 3);
+        whenScheduledDrainsRun();
+
+        thenExecutedTasksAre(1, 2, 3);
+        thenPendingCountIs(0);
+    }
+
+    @Test
+    public void shouldScheduleASingleDrain() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+
+        whenTasksAreSubmitted(1, 2, 3);
+
+        thenScheduledDrainCountIs(1);
+        thenPendingCountIs(3);
+    }
+
+    @Test
+    public void shouldReuseSlotsAfterWrapAround() {
+        givenMailbox(3, OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 10; i++) {
+            whenTasksAreSubmitted(i);
+            whenScheduledDrainsRun();
+        }
+
+        thenExecutedTasksAre(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        thenDroppedCountIs(0);
+    }
+
+    @Test
+    public void shouldDiscardNewestTaskWhenFull() {
+        givenMailbox(2, OverflowPolicy.DROP_NEWEST);
+
+        whenTasksAreSubmitted(1, 2, 3);
+        whenScheduledDrainsRun();
+
+        thenSubmissionResultsAre(true, true, false);
+        thenExecutedTasksAre(1, 2);
+        thenDroppedCountIs(1);
+    }
+
+    @Test
+    public void shouldDiscardOldestTaskWhenFull() {
+        givenMailbox(2, OverflowPolicy.DROP_OLDEST);
+
+        whenTasksAreSubmitted(1, 2, 3, 4);
+        whenScheduledDrainsRun();
+
+        thenSubmissionResultsAre(true, true, true, true);
+        thenExecutedTasksAre(3, 4);
+        thenDroppedCountIs(2);
+    }
+
+    @Test
+    public void shouldBlockSubmitterWhenFull() throws InterruptedException {
+        givenMailbox(1, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1);
+
+        final Thread submitter = whenTaskIsSubmittedAsync(2);
+        waitUntilWaiting(submitter);
+        whenScheduledDrainsRun();
+        submitter.join(10000);
+        whenScheduledDrainsRun();
+
+        thenExecutedTasksAre(1, 2);
+        thenDroppedCountIs(0);
+    }
+
+    @Test
+    public void shouldReleaseBlockedSubmitterOnClose() throws InterruptedException {
+        givenMailbox(1, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1);
+
+        final Thread submitter = whenTaskIsSubmittedAsync(2);
+        waitUntilWaiting(submitter);
+        whenMailboxIsClosed();
+        submitter.join(10000);
+
+        thenSubmissionResultsAre(true, false);
+        thenPendingCountIs(0);
+    }
+
+    @Test
+    public void shouldRescheduleDrainAfterBatch() {
+        givenMailbox(100, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(range(0, 100));
+
+        whenNextScheduledDrainRuns();
+
+        thenExecutedTaskCountIs(64);
+        thenScheduledDrainCountIs(1);
+
+        whenNextScheduledDrainRuns();
+
+        thenExecutedTasksAre(range(0, 100));
+        thenScheduledDrainCountIs(0);
+    }
+
+    @Test
+    public void shouldScheduleDrainAgainAfterMailboxBecomesEmpty() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1);
+        givenScheduledDrainsRun();
+
+        whenTasksAreSubmitted(2);
+
+        thenScheduledDrainCountIs(1);
+    }
+
+    @Test
+    public void shouldContinueAfterFailingTask() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+        givenFailingTaskSubmitted();
+
+        whenTasksAreSubmitted(2);
+        whenScheduledDrainsRun();
+
+        thenExecutedTasksAre(2);
+    }
+
+    @Test
+    public void shouldDiscardPendingTasksIfExecutorRejectsDrain() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+        givenRejectingExecutor();
+
+        whenTasksAreSubmitted(1);
+
+        thenPendingCountIs(0);
+        thenDroppedCountIs(1);
+    }
+
+    @Test
+    public void shouldRejectTasksAfterClose() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1);
+
+        whenMailboxIsClosed();
+        whenTasksAreSubmitted(2);
+        whenScheduledDrainsRun();
+
+        thenSubmissionResultsAre(true, false);
+        thenExecutedTasksAre();
+    }
+
+    @Test
+    public void shouldRunPendingTasksAfterShutdown() {
+        givenMailbox(4, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1, 2);
+
+        whenMailboxIsShutDown();
+        whenTasksAreSubmitted(3);
+        whenScheduledDrainsRun();
+
+        thenSubmissionResultsAre(true, true, false);
+        thenExecutedTasksAre(1, 2);
+        thenClosedIs(true);
+    }
+
+    @Test
+    public void shouldReleaseBlockedSubmitterOnShutdown() throws InterruptedException {
+        givenMailbox(1, OverflowPolicy.BLOCK);
+        givenTasksSubmitted(1);
+
+        final Thread submitter = whenTaskIsSubmittedAsync(2);
+        waitUntilWaiting(submitter);
+        whenMailboxIsShutDown();
+        submitter.join(10000);
+        whenScheduledDrainsRun();
+
+        thenSubmissionResultsAre(true, false);
+        thenExecutedTasksAre(1);
+    }
+
+    @Test
+    public void shouldNotStarveSharedForkJoinPoolWhenSubmitterBlocks() throws InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final CountDownLatch downstreamTasksExecuted = new CountDownLatch(2);
+            final WireMailbox upstream = new WireMailbox("upstream", 4, OverflowPolicy.BLOCK, pool);
+            final WireMailbox downstream = new WireMailbox("downstream", 1, OverflowPolicy.BLOCK, pool);
+
+            upstream.submit(() -> {
+                downstream.submit(downstreamTasksExecuted::countDown);
+                downstream.submit(downstreamTasksExecuted::countDown);
+            });
+
+            assertTrue(downstreamTasksExecuted.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldNotAddThreadsToSharedForkJoinPoolForDeliveries() throws InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final CountDownLatch tasksExecuted = new CountDownLatch(100);
+            final WireMailbox first = new WireMailbox("first", 128, OverflowPolicy.BLOCK, pool);
+            final WireMailbox second = new WireMailbox("second", 128, OverflowPolicy.BLOCK, pool);
+
+            for (int i = 0; i < 50; i++) {
+                first.submit(tasksExecuted::countDown);
+                second.submit(tasksExecuted::countDown);
+            }
+
+            assertTrue(tasksExecuted.await(10, TimeUnit.SECONDS));
+            assertEquals(1, pool.getPoolSize());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenMailbox(final int capacity, final OverflowPolicy overflowPolicy) {
+        this.mailbox = new WireMailbox("test", capacity, overflowPolicy, task -> {
+            if (this.rejectExecution) {
+                throw new RejectedExecutionException();
+            }
+            synchronized (this.scheduledDrains) {
+                this.scheduledDrains.add(task);
+            }
+        });
+    }
+
+    private void givenRejectingExecutor() {
+        this.rejectExecution = true;
+    }
+
+    private void givenTasksSubmitted(final int... ids) {
+        whenTasksAreSubmitted(ids);
+    }
+
+    private void givenFailingTaskSubmitted() {
+        this.mailbox.submit(() -> {
+            throw new IllegalStateException("test");
+        });
+    }
+
+    private void givenScheduledDrainsRun() {
+        whenScheduledDrainsRun();
+    }
+
+    /*
+     * When
+     */
+
+    private void whenTasksAreSubmitted(final int... ids) {
+        for (final int id : ids) {
+            final boolean result = this.mailbox.submit(() -> this.executed.add(id));
+            synchronized (this.accepted) {
+                this.accepted.add(result);
+            }
+        }
+    }
+
+    private Thread whenTaskIsSubmittedAsync(final int id) {
+        final Thread thread = new Thread(() -> whenTasksAreSubmitted(id));
+        thread.start();
+        return thread;
+    }
+
+    private void whenNextScheduledDrainRuns() {
+        final Runnable drain;
+        synchronized (this.scheduledDrains) {
+            drain = this.scheduledDrains.poll();
+        }
+        if (drain != null) {
+            drain.run();
+        }
+    }
+
+    private void whenScheduledDrainsRun() {
+        while (true) {
+            synchronized (this.scheduledDrains) {
+                if (this.scheduledDrains.isEmpty()) {
+                    return;
+                }
+            }
+            whenNextScheduledDrainRuns();
+        }
+    }
+
+    private void whenMailboxIsClosed() {
+        this.mailbox.close();
+    }
+
+    private void whenMailboxIsShutDown() {
+        this.mailbox.shutdown();
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenExecutedTasksAre(final int... ids) {
+        final List<Integer> expected = new ArrayList<>();
+        for (final int id : ids) {
+            expected.add(id);
+        }
+        assertEquals(expected, this.executed);
+    }
+
+    private void thenExecutedTaskCountIs(final int expectedCount) {
+        assertEquals(expectedCount, this.executed.size());
+    }
+
+    private void thenSubmissionResultsAre(final Boolean... results) {
+        synchronized (this.accepted) {
+            assertEquals(Arrays.asList(results), this.accepted);
+        }
+    }
+
+    private void thenScheduledDrainCountIs(final int expectedCount) {
+        synchronized (this.scheduledDrains) {
+            assertEquals(expectedCount, this.scheduledDrains.size());
+        }
+    }
+
+    private void thenPendingCountIs(final int expectedCount) {
+        assertEquals(expectedCount, this.mailbox.getPendingCount());
+    }
+
+    private void thenClosedIs(final boolean expected) {
+        assertEquals(expected, this.mailbox.isClosed());
+    }
+
+    private void thenDroppedCountIs(final long expectedCount) {
+        assertEquals(expectedCount, this.mailbox.getDroppedCount());
+    }
+
+    /*
+     * Utilities
+     */
+
+    private static int[] range(final int from, final int to) {
+        final int[] result = new int[to - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = from + i;
+        }
+        return result;
+    }
+
+    private static void waitUntilWaiting(final Thread thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,9 @@
 package org.eclipse.kura.internal.wire;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -31,6 +33,10 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ComponentConfiguration;
@@ -83,7 +89,7 @@ public class WireGraphServiceImplTest {
         Map<String, Object> properties = new HashMap<>();
         properties.put(WIRE_GRAPH_PROPERTY_NAME, SIMPLE_GRAPH);
 
-        wsi.activate(mock(ComponentContext.class), properties);
+        wsi.activate(mockComponentContext(), properties);
     }
 
     @Test
@@ -151,7 +157,7 @@ public class WireGraphServiceImplTest {
         TestUtil.setFieldValue(wireGraphService, "configurationService", configurationService);
         TestUtil.setFieldValue(wireGraphService, "wireAdmin", wireAdmin);
 
-        wireGraphService.activate(mock(ComponentContext.class), properties);
+        wireGraphService.activate(mockComponentContext(), properties);
 
         ServiceTracker<WireComponent, WireComponent> wireComponentServiceTracker = mock(ServiceTracker.class);
         TestUtil.setFieldValue(wireGraphService, "wireComponentServiceTracker", wireComponentServiceTracker);
@@ -214,7 +220,7 @@ public class WireGraphServiceImplTest {
         TestUtil.setFieldValue(wireGraphService, "configurationService", configurationService);
         TestUtil.setFieldValue(wireGraphService, "wireAdmin", wireAdmin);
 
-        wireGraphService.activate(mock(ComponentContext.class), properties);
+        wireGraphService.activate(mockComponentContext(), properties);
 
         ServiceTracker<WireComponent, WireComponent> wireComponentServiceTracker = mock(ServiceTracker.class);
         TestUtil.setFieldValue(wireGraphService, "wireComponentServiceTracker", wireComponentServiceTracker);
@@ -273,7 +279,7 @@ public class WireGraphServiceImplTest {
 
         when(configurationService.getComponentConfigurations()).thenReturn(configServiceComponentConfigurations);
 
-        wireGraphService.activate(mock(ComponentContext.class), properties);
+        wireGraphService.activate(mockComponentContext(), properties);
         WireGraphConfiguration wireGraphConfiguration = wireGraphService.get();
 
         assertNotNull(wireGraphConfiguration);
@@ -299,7 +305,7 @@ public class WireGraphServiceImplTest {
         TestUtil.setFieldValue(wireGraphService, "configurationService", configurationService);
         TestUtil.setFieldValue(wireGraphService, "wireAdmin", wireAdmin);
 
-        wireGraphService.activate(mock(ComponentContext.class), properties);
+        wireGraphService.activate(mockComponentContext(), properties);
         wireGraphService.delete();
 
         final ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
@@ -313,6 +319,42 @@ public class WireGraphServiceImplTest {
         assertEquals("{\"components\":[],\"wires\":[]}", arguments.get(WIRE_GRAPH_PROPERTY_NAME));
     }
 
+    @Test
+    public void testWireGraphExecutorCannotBeShutDown() throws NoSuchFieldException, InterruptedException {
+        WireAdmin wireAdmin = mock(WireAdmin.class);
+        when(wireAdmin.getWires(null)).thenReturn(new Wire[0]);
+
+        WireGraphServiceImpl wireGraphService = getWireGraphServiceImpl(new HashMap<>());
+        TestUtil.setFieldValue(wireGraphService, "wireAdmin", wireAdmin);
+
+        ComponentContext cc = mock(ComponentContext.class);
+        BundleContext bc = mock(BundleContext.class);
+        when(cc.getBundleContext()).thenReturn(bc);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(WIRE_GRAPH_PROPERTY_NAME, DEFAULT_GRAPH);
+
+        wireGraphService.activate(cc, properties);
+
+        final ArgumentCaptor<Executor> captor = ArgumentCaptor.forClass(Executor.class);
+        verify(bc).registerService(eq(Executor.class), captor.capture(), any(Dictionary.class));
+
+        Executor executor = captor.getValue();
+        assertFalse(executor instanceof ExecutorService);
+
+        CountDownLatch executed = new CountDownLatch(1);
+        executor.execute(executed::countDown);
+        assertTrue(executed.await(10, TimeUnit.SECONDS));
+
+        ((ExecutorService) TestUtil.getFieldValue(wireGraphService, "wireGraphExecutor")).shutdownNow();
+    }
+
+    private static ComponentContext mockComponentContext() {
+        ComponentContext componentContext = mock(ComponentContext.class);
+        when(componentContext.getBundleContext()).thenReturn(mock(BundleContext.class));
+        return componentContext;
+    }
+
     private WireGraphServiceImpl getWireGraphServiceImpl(final Map<String, String> servicePidMappings) {
         WireGraphServiceImpl wireGraphService = new WireGraphServiceImpl() {
 
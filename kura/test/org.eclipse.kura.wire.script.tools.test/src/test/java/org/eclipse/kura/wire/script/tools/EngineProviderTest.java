@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,9 +12,11 @@
  ******************************************************************************/
 package org.eclipse.kura.wire.script.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -22,6 +24,9 @@ public class EngineProviderTest {
 
     private EngineProvider engine = new EngineProvider() {
 
+    };
+    private EngineProvider otherEngine = new EngineProvider() {
+
     };
     private boolean isEngineInit = false;
 
@@ -73,6 +78,37 @@ public class EngineProviderTest {
         thenResultIsEmpty();
     }
 
+    @Test
+    public void shouldEvaluateChangedSource() {
+        givenEngineInit();
+        givenEvaluated("1 === 1");
+
+        whenEvaluate("1 === 2");
+
+        thenResultIs(false);
+    }
+
+    @Test
+    public void shouldEvaluateSourceSetBeforeEngineInit() {
+        givenSource("2 > 1");
+        givenEngineInit();
+
+        whenEvaluate();
+
+        thenResultIs(true);
+    }
+
+    @Test
+    public void shouldIsolateGlobalsOfEngines() {
+        givenEngineInit();
+        givenEvaluated("var shared = true;");
+        givenOtherEngineInit();
+
+        whenOtherEngineEvaluates("typeof(shared) === 'undefined'");
+
+        thenOtherResultIs(true);
+    }
+
     /*
      * Steps
      */
@@ -89,6 +125,18 @@ public class EngineProviderTest {
         this.engine.closeEngine();
     }
 
+    private void givenOtherEngineInit() {
+        this.otherEngine.initEngine();
+    }
+
+    private void givenSource(String sourceCode) {
+        this.engine.setSource(sourceCode);
+    }
+
+    private void givenEvaluated(String sourceCode) {
+        this.engine.evaluate(sourceCode);
+    }
+
     /*
      * When
      */
@@ -101,6 +149,14 @@ public class EngineProviderTest {
         this.engine.evaluate(sourceCode);
     }
 
+    private void whenEvaluate() {
+        this.engine.evaluate();
+    }
+
+    private void whenOtherEngineEvaluates(String sourceCode) {
+        this.otherEngine.evaluate(sourceCode);
+    }
+
     /*
      * Then
      */
@@ -117,6 +173,14 @@ public class EngineProviderTest {
         assertFalse(this.engine.getResultAsBoolean().isPresent());
     }
 
+    private void thenResultIs(boolean expected) {
+        assertEquals(expected, this.engine.getResultAsBoolean().get().getValue());
+    }
+
+    private void thenOtherResultIs(boolean expected) {
+        assertEquals(expected, this.otherEngine.getResultAsBoolean().get().getValue());
+    }
+
     /*
      * Utilities
      */
@@ -126,4 +190,10 @@ public class EngineProviderTest {
         this.isEngineInit = false;
     }
 
+    @After
+    public void closeEngines() {
+        this.engine.closeEngine();
+        this.otherEngine.closeEngine();
+    }
+
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class BitInputOutputTest {
+
+    private final BitOutput output = new BitOutput(1);
+    private BitInput input;
+
+    @Test
+    public void shouldReadWrittenBits() {
+        givenBitsWritten(true, false, true, true);
+
+        whenInputIsCreated();
+
+        thenBitsAre(true, false, true, true);
+    }
+
+    @Test
+    public void shouldPackBitsMostSignificantFirst() {
+        givenBitsWritten(true, false, true);
+
+        thenBytesAre((byte) 0xA0);
+    }
+
+    @Test
+    public void shouldReadValuesNotAlignedToBytes() {
+        this.output.writeBit(true);
+        this.output.writeBits(0x5, 3);
+        this.output.writeBits(0x1234_5678_9ABC_DEF0L, 64);
+        this.output.writeBits(0x7F, 7);
+
+        whenInputIsCreated();
+
+        assertTrue(this.input.readBit());
+        assertEquals(0x5, this.input.readBits(3));
+        assertEquals(0x1234_5678_9ABC_DEF0L, this.input.readBits(64));
+        assertEquals(0x7F, this.input.readBits(7));
+    }
+
+    @Test
+    public void shouldWriteOnlyLeastSignificantBits() {
+        this.output.writeBits(-1L, 4);
+
+        whenInputIsCreated();
+
+        assertEquals(0xF, this.input.readBits(4));
+        thenByteLengthIs(1);
+    }
+
+    @Test
+    public void shouldReadVarInts() {
+        final int[] values = { 0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1 };
+
+        for (final int value : values) {
+            this.output.writeVarInt(value);
+        }
+
+        whenInputIsCreated();
+
+        for (final int value : values) {
+            assertEquals(value, this.input.readVarInt());
+        }
+    }
+
+    @Test
+    public void shouldReadByteArrays() {
+        this.output.writeBit(true);
+        this.output.writeBytes(new byte[] { 1, (byte) 0xFF, 0 });
+        this.output.writeBytes(new byte[0]);
+
+        whenInputIsCreated();
+
+        assertTrue(this.input.readBit());
+        assertArrayEquals(new byte[] { 1, (byte) 0xFF, 0 }, this.input.readBytes());
+        assertArrayEquals(new byte[0], this.input.readBytes());
+    }
+
+    @Test
+    public void shouldGrowOutputBuffer() {
+        for (int i = 0; i < 1000; i++) {
+            this.output.writeBits(i, 10);
+        }
+
+        whenInputIsCreated();
+
+        thenByteLengthIs(1250);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, this.input.readBits(10));
+        }
+    }
+
+    @Test
+    public void shouldReadFromBufferOffset() {
+        givenBitsWritten(false, true);
+        final byte[] bytes = this.output.toByteArray();
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+
+        this.input = new BitInput(buffer, 3, bytes.length);
+
+        thenBitsAre(false, true);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectReadsPastTheEnd() {
+        this.output.writeBits(0xFF, 8);
+
+        whenInputIsCreated();
+
+        this.input.readBits(9);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectMalformedByteArrayLength() {
+        this.output.writeVarInt(10);
+        this.output.writeBits(0, 8);
+
+        whenInputIsCreated();
+
+        this.input.readBytes();
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenBitsWritten(final boolean... bits) {
+        for (final boolean bit : bits) {
+            this.output.writeBit(bit);
+        }
+    }
+
+    /*
+     * When
+     */
+
+    private void whenInputIsCreated() {
+        final byte[] bytes = this.output.toByteArray();
+        this.input = new BitInput(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenBitsAre(final boolean... bits) {
+        for (final boolean bit : bits) {
+            if (bit) {
+                assertTrue(this.input.readBit());
+            } else {
+                assertFalse(this.input.readBit());
+            }
+        }
+    }
+
+    private void thenBytesAre(final byte... bytes) {
+        assertArrayEquals(bytes, this.output.toByteArray());
+    }
+
+    private void thenByteLengthIs(final int expected) {
+        assertEquals(expected, this.output.byteLength());
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class DeltaOfDeltaCodecTest {
+
+    private final BitOutput output = new BitOutput(16);
+    private long[] decoded;
+
+    @Test
+    public void shouldRoundTripSingleValue() {
+        whenValuesAreEncodedAndDecoded(1_700_000_000_000L);
+
+        thenDecodedValuesAre(1_700_000_000_000L);
+    }
+
+    @Test
+    public void shouldRoundTripRegularIntervals() {
+        final long[] values = new long[1000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_700_000_000_000L + i * 100L;
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        thenDecodedValuesAre(values);
+    }
+
+    @Test
+    public void shouldUseOneBitForRepeatedIntervals() {
+        final long[] values = new long[1001];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_700_000_000_000L + i * 100L;
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        // 64 bits for the first value, a few bits for the first delta, then one bit per value
+        assertTrue(this.output.byteLength() < 8 + 8 + 1000 / 8 + 1);
+    }
+
+    @Test
+    public void shouldRoundTripIrregularIntervals() {
+        whenValuesAreEncodedAndDecoded(1000, 1001, 1100, 1099, 5000, 5000, 4_000_000, 4_000_001, 1L << 40, 0);
+
+        thenDecodedValuesAre(1000, 1001, 1100, 1099, 5000, 5000, 4_000_000, 4_000_001, 1L << 40, 0);
+    }
+
+    @Test
+    public void shouldRoundTripBucketBoundaries() {
+        final long[] deltaOfDeltas = { 63, 64, -63, -64, -65, 255, 256, -255, -256, 2047, 2048, -2047, -2048,
+                Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L };
+        final long[] values = new long[deltaOfDeltas.length + 2];
+        long delta = 10;
+
+        values[0] = 0;
+        values[1] = delta;
+
+        for (int i = 0; i < deltaOfDeltas.length; i++) {
+            delta += deltaOfDeltas[i];
+            values[i + 2] = values[i + 1] + delta;
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        thenDecodedValuesAre(values);
+    }
+
+    @Test
+    public void shouldRoundTripExtremeValues() {
+        whenValuesAreEncodedAndDecoded(Long.MIN_VALUE, Long.MAX_VALUE, 0, Long.MIN_VALUE, -1);
+
+        thenDecodedValuesAre(Long.MIN_VALUE, Long.MAX_VALUE, 0, Long.MIN_VALUE, -1);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenValuesAreEncodedAndDecoded(final long... values) {
+        final DeltaOfDeltaCodec.Encoder encoder = new DeltaOfDeltaCodec.Encoder(this.output);
+
+        for (final long value : values) {
+            encoder.write(value);
+        }
+
+        final byte[] bytes = this.output.toByteArray();
+        final DeltaOfDeltaCodec.Decoder decoder = new DeltaOfDeltaCodec.Decoder(
+                new BitInput(ByteBuffer.wrap(bytes), 0, bytes.length));
+
+        this.decoded = new long[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            this.decoded[i] = decoder.read();
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenDecodedValuesAre(final long... expected) {
+        assertEquals(expected.length, this.decoded.length);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("value " + i, expected[i], this.decoded[i]);
+        }
+    }
+}
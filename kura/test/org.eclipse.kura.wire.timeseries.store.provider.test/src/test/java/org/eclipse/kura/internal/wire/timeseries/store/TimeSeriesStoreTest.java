@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.kura.wire.WireRecord;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TimeSeriesStoreTest {
+
+    private static final String STORE_NAME = "test";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private TimeSeriesStore store;
+
+    @After
+    public void cleanup() {
+        if (this.store != null) {
+            this.store.close();
+        }
+    }
+
+    @Test
+    public void shouldReplayJournalAfterReopen() throws KuraStoreException {
+        givenBlockMaxRecords(10);
+        givenStore();
+        givenRecordsInserted(0, 3);
+
+        whenStoreIsReopened();
+
+        thenSizeIs(3);
+        thenStoredValuesAre(0, 1, 2);
+    }
+
+    @Test
+    public void shouldNotDuplicateSealedRecordsAfterReopen() throws KuraStoreException {
+        givenBlockMaxRecords(4);
+        givenStore();
+        givenRecordsInserted(0, 6);
+
+        whenStoreIsReopened();
+
+        thenSizeIs(6);
+        thenStoredValuesAre(0, 1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void shouldDiscardTornJournalTail() throws KuraStoreException, IOException {
+        givenBlockMaxRecords(10);
+        givenStore();
+        givenRecordsInserted(0, 3);
+        givenStoreClosed();
+        givenJournalTailCorrupted();
+
+        whenStoreIsOpened();
+        whenRecordsAreInserted(3, 1);
+
+        thenSizeIs(4);
+        thenStoredValuesAre(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldKeepJournalAfterSegmentRollover() throws KuraStoreException, IOException {
+        givenBlockMaxRecords(4);
+        givenSegmentMaxSizeKb(1);
+        givenStore();
+        givenRecordsInserted(0, 10, 300);
+
+        whenStoreIsReopened();
+
+        thenSegmentCountIs(3);
+        thenSizeIs(10);
+        thenStoredValuesAre(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void shouldReadBlocksAppendedAfterMapping() throws KuraStoreException {
+        givenBlockMaxRecords(2);
+        givenStore();
+
+        final List<Double> expected = new ArrayList<>();
+
+        for (int i = 0; i < 40; i += 2) {
+            whenRecordsAreInserted(i, 2);
+            expected.add((double) i);
+            expected.add((double) i + 1);
+
+            thenStoredValuesAre(expected);
+        }
+    }
+
+    @Test
+    public void shouldKeepNewestRecordsAfterTruncateAndReopen() throws KuraStoreException {
+        givenBlockMaxRecords(4);
+        givenStore();
+        givenRecordsInserted(0, 10);
+
+        whenStoreIsTruncated(5);
+        whenStoreIsReopened();
+
+        thenSizeIs(5);
+        thenStoredValuesAre(5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void shouldRemoveAllRecordsOnTruncateToZero() throws KuraStoreException {
+        givenBlockMaxRecords(4);
+        givenStore();
+        givenRecordsInserted(0, 10);
+
+        whenStoreIsTruncated(0);
+        whenRecordsAreInserted(10, 1);
+        whenStoreIsReopened();
+
+        thenSizeIs(1);
+        thenStoredValuesAre(10);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenBlockMaxRecords(final int value) {
+        this.properties.put(TimeSeriesStoreServiceOptions.BLOCK_MAX_RECORDS_PROP_NAME, value);
+    }
+
+    private void givenSegmentMaxSizeKb(final int value) {
+        this.properties.put(TimeSeriesStoreServiceOptions.SEGMENT_MAX_SIZE_PROP_NAME, value);
+    }
+
+    private void givenStore() throws KuraStoreException {
+        whenStoreIsOpened();
+    }
+
+    private void givenRecordsInserted(final int from, final int count) throws KuraStoreException {
+        whenRecordsAreInserted(from, count);
+    }
+
+    private void givenRecordsInserted(final int from, final int count, final int padding)
+            throws KuraStoreException {
+        for (int i = from; i < from + count; i++) {
+            final Map<String, TypedValue<?>> values = new HashMap<>();
+            values.put("value", TypedValues.newDoubleValue(i));
+            final byte[] bytes = new byte[padding];
+            new Random(i).nextBytes(bytes);
+            values.put("padding", TypedValues.newByteArrayValue(bytes));
+            this.store.insertRecords(Collections.singletonList(new WireRecord(values)));
+        }
+    }
+
+    private void givenStoreClosed() {
+        this.store.close();
+    }
+
+    private void givenJournalTailCorrupted() throws IOException {
+        Files.write(getDirectory().resolve("journal"), new byte[] { 0, 0, 0, 10, 1, 2, 3 },
+                StandardOpenOption.APPEND);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenStoreIsOpened() throws KuraStoreException {
+        this.store = new TimeSeriesStore(STORE_NAME, getDirectory(),
+                new TimeSeriesStoreServiceOptions(this.properties));
+    }
+
+    private void whenStoreIsReopened() throws KuraStoreException {
+        this.store.close();
+        whenStoreIsOpened();
+    }
+
+    private void whenRecordsAreInserted(final int from, final int count) throws KuraStoreException {
+        for (int i = from; i < from + count; i++) {
+            this.store.insertRecords(Collections.singletonList(
+                    new WireRecord(Collections.singletonMap("value", TypedValues.newDoubleValue(i)))));
+        }
+    }
+
+    private void whenStoreIsTruncated(final int noOfRecordsToKeep) throws KuraStoreException {
+        this.store.truncate(noOfRecordsToKeep);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenSizeIs(final int expected) throws KuraStoreException {
+        assertEquals(expected, this.store.getSize());
+    }
+
+    private void thenStoredValuesAre(final double... expected) throws KuraStoreException {
+        final List<Double> values = new ArrayList<>();
+
+        for (final double value : expected) {
+            values.add(value);
+        }
+
+        thenStoredValuesAre(values);
+    }
+
+    private void thenStoredValuesAre(final List<Double> expected) throws KuraStoreException {
+        final List<WireRecord> records = this.store
+                .performQuery(TimeSeriesQuery.parse("SELECT value FROM " + STORE_NAME, System::currentTimeMillis));
+        final List<Double> values = new ArrayList<>();
+
+        for (final WireRecord wireRecord : records) {
+            values.add((Double) wireRecord.getProperties().get("value").getValue());
+        }
+
+        assertEquals(expected, values);
+    }
+
+    private void thenSegmentCountIs(final int expected) throws IOException {
+        int count = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(getDirectory(), "*" + Segment.FILE_EXTENSION)) {
+            for (@SuppressWarnings("unused")
+            final Path file : files) {
+                count++;
+            }
+        }
+
+        assertEquals(expected, count);
+    }
+
+    private Path getDirectory() {
+        return this.folder.getRoot().toPath().resolve(STORE_NAME);
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.wire.timeseries.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class XorFloatCodecTest {
+
+    private final BitOutput output = new BitOutput(16);
+    private double[] decoded;
+
+    @Test
+    public void shouldRoundTripSingleValue() {
+        whenValuesAreEncodedAndDecoded(21.5);
+
+        thenDecodedValuesAre(21.5);
+    }
+
+    @Test
+    public void shouldRoundTripSlowlyChangingSeries() {
+        final double[] values = new double[1000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 20.0 + Math.sin(i / 100.0);
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        thenDecodedValuesAre(values);
+    }
+
+    @Test
+    public void shouldUseOneBitForRepeatedValues() {
+        final double[] values = new double[1001];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 3.14;
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        assertTrue(this.output.byteLength() <= 8 + 1000 / 8);
+    }
+
+    @Test
+    public void shouldRoundTripWindowChanges() {
+        whenValuesAreEncodedAndDecoded(1.0, 1.0000001, 1.0000002, 1e300, -1e-300, 12.0, 12.5, 12.25, 0.1);
+
+        thenDecodedValuesAre(1.0, 1.0000001, 1.0000002, 1e300, -1e-300, 12.0, 12.5, 12.25, 0.1);
+    }
+
+    @Test
+    public void shouldRoundTripSpecialValues() {
+        whenValuesAreEncodedAndDecoded(0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 0.0);
+
+        thenDecodedValuesAre(0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 0.0);
+    }
+
+    @Test
+    public void shouldRoundTripWidenedFloats() {
+        final float[] floats = { 1.5f, 1.6f, -3.4e38f, Float.MIN_VALUE, Float.NaN, 0.1f };
+        final double[] values = new double[floats.length];
+
+        for (int i = 0; i < floats.length; i++) {
+            values[i] = floats[i];
+        }
+
+        whenValuesAreEncodedAndDecoded(values);
+
+        for (int i = 0; i < floats.length; i++) {
+            assertEquals(Float.floatToRawIntBits(floats[i]), Float.floatToRawIntBits((float) this.decoded[i]));
+        }
+    }
+
+    /*
+     * When
+     */
+
+    private void whenValuesAreEncodedAndDecoded(final double... values) {
+        final XorFloatCodec.Encoder encoder = new XorFloatCodec.Encoder(this.output);
+
+        for (final double value : values) {
+            encoder.write(value);
+        }
+
+        final byte[] bytes = this.output.toByteArray();
+        final XorFloatCodec.Decoder decoder = new XorFloatCodec.Decoder(
+                new BitInput(ByteBuffer.wrap(bytes), 0, bytes.length));
+
+        this.decoded = new double[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            this.decoded[i] = decoder.read();
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenDecodedValuesAre(final double... expected) {
+        assertEquals(expected.length, this.decoded.length);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("value " + i, Double.doubleToRawLongBits(expected[i]),
+                    Double.doubleToRawLongBits(this.decoded[i]));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.data;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.benchmark.mqtt.InProcessMqttBroker;
+import org.eclipse.kura.benchmark.store.StoreFixture;
+import org.eclipse.kura.benchmark.util.Stubs;
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.eclipse.kura.core.data.DataServiceImpl;
+import org.eclipse.kura.core.data.transport.mqtt.MqttDataTransport;
+import org.eclipse.kura.data.DataService;
+import org.osgi.service.component.ComponentContext;
+
+/**
+ * A {@link DataServiceImpl} instance connected through a {@link MqttDataTransport} to an
+ * {@link InProcessMqttBroker}, using the provided message store.
+ */
+final class DataServiceFixture implements AutoCloseable {
+
+    static final String DATA_SERVICE_PID = "org.eclipse.kura.data.DataService";
+
+    private final ComponentContext componentContext = Stubs.componentContext();
+    private final InProcessMqttBroker broker;
+    private final StoreFixture storeFixture;
+    private final BenchmarkDataTransport dataTransport = new BenchmarkDataTransport();
+    private final BenchmarkDataService dataService = new BenchmarkDataService();
+
+    DataServiceFixture(final StoreFixture storeFixture, final Map<String, Object> dataServiceProperties)
+            throws IOException, KuraException, InterruptedException {
+        this.storeFixture = storeFixture;
+        this.broker = InProcessMqttBroker.start();
+
+        final Map<String, Object> transportProperties = new HashMap<>();
+        transportProperties.put(ConfigurationService.KURA_SERVICE_PID, "org.eclipse.kura.core.data.transport.mqtt");
+        transportProperties.put("broker-url", this.broker.getUrl());
+        transportProperties.put("client-id", "kura-benchmark");
+        transportProperties.put("topic.context.account-name", "account");
+        transportProperties.put("keep-alive", 30);
+        transportProperties.put("timeout", 20);
+        transportProperties.put("clean-session", true);
+        transportProperties.put("protocol-version", 4);
+        transportProperties.put("in-flight.persistence", "memory");
+
+        this.dataTransport.setCryptoService(Stubs.cryptoService());
+        this.dataTransport.setCloudConnectionStatusService(Stubs.cloudConnectionStatusService());
+        this.dataTransport.activate(this.componentContext, transportProperties);
+
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(ConfigurationService.KURA_SERVICE_PID, DATA_SERVICE_PID);
+        properties.put("store.db.service.pid", storeFixture.getPid());
+        properties.put("connect.auto-on-startup", false);
+        properties.put("enable.rate.limit", false);
+        properties.put("enable.recovery.on.connection.failure", false);
+        properties.put("store.capacity", Integer.MAX_VALUE);
+        // confirmed messages are purged every second to keep the store size bounded, a non zero purge age is needed
+        // to avoid purging a message before the confirmation has been notified to the listeners
+        properties.put("store.housekeeper-interval", 1);
+        properties.put("store.purge-age", 1);
+        properties.putAll(dataServiceProperties);
+
+        // make sure that the message store can be opened before activating the DataService
+        storeFixture.openMessageStore(DATA_SERVICE_PID).close();
+
+        this.dataService.setDataTransportService(this.dataTransport);
+        this.dataService.setCloudConnectionStatusService(Stubs.cloudConnectionStatusService());
+        this.dataService.activate(this.componentContext, properties);
+        this.dataService.setMessageStoreProvider(storeFixture.getProvider());
+        this.dataService.connect();
+    }
+
+    DataService getDataService() {
+        return this.dataService;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.dataService.disconnect(0);
+            this.dataService.deactivate(this.componentContext);
+            this.dataTransport.deactivate(this.componentContext);
+        } finally {
+            this.broker.close();
+            this.storeFixture.close();
+        }
+    }
+
+    private static final class BenchmarkDataService extends DataServiceImpl {
+
+        @Override
+        protected void activate(final ComponentContext componentContext, final Map<String, Object> properties) {
+            super.activate(componentContext, properties);
+        }
+
+        @Override
+        protected void deactivate(final ComponentContext componentContext) {
+            super.deactivate(componentContext);
+        }
+    }
+
+    private static final class BenchmarkDataTransport extends MqttDataTransport {
+
+        @Override
+        protected void activate(final ComponentContext componentContext, final Map<String, Object> properties) {
+            super.activate(componentContext, properties);
+        }
+
+        @Override
+        protected void deactivate(final ComponentContext componentContext) {
+            super.deactivate(componentContext);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.data;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.benchmark.store.StoreType;
+import org.eclipse.kura.data.DataService;
+import org.eclipse.kura.data.listener.DataServiceListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the full store and forward path: messages are published through {@link DataService#publish}, stored in
+ * the configured message store, sent by the DataService publisher over MQTT to an in-process broker and marked as
+ * confirmed when the acknowledgement is received.
+ * <br>
+ * Each invocation publishes {@value #MESSAGES_PER_INVOCATION} messages and waits until all of them have been
+ * confirmed (or published, for QoS 0), the score is expressed in messages per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PublishBenchmark.MESSAGES_PER_INVOCATION)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublishBenchmark {
+
+    static final int MESSAGES_PER_INVOCATION = 100;
+
+    private static final String TOPIC = "app/metrics";
+    private static final int PRIORITY = 5;
+    private static final long COMPLETION_TIMEOUT_SECONDS = 60;
+
+    @Param({ "H2_MEMORY", "H2_FILE", "SQLITE_MEMORY", "SQLITE_FILE", "JOURNAL" })
+    public StoreType store;
+
+    @Param({ "100", "1024", "10240", "102400" })
+    public int payloadSize;
+
+    @Param({ "1" })
+    public int qos;
+
+    @Param({ "1" })
+    public int publishBatchSize;
+
+    @Param({ "0" })
+    public int writeBehindWindowMs;
+
+    private final Semaphore completed = new Semaphore(0);
+
+    private byte[] payload;
+    private DataServiceFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.payload = new byte[this.payloadSize];
+        new Random(this.payloadSize).nextBytes(this.payload);
+
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("store.publish-batch-size", this.publishBatchSize);
+        properties.put("store.write-behind.window", this.writeBehindWindowMs);
+
+        this.fixture = new DataServiceFixture(this.store.create(Files.createTempDirectory("kura-benchmark-")),
+                properties);
+        this.fixture.getDataService().addDataServiceListener(new CompletionListener());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    @Benchmark
+    public void publish() throws KuraException, InterruptedException {
+        final DataService dataService = this.fixture.getDataService();
+
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+            dataService.publish(TOPIC, this.payload, this.qos, false, PRIORITY);
+        }
+
+        if (!this.completed.tryAcquire(MESSAGES_PER_INVOCATION, COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("messages have not been delivered in time");
+        }
+    }
+
+    private final class CompletionListener implements DataServiceListener {
+
+        @Override
+        public void onMessagePublished(final int messageId, final String topic) {
+            if (PublishBenchmark.this.qos == 0) {
+                PublishBenchmark.this.completed.release();
+            }
+        }
+
+        @Override
+        public void onMessageConfirmed(final int messageId, final String topic) {
+            PublishBenchmark.this.completed.release();
+        }
+
+        @Override
+        public void onConnectionEstablished() {
+            // not needed
+        }
+
+        @Override
+        public void onDisconnecting() {
+            // not needed
+        }
+
+        @Override
+        public void onDisconnected() {
+            // not needed
+        }
+
+        @Override
+        public void onConnectionLost(final Throwable cause) {
+            // not needed
+        }
+
+        @Override
+        public void onMessageArrived(final String topic, final byte[] payload, final int qos,
+                final boolean retained) {
+            // not needed
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.mqtt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A minimal MQTT 3.1.1 broker listening on the loopback interface, used as a stand-in for a remote broker.
+ * <br>
+ * The broker acknowledges connections, subscriptions and published messages, including the QoS 1 and QoS 2
+ * handshakes, and discards the published messages. Acknowledgements are flushed when no further input is
+ * immediately available, so that pipelined publications are acknowledged in batches as a real broker would do.
+ */
+public final class InProcessMqttBroker implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessMqttBroker.class);
+
+    private static final int CONNECT = 1;
+    private static final int CONNACK = 2;
+    private static final int PUBLISH = 3;
+    private static final int PUBACK = 4;
+    private static final int PUBREC = 5;
+    private static final int PUBREL = 6;
+    private static final int PUBCOMP = 7;
+    private static final int SUBSCRIBE = 8;
+    private static final int SUBACK = 9;
+    private static final int UNSUBSCRIBE = 10;
+    private static final int UNSUBACK = 11;
+    private static final int PINGREQ = 12;
+    private static final int PINGRESP = 13;
+    private static final int DISCONNECT = 14;
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
+
+    private InProcessMqttBroker(final ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.acceptor = new Thread(this::accept, "InProcessMqttBroker");
+        this.acceptor.setDaemon(true);
+    }
+
+    /**
+     * Starts a broker listening on an ephemeral port.
+     */
+    public static InProcessMqttBroker start() throws IOException {
+        final InProcessMqttBroker result = new InProcessMqttBroker(
+                new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+        result.acceptor.start();
+        return result;
+    }
+
+    public String getUrl() {
+        return "mqtt://" + this.serverSocket.getInetAddress().getHostAddress() + ":"
+                + this.serverSocket.getLocalPort() + "/";
+    }
+
+    public long getReceivedMessages() {
+        return this.receivedMessages.get();
+    }
+
+    public long getReceivedBytes() {
+        return this.receivedBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+
+        for (final Socket client : this.clients) {
+            client.close();
+        }
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket client = this.serverSocket.accept();
+                client.setTcpNoDelay(true);
+                this.clients.add(client);
+
+                final Thread handler = new Thread(() -> handle(client), "InProcessMqttBroker-client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (final IOException e) {
+                if (!this.serverSocket.isClosed()) {
+                    logger.warn("failed to accept connection", e);
+                }
+            }
+        }
+    }
+
+    private void handle(final Socket client) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+                OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+
+            boolean connected = true;
+
+            while (connected) {
+                final int header = in.read();
+
+                if (header < 0) {
+                    break;
+                }
+
+                final int length = readRemainingLength(in);
+                final byte[] body = new byte[length];
+                in.readFully(body);
+
+                connected = handlePacket(header >>> 4, header & 0x0f, body, out);
+
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (final IOException e) {
+            logger.debug("client connection closed", e);
+        } finally {
+            this.clients.remove(client);
+            try {
+                client.close();
+            } catch (final IOException e) {
+                logger.debug("failed to close client connection", e);
+            }
+        }
+    }
+
+    private boolean handlePacket(final int type, final int flags, final byte[] body, final OutputStream out)
+            throws IOException {
+        switch (type) {
+        case CONNECT:
+            // session present = 0, return code = accepted
+            out.write(new byte[] { CONNACK << 4, 2, 0, 0 });
+            break;
+        case PUBLISH:
+            handlePublish(flags, body, out);
+            break;
+        case PUBREL:
+            out.write(new byte[] { PUBCOMP << 4, 2, body[0], body[1] });
+            break;
+        case SUBSCRIBE:
+            handleSubscribe(body, out);
+            break;
+        case UNSUBSCRIBE:
+            out.write(new byte[] { (byte) (UNSUBACK << 4), 2, body[0], body[1] });
+            break;
+        case PINGREQ:
+            out.write(new byte[] { (byte) (PINGRESP << 4), 0 });
+            break;
+        case DISCONNECT:
+            return false;
+        default:
+            break;
+        }
+        return true;
+    }
+
+    private void handlePublish(final int flags, final byte[] body, final OutputStream out) throws IOException {
+        final int qos = (flags >>> 1) & 0x03;
+        final int topicLength = (body[0] & 0xff) << 8 | body[1] & 0xff;
+        final int packetIdOffset = 2 + topicLength;
+        final int payloadOffset = qos > 0 ? packetIdOffset + 2 : packetIdOffset;
+
+        this.receivedMessages.incrementAndGet();
+        this.receivedBytes.addAndGet((long) body.length - payloadOffset);
+
+        if (qos == 1) {
+            out.write(new byte[] { PUBACK << 4, 2, body[packetIdOffset], body[packetIdOffset + 1] });
+        } else if (qos == 2) {
+            out.write(new byte[] { PUBREC << 4, 2, body[packetIdOffset], body[packetIdOffset + 1] });
+        }
+    }
+
+    private void handleSubscribe(final byte[] body, final OutputStream out) throws IOException {
+        int position = 2;
+        int topics = 0;
+
+        while (position < body.length) {
+            final int topicLength = (body[position] & 0xff) << 8 | body[position + 1] & 0xff;
+            position += 2 + topicLength + 1;
+            topics++;
+        }
+
+        out.write(SUBACK << 4);
+        writeRemainingLength(out, 2 + topics);
+        out.write(body[0]);
+        out.write(body[1]);
+
+        position = 2;
+        while (position < body.length) {
+            final int topicLength = (body[position] & 0xff) << 8 | body[position + 1] & 0xff;
+            position += 2 + topicLength;
+            // grant the requested QoS
+            out.write(body[position] & 0x03);
+            position++;
+        }
+    }
+
+    private static int readRemainingLength(final DataInputStream in) throws IOException {
+        int result = 0;
+        int multiplier = 1;
+
+        for (int i = 0; i < 4; i++) {
+            final int b = in.read();
+
+            if (b < 0) {
+                throw new EOFException();
+            }
+
+            result += (b & 0x7f) * multiplier;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+
+            multiplier *= 128;
+        }
+
+        throw new IOException("malformed remaining length");
+    }
+
+    private static void writeRemainingLength(final OutputStream out, final int length) throws IOException {
+        int remaining = length;
+
+        do {
+            int b = remaining % 128;
+            remaining /= 128;
+
+            if (remaining > 0) {
+                b |= 0x80;
+            }
+
+            out.write(b);
+        } while (remaining > 0);
+    }
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.store;
+
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link MessageStore} operations used by the DataService publishing loop, directly against the
+ * message store providers.
+ * <br>
+ * Each operation changes the store content, so that the benchmarks run a fixed number of operations per iteration
+ * ({@value #OPERATIONS_PER_ITERATION}) against a freshly created provider prepared by the iteration setup. The score
+ * is the time required to complete all the operations of an iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = MessageStoreBenchmark.OPERATIONS_PER_ITERATION)
+@Measurement(iterations = 10, batchSize = MessageStoreBenchmark.OPERATIONS_PER_ITERATION)
+@Fork(1)
+public class MessageStoreBenchmark {
+
+    static final int OPERATIONS_PER_ITERATION = 1000;
+
+    private static final String STORE_NAME = "benchmark";
+    private static final String TOPIC = "$EDC/account/client-id/app/metrics";
+    private static final int QOS = 1;
+    private static final int PRIORITY = 5;
+
+    @State(Scope.Benchmark)
+    public abstract static class StoreState {
+
+        @Param({ "H2_MEMORY", "H2_FILE", "SQLITE_MEMORY", "SQLITE_FILE", "JOURNAL" })
+        public StoreType store;
+
+        @Param({ "100", "1024", "10240", "102400" })
+        public int payloadSize;
+
+        byte[] payload;
+        StoreFixture fixture;
+        MessageStore messageStore;
+
+        @Setup(Level.Iteration)
+        public void setup() throws Exception {
+            this.payload = new byte[this.payloadSize];
+            new Random(this.payloadSize).nextBytes(this.payload);
+
+            this.fixture = this.store.create(Files.createTempDirectory("kura-benchmark-"));
+            this.messageStore = this.fixture.openMessageStore(STORE_NAME);
+
+            prepare();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            this.messageStore.close();
+            this.fixture.close();
+        }
+
+        abstract void prepare() throws KuraStoreException;
+
+        int storeMessage() throws KuraStoreException {
+            return this.messageStore.store(TOPIC, this.payload, QOS, false, PRIORITY);
+        }
+    }
+
+    /**
+     * An empty message store.
+     */
+    public static class EmptyStore extends StoreState {
+
+        @Override
+        void prepare() {
+            // nothing to do
+        }
+    }
+
+    /**
+     * A message store containing {@value #OPERATIONS_PER_ITERATION} unpublished messages.
+     */
+    public static class UnpublishedMessages extends StoreState {
+
+        int mqttMessageId;
+
+        @Override
+        void prepare() throws KuraStoreException {
+            for (int i = 0; i < OPERATIONS_PER_ITERATION; i++) {
+                storeMessage();
+            }
+        }
+    }
+
+    /**
+     * A message store containing {@value #OPERATIONS_PER_ITERATION} in-flight messages.
+     */
+    public static class InFlightMessages extends StoreState {
+
+        int[] ids;
+        int next;
+
+        @Override
+        void prepare() throws KuraStoreException {
+            this.ids = new int[OPERATIONS_PER_ITERATION];
+            this.next = 0;
+
+            for (int i = 0; i < OPERATIONS_PER_ITERATION; i++) {
+                this.ids[i] = storeMessage();
+                this.messageStore.markAsPublished(this.ids[i], new DataTransportToken(i, "session"));
+            }
+        }
+    }
+
+    @Benchmark
+    public int store(final EmptyStore state) throws KuraStoreException {
+        return state.storeMessage();
+    }
+
+    @Benchmark
+    public Optional<StoredMessage> getNextMessageAndMarkAsPublished(final UnpublishedMessages state)
+            throws KuraStoreException {
+        final Optional<StoredMessage> next = state.messageStore.getNextMessage();
+
+        if (next.isPresent()) {
+            state.messageStore.markAsPublished(next.get().getId(),
+                    new DataTransportToken(state.mqttMessageId++, "session"));
+        }
+
+        return next;
+    }
+
+    @Benchmark
+    public void markAsConfirmed(final InFlightMessages state) throws KuraStoreException {
+        state.messageStore.markAsConfirmed(state.ids[state.next++]);
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.eclipse.kura.message.store.provider.MessageStoreProvider;
+
+/**
+ * An activated {@link MessageStoreProvider} instance. Closing the fixture deactivates the provider and deletes its
+ * data directory.
+ */
+public final class StoreFixture implements AutoCloseable {
+
+    private static final long READY_TIMEOUT_MS = 30000;
+
+    private final String pid;
+    private final MessageStoreProvider provider;
+    private final Runnable deactivate;
+    private final Path directory;
+
+    StoreFixture(final String pid, final MessageStoreProvider provider, final Runnable deactivate,
+            final Path directory) {
+        this.pid = pid;
+        this.provider = provider;
+        this.deactivate = deactivate;
+        this.directory = directory;
+    }
+
+    public String getPid() {
+        return this.pid;
+    }
+
+    public MessageStoreProvider getProvider() {
+        return this.provider;
+    }
+
+    /**
+     * Opens a message store, waiting for the provider to complete its initialization. Database providers
+     * initialize the connection pool asynchronously after activation.
+     */
+    public MessageStore openMessageStore(final String name) throws KuraStoreException, InterruptedException {
+        final long deadline = System.currentTimeMillis() + READY_TIMEOUT_MS;
+
+        while (true) {
+            try {
+                return this.provider.openMessageStore(name);
+            } catch (final KuraStoreException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.deactivate.run();
+
+        if (!Files.exists(this.directory)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(this.directory)) {
+            for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
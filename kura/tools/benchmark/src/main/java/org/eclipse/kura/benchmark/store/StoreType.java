@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.store;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.kura.benchmark.util.Stubs;
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.eclipse.kura.internal.db.h2db.provider.H2DbServiceImpl;
+import org.eclipse.kura.internal.db.sqlite.provider.SqliteDbServiceImpl;
+import org.eclipse.kura.internal.db.sqlite.provider.SqliteDebugShell;
+import org.eclipse.kura.internal.message.store.journal.JournalMessageStoreProviderImpl;
+
+/**
+ * The message store provider configurations covered by the benchmarks.
+ */
+public enum StoreType {
+
+    H2_MEMORY {
+
+        @Override
+        public StoreFixture create(final Path directory) {
+            return h2("jdbc:h2:mem:benchmark-" + UUID.randomUUID(), directory);
+        }
+    },
+    H2_FILE {
+
+        @Override
+        public StoreFixture create(final Path directory) {
+            return h2("jdbc:h2:file:" + directory.resolve("kuradb"), directory);
+        }
+    },
+    SQLITE_MEMORY {
+
+        @Override
+        public StoreFixture create(final Path directory) {
+            final Map<String, Object> properties = new HashMap<>();
+            properties.put("db.mode", "IN_MEMORY");
+
+            return sqlite(properties, directory);
+        }
+    },
+    SQLITE_FILE {
+
+        @Override
+        public StoreFixture create(final Path directory) {
+            final Map<String, Object> properties = new HashMap<>();
+            properties.put("db.mode", "PERSISTED");
+            properties.put("db.path", directory.resolve("kuradb.sqlite").toString());
+            properties.put("db.journal.mode", "WAL");
+
+            return sqlite(properties, directory);
+        }
+    },
+    JOURNAL {
+
+        @Override
+        public StoreFixture create(final Path directory) {
+            final String pid = newPid();
+            final Map<String, Object> properties = new HashMap<>();
+            properties.put(ConfigurationService.KURA_SERVICE_PID, pid);
+            properties.put("store.directory", directory.toString());
+
+            final JournalMessageStoreProviderImpl provider = new JournalMessageStoreProviderImpl();
+            provider.activate(properties);
+
+            return new StoreFixture(pid, provider, provider::deactivate, directory);
+        }
+    };
+
+    /**
+     * Creates and activates a new provider instance that keeps its data, if any, in the given directory.
+     */
+    public abstract StoreFixture create(final Path directory);
+
+    private static StoreFixture h2(final String url, final Path directory) {
+        final String pid = newPid();
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(ConfigurationService.KURA_SERVICE_PID, pid);
+        properties.put("db.connector.url", url);
+
+        final H2DbServiceImpl provider = new H2DbServiceImpl();
+        provider.setCryptoService(Stubs.cryptoService());
+        provider.activate(properties);
+
+        return new StoreFixture(pid, provider, provider::deactivate, directory);
+    }
+
+    private static StoreFixture sqlite(final Map<String, Object> properties, final Path directory) {
+        final String pid = newPid();
+        properties.put(ConfigurationService.KURA_SERVICE_PID, pid);
+
+        final SqliteDbServiceImpl provider = new SqliteDbServiceImpl();
+        provider.setCryptoService(Stubs.cryptoService());
+        provider.setDebugShell(new SqliteDebugShell());
+        provider.activate(properties);
+
+        return new StoreFixture(pid, provider, provider::deactivate, directory);
+    }
+
+    private static String newPid() {
+        return "benchmark-" + UUID.randomUUID();
+    }
+}
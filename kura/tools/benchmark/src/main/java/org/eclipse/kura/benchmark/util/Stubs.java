@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.benchmark.util;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+
+import org.eclipse.kura.crypto.CryptoService;
+import org.eclipse.kura.status.CloudConnectionStatusService;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
+
+/**
+ * Minimal implementations of the services and OSGi contexts required to run Kura components outside of a framework.
+ * Methods without an explicit behavior do nothing and return the default value of their return type.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> T stub(final Class<T> type) {
+        return stub(type, (method, args) -> null);
+    }
+
+    /**
+     * Creates a stub of the given interface.
+     *
+     * @param behavior
+     *            invoked for each method call, if it returns null the default value of the method return type is
+     *            returned.
+     */
+    public static <T> T stub(final Class<T> type, final BiFunction<Method, Object[], Object> behavior) {
+        final Object result = Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invokeObjectMethod(proxy, method, args);
+                    }
+
+                    final Object value = behavior.apply(method, args);
+
+                    return value != null ? value : defaultValue(method.getReturnType());
+                });
+
+        return type.cast(result);
+    }
+
+    public static ComponentContext componentContext() {
+        final BundleContext bundleContext = stub(BundleContext.class);
+
+        return stub(ComponentContext.class,
+                (method, args) -> "getBundleContext".equals(method.getName()) ? bundleContext : null);
+    }
+
+    /**
+     * Returns a {@link CryptoService} that considers every value as not encrypted.
+     */
+    public static CryptoService cryptoService() {
+        return stub(CryptoService.class, (method, args) -> {
+            final String name = method.getName();
+
+            if (("decryptAes".equals(name) || "encryptAes".equals(name)) && args.length == 1) {
+                return args[0];
+            }
+
+            return null;
+        });
+    }
+
+    public static CloudConnectionStatusService cloudConnectionStatusService() {
+        return stub(CloudConnectionStatusService.class);
+    }
+
+    private static Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        default:
+            return proxy.getClass().getName();
+        }
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else {
+            return 0;
+        }
+    }
+}